@@ -0,0 +1,78 @@
+package com.cardinal;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A 100k line batch, priced one checkout at a time against the batch entry point.  Some of the lines are bad, the
+ * way a real quote file is.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchCheckoutBenchmark {
+
+    private static final String[] TOOL_CODES = {"LADW", "CHNS", "JAKR", "JAKD", "LHKD"};
+
+    @Param({"100000"})
+    public int lines;
+
+    // percent of lines with a bad discount or an unknown tool
+    @Param({"0", "10"})
+    public int badLinePercent;
+
+    private final Cashier cashier = new Cashier();
+    private List<CheckoutRequest> requests;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate firstCheckout = LocalDate.of(2015, 1, 1);
+        requests = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            boolean bad = random.nextInt(100) < badLinePercent;
+            String toolCode = TOOL_CODES[random.nextInt(bad ? TOOL_CODES.length : TOOL_CODES.length - 1)];
+            int discount = bad && toolCode.equals("JAKD") ? 101 : random.nextInt(50);
+            requests.add(new CheckoutRequest(toolCode, 1 + random.nextInt(30), discount,
+                    firstCheckout.plusDays(random.nextInt(365))));
+        }
+    }
+
+    @Benchmark
+    public List<Object> checkoutOneAtATime() {
+        // keep every agreement or error message, as a caller building the batch response would
+        List<Object> results = new ArrayList<>(requests.size());
+        for (CheckoutRequest request : requests) {
+            try {
+                results.add(cashier.checkout(request.getToolCode(), request.getRentalDays(),
+                        request.getDiscountAsPercent(), request.getCheckoutDate()));
+            } catch (IllegalArgumentException e) {
+                results.add(e.getMessage());
+            }
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<CheckoutResult> checkoutAll() {
+        return cashier.checkoutAll(requests);
+    }
+}
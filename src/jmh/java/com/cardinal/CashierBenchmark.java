@@ -0,0 +1,50 @@
+package com.cardinal;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End to end cost of a single checkout, validation through to the money math.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CashierBenchmark {
+
+    @Param({"LADW", "CHNS", "JAKR"})
+    public String toolCode;
+
+    @Param({"5", "30"})
+    public int rentalDays;
+
+    @Param({"BIG_DECIMAL", "LONG_CENTS"})
+    public String pricingMode;
+
+    private Cashier cashier;
+    private final LocalDate checkoutDate = LocalDate.of(2015, 7, 2);
+
+    @Setup
+    public void setUp() {
+        cashier = new Cashier(new ToolCatalogDto(), PricingMode.valueOf(pricingMode));
+    }
+
+    @Benchmark
+    public RentalAgreement checkout() {
+        return cashier.checkout(toolCode, rentalDays, 10, checkoutDate);
+    }
+}
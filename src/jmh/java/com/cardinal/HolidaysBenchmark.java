@@ -0,0 +1,58 @@
+package com.cardinal;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Resolving the observed holidays for a year, against asking the shared calendar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HolidaysBenchmark {
+
+    // 2010 observes July 4th on a Monday, 2015 on a Friday, 2018 on the day itself
+    @Param({"2010", "2015", "2018"})
+    public int year;
+
+    private final HolidayCalendar holidayCalendar = HolidayCalendar.defaultCalendar();
+    private LocalDate independenceDay;
+    private LocalDate yearEnd;
+
+    @Setup
+    public void setUp() {
+        independenceDay = LocalDate.of(year, 7, 4);
+        yearEnd = LocalDate.of(year, 12, 31);
+    }
+
+    @Benchmark
+    public List<LocalDate> resolveHolidays() {
+        return Holidays.resolveHolidays(year);
+    }
+
+    @Benchmark
+    public boolean isHoliday() {
+        return holidayCalendar.isHoliday(independenceDay);
+    }
+
+    @Benchmark
+    public long countHolidaysOverTenYears() {
+        return holidayCalendar.countHolidaysBetween(independenceDay, yearEnd.plusYears(10));
+    }
+}
@@ -0,0 +1,71 @@
+package com.cardinal;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * How a 100k line batch scales with the number of pricing threads.  Runs past the number of cores on the box are
+ * expected to flatten out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelCheckoutBenchmark {
+
+    private static final String[] TOOL_CODES = {"LADW", "CHNS", "JAKR", "JAKD"};
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    @Param({"100000"})
+    public int lines;
+
+    private final Cashier cashier = new Cashier();
+    private ExecutorService pool;
+    private ParallelCheckout parallelCheckout;
+    private List<CheckoutRequest> requests;
+
+    @Setup
+    public void setUp() {
+        pool = ParallelCheckout.dedicatedPool(threads);
+        parallelCheckout = new ParallelCheckout(cashier, pool, ParallelCheckout.DEFAULT_CHUNK_SIZE, 4 * threads);
+
+        Random random = new Random(42);
+        LocalDate firstCheckout = LocalDate.of(2015, 1, 1);
+        requests = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            requests.add(new CheckoutRequest(TOOL_CODES[random.nextInt(TOOL_CODES.length)], 1 + random.nextInt(365),
+                    random.nextInt(50), firstCheckout.plusDays(random.nextInt(365))));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<CheckoutResult> checkoutAll() {
+        return parallelCheckout.checkoutAll(requests);
+    }
+}
@@ -0,0 +1,63 @@
+package com.cardinal;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * What a rejected checkout costs when it throws, against reporting it with {@link Cashier#tryCheckout}.  A valid
+ * checkout is included for scale.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RejectedCheckoutBenchmark {
+
+    private final Cashier cashier = new Cashier();
+    private final LocalDate checkoutDate = LocalDate.of(2015, 7, 2);
+
+    @Benchmark
+    public Object checkout_valid() {
+        return cashier.checkout("JAKR", 5, 10, checkoutDate);
+    }
+
+    @Benchmark
+    public Object checkout_unknownTool() {
+        try {
+            return cashier.checkout("LHKD", 5, 10, checkoutDate);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object tryCheckout_unknownTool() {
+        return cashier.tryCheckout("LHKD", 5, 10, checkoutDate);
+    }
+
+    @Benchmark
+    public Object checkout_invalidDiscount() {
+        try {
+            return cashier.checkout("JAKR", 5, 101, checkoutDate);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object tryCheckout_invalidDiscount() {
+        return cashier.tryCheckout("JAKR", 5, 101, checkoutDate);
+    }
+}
@@ -0,0 +1,40 @@
+package com.cardinal;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Tool lookups by code, for a code in the catalog and one that isn't.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToolCatalogBenchmark {
+
+    private final ToolCatalogDto toolCatalogDto = new ToolCatalogDto();
+    private final String knownCode = "JAKD";
+    private final String unknownCode = "LHKD";
+
+    @Benchmark
+    public Optional<Tool> fetchToolByCodeHit() {
+        return toolCatalogDto.fetchToolByCode(knownCode);
+    }
+
+    @Benchmark
+    public Optional<Tool> fetchToolByCodeMiss() {
+        return toolCatalogDto.fetchToolByCode(unknownCode);
+    }
+}
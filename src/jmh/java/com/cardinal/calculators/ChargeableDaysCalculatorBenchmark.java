@@ -0,0 +1,96 @@
+package com.cardinal.calculators;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cardinal.HolidayCalendar;
+import com.cardinal.Holidays;
+import com.cardinal.RentalAgreement;
+import com.cardinal.Tool;
+import com.cardinal.ToolType;
+
+/**
+ * Every chargeable days calculator, across rental lengths and tool types.  Each tool type takes a different path
+ * through the calculators, LADDER charges every day while JACKHAMMER checks both weekends and holidays.  The table
+ * covers 2000 through 2039 and up to 60 days, longer rentals show what its fall back costs.  Its size and build time
+ * are printed at setup.
+ * <p>
+ * The loop is cheapest for the shortest rentals, about 20ns for a one day JACKHAMMER rental against 45ns for the
+ * arithmetic, but grows to over 200ns by 30 days while the arithmetic stays flat.  They cross at about four to
+ * six days here, which is where the adaptive calculator switches from one to the other.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChargeableDaysCalculatorBenchmark {
+
+    @Param({"readable", "performance", "loop", "arithmetic", "adaptive", "table"})
+    public String calculator;
+
+    @Param({"1", "7", "30", "365", "3650"})
+    public int rentalDays;
+
+    @Param({"LADDER", "CHAINSAW", "JACKHAMMER"})
+    public String toolType;
+
+    private Function<RentalAgreement, Long> chargeableDaysCalculator;
+    private RentalAgreement agreement;
+
+    @Setup
+    @SuppressWarnings("deprecation")
+    public void setUp() {
+        switch (calculator) {
+        case "readable":
+            chargeableDaysCalculator = new ReadableChargeableDaysCalculator();
+            break;
+        case "performance":
+            chargeableDaysCalculator = new PerformanceChargeableDaysCalculator();
+            break;
+        case "loop":
+            chargeableDaysCalculator = new LoopChargeableDaysCalculator();
+            break;
+        case "arithmetic":
+            chargeableDaysCalculator = new ArithmeticChargeableDaysCalculator();
+            break;
+        case "adaptive":
+            chargeableDaysCalculator = new AdaptiveChargeableDaysCalculator(HolidayCalendar.defaultCalendar(),
+                    Holidays.WEEKEND_DAYS);
+            break;
+        case "table":
+            TableChargeableDaysCalculator table = new TableChargeableDaysCalculator(
+                    HolidayCalendar.defaultCalendar(), Holidays.WEEKEND_DAYS, 2000, 2039).precompute();
+            System.out.printf("%ntables: %,d bytes built in %.1f ms%n", table.getTableBytes(),
+                    table.getBuildNanos() / 1e6);
+            chargeableDaysCalculator = table;
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown calculator: " + calculator);
+        }
+
+        // crosses July 4th and Labor Day for the longer rentals
+        LocalDate checkoutDate = LocalDate.of(2015, 7, 2);
+        agreement = new RentalAgreement(new Tool("BNCH", "Bench", ToolType.valueOf(toolType)), rentalDays,
+                checkoutDate, 0);
+    }
+
+    @Benchmark
+    public Long chargeableDays() {
+        return chargeableDaysCalculator.apply(agreement);
+    }
+}
@@ -0,0 +1,98 @@
+package com.cardinal.catalog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cardinal.IndexedToolCatalog;
+import com.cardinal.Tool;
+import com.cardinal.ToolType;
+
+/**
+ * Startup cost of a large catalog, loading CSV into the heap against mapping the binary file.  The gc profiler's
+ * alloc.rate.norm shows the heap each load costs, for the mapped catalog that is only the brand and type names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToolCatalogLoadBenchmark {
+
+    private static final String[] BRANDS = {"Werner", "Stihl", "Ridgid", "DeWalt", "Makita", "Bosch", "Hilti"};
+
+    @Param({"100000", "500000"})
+    public int toolCount;
+
+    private Path directory;
+    private Path csvFile;
+    private Path catalogFile;
+    private IndexedToolCatalog csvCatalog;
+    private MappedToolCatalog mappedCatalog;
+    private String knownCode;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Tool> tools = new ArrayList<>(toolCount);
+        for (int i = 0; i < toolCount; i++) {
+            tools.add(new Tool(String.format("T%07d", i), BRANDS[i % BRANDS.length], ToolType.values()[i % 3]));
+        }
+        knownCode = tools.get(toolCount / 2).getToolCode();
+
+        directory = Files.createTempDirectory("tool-catalog");
+        csvFile = directory.resolve("catalog.csv");
+        catalogFile = directory.resolve("catalog.bin");
+        ToolCatalogCsv.write(csvFile, tools);
+        ToolCatalogFile.write(catalogFile, tools);
+
+        csvCatalog = ToolCatalogCsv.read(csvFile);
+        mappedCatalog = MappedToolCatalog.open(catalogFile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csvFile);
+        Files.deleteIfExists(catalogFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public IndexedToolCatalog loadCsv() throws IOException {
+        return ToolCatalogCsv.read(csvFile);
+    }
+
+    @Benchmark
+    public MappedToolCatalog loadMapped() throws IOException {
+        return MappedToolCatalog.open(catalogFile);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Optional<Tool> lookupCsvLoaded() {
+        return csvCatalog.findByCode(knownCode);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Optional<Tool> lookupMapped() {
+        return mappedCatalog.findByCode(knownCode);
+    }
+}
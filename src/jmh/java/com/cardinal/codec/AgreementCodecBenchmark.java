@@ -0,0 +1,218 @@
+package com.cardinal.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.cardinal.Cashier;
+import com.cardinal.RentalAgreement;
+import com.cardinal.Tool;
+import com.cardinal.ToolType;
+import com.cardinal.ToolTypeRegistry;
+
+/**
+ * Agreements per microsecond encoded and decoded, in batches of {@value #BATCH} as one stream or message, by
+ * {@link AgreementCodec}, by {@link AgreementJson}, and by Java serialization.  Nothing in the model is
+ * {@link Serializable}, so that side serializes a mirror of the agreement holding the same fields, with each tool
+ * shared so serialization's own back references get the same chance to intern it.  Setup prints the bytes per
+ * agreement for each.
+ * <p>
+ * Here an agreement is 11 bytes, against 44 serialized and 252 as JSON.  The codec encodes and decodes about 25 a
+ * microsecond, around 6x serialization and 40x JSON on the way out and 90x on the way back in.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AgreementCodecBenchmark {
+
+    private static final int BATCH = 1024;
+
+    private final RentalAgreement[] agreements = new RentalAgreement[BATCH];
+    private final SerializableAgreement[] mirrors = new SerializableAgreement[BATCH];
+    private final ToolTypeRegistry toolTypes = ToolTypeRegistry.defaultRegistry();
+
+    private final AgreementCodec.Encoder encoder = new AgreementCodec.Encoder();
+    private final AgreementCodec.Decoder decoder = new AgreementCodec.Decoder();
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * BATCH);
+    private final StringBuilder json = new StringBuilder(512 * BATCH);
+    private final ByteArrayOutputStream serialized = new ByteArrayOutputStream(512 * BATCH);
+
+    private ByteBuffer binaryBatch;
+    private String[] jsonBatch;
+    private byte[] serializedBatch;
+
+    @Setup
+    public void setUp() throws IOException {
+        Cashier cashier = new Cashier();
+        String[] toolCodes = {"LADW", "CHNS", "JAKR", "JAKD"};
+        Map<Tool, SerializableTool> tools = new HashMap<>();
+        for (int i = 0; i < BATCH; i++) {
+            agreements[i] = cashier.checkout(toolCodes[i % toolCodes.length], 1 + i % 30, i % 101,
+                    LocalDate.of(2015, 1, 1).plusDays(i));
+            mirrors[i] = new SerializableAgreement(agreements[i],
+                    tools.computeIfAbsent(agreements[i].getRentedTool(), SerializableTool::new));
+        }
+
+        encodeBinary();
+        binaryBatch = ByteBuffer.wrap(Arrays.copyOf(buffer.array(), buffer.position()));
+        jsonBatch = new String[BATCH];
+        int jsonBytes = 0;
+        for (int i = 0; i < BATCH; i++) {
+            jsonBatch[i] = AgreementJson.append(new StringBuilder(), agreements[i]).toString();
+            jsonBytes += jsonBatch[i].getBytes(StandardCharsets.UTF_8).length;
+        }
+        serializedBatch = serialize().toByteArray();
+
+        System.out.printf("%nbytes per agreement: binary %.1f, json %.1f, java serialization %.1f%n",
+                binaryBatch.limit() / (double) BATCH, jsonBytes / (double) BATCH,
+                serializedBatch.length / (double) BATCH);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public ByteBuffer encodeBinary() {
+        encoder.reset();
+        buffer.clear();
+        for (RentalAgreement agreement : agreements) {
+            encoder.encode(agreement, buffer);
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void decodeBinary(Blackhole blackhole) {
+        decoder.reset();
+        ByteBuffer batch = binaryBatch.duplicate();
+        while (batch.hasRemaining()) {
+            blackhole.consume(decoder.decode(batch));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void encodeJson(Blackhole blackhole) {
+        for (RentalAgreement agreement : agreements) {
+            json.setLength(0);
+            blackhole.consume(AgreementJson.append(json, agreement).toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void decodeJson(Blackhole blackhole) {
+        for (String agreement : jsonBatch) {
+            blackhole.consume(AgreementJson.read(agreement, toolTypes));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public ByteArrayOutputStream encodeJavaSerialization() throws IOException {
+        return serialize();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void decodeJavaSerialization(Blackhole blackhole) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serializedBatch))) {
+            for (int i = 0; i < BATCH; i++) {
+                blackhole.consume(((SerializableAgreement) in.readObject()).toAgreement());
+            }
+        }
+    }
+
+    private ByteArrayOutputStream serialize() throws IOException {
+        serialized.reset();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+            for (SerializableAgreement mirror : mirrors) {
+                out.writeObject(mirror);
+            }
+        }
+        return serialized;
+    }
+
+    private static final class SerializableTool implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String toolCode;
+        private final String brand;
+        private final String toolTypeName;
+        private final long dailyChargeCents;
+        private final boolean noChargeOnWeekends;
+        private final boolean noChargeOnHolidays;
+        // built once per tool read back, as the binary decoder does
+        private transient Tool tool;
+
+        private SerializableTool(Tool tool) {
+            this.toolCode = tool.getToolCode();
+            this.brand = tool.getBrand();
+            this.toolTypeName = tool.getToolType().name();
+            this.dailyChargeCents = tool.getToolType().getDailyChargeCents();
+            this.noChargeOnWeekends = tool.getToolType().noChargeOnWeekends();
+            this.noChargeOnHolidays = tool.getToolType().noChargeOnHolidays();
+        }
+
+        private Tool toTool() {
+            if (tool == null) {
+                tool = new Tool(toolCode, brand, new ToolType(toolTypeName, BigDecimal.valueOf(dailyChargeCents, 2),
+                        noChargeOnWeekends, noChargeOnHolidays));
+            }
+            return tool;
+        }
+    }
+
+    private static final class SerializableAgreement implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final SerializableTool tool;
+        private final int rentalDays;
+        private final int checkoutEpochDay;
+        private final int discountAsPercent;
+        private final int chargeableDays;
+        private final long totalDueBeforeDiscountCents;
+        private final long totalDiscountAmountCents;
+
+        private SerializableAgreement(RentalAgreement agreement, SerializableTool tool) {
+            this.tool = tool;
+            this.rentalDays = agreement.getRentalDays();
+            this.checkoutEpochDay = agreement.getCheckoutEpochDay();
+            this.discountAsPercent = agreement.getDiscountAsPercent();
+            this.chargeableDays = agreement.getChargeableDayCount();
+            this.totalDueBeforeDiscountCents = agreement.getTotalDueBeforeDiscountCents();
+            this.totalDiscountAmountCents = agreement.getTotalDiscountAmountCents();
+        }
+
+        private RentalAgreement toAgreement() {
+            return new RentalAgreement(tool.toTool(), rentalDays, checkoutEpochDay, discountAsPercent,
+                    chargeableDays, totalDueBeforeDiscountCents, totalDiscountAmountCents);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.cardinal.inventory;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Availability queries over a store's reservations, years of rentals of a few days on every unit of its jackhammers.
+ * See {@link InventoryBenchmark} for reserving and releasing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class InventoryAvailabilityBenchmark {
+
+    private static final int TOOLS = 1000;
+    private static final int UNITS_PER_TOOL = 4;
+    private static final long FIRST_DAY = LocalDate.of(2000, 1, 1).toEpochDay();
+
+    @Param({"100000", "1000000"})
+    public int reservations;
+
+    private String[] toolCodes;
+    private int days;
+    private Inventory inventory;
+
+    @Setup
+    public void setUp() {
+        toolCodes = new String[TOOLS];
+        inventory = new Inventory();
+        for (int i = 0; i < TOOLS; i++) {
+            toolCodes[i] = String.format("J%03d", i);
+            inventory.addUnits(toolCodes[i], UNITS_PER_TOOL);
+        }
+
+        // rentals of about a week with a gap of a few days between them, on every unit
+        int perUnit = reservations / (TOOLS * UNITS_PER_TOOL);
+        days = perUnit * 7;
+        Random random = new Random(42);
+        for (String toolCode : toolCodes) {
+            for (int unit = 0; unit < UNITS_PER_TOOL; unit++) {
+                long first = FIRST_DAY + random.nextInt(3);
+                for (int i = 0; i < perUnit; i++) {
+                    long last = first + random.nextInt(5);
+                    // whichever unit is free takes it, the odd one that fits on none is dropped
+                    inventory.reserve(toolCode, first, last);
+                    first = last + 1 + random.nextInt(3);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean isAvailable() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long from = FIRST_DAY + random.nextInt(days);
+        return inventory.isAvailable(toolCodes[random.nextInt(TOOLS)], from, from + 6);
+    }
+
+    @Benchmark
+    public List<Reservation> findOverlapping() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long from = FIRST_DAY + random.nextInt(days);
+        return inventory.findOverlapping(toolCodes[random.nextInt(TOOLS)], from, from + 6);
+    }
+
+    @Benchmark
+    public OptionalLong findNextAvailable() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return inventory.findNextAvailable(toolCodes[random.nextInt(TOOLS)], FIRST_DAY + random.nextInt(days), 3);
+    }
+}
@@ -0,0 +1,118 @@
+package com.cardinal.inventory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Many registers reserving and returning the same few tools at once, against the same schedule kept behind one global
+ * lock.  Vary the registers with {@code -t}, e.g. {@code -t 1} against {@code -t 8}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class InventoryBenchmark {
+
+    private static final String[] TOOL_CODES = {"LADW", "CHNS", "JAKR", "JAKD"};
+    private static final int DAYS = 365;
+
+    @Param({"4", "64"})
+    public int unitsPerTool;
+
+    private Inventory inventory;
+    private GlobalLockInventory globalLockInventory;
+
+    @Setup
+    public void setUp() {
+        inventory = new Inventory();
+        globalLockInventory = new GlobalLockInventory();
+        for (String toolCode : TOOL_CODES) {
+            inventory.addUnits(toolCode, unitsPerTool);
+            globalLockInventory.addUnits(toolCode, unitsPerTool);
+        }
+    }
+
+    @Benchmark
+    public boolean reserveAndRelease() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long first = random.nextInt(DAYS);
+        Optional<Reservation> reservation =
+                inventory.reserve(TOOL_CODES[random.nextInt(TOOL_CODES.length)], first, first + random.nextInt(7));
+        return reservation.isPresent() && inventory.release(reservation.get());
+    }
+
+    @Benchmark
+    public boolean reserveAndRelease_globalLock() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long first = random.nextInt(DAYS);
+        String toolCode = TOOL_CODES[random.nextInt(TOOL_CODES.length)];
+        long[] reservation = globalLockInventory.reserve(toolCode, first, first + random.nextInt(7));
+        return reservation != null && globalLockInventory.release(toolCode, reservation);
+    }
+
+    @Benchmark
+    public int countAvailableUnits() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long first = random.nextInt(DAYS);
+        return inventory.countAvailableUnits(TOOL_CODES[random.nextInt(TOOL_CODES.length)], first, first + 6);
+    }
+
+    /**
+     * The straightforward version, every tool and every unit behind one lock.
+     */
+    private static final class GlobalLockInventory {
+        private final Map<String, List<List<long[]>>> units = new HashMap<>();
+
+        synchronized void addUnits(String toolCode, int count) {
+            List<List<long[]>> schedules = units.computeIfAbsent(toolCode, code -> new ArrayList<>());
+            for (int i = 0; i < count; i++) {
+                schedules.add(new ArrayList<>());
+            }
+        }
+
+        synchronized long[] reserve(String toolCode, long first, long last) {
+            List<List<long[]>> schedules = units.get(toolCode);
+            for (int unit = 0; unit < schedules.size(); unit++) {
+                List<long[]> schedule = schedules.get(unit);
+                boolean free = true;
+                for (long[] held : schedule) {
+                    if (held[0] <= last && first <= held[1]) {
+                        free = false;
+                        break;
+                    }
+                }
+                if (free) {
+                    long[] reservation = {first, last, unit};
+                    schedule.add(reservation);
+                    return reservation;
+                }
+            }
+            return null;
+        }
+
+        synchronized boolean release(String toolCode, long[] reservation) {
+            return units.get(toolCode).get((int) reservation[2]).remove(reservation);
+        }
+    }
+}
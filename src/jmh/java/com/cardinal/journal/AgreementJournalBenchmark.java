@@ -0,0 +1,73 @@
+package com.cardinal.journal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cardinal.Cashier;
+import com.cardinal.RentalAgreement;
+
+/**
+ * Records per second appended by 8 registers at each durability.  Forcing is only as fast as the disk under the
+ * temp directory, so compare the modes to each other rather than across machines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class AgreementJournalBenchmark {
+
+    @Param({"PER_RECORD", "BATCHED", "ASYNC"})
+    public Durability durability;
+
+    private final RentalAgreement[] agreements = new RentalAgreement[1024];
+    private Path directory;
+    private AgreementJournal journal;
+
+    @Setup
+    public void setUp() throws IOException {
+        Cashier cashier = new Cashier();
+        String[] toolCodes = {"LADW", "CHNS", "JAKR", "JAKD"};
+        for (int i = 0; i < agreements.length; i++) {
+            agreements[i] = cashier.checkout(toolCodes[i % toolCodes.length], 1 + i % 30, i % 101,
+                    LocalDate.of(2015, 1, 1).plusDays(i));
+        }
+
+        directory = Files.createTempDirectory("agreement-journal");
+        journal = AgreementJournal.open(directory, durability);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.close();
+        for (Path segment : AgreementJournal.listSegments(directory).values()) {
+            Files.delete(segment);
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public void append() throws IOException {
+        journal.append(agreements[ThreadLocalRandom.current().nextInt(agreements.length)]);
+    }
+}
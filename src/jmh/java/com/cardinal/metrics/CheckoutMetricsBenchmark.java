@@ -0,0 +1,68 @@
+package com.cardinal.metrics;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cardinal.Cashier;
+import com.cardinal.PricingContext;
+import com.cardinal.PricingMode;
+
+/**
+ * What measuring checkouts costs.  Without metrics a checkout should cost what it did before they existed, timing
+ * every checkout pays for six clock reads, and timing one in a hundred should cost little more than counting.  A
+ * snapshot of every built in tool type and a couple of errors shows what a scrape costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckoutMetricsBenchmark {
+
+    private final LocalDate checkoutDate = LocalDate.of(2015, 7, 2);
+    private final Cashier disabled = new Cashier(PricingContext.defaultContext(), PricingMode.LONG_CENTS);
+    private final Cashier timeAll = new Cashier(PricingContext.defaultContext(), PricingMode.LONG_CENTS,
+            new CheckoutMetrics());
+    private final Cashier timeOneInHundred = new Cashier(PricingContext.defaultContext(), PricingMode.LONG_CENTS,
+            new CheckoutMetrics(100));
+
+    @Setup
+    public void setUp() {
+        for (String toolCode : new String[] {"CHNS", "LADW", "JAKD", "JAKR", "NOPE"}) {
+            timeAll.tryCheckout(toolCode, 5, 10, checkoutDate);
+        }
+        timeAll.tryCheckout("JAKR", 5, 101, checkoutDate);
+    }
+
+    @Benchmark
+    public Object disabled() {
+        return disabled.tryCheckout("JAKR", 5, 10, checkoutDate);
+    }
+
+    @Benchmark
+    public Object timeAll() {
+        return timeAll.tryCheckout("JAKR", 5, 10, checkoutDate);
+    }
+
+    @Benchmark
+    public Object timeOneInHundred() {
+        return timeOneInHundred.tryCheckout("JAKR", 5, 10, checkoutDate);
+    }
+
+    @Benchmark
+    public Object snapshot() {
+        return timeAll.getMetrics().snapshot();
+    }
+}
@@ -0,0 +1,85 @@
+package com.cardinal.quotes;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cardinal.Cashier;
+import com.cardinal.PricingContext;
+
+/**
+ * Quotes drawn at random from a fixed set of distinct ones, priced every time against going through
+ * {@link QuoteCache}.  With 1,000 distinct quotes everything fits and every quote is a hit, with 100,000 in a
+ * cache of 16,384 most of them miss.
+ * <p>
+ * Pricing is already cheap, about 100ns, and reading the clock costs about 40ns on the single core virtual machine
+ * this was measured on, so hits only read it now and then.  A hit comes out at about 65ns against 105ns for pricing
+ * (one thread), but when most quotes miss the cache is about 2.4x slower, mostly in the collector copying quotes that
+ * live just long enough to be evicted.  Measure against the store's own catalog and quotes before putting it in
+ * front.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class QuoteCacheBenchmark {
+
+    private static final String[] CODES = {"CHNS", "LADW", "JAKD", "JAKR"};
+    private static final LocalDate FIRST_DATE = LocalDate.of(2015, 1, 1);
+
+    @Param({"1000", "100000"})
+    public int distinctQuotes;
+
+    private final Cashier cashier = new Cashier();
+    private final PricingContext context = PricingContext.defaultContext();
+    private QuoteCache cache;
+    private LocalDate[] dates;
+
+    @Setup
+    public void setUp() {
+        cache = new QuoteCache(cashier, context, 16 * 1024, 10, TimeUnit.MINUTES);
+        dates = new LocalDate[366];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = FIRST_DATE.plusDays(i);
+        }
+    }
+
+    @TearDown
+    public void report() {
+        long hits = cache.getHitCount();
+        long misses = cache.getMissCount();
+        System.out.printf("%nhit rate %.1f%%, %d evictions%n", 100.0 * hits / Math.max(1, hits + misses),
+                cache.getEvictionCount());
+    }
+
+    @Benchmark
+    public Object uncached() {
+        int quote = ThreadLocalRandom.current().nextInt(distinctQuotes);
+        return cashier.quote(context, CODES[quote & 3], 1 + (quote >> 2) % 14, (quote >> 2) / 14 % 4 * 10,
+                dates[quote % dates.length]);
+    }
+
+    @Benchmark
+    public Object cached() {
+        int quote = ThreadLocalRandom.current().nextInt(distinctQuotes);
+        return cache.quote(CODES[quote & 3], 1 + (quote >> 2) % 14, (quote >> 2) / 14 % 4 * 10,
+                dates[quote % dates.length]);
+    }
+}
@@ -0,0 +1,174 @@
+package com.cardinal.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.cardinal.Cashier;
+import com.cardinal.metrics.HistogramSnapshot;
+import com.cardinal.metrics.LatencyHistogram;
+
+/**
+ * Load test for {@link CheckoutServer} over localhost, run with {@code gradle loadTest}.  Each client holds one
+ * keep-alive connection and sends single checkouts as fast as it's answered, {@code depth} at a time when pipelining.
+ * The number of clients doubles each round, and each round reports throughput and p50, p99 and p99.9 latency, measured
+ * from sending a request to reading its response.
+ * <p>
+ * Arguments, all optional: seconds per round (5), the most clients (64), pipeline depth (1).  The clients share the
+ * machine with the server, so on a small box the numbers say as much about the clients as the server.
+ */
+public final class CheckoutServerLoadTest {
+
+    private static final String[] CODES = {"CHNS", "LADW", "JAKD", "JAKR"};
+
+    private CheckoutServerLoadTest() {
+        // utility class, don't allow it to be built on accident
+    }
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int maxClients = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        try (CheckoutServer server = CheckoutServer.start(new Cashier(), 0)) {
+            System.out.printf("warming up against %s%n", server.getAddress());
+            round(server.getAddress(), 4, depth, Math.max(2, seconds));
+
+            System.out.printf("%8s %6s %12s %10s %10s %10s %10s%n",
+                    "clients", "depth", "requests/s", "p50 us", "p99 us", "p99.9 us", "max us");
+            for (int clients = 1; clients <= maxClients; clients *= 2) {
+                LatencyHistogram latencies = round(server.getAddress(), clients, depth, seconds);
+                HistogramSnapshot snapshot = latencies.snapshot();
+                System.out.printf("%8d %6d %12.0f %10.1f %10.1f %10.1f %10.1f%n", clients, depth,
+                        snapshot.getCount() / (double) seconds, micros(snapshot.getValueAtPercentile(50)),
+                        micros(snapshot.getValueAtPercentile(99)), micros(snapshot.getValueAtPercentile(99.9)),
+                        micros(snapshot.getMax()));
+            }
+        }
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1000.0;
+    }
+
+    private static LatencyHistogram round(InetSocketAddress address, int clients, int depth, int seconds)
+            throws InterruptedException {
+        LatencyHistogram latencies = new LatencyHistogram();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch done = new CountDownLatch(clients);
+        List<Client> running = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            Client client = new Client(address, depth, deadline, latencies, done, i);
+            running.add(client);
+            new Thread(client, "load-client-" + i).start();
+        }
+        done.await();
+        for (Client client : running) {
+            if (client.failure != null) {
+                throw new IllegalStateException("A client failed", client.failure);
+            }
+        }
+        return latencies;
+    }
+
+    private static final class Client implements Runnable {
+        private final InetSocketAddress address;
+        private final int depth;
+        private final long deadline;
+        private final LatencyHistogram latencies;
+        private final CountDownLatch done;
+        private final byte[][] requests;
+        private final long[] sentAt;
+        private volatile Exception failure;
+
+        private Client(InetSocketAddress address, int depth, long deadline, LatencyHistogram latencies,
+                CountDownLatch done, int number) {
+            this.address = address;
+            this.depth = depth;
+            this.deadline = deadline;
+            this.latencies = latencies;
+            this.done = done;
+            this.sentAt = new long[depth];
+            this.requests = new byte[depth][];
+            for (int i = 0; i < depth; i++) {
+                String json = "{\"toolCode\":\"" + CODES[(number + i) % CODES.length] + "\",\"rentalDays\":"
+                        + (1 + (number + i) % 14) + ",\"discountPercent\":10,\"checkoutDate\":\"2015-07-02\"}";
+                requests[i] = ("POST /checkout HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+                        + "Content-Length: " + json.length() + "\r\n\r\n" + json).getBytes(StandardCharsets.UTF_8);
+            }
+        }
+
+        @Override
+        public void run() {
+            try (Socket socket = new Socket(address.getAddress(), address.getPort())) {
+                socket.setTcpNoDelay(true);
+                OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+                InputStream in = new BufferedInputStream(socket.getInputStream(), 64 * 1024);
+                while (System.nanoTime() < deadline) {
+                    for (int i = 0; i < depth; i++) {
+                        sentAt[i] = System.nanoTime();
+                        out.write(requests[i]);
+                    }
+                    out.flush();
+                    for (int i = 0; i < depth; i++) {
+                        readResponse(in);
+                        latencies.record(System.nanoTime() - sentAt[i]);
+                    }
+                }
+            } catch (Exception e) {
+                failure = e;
+            } finally {
+                done.countDown();
+            }
+        }
+
+        private static void readResponse(InputStream in) throws IOException {
+            int status = 0;
+            int contentLength = 0;
+            StringBuilder line = new StringBuilder();
+            boolean first = true;
+            while (true) {
+                int b = in.read();
+                if (b < 0) {
+                    throw new IOException("Server closed the connection");
+                }
+                if (b != '\n') {
+                    if (b != '\r') {
+                        line.append((char) b);
+                    }
+                    continue;
+                }
+                if (line.length() == 0) {
+                    break;
+                }
+                String header = line.toString();
+                if (first) {
+                    status = Integer.parseInt(header.substring(9, 12));
+                    first = false;
+                } else if (header.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                    contentLength = Integer.parseInt(header.substring(15).trim());
+                }
+                line.setLength(0);
+            }
+            for (long skipped = 0; skipped < contentLength; ) {
+                long n = in.skip(contentLength - skipped);
+                if (n <= 0) {
+                    throw new IOException("Server closed the connection");
+                }
+                skipped += n;
+            }
+            if (status != 200) {
+                throw new IOException("Unexpected status " + status);
+            }
+        }
+    }
+}
@@ -1,20 +1,91 @@
 package com.cardinal;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
-import com.cardinal.calculators.ReadableChargeableDaysCalculator;
+import com.cardinal.calculators.ChargeableDaysCalculator;
+import com.cardinal.inventory.Inventory;
+import com.cardinal.metrics.CheckoutMetrics;
+import com.cardinal.metrics.CheckoutStage;
+import com.cardinal.metrics.CheckoutTimer;
 
 /**
- * Cashier application acts as a register.
+ * Cashier application acts as a register.  Prices against one store's {@link PricingContext}, or against whichever
+ * context is passed in per checkout, so one register can serve many stores.
  */
 public class Cashier {
-    private final ToolCatalogDto availableToolDto;
+    private final PricingContext pricingContext;
+    private final PricingMode pricingMode;
+    // null when checkouts aren't measured
+    private final CheckoutMetrics metrics;
 
     public Cashier() {
-        availableToolDto = new ToolCatalogDto();
+        this(new ToolCatalogDto());
+    }
+
+    /**
+     * Build a cashier against a shared catalog, so registers don't each hold their own copy.
+     *
+     * @param availableToolDto the catalog of tools available to rent
+     */
+    public Cashier(ToolCatalogDto availableToolDto) {
+        this(availableToolDto, PricingMode.LONG_CENTS);
+    }
+
+    /**
+     * @param availableToolDto the catalog of tools available to rent
+     * @param pricingMode      how to do the money math
+     */
+    public Cashier(ToolCatalogDto availableToolDto, PricingMode pricingMode) {
+        this(availableToolDto, ToolTypeRegistry.defaultRegistry(), pricingMode);
+    }
+
+    /**
+     * @param availableToolDto the catalog of tools available to rent
+     * @param toolTypes        the current pricing rule for each tool type
+     * @param pricingMode      how to do the money math
+     */
+    public Cashier(ToolCatalogDto availableToolDto, ToolTypeRegistry toolTypes, PricingMode pricingMode) {
+        this(PricingContext.defaultContext().withCatalog(availableToolDto).withToolTypes(toolTypes), pricingMode);
+    }
+
+    /**
+     * @param pricingContext the store to price for
+     */
+    public Cashier(PricingContext pricingContext) {
+        this(pricingContext, PricingMode.LONG_CENTS);
+    }
+
+    /**
+     * @param pricingContext the store to price for
+     * @param pricingMode    how to do the money math
+     */
+    public Cashier(PricingContext pricingContext, PricingMode pricingMode) {
+        this(pricingContext, pricingMode, null);
+    }
+
+    /**
+     * @param pricingContext the store to price for
+     * @param pricingMode    how to do the money math
+     * @param metrics        where to count and time checkouts, null to not measure them at all
+     */
+    public Cashier(PricingContext pricingContext, PricingMode pricingMode, CheckoutMetrics metrics) {
+        if (pricingContext == null) {
+            throw new IllegalArgumentException("A pricing context must be provided.");
+        }
+        this.pricingContext = pricingContext;
+        this.pricingMode = pricingMode;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return where checkouts are counted and timed, null when they aren't
+     */
+    public CheckoutMetrics getMetrics() {
+        return metrics;
     }
 
     /**
@@ -27,54 +98,457 @@ public class Cashier {
      * @return a fully calculated RentalAgreement
      */
     public RentalAgreement checkout(String toolCode, int rentalDays, int discountAsPercent, LocalDate checkoutDate) {
+        return checkout(pricingContext, toolCode, rentalDays, discountAsPercent, checkoutDate);
+    }
+
+    /**
+     * Checkout at a given store, e.g. one looked up from a {@link StoreDirectory}.
+     *
+     * @param context           the store to price for
+     * @param toolCode          the tool code to checkout
+     * @param rentalDays        the days to rent the tool
+     * @param discountAsPercent the discount as a percentage
+     * @param checkoutDate      the checkout date
+     * @return a fully calculated RentalAgreement
+     */
+    public RentalAgreement checkout(PricingContext context, String toolCode, int rentalDays, int discountAsPercent,
+            LocalDate checkoutDate) {
+        CheckoutResult result = tryCheckout(context, toolCode, rentalDays, discountAsPercent, checkoutDate);
+        if (!result.isSuccess()) {
+            throw new IllegalArgumentException(result.getErrorMessage());
+        }
+        return result.getAgreement();
+    }
+
+    /**
+     * Checkout without throwing.  A rejected checkout comes back as one of the {@link CheckoutError} constants, which
+     * costs no more than a successful one, and the message explaining it is only built if someone asks for it.
+     *
+     * @param toolCode          the tool code to checkout
+     * @param rentalDays        the days to rent the tool
+     * @param discountAsPercent the discount as a percentage
+     * @param checkoutDate      the checkout date
+     * @return the rental agreement, or the reason it was rejected
+     */
+    public CheckoutResult tryCheckout(String toolCode, int rentalDays, int discountAsPercent, LocalDate checkoutDate) {
+        return tryCheckout(pricingContext, toolCode, rentalDays, discountAsPercent, checkoutDate);
+    }
+
+    /**
+     * Checkout at a given store without throwing, as {@link #tryCheckout(String, int, int, LocalDate)}.
+     *
+     * @param context           the store to price for
+     * @param toolCode          the tool code to checkout
+     * @param rentalDays        the days to rent the tool
+     * @param discountAsPercent the discount as a percentage
+     * @param checkoutDate      the checkout date
+     * @return the rental agreement, or the reason it was rejected
+     */
+    public CheckoutResult tryCheckout(PricingContext context, String toolCode, int rentalDays, int discountAsPercent,
+            LocalDate checkoutDate) {
+        return tryCheckout(context, toolCode, rentalDays, discountAsPercent, checkoutDate, true);
+    }
+
+    /**
+     * Price a checkout without reserving anything, to show a customer what it would cost.
+     *
+     * @param context           the store to price for
+     * @param toolCode          the tool code to quote
+     * @param rentalDays        the days to rent the tool
+     * @param discountAsPercent the discount as a percentage
+     * @param checkoutDate      the checkout date
+     * @return the priced agreement, or the reason it would be rejected
+     */
+    public CheckoutResult quote(PricingContext context, String toolCode, int rentalDays, int discountAsPercent,
+            LocalDate checkoutDate) {
+        return tryCheckout(context, toolCode, rentalDays, discountAsPercent, checkoutDate, false);
+    }
+
+    private CheckoutResult tryCheckout(PricingContext context, String toolCode, int rentalDays, int discountAsPercent,
+            LocalDate checkoutDate, boolean reserve) {
+        CheckoutTimer timer = startTimer();
+        // grab one snapshot so the lookup and the error message agree, even if the catalog is reloaded mid-checkout
+        ToolCatalog catalog = context.getCatalog();
+        CheckoutRequest request = new CheckoutRequest(toolCode, rentalDays, discountAsPercent, checkoutDate);
+
+        CheckoutError error = validate(rentalDays, discountAsPercent, checkoutDate);
+        timer.lap(CheckoutStage.VALIDATION);
+        if (error != null) {
+            timer.finish(null, error);
+            return CheckoutResult.failure(request, error, catalog);
+        }
+
+        Tool tool = catalog.findByCode(toolCode).orElse(null);
+        timer.lap(CheckoutStage.CATALOG_LOOKUP);
+        return complete(context, catalog, request, tool, reserve, timer);
+    }
+
+    private CheckoutTimer startTimer() {
+        return metrics == null ? CheckoutTimer.OFF : metrics.startTimer();
+    }
+
+    /**
+     * Checkout a whole batch of lines at once.  Every line is priced against the same catalog snapshot, and a bad line
+     * is reported in its result rather than thrown, so one bad line neither stops the batch nor pays for an exception.
+     * In a store with an inventory the lines reserve their tools in order, so when two want the last unit the earlier
+     * line gets it.
+     *
+     * @param requests the lines to checkout
+     * @return one result per request, in the same order
+     */
+    public List<CheckoutResult> checkoutAll(Collection<CheckoutRequest> requests) {
+        return checkoutAll(pricingContext, requests);
+    }
+
+    /**
+     * Checkout a whole batch of lines at a given store, as {@link #checkoutAll(Collection)}.
+     *
+     * @param context  the store to price for
+     * @param requests the lines to checkout
+     * @return one result per request, in the same order
+     */
+    public List<CheckoutResult> checkoutAll(PricingContext context, Collection<CheckoutRequest> requests) {
+        List<CheckoutResult> results = new ArrayList<>(requests.size());
+        BatchPricer pricer = newBatchPricer(context, true);
+        for (CheckoutRequest request : requests) {
+            results.add(pricer.price(request));
+        }
+        return results;
+    }
+
+    /**
+     * Checkout a stream of lines, as {@link #checkoutAll(Collection)} but lazily, so a batch larger than memory can be
+     * priced as it is read.  Order is kept for ordered streams, and the returned stream may be consumed in parallel.
+     * A parallel stream reserves tools as each line is priced rather than in order, so in a store with an inventory
+     * which of two lines after the last unit gets it isn't fixed.  Use {@link ParallelCheckout} to reserve in order.
+     *
+     * @param requests the lines to checkout
+     * @return one result per request
+     */
+    public Stream<CheckoutResult> checkoutAll(Stream<CheckoutRequest> requests) {
+        return requests.map(newBatchPricer(true)::price);
+    }
+
+    /**
+     * Extend a rental, pricing only the days added.  Chargeable days are a count of the charged days after checkout,
+     * so the added days are counted from the old due date with the same weekend and holiday rules and added on, then
+     * the charge and discount are worked out on the new total.  That always comes to exactly what checking out for
+     * the whole rental would.  The agreement keeps its tool, discount and the daily charge it was written at.  In a
+     * store with an inventory the unit out on the rental is held through the new due date as well.
+     *
+     * @param agreement the agreement to extend
+     * @param extraDays the days to add, at least one
+     * @return the extended agreement, the original is unchanged
+     * @throws IllegalArgumentException when the unit is already reserved for some of the added days
+     */
+    public RentalAgreement extend(RentalAgreement agreement, int extraDays) {
+        return extend(pricingContext, agreement, extraDays);
+    }
+
+    /**
+     * Extend a rental with a given store's weekend and holidays, as {@link #extend(RentalAgreement, int)}.
+     *
+     * @param context   the store the rental is from
+     * @param agreement the agreement to extend
+     * @param extraDays the days to add, at least one
+     * @return the extended agreement, the original is unchanged
+     * @throws IllegalArgumentException when the unit is already reserved for some of the added days
+     */
+    public RentalAgreement extend(PricingContext context, RentalAgreement agreement, int extraDays) {
+        if (extraDays <= 0) {
+            throw new IllegalArgumentException("An extension must add at least one day.  You provided: " + extraDays);
+        }
+        RentalAgreement extended = extendBy(context.getChargeableDaysCalculator(), agreement, extraDays);
+        Inventory inventory = context.getInventory();
+        if (inventory != null && !inventory.extend(agreement, extended).isPresent()) {
+            throw new IllegalArgumentException(CheckoutError.UNAVAILABLE.describe(agreement.getToolCode(), extraDays,
+                    agreement.getDiscountAsPercent(), context.getCatalog()));
+        }
+        return extended;
+    }
+
+    /**
+     * Price an agreement as of the tool coming back.  Anything returned by its due date is charged as agreed, a late
+     * return is extended through the return date as {@link #extend(RentalAgreement, int)}.  The tool was out either
+     * way, so a return is never refused.  In a store with an inventory the unit's hold is released, so an early return
+     * frees the rest of the rental for someone else.
+     *
+     * @param agreement  the agreement the tool went out on, or the last one {@link #repriceOverdue} returned for it
+     * @param returnDate the day the tool came back
+     * @return the agreement if it was on time, otherwise the extended agreement
+     */
+    public RentalAgreement checkIn(RentalAgreement agreement, LocalDate returnDate) {
+        return checkIn(pricingContext, agreement, returnDate);
+    }
+
+    /**
+     * Price an agreement as of the tool coming back to a given store, as
+     * {@link #checkIn(RentalAgreement, LocalDate)}.
+     *
+     * @param context    the store the rental is from
+     * @param agreement  the agreement the tool went out on, or the last one {@link #repriceOverdue} returned for it
+     * @param returnDate the day the tool came back
+     * @return the agreement if it was on time, otherwise the extended agreement
+     */
+    public RentalAgreement checkIn(PricingContext context, RentalAgreement agreement, LocalDate returnDate) {
+        if (returnDate == null) {
+            throw new IllegalArgumentException("A return date must be provided.");
+        }
+        RentalAgreement returned = chargeThrough(context.getChargeableDaysCalculator(), agreement,
+                returnDate.toEpochDay());
+        Inventory inventory = context.getInventory();
+        if (inventory != null) {
+            inventory.release(agreement);
+        }
+        return returned;
+    }
+
+    /**
+     * Re-price every rental still out at the end of a day, e.g. at close.  Each one due before that day is extended
+     * through it, so the charge so far is known even before the tool is back.  In a store with an inventory the
+     * extended agreement takes over its unit's hold, held through that day unless the unit is promised to a later
+     * rental first.
+     *
+     * @param outstanding the agreements whose tools haven't come back
+     * @param endOfDay    the day just ending
+     * @return one agreement per outstanding one, in the same order, extended where overdue and otherwise the same
+     */
+    public List<RentalAgreement> repriceOverdue(Collection<RentalAgreement> outstanding, LocalDate endOfDay) {
+        return repriceOverdue(pricingContext, outstanding, endOfDay);
+    }
+
+    /**
+     * Re-price every rental still out at a given store at the end of a day, as
+     * {@link #repriceOverdue(Collection, LocalDate)}.
+     *
+     * @param context     the store the rentals are from
+     * @param outstanding the agreements whose tools haven't come back
+     * @param endOfDay    the day just ending
+     * @return one agreement per outstanding one, in the same order, extended where overdue and otherwise the same
+     */
+    public List<RentalAgreement> repriceOverdue(PricingContext context, Collection<RentalAgreement> outstanding,
+            LocalDate endOfDay) {
+        if (endOfDay == null) {
+            throw new IllegalArgumentException("The day ending must be provided.");
+        }
+        ChargeableDaysCalculator calculator = context.getChargeableDaysCalculator();
+        long lastEpochDay = endOfDay.toEpochDay();
+        List<RentalAgreement> repriced = new ArrayList<>(outstanding.size());
+        Inventory inventory = context.getInventory();
+        for (RentalAgreement agreement : outstanding) {
+            RentalAgreement overdue = chargeThrough(calculator, agreement, lastEpochDay);
+            if (overdue != agreement && inventory != null) {
+                // the tool is out regardless, so it's charged even when the unit can't be held for the late days
+                inventory.holdOverdue(agreement, overdue);
+            }
+            repriced.add(overdue);
+        }
+        return repriced;
+    }
+
+    private RentalAgreement chargeThrough(ChargeableDaysCalculator calculator, RentalAgreement agreement,
+            long lastEpochDay) {
+        long lateDays = lastEpochDay - agreement.getDueEpochDay();
+        if (lateDays <= 0) {
+            return agreement;
+        }
+        return extendBy(calculator, agreement, Math.toIntExact(lateDays));
+    }
+
+    private RentalAgreement extendBy(ChargeableDaysCalculator calculator, RentalAgreement agreement, int extraDays) {
+        ToolType toolType = agreement.getToolType();
+        int rentalDays = Math.addExact(agreement.getRentalDays(), extraDays);
+        long chargeableDays = agreement.getChargeableDayCount()
+                + calculator.chargeableDays(toolType, agreement.getDueEpochDay(), extraDays);
+
+        long totalChargeCents = pricingMode.totalChargeCents(toolType, chargeableDays);
+        long totalDiscountCents = pricingMode.discountCents(totalChargeCents, agreement.getDiscountAsPercent());
+        return new RentalAgreement(agreement.getRentedTool(), rentalDays, agreement.getCheckoutEpochDay(),
+                agreement.getDiscountAsPercent(), Math.toIntExact(chargeableDays), totalChargeCents,
+                totalDiscountCents);
+    }
+
+    /**
+     * @param reserve true to reserve each line's tool when the store tracks its inventory, false to only quote
+     * @return a pricer for one batch, bound to the current catalog snapshot
+     */
+    BatchPricer newBatchPricer(boolean reserve) {
+        return newBatchPricer(pricingContext, reserve);
+    }
+
+    BatchPricer newBatchPricer(PricingContext context, boolean reserve) {
+        return new BatchPricer(context, context.getCatalog(), reserve);
+    }
+
+    private static CheckoutError validate(int rentalDays, int discountAsPercent, LocalDate checkoutDate) {
         if (rentalDays <= 0) {
-            throw new IllegalArgumentException("You must rent a tool for at least one day. You provided: " + rentalDays);
+            return CheckoutError.INVALID_RENTAL_DAYS;
         }
 
         if (discountAsPercent < 0 || discountAsPercent > 100) {
-            throw new IllegalArgumentException("Discount cannot exceed 100% or fall below 0%.  You provided: " + discountAsPercent + "%");
+            return CheckoutError.INVALID_DISCOUNT;
         }
 
         if (checkoutDate == null) {
             // not required by the spec, but probably good without external validation in place
-            throw new IllegalArgumentException("You must provide a checkout date.");
+            return CheckoutError.MISSING_CHECKOUT_DATE;
         }
 
-        Tool tool = availableToolDto.fetchToolByCode(toolCode)
-                .orElseThrow(() -> {
-                    // not strictly required by the spec, but good to have in place.
-                    String availableTools = availableToolDto.fetchToolsFromCatalog().stream()
-                            .map(Tool::getToolCode)
-                            .collect(Collectors.joining(", "));
+        long checkoutEpochDay = checkoutDate.toEpochDay();
+        if (checkoutEpochDay < Integer.MIN_VALUE || checkoutEpochDay > Integer.MAX_VALUE) {
+            return CheckoutError.INVALID_CHECKOUT_DATE;
+        }
+        return null;
+    }
 
-                    String toolProvided = "\nYou provided: '" + toolCode + "'.";
-                    if (toolCode == null) {
-                        toolProvided = "\nYou did not provide a tool code.";
-                    }
+    /**
+     * Price a request which has passed validation, and reserve the tool for it when asked and the store tracks its
+     * inventory.
+     *
+     * @param tool    the tool looked up for the request, null when it isn't in the catalog
+     * @param reserve false to only quote the request
+     * @param timer   times the checkout, already through validation and the catalog lookup
+     */
+    private CheckoutResult complete(PricingContext context, ToolCatalog catalog, CheckoutRequest request, Tool tool,
+            boolean reserve, CheckoutTimer timer) {
+        return finish(context, catalog, priceOnly(context, catalog, request, tool, timer), reserve, timer);
+    }
 
-                    return new IllegalArgumentException("That tool code was not found in our catalog." +
-                            toolProvided +
-                            "\nAvailable: " + availableTools);
-                });
+    /**
+     * @return the priced request, not yet finished on the timer, or the reason it was rejected, already finished
+     */
+    private CheckoutResult priceOnly(PricingContext context, ToolCatalog catalog, CheckoutRequest request, Tool tool,
+            CheckoutTimer timer) {
+        if (tool == null) {
+            timer.finish(null, CheckoutError.UNKNOWN_TOOL);
+            return CheckoutResult.failure(request, CheckoutError.UNKNOWN_TOOL, catalog);
+        }
 
-        RentalAgreement rentalAgreement = new RentalAgreement(tool, rentalDays, checkoutDate, discountAsPercent);
+        // the catalog may have been loaded before the latest price change, always price with the current rule
+        ToolType toolType = context.getToolTypes().resolve(tool.getToolType()).orElse(null);
+        if (toolType == null) {
+            timer.finish(null, CheckoutError.UNKNOWN_TOOL_TYPE);
+            return CheckoutResult.failure(request, CheckoutError.UNKNOWN_TOOL_TYPE, catalog);
+        }
 
-        // calculate a few things
-        rentalAgreement.setDueDate(checkoutDate.plusDays(rentalDays));
+        RentalAgreement agreement = price(context, tool, toolType, request.getRentalDays(),
+                request.getDiscountAsPercent(), request.getCheckoutDate(), timer);
+        return CheckoutResult.success(request, agreement);
+    }
 
-        Long chargeableDays = new ReadableChargeableDaysCalculator().apply(rentalAgreement);
-        rentalAgreement.setChargeableDays(chargeableDays);
+    /**
+     * Reserve the tool for a priced request when asked and the store tracks its inventory, then finish the timer.
+     *
+     * @param priced  from {@link #priceOnly}, a rejected request is passed straight back
+     * @param reserve false to only quote the request
+     */
+    private CheckoutResult finish(PricingContext context, ToolCatalog catalog, CheckoutResult priced, boolean reserve,
+            CheckoutTimer timer) {
+        if (!priced.isSuccess()) {
+            return priced;
+        }
 
-        BigDecimal totalCharge = tool.getToolType().getDailyCharge().multiply(BigDecimal.valueOf(chargeableDays));
-        rentalAgreement.setTotalDueBeforeDiscount(totalCharge);
+        RentalAgreement agreement = priced.getAgreement();
+        Inventory inventory = context.getInventory();
+        if (reserve && inventory != null) {
+            // pricing has no side effects, so an agreement that can't be reserved is simply dropped
+            boolean reserved = inventory.reserve(agreement).isPresent();
+            timer.lap(CheckoutStage.RESERVATION);
+            if (!reserved) {
+                CheckoutError error = inventory.getUnitCount(agreement.getToolCode()) == 0
+                        ? CheckoutError.NOT_STOCKED : CheckoutError.UNAVAILABLE;
+                timer.finish(agreement.getToolType(), error);
+                return CheckoutResult.failure(priced.getRequest(), error, catalog);
+            }
+        }
+        timer.finish(agreement.getToolType(), null);
+        return priced;
+    }
 
-        BigDecimal totalDiscount = totalCharge
-                .multiply(BigDecimal.valueOf(discountAsPercent, 2))
-                .setScale(2, RoundingMode.HALF_UP);
-        rentalAgreement.setTotalDiscountAmount(totalDiscount);
+    private RentalAgreement price(PricingContext context, Tool tool, ToolType toolType, int rentalDays,
+            int discountAsPercent, LocalDate checkoutDate, CheckoutTimer timer) {
+        if (!toolType.hasSameRule(tool.getToolType())) {
+            // the agreement keeps the price it was written at, so it needs to hold the rule that was used
+            tool = new Tool(tool.getToolCode(), tool.getBrand(), toolType);
+        }
 
-        rentalAgreement.setTotalDueAfterDiscount(totalCharge.subtract(totalDiscount));
+        // calculate a few things, then build the agreement once they're all known
+        int checkoutEpochDay = Math.toIntExact(checkoutDate.toEpochDay());
+        long chargeableDays =
+                context.getChargeableDaysCalculator().chargeableDays(toolType, checkoutEpochDay, rentalDays);
+        timer.lap(CheckoutStage.CHARGEABLE_DAYS);
 
-        return rentalAgreement;
+        long totalChargeCents = pricingMode.totalChargeCents(toolType, chargeableDays);
+        long totalDiscountCents = pricingMode.discountCents(totalChargeCents, discountAsPercent);
+
+        RentalAgreement agreement = new RentalAgreement(tool, rentalDays, checkoutEpochDay, discountAsPercent,
+                Math.toIntExact(chargeableDays), totalChargeCents, totalDiscountCents);
+        timer.lap(CheckoutStage.MONEY_MATH);
+        return agreement;
+    }
+
+    /**
+     * Prices the lines of one batch for one store against a single catalog snapshot, reserving their tools or not as
+     * the caller chose.  Safe to share between the threads pricing the same batch.
+     */
+    final class BatchPricer {
+        private final PricingContext context;
+        private final ToolCatalog catalog;
+        private final boolean reserve;
+
+        private BatchPricer(PricingContext context, ToolCatalog catalog, boolean reserve) {
+            this.context = context;
+            this.catalog = catalog;
+            this.reserve = reserve;
+        }
+
+        CheckoutResult price(CheckoutRequest request) {
+            CheckoutTimer timer = startTimer();
+            return finish(context, catalog, priceOnly(request, timer), reserve, timer);
+        }
+
+        /**
+         * Price a line but leave reserving its tool, and recording it, to {@link #complete(PricedLine)}, so lines
+         * priced on many threads can still be reserved one at a time in input order.
+         */
+        PricedLine priceLater(CheckoutRequest request) {
+            CheckoutTimer timer = startTimer();
+            return new PricedLine(priceOnly(request, timer), timer);
+        }
+
+        CheckoutResult complete(PricedLine line) {
+            // the line may have waited a while to be handed back, that's not part of its checkout
+            line.timer.resume();
+            return finish(context, catalog, line.priced, reserve, line.timer);
+        }
+
+        private CheckoutResult priceOnly(CheckoutRequest request, CheckoutTimer timer) {
+            CheckoutError error = validate(request.getRentalDays(), request.getDiscountAsPercent(),
+                    request.getCheckoutDate());
+            timer.lap(CheckoutStage.VALIDATION);
+            if (error != null) {
+                timer.finish(null, error);
+                return CheckoutResult.failure(request, error, catalog);
+            }
+
+            // the snapshot is already indexed by code, and remembering codes here would keep every made up one
+            String toolCode = request.getToolCode();
+            Tool tool = toolCode == null ? null : catalog.findByCode(toolCode).orElse(null);
+            timer.lap(CheckoutStage.CATALOG_LOOKUP);
+            return Cashier.this.priceOnly(context, catalog, request, tool, timer);
+        }
+    }
+
+    /**
+     * A line priced by {@link BatchPricer#priceLater(CheckoutRequest)}, waiting to be completed.
+     */
+    static final class PricedLine {
+        private final CheckoutResult priced;
+        private final CheckoutTimer timer;
+
+        private PricedLine(CheckoutResult priced, CheckoutTimer timer) {
+            this.priced = priced;
+            this.timer = timer;
+        }
     }
 }
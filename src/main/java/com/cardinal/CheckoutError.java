@@ -0,0 +1,65 @@
+package com.cardinal;
+
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+
+/**
+ * The reasons a checkout can be rejected.
+ */
+public enum CheckoutError {
+    INVALID_RENTAL_DAYS,
+    INVALID_DISCOUNT,
+    MISSING_CHECKOUT_DATE,
+    INVALID_CHECKOUT_DATE,
+    UNKNOWN_TOOL,
+    UNKNOWN_TOOL_TYPE,
+    UNAVAILABLE,
+    NOT_STOCKED;
+
+    /**
+     * Describe the error for the customer.  Only build this when someone is going to read it, the unknown tool message
+     * lists the whole catalog.
+     *
+     * @param toolCode          the tool code provided
+     * @param rentalDays        the rental days provided
+     * @param discountAsPercent the discount provided
+     * @param catalog           the catalog the tool was looked up in
+     * @return the message explaining what was wrong
+     */
+    public String describe(String toolCode, int rentalDays, int discountAsPercent, ToolCatalog catalog) {
+        switch (this) {
+        case INVALID_RENTAL_DAYS:
+            return "You must rent a tool for at least one day. You provided: " + rentalDays;
+        case INVALID_DISCOUNT:
+            return "Discount cannot exceed 100% or fall below 0%.  You provided: " + discountAsPercent + "%";
+        case MISSING_CHECKOUT_DATE:
+            return "You must provide a checkout date.";
+        case INVALID_CHECKOUT_DATE:
+            // an agreement holds its checkout date as an int of days since the epoch
+            return "The checkout date must be between " + LocalDate.ofEpochDay(Integer.MIN_VALUE) + " and "
+                    + LocalDate.ofEpochDay(Integer.MAX_VALUE) + ".";
+        case UNKNOWN_TOOL:
+            // not strictly required by the spec, but good to have in place.
+            String availableTools = catalog.getTools().stream()
+                    .map(Tool::getToolCode)
+                    .collect(Collectors.joining(", "));
+
+            String toolProvided = "\nYou provided: '" + toolCode + "'.";
+            if (toolCode == null) {
+                toolProvided = "\nYou did not provide a tool code.";
+            }
+
+            return "That tool code was not found in our catalog." +
+                    toolProvided +
+                    "\nAvailable: " + availableTools;
+        case UNKNOWN_TOOL_TYPE:
+            return "The " + toolCode + " can't be rented, there is no longer a price for its tool type.";
+        case UNAVAILABLE:
+            return "Every " + toolCode + " is already reserved for some of those " + rentalDays + " days.";
+        case NOT_STOCKED:
+            return "There are no " + toolCode + " units on hand to rent.";
+        default:
+            throw new IllegalStateException("No description for " + this);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.cardinal;
+
+import java.time.LocalDate;
+
+/**
+ * A single line of a checkout, the same inputs {@link Cashier#checkout(String, int, int, LocalDate)} takes.
+ */
+public final class CheckoutRequest {
+    private final String toolCode;
+    private final int rentalDays;
+    private final int discountAsPercent;
+    private final LocalDate checkoutDate;
+
+    /**
+     * @param toolCode          the tool code to checkout
+     * @param rentalDays        the days to rent the tool
+     * @param discountAsPercent the discount as a percentage
+     * @param checkoutDate      the checkout date
+     */
+    public CheckoutRequest(String toolCode, int rentalDays, int discountAsPercent, LocalDate checkoutDate) {
+        this.toolCode = toolCode;
+        this.rentalDays = rentalDays;
+        this.discountAsPercent = discountAsPercent;
+        this.checkoutDate = checkoutDate;
+    }
+
+    public String getToolCode() {
+        return toolCode;
+    }
+
+    public int getRentalDays() {
+        return rentalDays;
+    }
+
+    public int getDiscountAsPercent() {
+        return discountAsPercent;
+    }
+
+    public LocalDate getCheckoutDate() {
+        return checkoutDate;
+    }
+}
@@ -0,0 +1,61 @@
+package com.cardinal;
+
+/**
+ * The outcome of one checkout, from {@link Cashier#tryCheckout} or one line of a batch, either a rental agreement
+ * or the reason it was rejected.
+ */
+public final class CheckoutResult {
+    private final CheckoutRequest request;
+    private final RentalAgreement agreement;
+    private final CheckoutError error;
+    // kept so the unknown tool message lists what was actually in the catalog at the time
+    private final ToolCatalog catalog;
+
+    private CheckoutResult(CheckoutRequest request, RentalAgreement agreement, CheckoutError error,
+                           ToolCatalog catalog) {
+        this.request = request;
+        this.agreement = agreement;
+        this.error = error;
+        this.catalog = catalog;
+    }
+
+    static CheckoutResult success(CheckoutRequest request, RentalAgreement agreement) {
+        return new CheckoutResult(request, agreement, null, null);
+    }
+
+    static CheckoutResult failure(CheckoutRequest request, CheckoutError error, ToolCatalog catalog) {
+        return new CheckoutResult(request, null, error, catalog);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public CheckoutRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * @return the rental agreement, null if the checkout was rejected
+     */
+    public RentalAgreement getAgreement() {
+        return agreement;
+    }
+
+    /**
+     * @return why the checkout was rejected, null if it succeeded
+     */
+    public CheckoutError getError() {
+        return error;
+    }
+
+    /**
+     * @return the same message the single checkout would have thrown, built on request, null if it succeeded
+     */
+    public String getErrorMessage() {
+        if (error == null) {
+            return null;
+        }
+        return error.describe(request.getToolCode(), request.getRentalDays(), request.getDiscountAsPercent(), catalog);
+    }
+}
@@ -0,0 +1,329 @@
+package com.cardinal;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+import com.cardinal.calculators.ArithmeticChargeableDaysCalculator;
+import com.cardinal.calculators.ChargeableDaysCalculator;
+
+/**
+ * A precomputed calendar of observed holidays, shared by everything that needs to know whether a day is a holiday.
+ * <p>
+ * Each year in the window is resolved once, the first time it is asked about, into a bitset with one bit per day.
+ * That makes {@link #isHoliday(long)} a single bit test and {@link #countHolidaysBetween(long, long)} a few bit counts
+ * however long the range is.  Years outside the window are still answered, they're just resolved on every call.
+ * <p>
+ * Safe to share across threads, two threads racing to resolve the same year simply build the same table twice.
+ */
+public final class HolidayCalendar {
+
+    public static final int DEFAULT_FIRST_YEAR = 1900;
+    public static final int DEFAULT_LAST_YEAR = 2199;
+
+    private final IntFunction<? extends Collection<LocalDate>> holidayResolver;
+    private final int firstYear;
+    private final int lastYear;
+    // epoch day of January 1st for every year in the window, plus the year after it
+    private final long[] yearStarts;
+    private final AtomicReferenceArray<YearTable> yearTables;
+    // holidays in the window before each year, built the first time a count spans more than two years
+    private volatile int[] holidaysBeforeYear;
+    // one calculator per weekend priced against this calendar, they go when the calendar does
+    private final Map<Set<DayOfWeek>, ChargeableDaysCalculator> calculators = new ConcurrentHashMap<>();
+
+    /**
+     * @param holidayResolver resolves the observed holidays for a year, see {@link Holidays#resolveHolidays(int)}
+     * @param firstYear       the first year to keep in the calendar
+     * @param lastYear        the last year to keep in the calendar
+     */
+    public HolidayCalendar(IntFunction<? extends Collection<LocalDate>> holidayResolver, int firstYear, int lastYear) {
+        if (holidayResolver == null) {
+            throw new IllegalArgumentException("A holiday resolver must be provided.");
+        }
+        if (lastYear < firstYear) {
+            throw new IllegalArgumentException("The last year cannot be before the first year.  You provided: "
+                    + firstYear + " to " + lastYear);
+        }
+
+        this.holidayResolver = holidayResolver;
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+
+        yearStarts = new long[lastYear - firstYear + 2];
+        for (int i = 0; i < yearStarts.length; i++) {
+            yearStarts[i] = LocalDate.of(firstYear + i, 1, 1).toEpochDay();
+        }
+        yearTables = new AtomicReferenceArray<>(lastYear - firstYear + 1);
+    }
+
+    /**
+     * @return the process wide calendar of the holidays observed at The Store, see {@link Holidays#DEFAULT_RULES}
+     */
+    public static HolidayCalendar defaultCalendar() {
+        return Holidays.DEFAULT_RULES.calendar();
+    }
+
+    /**
+     * Resolve every year in the window now rather than the first time each is asked about.
+     *
+     * @return this calendar
+     */
+    public HolidayCalendar precompute() {
+        for (int year = firstYear; year <= lastYear; year++) {
+            yearTable(year);
+        }
+        holidaysBeforeYear();
+        return this;
+    }
+
+    /**
+     * @param weekendDays the days of the week which make up the weekend
+     * @return the calculator shared by every store with these holidays and that weekend
+     */
+    ChargeableDaysCalculator chargeableDaysCalculator(Set<DayOfWeek> weekendDays) {
+        return calculators.computeIfAbsent(weekendDays,
+                weekend -> new ArithmeticChargeableDaysCalculator(this, weekend));
+    }
+
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    public int getLastYear() {
+        return lastYear;
+    }
+
+    public boolean isHoliday(LocalDate date) {
+        return isHoliday(date.toEpochDay());
+    }
+
+    /**
+     * @param epochDay the day to check, as {@link LocalDate#toEpochDay()}
+     * @return true when a holiday is observed on that day
+     */
+    public boolean isHoliday(long epochDay) {
+        return yearTable(yearOf(epochDay)).isHoliday(epochDay);
+    }
+
+    /**
+     * Count the observed holidays between two dates, both inclusive.
+     *
+     * @param start the first day to count
+     * @param end   the last day to count
+     * @return the number of holidays, 0 if end is before start
+     */
+    public long countHolidaysBetween(LocalDate start, LocalDate end) {
+        return countHolidaysBetween(start.toEpochDay(), end.toEpochDay());
+    }
+
+    /**
+     * Count the observed holidays between two epoch days, both inclusive.
+     *
+     * @param firstEpochDay the first day to count
+     * @param lastEpochDay  the last day to count
+     * @return the number of holidays, 0 if the last day is before the first
+     */
+    public long countHolidaysBetween(long firstEpochDay, long lastEpochDay) {
+        if (lastEpochDay < firstEpochDay) {
+            return 0;
+        }
+
+        int firstDayYear = yearOf(firstEpochDay);
+        int lastDayYear = yearOf(lastEpochDay);
+        if (firstDayYear == lastDayYear) {
+            return yearTable(firstDayYear).count(firstEpochDay, lastEpochDay);
+        }
+
+        YearTable first = yearTable(firstDayYear);
+        YearTable last = yearTable(lastDayYear);
+        return first.count(firstEpochDay, first.lastEpochDay)
+                + countHolidaysInYears(firstDayYear + 1, lastDayYear - 1)
+                + last.count(last.firstEpochDay, lastEpochDay);
+    }
+
+    /**
+     * Count the observed holidays between two epoch days, both inclusive, leaving out any that fall on the excluded
+     * days of the week.  Used to avoid counting a day off twice when it is both a holiday and a weekend.
+     * <p>
+     * Holidays are sparse, so this visits each holiday in the range rather than each day.
+     *
+     * @param firstEpochDay the first day to count
+     * @param lastEpochDay  the last day to count
+     * @param excludedDays  holidays on these days of the week are not counted
+     * @return the number of holidays, 0 if the last day is before the first
+     */
+    public long countHolidaysBetween(long firstEpochDay, long lastEpochDay, Set<DayOfWeek> excludedDays) {
+        if (excludedDays.isEmpty()) {
+            return countHolidaysBetween(firstEpochDay, lastEpochDay);
+        }
+        if (lastEpochDay < firstEpochDay) {
+            return 0;
+        }
+
+        long count = 0;
+        for (int year = yearOf(firstEpochDay), lastDayYear = yearOf(lastEpochDay); year <= lastDayYear; year++) {
+            YearTable table = yearTable(year);
+            count += table.count(Math.max(firstEpochDay, table.firstEpochDay),
+                    Math.min(lastEpochDay, table.lastEpochDay), excludedDays);
+        }
+        return count;
+    }
+
+    private long countHolidaysInYears(int fromYear, int toYear) {
+        if (fromYear > toYear) {
+            return 0;
+        }
+        if (fromYear >= firstYear && toYear <= lastYear) {
+            int[] holidaysBefore = holidaysBeforeYear();
+            return holidaysBefore[toYear - firstYear + 1] - holidaysBefore[fromYear - firstYear];
+        }
+
+        long count = 0;
+        for (int year = fromYear; year <= toYear; year++) {
+            count += yearTable(year).holidayCount;
+        }
+        return count;
+    }
+
+    private int[] holidaysBeforeYear() {
+        int[] holidaysBefore = holidaysBeforeYear;
+        if (holidaysBefore == null) {
+            holidaysBefore = new int[lastYear - firstYear + 2];
+            for (int i = 0; i <= lastYear - firstYear; i++) {
+                holidaysBefore[i + 1] = holidaysBefore[i] + yearTable(firstYear + i).holidayCount;
+            }
+            holidaysBeforeYear = holidaysBefore;
+        }
+        return holidaysBefore;
+    }
+
+    private int yearOf(long epochDay) {
+        if (epochDay < yearStarts[0] || epochDay >= yearStarts[yearStarts.length - 1]) {
+            return LocalDate.ofEpochDay(epochDay).getYear();
+        }
+
+        // guess from the average length of a year (146097 days every 400 years), then walk to the right one
+        int index = (int) Math.min((epochDay - yearStarts[0]) * 400 / 146097, yearStarts.length - 2);
+        while (yearStarts[index] > epochDay) {
+            index--;
+        }
+        while (yearStarts[index + 1] <= epochDay) {
+            index++;
+        }
+        return firstYear + index;
+    }
+
+    private YearTable yearTable(int year) {
+        if (year < firstYear || year > lastYear) {
+            return resolveYear(year);
+        }
+
+        int index = year - firstYear;
+        YearTable table = yearTables.get(index);
+        if (table == null) {
+            table = resolveYear(year);
+            if (!yearTables.compareAndSet(index, null, table)) {
+                table = yearTables.get(index);
+            }
+        }
+        return table;
+    }
+
+    private YearTable resolveYear(int year) {
+        YearTable table = new YearTable(LocalDate.of(year, 1, 1).toEpochDay(), LocalDate.of(year, 12, 31).toEpochDay());
+        // an observed holiday can land in the year next to the one it belongs to, e.g. a Saturday January 1st
+        for (int resolvedYear = year - 1; resolvedYear <= year + 1; resolvedYear++) {
+            Collection<LocalDate> holidays = holidayResolver.apply(resolvedYear);
+            if (holidays != null) {
+                for (LocalDate holiday : holidays) {
+                    table.add(holiday.toEpochDay());
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * The holidays of one year, one bit per day of the year.
+     */
+    private static final class YearTable {
+        private final long firstEpochDay;
+        private final long lastEpochDay;
+        private final long[] days = new long[6];
+        private int holidayCount;
+
+        private YearTable(long firstEpochDay, long lastEpochDay) {
+            this.firstEpochDay = firstEpochDay;
+            this.lastEpochDay = lastEpochDay;
+        }
+
+        // only called while the table is being built, before it is published
+        private void add(long epochDay) {
+            if (epochDay < firstEpochDay || epochDay > lastEpochDay || isHoliday(epochDay)) {
+                return;
+            }
+            int day = (int) (epochDay - firstEpochDay);
+            days[day >>> 6] |= 1L << day;
+            holidayCount++;
+        }
+
+        private boolean isHoliday(long epochDay) {
+            int day = (int) (epochDay - firstEpochDay);
+            return (days[day >>> 6] & (1L << day)) != 0;
+        }
+
+        private int count(long fromEpochDay, long toEpochDay) {
+            int fromDay = (int) (fromEpochDay - firstEpochDay);
+            int toDay = (int) (toEpochDay - firstEpochDay);
+            int fromWord = fromDay >>> 6;
+            int toWord = toDay >>> 6;
+
+            // shifts only use the low 6 bits, so -1L << fromDay masks off the days before it within its word
+            long lastWordMask = -1L >>> (63 - (toDay & 63));
+            if (fromWord == toWord) {
+                return Long.bitCount(days[fromWord] & (-1L << fromDay) & lastWordMask);
+            }
+
+            int count = Long.bitCount(days[fromWord] & (-1L << fromDay));
+            for (int word = fromWord + 1; word < toWord; word++) {
+                count += Long.bitCount(days[word]);
+            }
+            return count + Long.bitCount(days[toWord] & lastWordMask);
+        }
+
+        private int count(long fromEpochDay, long toEpochDay, Set<DayOfWeek> excludedDays) {
+            int toDay = (int) (toEpochDay - firstEpochDay);
+            int count = 0;
+            for (int day = nextHoliday((int) (fromEpochDay - firstEpochDay)); day >= 0 && day <= toDay;
+                 day = nextHoliday(day + 1)) {
+                // 1970-01-01, epoch day 0, was a Thursday
+                int dayOfWeek = (int) Math.floorMod(firstEpochDay + day + 3, 7L) + 1;
+                if (!excludedDays.contains(DayOfWeek.of(dayOfWeek))) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private int nextHoliday(int fromDay) {
+            int word = fromDay >>> 6;
+            if (word >= days.length) {
+                return -1;
+            }
+            long bits = days[word] & (-1L << fromDay);
+            while (bits == 0) {
+                if (++word == days.length) {
+                    return -1;
+                }
+                bits = days[word];
+            }
+            return (word << 6) + Long.numberOfTrailingZeros(bits);
+        }
+    }
+}
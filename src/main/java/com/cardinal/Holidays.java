@@ -4,12 +4,15 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.Month;
 import java.time.MonthDay;
-import java.time.temporal.TemporalAdjusters;
-import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 
+import com.cardinal.holidays.FixedDateHoliday;
+import com.cardinal.holidays.FixedDateHoliday.Observance;
+import com.cardinal.holidays.HolidayRuleSet;
+import com.cardinal.holidays.NthWeekdayHoliday;
+
 /**
  * The Holidays observed at The Store.  Supplies utility methods for resolving their actual observed date based on year.
  */
@@ -20,7 +23,23 @@ public class Holidays {
      */
     public static final Set<DayOfWeek> WEEKEND_DAYS = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
 
-    private static final MonthDay INDEPENDENCE_DAY = MonthDay.of(Month.JULY, 4);
+    /**
+     * July 4th, observed on Friday when it falls on Saturday and Monday when it falls on Sunday.
+     */
+    public static final FixedDateHoliday INDEPENDENCE_DAY = new FixedDateHoliday("Independence Day",
+            MonthDay.of(Month.JULY, 4), Observance.FRIDAY_BEFORE, Observance.MONDAY_AFTER);
+
+    /**
+     * The first Monday of September.
+     */
+    // Technically Labor Day isn't recognized until 1887, however lets not code in something we'll never need
+    public static final NthWeekdayHoliday LABOR_DAY =
+            new NthWeekdayHoliday("Labor Day", Month.SEPTEMBER, DayOfWeek.MONDAY, 1);
+
+    /**
+     * The holidays observed at The Store, stores in other regions can bring their own {@link HolidayRuleSet}.
+     */
+    public static final HolidayRuleSet DEFAULT_RULES = new HolidayRuleSet("The Store", LABOR_DAY, INDEPENDENCE_DAY);
 
     private Holidays() {
         // utility class, don't allow it to be built on accident
@@ -34,32 +53,7 @@ public class Holidays {
      * @return the day July 4th would be observed, Sunday is observed on Monday, Saturday on Friday.
      */
     public static LocalDate resolveIndependenceDay(int year) {
-        return resolveWeekendHoliday(year, INDEPENDENCE_DAY);
-    }
-
-    /**
-     * Helper method for resolving weekend holidays.  Likely used in the future.
-     *
-     * @param year        the year to resolve
-     * @param monthAndDay the month and day of the holiday normally
-     * @return the day the holiday would be observed, Sunday is observed on Monday, Saturday on Friday.
-     */
-    private static LocalDate resolveWeekendHoliday(int year, MonthDay monthAndDay) {
-        if (monthAndDay == null) {
-            throw new IllegalArgumentException("Holiday not valid.");
-        }
-
-        LocalDate yearBasedHoliday = monthAndDay.atYear(year);
-        switch (yearBasedHoliday.getDayOfWeek()) {
-        case SUNDAY:
-            // move it to Monday
-            return yearBasedHoliday.plusDays(1);
-        case SATURDAY:
-            // move it to Friday
-            return yearBasedHoliday.minusDays(1);
-        default:
-            return yearBasedHoliday;
-        }
+        return INDEPENDENCE_DAY.observedOn(year);
     }
 
     /**
@@ -69,21 +63,16 @@ public class Holidays {
      * @return the first monday of September for the given year
      */
     public static LocalDate resolveLaborDay(int year) {
-        // Technically Labor Day isn't recognized until 1887, however lets not code in something we'll never need
-        LocalDate septemberFirst = LocalDate.of(year, Month.SEPTEMBER, 1);
-        return septemberFirst.with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+        return LABOR_DAY.observedDates(year).get(0);
     }
 
     /**
-     * Calculate all holidays for the given year.  Allows new ones to be added later without refactoring everything.
+     * Calculate all holidays for the given year, as observed under {@link #DEFAULT_RULES}.
      *
      * @param year the year to resolve holidays for
      * @return all observed holidays for the given year
      */
     public static List<LocalDate> resolveHolidays(int year) {
-        List<LocalDate> holidays = new ArrayList<>();
-        holidays.add(resolveLaborDay(year));
-        holidays.add(resolveIndependenceDay(year));
-        return holidays;
+        return DEFAULT_RULES.resolveHolidays(year);
     }
 }
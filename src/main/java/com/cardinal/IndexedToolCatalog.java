@@ -0,0 +1,82 @@
+package com.cardinal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An immutable, pre-indexed snapshot of the tools available for rent, held on the heap.  Built once and then safe to
+ * share across threads.  Looking a tool up by its code is a single hash probe and does not allocate.
+ */
+public final class IndexedToolCatalog implements ToolCatalog {
+
+    private final List<Tool> tools;
+    // the Optional is stored rather than the Tool so a hit doesn't need to wrap the result on every lookup
+    private final Map<String, Optional<Tool>> toolsByCode;
+    private final Map<ToolType, List<Tool>> toolsByType;
+    private final Map<String, List<Tool>> toolsByBrand;
+
+    /**
+     * Build the catalog and its indexes.
+     *
+     * @param tools the tools to index, the tool code must be unique
+     */
+    public IndexedToolCatalog(Collection<Tool> tools) {
+        if (tools == null) {
+            throw new IllegalArgumentException("A catalog must be built from a collection of tools.");
+        }
+
+        this.tools = Collections.unmodifiableList(new ArrayList<>(tools));
+        this.toolsByCode = new HashMap<>(tools.size() * 4 / 3 + 1);
+
+        Map<ToolType, List<Tool>> byType = new HashMap<>();
+        Map<String, List<Tool>> byBrand = new HashMap<>();
+        for (Tool tool : this.tools) {
+            if (tool == null || tool.getToolCode() == null) {
+                throw new IllegalArgumentException("Every tool in the catalog must have a tool code.");
+            }
+            if (toolsByCode.put(tool.getToolCode(), Optional.of(tool)) != null) {
+                throw new IllegalArgumentException("Duplicate tool code in catalog: " + tool.getToolCode());
+            }
+            byType.computeIfAbsent(tool.getToolType(), type -> new ArrayList<>()).add(tool);
+            byBrand.computeIfAbsent(tool.getBrand(), brand -> new ArrayList<>()).add(tool);
+        }
+        this.toolsByType = freeze(byType);
+        this.toolsByBrand = freeze(byBrand);
+    }
+
+    private static <K> Map<K, List<Tool>> freeze(Map<K, List<Tool>> index) {
+        Map<K, List<Tool>> frozen = new HashMap<>(index.size() * 4 / 3 + 1);
+        index.forEach((key, value) -> frozen.put(key, Collections.unmodifiableList(value)));
+        return frozen;
+    }
+
+    @Override
+    public Optional<Tool> findByCode(String toolCode) {
+        return toolsByCode.getOrDefault(toolCode, Optional.empty());
+    }
+
+    @Override
+    public List<Tool> findByType(ToolType toolType) {
+        return toolsByType.getOrDefault(toolType, Collections.emptyList());
+    }
+
+    @Override
+    public List<Tool> findByBrand(String brand) {
+        return toolsByBrand.getOrDefault(brand, Collections.emptyList());
+    }
+
+    @Override
+    public List<Tool> getTools() {
+        return tools;
+    }
+
+    @Override
+    public int size() {
+        return tools.size();
+    }
+}
@@ -0,0 +1,134 @@
+package com.cardinal;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A store's own tools layered over a shared base catalog.  An override replaces the base tool with the same code, any
+ * other override is added to the catalog.
+ * <p>
+ * Only the overrides are indexed here, everything else is answered by the base catalog, so hundreds of stores over
+ * one large base catalog each cost about as much as their overrides.  Nothing is copied out of the base: a type or
+ * brand the overrides add to is the base's list followed by the overrides', and one which held a replaced tool is
+ * filtered from the base's list each time it's asked for.
+ */
+public final class LayeredToolCatalog implements ToolCatalog {
+
+    private final ToolCatalog base;
+    private final IndexedToolCatalog overrides;
+    private final List<Tool> additions = new ArrayList<>();
+    // where the base tools an override replaces were, their lists need the replaced tools taken out
+    private final Set<ToolType> replacedTypes = new HashSet<>();
+    private final Set<String> replacedBrands = new HashSet<>();
+    private final List<Tool> tools;
+
+    /**
+     * @param base      the shared catalog
+     * @param overrides the store's tools, the tool code must be unique
+     */
+    public LayeredToolCatalog(ToolCatalog base, Collection<Tool> overrides) {
+        if (base == null) {
+            throw new IllegalArgumentException("A base catalog must be provided.");
+        }
+        this.base = base;
+        this.overrides = new IndexedToolCatalog(overrides);
+
+        for (Tool tool : this.overrides.getTools()) {
+            Optional<Tool> replaced = base.findByCode(tool.getToolCode());
+            if (replaced.isPresent()) {
+                replacedTypes.add(replaced.get().getToolType());
+                replacedBrands.add(replaced.get().getBrand());
+            } else {
+                additions.add(tool);
+            }
+        }
+
+        tools = new AbstractList<Tool>() {
+            @Override
+            public Tool get(int index) {
+                int baseSize = base.size();
+                return index < baseSize ? override(base.getTools().get(index)) : additions.get(index - baseSize);
+            }
+
+            @Override
+            public int size() {
+                return base.size() + additions.size();
+            }
+        };
+    }
+
+    private List<Tool> layer(List<Tool> baseTools, boolean holdsReplaced, List<Tool> overrideTools) {
+        if (holdsReplaced) {
+            List<Tool> layered = new ArrayList<>(baseTools.size() + overrideTools.size());
+            for (Tool tool : baseTools) {
+                // a replaced tool may have changed type or brand, so it only comes back through the overrides
+                if (!overrides.findByCode(tool.getToolCode()).isPresent()) {
+                    layered.add(tool);
+                }
+            }
+            layered.addAll(overrideTools);
+            return Collections.unmodifiableList(layered);
+        }
+        if (overrideTools.isEmpty()) {
+            return baseTools;
+        }
+        return new AbstractList<Tool>() {
+            @Override
+            public Tool get(int index) {
+                int baseSize = baseTools.size();
+                return index < baseSize ? baseTools.get(index) : overrideTools.get(index - baseSize);
+            }
+
+            @Override
+            public int size() {
+                return baseTools.size() + overrideTools.size();
+            }
+        };
+    }
+
+    private Tool override(Tool tool) {
+        return overrides.findByCode(tool.getToolCode()).orElse(tool);
+    }
+
+    /**
+     * @return the shared catalog underneath the overrides
+     */
+    public ToolCatalog getBase() {
+        return base;
+    }
+
+    @Override
+    public Optional<Tool> findByCode(String toolCode) {
+        Optional<Tool> tool = overrides.findByCode(toolCode);
+        return tool.isPresent() ? tool : base.findByCode(toolCode);
+    }
+
+    @Override
+    public List<Tool> findByType(ToolType toolType) {
+        return layer(base.findByType(toolType), replacedTypes.contains(toolType), overrides.findByType(toolType));
+    }
+
+    @Override
+    public List<Tool> findByBrand(String brand) {
+        return layer(base.findByBrand(brand), replacedBrands.contains(brand), overrides.findByBrand(brand));
+    }
+
+    /**
+     * @return every tool, in base catalog order with overrides in place, followed by the added tools
+     */
+    @Override
+    public List<Tool> getTools() {
+        return tools;
+    }
+
+    @Override
+    public int size() {
+        return tools.size();
+    }
+}
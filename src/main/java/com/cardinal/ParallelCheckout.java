@@ -0,0 +1,202 @@
+package com.cardinal;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Prices a batch of checkouts across several threads.  Pricing is pure CPU work, so a large batch scales with the
+ * cores available.
+ * <p>
+ * The batch is cut into chunks which are priced on the executor, and the results are handed back in the same order as
+ * the requests no matter which chunk finishes first.  At most {@code maxInFlightChunks} chunks are being priced or
+ * waiting to be handed back at once, so a batch read from a file never has to be held in memory as a whole.
+ * <p>
+ * In a store with an inventory the chunks are only priced on the executor.  Each line's tool is reserved on the
+ * calling thread as its result is handed back, so lines reserve in input order and a batch gets the same units a
+ * sequential {@link Cashier#checkoutAll(Collection)} would, whichever chunk finishes pricing first.
+ */
+public class ParallelCheckout {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    private final Cashier cashier;
+    private final Executor executor;
+    private final int chunkSize;
+    private final int maxInFlightChunks;
+
+    /**
+     * Price on the common ForkJoinPool, with a few chunks per core in flight.
+     *
+     * @param cashier the cashier to price with
+     */
+    public ParallelCheckout(Cashier cashier) {
+        this(cashier, commonPool(), DEFAULT_CHUNK_SIZE, 4 * ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * @param cashier           the cashier to price with
+     * @param executor          runs the chunks, see {@link #commonPool()}, {@link #dedicatedPool(int)} and
+     *                          {@link #virtualThreads()}
+     * @param chunkSize         the number of requests priced together as one task
+     * @param maxInFlightChunks the most chunks submitted but not yet handed back, 0 for no limit
+     */
+    public ParallelCheckout(Cashier cashier, Executor executor, int chunkSize, int maxInFlightChunks) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunks must hold at least one request.  You provided: " + chunkSize);
+        }
+        if (maxInFlightChunks < 0) {
+            throw new IllegalArgumentException("In flight chunks cannot be negative.  You provided: "
+                    + maxInFlightChunks);
+        }
+
+        this.cashier = cashier;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.maxInFlightChunks = maxInFlightChunks == 0 ? Integer.MAX_VALUE : maxInFlightChunks;
+    }
+
+    /**
+     * @return the JVM wide common ForkJoinPool
+     */
+    public static Executor commonPool() {
+        return ForkJoinPool.commonPool();
+    }
+
+    /**
+     * @param parallelism the number of threads to price on
+     * @return a new pool, owned and shut down by the caller
+     */
+    public static ExecutorService dedicatedPool(int parallelism) {
+        return new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * @return true when the running JVM can start virtual threads
+     */
+    public static boolean virtualThreadsSupported() {
+        try {
+            virtualThreads().shutdown();
+            return true;
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Built reflectively, as the code base still targets Java 8.
+     *
+     * @return a new executor starting a virtual thread per chunk, owned and shut down by the caller
+     * @throws UnsupportedOperationException when the JVM doesn't support virtual threads
+     */
+    public static ExecutorService virtualThreads() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new UnsupportedOperationException("Virtual threads need Java 21 or later.", e);
+        } catch (InvocationTargetException e) {
+            // Java 19 and 20 have the method, but throw unless preview features are enabled
+            throw new UnsupportedOperationException("Virtual threads are not enabled on this JVM.", e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Could not create a virtual thread executor.", e);
+        }
+    }
+
+    /**
+     * Price every request in parallel.
+     *
+     * @param requests the lines to checkout
+     * @return one result per request, in the same order
+     */
+    public List<CheckoutResult> checkoutAll(Collection<CheckoutRequest> requests) {
+        List<CheckoutResult> results = new ArrayList<>(requests.size());
+        checkoutAll(requests.iterator(), results::add);
+        return results;
+    }
+
+    /**
+     * Price every request in parallel, handing each result to the sink in the order the requests were read.  The
+     * sink is only ever called from the calling thread.  Reading stops while the in-flight limit is reached, so a
+     * slow sink holds back the reading of requests rather than letting results pile up.
+     *
+     * @param requests the lines to checkout
+     * @param sink     receives one result per request
+     */
+    public void checkoutAll(Iterator<CheckoutRequest> requests, Consumer<? super CheckoutResult> sink) {
+        priceAll(cashier.newBatchPricer(true), requests, sink);
+    }
+
+    /**
+     * Price every request in parallel without reserving anything, as {@link Cashier#quote} does for one.
+     *
+     * @param requests the lines to quote
+     * @return one result per request, in the same order
+     */
+    public List<CheckoutResult> quoteAll(Collection<CheckoutRequest> requests) {
+        List<CheckoutResult> results = new ArrayList<>(requests.size());
+        quoteAll(requests.iterator(), results::add);
+        return results;
+    }
+
+    /**
+     * Price every request in parallel without reserving anything, handing each result to the sink in order as
+     * {@link #checkoutAll(Iterator, Consumer)} does.
+     *
+     * @param requests the lines to quote
+     * @param sink     receives one result per request
+     */
+    public void quoteAll(Iterator<CheckoutRequest> requests, Consumer<? super CheckoutResult> sink) {
+        priceAll(cashier.newBatchPricer(false), requests, sink);
+    }
+
+    private void priceAll(Cashier.BatchPricer pricer, Iterator<CheckoutRequest> requests,
+            Consumer<? super CheckoutResult> sink) {
+        Deque<CompletableFuture<Cashier.PricedLine[]>> inFlight = new ArrayDeque<>();
+
+        while (requests.hasNext()) {
+            CheckoutRequest[] chunk = nextChunk(requests);
+            inFlight.addLast(CompletableFuture.supplyAsync(() -> priceChunk(pricer, chunk), executor));
+
+            if (inFlight.size() >= maxInFlightChunks) {
+                handBack(pricer, inFlight.removeFirst(), sink);
+            }
+        }
+
+        while (!inFlight.isEmpty()) {
+            handBack(pricer, inFlight.removeFirst(), sink);
+        }
+    }
+
+    private CheckoutRequest[] nextChunk(Iterator<CheckoutRequest> requests) {
+        List<CheckoutRequest> chunk = new ArrayList<>(chunkSize);
+        while (chunk.size() < chunkSize && requests.hasNext()) {
+            chunk.add(requests.next());
+        }
+        return chunk.toArray(new CheckoutRequest[chunk.size()]);
+    }
+
+    private static Cashier.PricedLine[] priceChunk(Cashier.BatchPricer pricer, CheckoutRequest[] chunk) {
+        Cashier.PricedLine[] lines = new Cashier.PricedLine[chunk.length];
+        for (int i = 0; i < chunk.length; i++) {
+            lines[i] = pricer.priceLater(chunk[i]);
+        }
+        return lines;
+    }
+
+    private static void handBack(Cashier.BatchPricer pricer, CompletableFuture<Cashier.PricedLine[]> chunk,
+            Consumer<? super CheckoutResult> sink) {
+        for (Cashier.PricedLine line : chunk.join()) {
+            sink.accept(pricer.complete(line));
+        }
+    }
+}
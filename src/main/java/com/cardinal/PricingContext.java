@@ -0,0 +1,246 @@
+package com.cardinal;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import com.cardinal.calculators.ChargeableDaysCalculator;
+import com.cardinal.calculators.TableChargeableDaysCalculator;
+import com.cardinal.holidays.HolidayRuleSet;
+import com.cardinal.inventory.Inventory;
+
+/**
+ * Everything one store prices a checkout with: its catalog, tool type rules, holidays and weekend, and optionally the
+ * inventory it reserves from.
+ * <p>
+ * Immutable.  The {@code with} methods return a new context sharing everything they don't change, so stores built
+ * from the same base share its catalog, registry and compiled holiday calendar rather than each holding a copy.
+ */
+public final class PricingContext {
+
+    private static final PricingContext DEFAULT_CONTEXT = new PricingContext("default", new ToolCatalogDto(),
+            ToolTypeRegistry.defaultRegistry(), HolidayCalendar.defaultCalendar(), Holidays.WEEKEND_DAYS);
+
+    private final String storeId;
+    private final ToolCatalogDto baseCatalog;
+    private final List<Tool> catalogOverrides;
+    private final ToolTypeRegistry toolTypes;
+    private final HolidayCalendar holidayCalendar;
+    private final Set<DayOfWeek> weekendDays;
+    private final ChargeableDaysCalculator chargeableDaysCalculator;
+    private final Inventory inventory;
+    // the overrides layered over the last base snapshot seen, rebuilt when the base catalog is reloaded
+    private volatile LayeredToolCatalog layeredCatalog;
+
+    /**
+     * @param storeId         the store this context prices for
+     * @param catalog         the catalog of tools available to rent
+     * @param toolTypes       the current pricing rule for each tool type
+     * @param holidayCalendar the holidays observed at the store
+     * @param weekendDays     the days of the week which make up the store's weekend
+     */
+    public PricingContext(String storeId, ToolCatalogDto catalog, ToolTypeRegistry toolTypes,
+            HolidayCalendar holidayCalendar, Set<DayOfWeek> weekendDays) {
+        this(storeId, catalog, Collections.emptyList(), toolTypes, holidayCalendar, copyOf(weekendDays), null, null);
+    }
+
+    private PricingContext(String storeId, ToolCatalogDto baseCatalog, List<Tool> catalogOverrides,
+            ToolTypeRegistry toolTypes, HolidayCalendar holidayCalendar, Set<DayOfWeek> weekendDays,
+            ChargeableDaysCalculator chargeableDaysCalculator, Inventory inventory) {
+        if (baseCatalog == null || catalogOverrides == null || toolTypes == null || holidayCalendar == null
+                || weekendDays == null) {
+            throw new IllegalArgumentException("A pricing context needs a catalog, tool types, holidays and weekend.");
+        }
+
+        this.storeId = storeId;
+        this.baseCatalog = baseCatalog;
+        this.catalogOverrides = catalogOverrides;
+        this.toolTypes = toolTypes;
+        this.holidayCalendar = holidayCalendar;
+        this.weekendDays = weekendDays;
+        // calculators are stateless, so every store with the same holidays and weekend shares the calendar's one
+        this.chargeableDaysCalculator = chargeableDaysCalculator != null ? chargeableDaysCalculator
+                : holidayCalendar.chargeableDaysCalculator(weekendDays);
+        this.inventory = inventory;
+    }
+
+    /**
+     * @return the context of The Store, the default catalog, tool types and holidays with a Saturday/Sunday weekend
+     */
+    public static PricingContext defaultContext() {
+        return DEFAULT_CONTEXT;
+    }
+
+    /**
+     * @param storeId the store the new context prices for
+     * @return a copy of this context for another store
+     */
+    public PricingContext withStoreId(String storeId) {
+        return new PricingContext(storeId, baseCatalog, catalogOverrides, toolTypes, holidayCalendar, weekendDays,
+                chargeableDaysCalculator, inventory);
+    }
+
+    /**
+     * @param catalog the catalog of tools available to rent
+     * @return a copy of this context using the given catalog, keeping any overrides on top of it
+     */
+    public PricingContext withCatalog(ToolCatalogDto catalog) {
+        return new PricingContext(storeId, catalog, catalogOverrides, toolTypes, holidayCalendar, weekendDays,
+                chargeableDaysCalculator, inventory);
+    }
+
+    /**
+     * @param overrides the store's own tools, replacing base tools with the same code and adding the rest
+     * @return a copy of this context with the overrides layered over its catalog
+     */
+    public PricingContext withCatalogOverrides(Collection<Tool> overrides) {
+        // build it once now so a bad override fails here rather than at checkout
+        new IndexedToolCatalog(overrides);
+        return new PricingContext(storeId, baseCatalog, Collections.unmodifiableList(new ArrayList<>(overrides)),
+                toolTypes, holidayCalendar, weekendDays, chargeableDaysCalculator, inventory);
+    }
+
+    /**
+     * @param toolTypes the current pricing rule for each tool type
+     * @return a copy of this context using the given tool types
+     */
+    public PricingContext withToolTypes(ToolTypeRegistry toolTypes) {
+        return new PricingContext(storeId, baseCatalog, catalogOverrides, toolTypes, holidayCalendar, weekendDays,
+                chargeableDaysCalculator, inventory);
+    }
+
+    /**
+     * @param holidays the holidays observed at the store, compiled once per rule set and shared by every store
+     * @return a copy of this context observing the given holidays
+     */
+    public PricingContext withHolidays(HolidayRuleSet holidays) {
+        return withHolidays(holidays.calendar());
+    }
+
+    /**
+     * @param holidayCalendar the holidays observed at the store
+     * @return a copy of this context observing the given holidays
+     */
+    public PricingContext withHolidays(HolidayCalendar holidayCalendar) {
+        return new PricingContext(storeId, baseCatalog, catalogOverrides, toolTypes, holidayCalendar, weekendDays,
+                null, inventory);
+    }
+
+    /**
+     * @param weekendDays the days of the week which make up the store's weekend, may be empty
+     * @return a copy of this context with the given weekend
+     */
+    public PricingContext withWeekendDays(Set<DayOfWeek> weekendDays) {
+        return new PricingContext(storeId, baseCatalog, catalogOverrides, toolTypes, holidayCalendar,
+                copyOf(weekendDays), null, inventory);
+    }
+
+    private static Set<DayOfWeek> copyOf(Set<DayOfWeek> weekendDays) {
+        if (weekendDays == null) {
+            return null;
+        }
+        return Collections.unmodifiableSet(
+                weekendDays.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(weekendDays));
+    }
+
+    /**
+     * Look chargeable days up in tables built for the store's holidays and weekend, rather than working them out on
+     * each checkout.  Changing the holidays or weekend afterwards goes back to working them out.  Stores derived from
+     * the returned context share its tables.
+     *
+     * @param firstYear the first year of checkouts to tabulate
+     * @param lastYear  the last year of checkouts to tabulate, inclusive
+     * @return a copy of this context with the tables built
+     * @see TableChargeableDaysCalculator
+     */
+    public PricingContext withPrecomputedChargeableDays(int firstYear, int lastYear) {
+        TableChargeableDaysCalculator calculator =
+                new TableChargeableDaysCalculator(holidayCalendar, weekendDays, firstYear, lastYear).precompute();
+        return new PricingContext(storeId, baseCatalog, catalogOverrides, toolTypes, holidayCalendar, weekendDays,
+                calculator, inventory);
+    }
+
+    /**
+     * Count chargeable days with a given calculator, built once and shared by every checkout priced with the returned
+     * context and the stores derived from it, e.g. a
+     * {@link com.cardinal.calculators.AdaptiveChargeableDaysCalculator}, or a
+     * {@link com.cardinal.calculators.ShadowChargeableDaysCalculator} to try a new calculator out against the current
+     * one.  It should follow this store's holidays and weekend, changing them afterwards goes back to the default.
+     *
+     * @param calculator counts the chargeable days of each checkout
+     * @return a copy of this context with the given calculator
+     */
+    public PricingContext withChargeableDaysCalculator(ChargeableDaysCalculator calculator) {
+        if (calculator == null) {
+            throw new IllegalArgumentException("A chargeable days calculator must be provided.");
+        }
+        return new PricingContext(storeId, baseCatalog, catalogOverrides, toolTypes, holidayCalendar, weekendDays,
+                calculator, inventory);
+    }
+
+    /**
+     * @param inventory the units the store has on hand, reserved at checkout
+     * @return a copy of this context reserving from the given inventory
+     */
+    public PricingContext withInventory(Inventory inventory) {
+        return new PricingContext(storeId, baseCatalog, catalogOverrides, toolTypes, holidayCalendar, weekendDays,
+                chargeableDaysCalculator, inventory);
+    }
+
+    public String getStoreId() {
+        return storeId;
+    }
+
+    /**
+     * @return the current catalog snapshot for the store, with its overrides in place
+     */
+    public ToolCatalog getCatalog() {
+        ToolCatalog base = baseCatalog.getCatalog();
+        if (catalogOverrides.isEmpty()) {
+            return base;
+        }
+
+        LayeredToolCatalog layered = layeredCatalog;
+        if (layered == null || layered.getBase() != base) {
+            // racing threads build the same layers, whichever lands last is kept
+            layered = new LayeredToolCatalog(base, catalogOverrides);
+            layeredCatalog = layered;
+        }
+        return layered;
+    }
+
+    public ToolCatalogDto getBaseCatalog() {
+        return baseCatalog;
+    }
+
+    public List<Tool> getCatalogOverrides() {
+        return catalogOverrides;
+    }
+
+    public ToolTypeRegistry getToolTypes() {
+        return toolTypes;
+    }
+
+    public HolidayCalendar getHolidayCalendar() {
+        return holidayCalendar;
+    }
+
+    public Set<DayOfWeek> getWeekendDays() {
+        return weekendDays;
+    }
+
+    public ChargeableDaysCalculator getChargeableDaysCalculator() {
+        return chargeableDaysCalculator;
+    }
+
+    /**
+     * @return the units the store has on hand, null when the store doesn't track them and a tool is never out
+     */
+    public Inventory getInventory() {
+        return inventory;
+    }
+}
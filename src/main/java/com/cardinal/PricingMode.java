@@ -0,0 +1,65 @@
+package com.cardinal;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * How the Cashier does its money math.  Both modes produce exactly the same cents, see PricingModeTest.
+ */
+public enum PricingMode {
+    /**
+     * The original BigDecimal arithmetic.  Kept as the reference the long path is checked against.
+     */
+    BIG_DECIMAL {
+        @Override
+        public long totalChargeCents(ToolType toolType, long chargeableDays) {
+            return toCents(toolType.getDailyCharge().multiply(BigDecimal.valueOf(chargeableDays)));
+        }
+
+        @Override
+        public long discountCents(long totalChargeCents, int discountAsPercent) {
+            return toCents(BigDecimal.valueOf(totalChargeCents, 2)
+                    .multiply(BigDecimal.valueOf(discountAsPercent, 2))
+                    .setScale(2, RoundingMode.HALF_UP));
+        }
+    },
+
+    /**
+     * Scaled long cents with explicit HALF_UP rounding, nothing is allocated.  Throws an ArithmeticException rather
+     * than overflowing.
+     */
+    LONG_CENTS {
+        @Override
+        public long totalChargeCents(ToolType toolType, long chargeableDays) {
+            return Math.multiplyExact(toolType.getDailyChargeCents(), chargeableDays);
+        }
+
+        @Override
+        public long discountCents(long totalChargeCents, int discountAsPercent) {
+            // cents times percent is in hundredths of a cent, round that back to cents half away from zero
+            long hundredthsOfCents = Math.multiplyExact(totalChargeCents, (long) discountAsPercent);
+            if (hundredthsOfCents < 0) {
+                return -((-hundredthsOfCents + 50) / 100);
+            }
+            return (hundredthsOfCents + 50) / 100;
+        }
+    };
+
+    /**
+     * @param toolType       the type of tool rented
+     * @param chargeableDays the days being charged for
+     * @return the total charge before discount, in cents
+     */
+    public abstract long totalChargeCents(ToolType toolType, long chargeableDays);
+
+    /**
+     * @param totalChargeCents  the total charge before discount, in cents
+     * @param discountAsPercent the discount as a percentage
+     * @return the discount, rounded half up to the cent
+     */
+    public abstract long discountCents(long totalChargeCents, int discountAsPercent);
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+}
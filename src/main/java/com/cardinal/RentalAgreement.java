@@ -5,22 +5,25 @@ import java.time.LocalDate;
 
 /**
  * Rental Agreement, capturing the rental as it was produced in case the price changes later.
+ * <p>
+ * Immutable, so agreements can be handed between threads freely.  It is kept compact since it is created for every
+ * checkout: dates are stored as epoch days and money as whole cents, the LocalDate and BigDecimal views are built
+ * when asked for.
  */
 public class RentalAgreement {
     // including the tool directly, as it already has the structure.  will provide helpers as well
-    private Tool rentedTool;
-    private int rentalDays;
-    private LocalDate checkoutDate;
-    private int discountAsPercent;
+    private final Tool rentedTool;
+    private final int rentalDays;
+    private final int checkoutEpochDay;
+    private final int discountAsPercent;
 
-    private LocalDate dueDate;
-    private long chargeableDays;
-    private BigDecimal totalDueBeforeDiscount;
-    private BigDecimal totalDiscountAmount;
-    private BigDecimal totalDueAfterDiscount;
+    private final int chargeableDays;
+    private final long totalDueBeforeDiscountCents;
+    private final long totalDiscountAmountCents;
 
     /**
-     * Construct a rental agreement with the core logic.
+     * Construct a rental agreement with the core logic.  It isn't priced, the chargeable days and totals are zero,
+     * which is enough to ask a chargeable days calculator about it.
      *
      * @param rentedTool        the tool being rental
      * @param rentalDays        the number of days being rented
@@ -28,10 +31,29 @@ public class RentalAgreement {
      * @param discountAsPercent the discount for the contract total
      */
     public RentalAgreement(Tool rentedTool, int rentalDays, LocalDate checkoutDate, int discountAsPercent) {
+        this(rentedTool, rentalDays, Math.toIntExact(checkoutDate.toEpochDay()), discountAsPercent, 0, 0, 0);
+    }
+
+    /**
+     * Construct a fully priced rental agreement.
+     *
+     * @param rentedTool                  the tool being rental
+     * @param rentalDays                  the number of days being rented
+     * @param checkoutEpochDay            the checkout date (start of rental), as {@link LocalDate#toEpochDay()}
+     * @param discountAsPercent           the discount for the contract total
+     * @param chargeableDays              the number of days charged for
+     * @param totalDueBeforeDiscountCents the charge for the chargeable days, in cents
+     * @param totalDiscountAmountCents    the discount taken off that charge, in cents
+     */
+    public RentalAgreement(Tool rentedTool, int rentalDays, int checkoutEpochDay, int discountAsPercent,
+                           int chargeableDays, long totalDueBeforeDiscountCents, long totalDiscountAmountCents) {
         this.rentedTool = rentedTool;
         this.rentalDays = rentalDays;
-        this.checkoutDate = checkoutDate;
+        this.checkoutEpochDay = checkoutEpochDay;
         this.discountAsPercent = discountAsPercent;
+        this.chargeableDays = chargeableDays;
+        this.totalDueBeforeDiscountCents = totalDueBeforeDiscountCents;
+        this.totalDiscountAmountCents = totalDiscountAmountCents;
     }
 
     public String getToolCode() {
@@ -54,72 +76,62 @@ public class RentalAgreement {
         return rentedTool;
     }
 
-    public void setRentedTool(Tool rentedTool) {
-        this.rentedTool = rentedTool;
-    }
-
-
     public int getRentalDays() {
         return rentalDays;
     }
 
-    public void setRentalDays(int rentalDays) {
-        this.rentalDays = rentalDays;
-    }
-
     public LocalDate getCheckoutDate() {
-        return checkoutDate;
+        return LocalDate.ofEpochDay(checkoutEpochDay);
     }
 
-    public void setCheckoutDate(LocalDate checkoutDate) {
-        this.checkoutDate = checkoutDate;
+    public int getCheckoutEpochDay() {
+        return checkoutEpochDay;
     }
 
     public int getDiscountAsPercent() {
         return discountAsPercent;
     }
 
-    public void setDiscountAsPercent(int discountAsPercent) {
-        this.discountAsPercent = discountAsPercent;
-    }
-
+    /**
+     * @return the due date, the last day of the rental, which is charged
+     */
     public LocalDate getDueDate() {
-        return dueDate;
+        return LocalDate.ofEpochDay(getDueEpochDay());
     }
 
-    public void setDueDate(LocalDate dueDate) {
-        this.dueDate = dueDate;
+    public long getDueEpochDay() {
+        return (long) checkoutEpochDay + rentalDays;
     }
 
     public Long getChargeableDays() {
-        return chargeableDays;
+        return (long) chargeableDays;
     }
 
-    public void setChargeableDays(Long chargeableDays) {
-        this.chargeableDays = chargeableDays;
+    public int getChargeableDayCount() {
+        return chargeableDays;
     }
 
     public BigDecimal getTotalDueBeforeDiscount() {
-        return totalDueBeforeDiscount;
+        return BigDecimal.valueOf(totalDueBeforeDiscountCents, 2);
     }
 
-    public void setTotalDueBeforeDiscount(BigDecimal totalDueBeforeDiscount) {
-        this.totalDueBeforeDiscount = totalDueBeforeDiscount;
+    public long getTotalDueBeforeDiscountCents() {
+        return totalDueBeforeDiscountCents;
     }
 
     public BigDecimal getTotalDiscountAmount() {
-        return totalDiscountAmount;
+        return BigDecimal.valueOf(totalDiscountAmountCents, 2);
     }
 
-    public void setTotalDiscountAmount(BigDecimal totalDiscountAmount) {
-        this.totalDiscountAmount = totalDiscountAmount;
+    public long getTotalDiscountAmountCents() {
+        return totalDiscountAmountCents;
     }
 
     public BigDecimal getTotalDueAfterDiscount() {
-        return totalDueAfterDiscount;
+        return BigDecimal.valueOf(getTotalDueAfterDiscountCents(), 2);
     }
 
-    public void setTotalDueAfterDiscount(BigDecimal totalDueAfterDiscount) {
-        this.totalDueAfterDiscount = totalDueAfterDiscount;
+    public long getTotalDueAfterDiscountCents() {
+        return totalDueBeforeDiscountCents - totalDiscountAmountCents;
     }
 }
@@ -0,0 +1,54 @@
+package com.cardinal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The pricing context of every store, looked up by store id at checkout.
+ */
+public final class StoreDirectory {
+
+    private final Map<String, PricingContext> contexts = new ConcurrentHashMap<>();
+
+    /**
+     * Add a store, or replace the context of one already registered.
+     *
+     * @param context the store's pricing context, keyed by its store id
+     */
+    public void register(PricingContext context) {
+        if (context == null || context.getStoreId() == null) {
+            throw new IllegalArgumentException("A pricing context with a store id must be provided.");
+        }
+        contexts.put(context.getStoreId(), context);
+    }
+
+    /**
+     * @param storeId the store to look up
+     * @return the store's pricing context, or empty if it isn't registered
+     */
+    public Optional<PricingContext> find(String storeId) {
+        return storeId == null ? Optional.empty() : Optional.ofNullable(contexts.get(storeId));
+    }
+
+    /**
+     * @param storeId the store to look up
+     * @return the store's pricing context
+     */
+    public PricingContext forStore(String storeId) {
+        PricingContext context = storeId == null ? null : contexts.get(storeId);
+        if (context == null) {
+            throw new IllegalArgumentException("Unknown store.  You provided: " + storeId);
+        }
+        return context;
+    }
+
+    /**
+     * @return every registered store's pricing context
+     */
+    public Collection<PricingContext> getContexts() {
+        return Collections.unmodifiableCollection(contexts.values());
+    }
+}
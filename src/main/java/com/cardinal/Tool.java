@@ -1,12 +1,12 @@
 package com.cardinal;
 
 /**
- * A Tool available for rent.
+ * A Tool available for rent.  Immutable, as the catalog indexes tools by their code and shares them across threads.
  */
 public class Tool {
-    private String toolCode;
-    private String brand;
-    private ToolType toolType;
+    private final String toolCode;
+    private final String brand;
+    private final ToolType toolType;
 
     public Tool(String toolCode, String brand, ToolType toolType) {
         this.toolCode = toolCode;
@@ -18,23 +18,11 @@ public class Tool {
         return toolCode;
     }
 
-    public void setToolCode(String toolCode) {
-        this.toolCode = toolCode;
-    }
-
     public String getBrand() {
         return brand;
     }
 
-    public void setBrand(String brand) {
-        this.brand = brand;
-    }
-
     public ToolType getToolType() {
         return toolType;
     }
-
-    public void setToolType(ToolType toolType) {
-        this.toolType = toolType;
-    }
 }
@@ -0,0 +1,40 @@
+package com.cardinal;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An immutable snapshot of the tools available for rent, safe to share across threads.
+ *
+ * @see IndexedToolCatalog
+ * @see com.cardinal.catalog.MappedToolCatalog
+ */
+public interface ToolCatalog {
+
+    /**
+     * Find a tool by its tool code.
+     *
+     * @param toolCode the tool code to look up, may be null
+     * @return the tool, or empty if it is not in the catalog
+     */
+    Optional<Tool> findByCode(String toolCode);
+
+    /**
+     * @param toolType the type of tool
+     * @return every tool of the given type, empty if there are none
+     */
+    List<Tool> findByType(ToolType toolType);
+
+    /**
+     * @param brand the brand of tool
+     * @return every tool of the given brand, empty if there are none
+     */
+    List<Tool> findByBrand(String brand);
+
+    /**
+     * @return all tools in the catalog, in catalog order
+     */
+    List<Tool> getTools();
+
+    int size();
+}
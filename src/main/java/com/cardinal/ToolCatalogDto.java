@@ -1,27 +1,60 @@
 package com.cardinal;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 
 /**
  * A datasource which tracks the Tools for the store.
+ * <p>
+ * Serves lookups from an immutable {@link ToolCatalog} snapshot, either held on the heap or mapped from a catalog
+ * file.  A reload swaps in a whole new snapshot at once, so a lookup running alongside a reload sees either the old
+ * catalog or the new one, never a mix of the two.
  */
 public class ToolCatalogDto {
 
+    private static final ToolCatalog DEFAULT_CATALOG = new IndexedToolCatalog(Arrays.asList(
+            new Tool("LADW", "Werner", ToolType.LADDER),
+            new Tool("CHNS", "Stihl", ToolType.CHAINSAW),
+            new Tool("JAKR", "Ridgid", ToolType.JACKHAMMER),
+            new Tool("JAKD", "DeWalt", ToolType.JACKHAMMER)));
+
+    private volatile ToolCatalog catalog;
+
+    public ToolCatalogDto() {
+        this(DEFAULT_CATALOG);
+    }
+
+    public ToolCatalogDto(ToolCatalog catalog) {
+        reload(catalog);
+    }
+
+    /**
+     * Swap in a new catalog.  Lookups already in progress finish against the catalog they started with.
+     *
+     * @param catalog the new catalog
+     */
+    public void reload(ToolCatalog catalog) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("A catalog must be provided.");
+        }
+        this.catalog = catalog;
+    }
+
+    /**
+     * @return the current catalog snapshot, use this when multiple lookups need to agree with each other
+     */
+    public ToolCatalog getCatalog() {
+        return catalog;
+    }
+
     /**
      * Retrieve all tools that can be rented from the catalog.
      *
      * @return the available tools to rent
      */
     public List<Tool> fetchToolsFromCatalog() {
-        List<Tool> availableTools = new ArrayList<>();
-        availableTools.add(new Tool("LADW", "Werner", ToolType.LADDER));
-        availableTools.add(new Tool("CHNS", "Stihl", ToolType.CHAINSAW));
-        availableTools.add(new Tool("JAKR", "Ridgid", ToolType.JACKHAMMER));
-        availableTools.add(new Tool("JAKD", "DeWalt", ToolType.JACKHAMMER));
-        return availableTools;
+        return catalog.getTools();
     }
 
     /**
@@ -31,11 +64,23 @@ public class ToolCatalogDto {
      * @return the tool, or empty if not found
      */
     public Optional<Tool> fetchToolByCode(String toolCode) {
-        // Tool Code is likely our Primary Key, as there is no mention of quantity or a reserving system.
-        // if we want to extend that, this will need to be adjusted.
-        return fetchToolsFromCatalog().stream()
-                .filter(tool -> Objects.equals(tool.getToolCode(), toolCode))
-                .findAny();
+        // Tool Code is our Primary Key, quantity and reservations are kept by code in com.cardinal.inventory.Inventory
+        return catalog.findByCode(toolCode);
+    }
 
+    /**
+     * @param toolType the type of tool
+     * @return every tool of that type in the catalog
+     */
+    public List<Tool> fetchToolsByType(ToolType toolType) {
+        return catalog.findByType(toolType);
+    }
+
+    /**
+     * @param brand the brand of tool
+     * @return every tool of that brand in the catalog
+     */
+    public List<Tool> fetchToolsByBrand(String brand) {
+        return catalog.findByBrand(brand);
     }
 }
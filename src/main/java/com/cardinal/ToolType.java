@@ -2,31 +2,94 @@ package com.cardinal;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * The type of tool to rent out.  Includes information on charges and excluded days.
  * <p>
- * TODO: This should come from a datasource to allow the store to grow.
+ * The three types the store opened with are built in, the rest come from the {@link ToolTypeRegistry} so new types
+ * and new prices don't need a redeploy.  Two tool types are equal when they have the same name, a reload may change
+ * the price of a type but not which type it is.  The charge and the excluded days are plain final fields, as the
+ * calculators read them on every checkout.
  */
-public enum ToolType {
-    LADDER(BigDecimal.valueOf(1.99), false, false),
-    CHAINSAW(BigDecimal.valueOf(1.49), true, false),
-    JACKHAMMER(BigDecimal.valueOf(2.99), true, true);
+public final class ToolType {
+    public static final ToolType LADDER = new ToolType("LADDER", BigDecimal.valueOf(1.99), false, false);
+    public static final ToolType CHAINSAW = new ToolType("CHAINSAW", BigDecimal.valueOf(1.49), true, false);
+    public static final ToolType JACKHAMMER = new ToolType("JACKHAMMER", BigDecimal.valueOf(2.99), true, true);
 
+    private static final List<ToolType> BUILT_IN = Collections.unmodifiableList(
+            Arrays.asList(LADDER, CHAINSAW, JACKHAMMER));
+
+    private final String name;
     private final BigDecimal dailyCharge;
+    private final long dailyChargeCents;
     private final boolean noDailyChargeOnWeekends;
     private final boolean noDailyChargeOnHolidays;
 
-    ToolType(BigDecimal dailyCharge, boolean noDailyChargeOnWeekends, boolean noDailyChargeOnHolidays) {
+    /**
+     * @param name                    the unique name of the type
+     * @param dailyCharge             the charge per chargeable day, rounded to the cent
+     * @param noDailyChargeOnWeekends true when weekends are free
+     * @param noDailyChargeOnHolidays true when holidays are free
+     */
+    public ToolType(String name, BigDecimal dailyCharge, boolean noDailyChargeOnWeekends,
+                    boolean noDailyChargeOnHolidays) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("A tool type must have a name.");
+        }
+        if (dailyCharge == null || dailyCharge.signum() < 0) {
+            throw new IllegalArgumentException("The daily charge for " + name + " cannot be negative.  You provided: "
+                    + dailyCharge);
+        }
+
+        this.name = name;
         this.dailyCharge = dailyCharge.setScale(2, RoundingMode.HALF_UP);
+        this.dailyChargeCents = this.dailyCharge.unscaledValue().longValueExact();
         this.noDailyChargeOnWeekends = noDailyChargeOnWeekends;
         this.noDailyChargeOnHolidays = noDailyChargeOnHolidays;
     }
 
+    /**
+     * @return every current tool type in the default registry, in the order they were loaded, so it always agrees
+     *         with {@link #valueOf(String)}
+     */
+    public static ToolType[] values() {
+        Collection<ToolType> current = ToolTypeRegistry.defaultRegistry().getToolTypes();
+        return current.toArray(new ToolType[current.size()]);
+    }
+
+    /**
+     * @return the tool types the store opened with, which the default registry starts out with
+     */
+    static List<ToolType> builtIn() {
+        return BUILT_IN;
+    }
+
+    /**
+     * @param name the name of the type
+     * @return the current tool type with that name in the default registry
+     * @throws IllegalArgumentException when there is no such tool type
+     */
+    public static ToolType valueOf(String name) {
+        return ToolTypeRegistry.defaultRegistry().find(name)
+                .orElseThrow(() -> new IllegalArgumentException("No tool type named: " + name));
+    }
+
+    public String name() {
+        return name;
+    }
+
     public BigDecimal getDailyCharge() {
         return dailyCharge;
     }
 
+    public long getDailyChargeCents() {
+        return dailyChargeCents;
+    }
+
     public boolean noChargeOnWeekends() {
         return noDailyChargeOnWeekends;
     }
@@ -34,4 +97,29 @@ public enum ToolType {
     public boolean noChargeOnHolidays() {
         return noDailyChargeOnHolidays;
     }
+
+    /**
+     * @param other another rule, usually for the same type from another registry or before a reload
+     * @return true when both charge the same and take the same days off, whichever instance each is
+     */
+    public boolean hasSameRule(ToolType other) {
+        return this == other || name.equals(other.name) && dailyChargeCents == other.dailyChargeCents
+                && noDailyChargeOnWeekends == other.noDailyChargeOnWeekends
+                && noDailyChargeOnHolidays == other.noDailyChargeOnHolidays;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof ToolType && name.equals(((ToolType) other).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
 }
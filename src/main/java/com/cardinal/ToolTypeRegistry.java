@@ -0,0 +1,91 @@
+package com.cardinal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The current pricing rule for each tool type, loaded from a datasource such as
+ * {@link com.cardinal.catalog.ToolTypeCsv} instead of being compiled in.
+ * <p>
+ * The rules are held as one immutable table.  A reload builds a whole new table and swaps it in at once
+ * (copy-on-write), so a checkout running alongside a reload prices against either the old table or the new one,
+ * never a mix of the two.
+ */
+public final class ToolTypeRegistry {
+
+    private static final ToolTypeRegistry DEFAULT_REGISTRY = new ToolTypeRegistry(ToolType.builtIn());
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Map<String, ToolType> toolTypes;
+
+    /**
+     * @param toolTypes the initial tool types, names must be unique
+     */
+    public ToolTypeRegistry(Collection<ToolType> toolTypes) {
+        reload(toolTypes);
+    }
+
+    /**
+     * @return the process wide registry, starting out with the built in tool types
+     */
+    public static ToolTypeRegistry defaultRegistry() {
+        return DEFAULT_REGISTRY;
+    }
+
+    /**
+     * Swap in a new set of tool types, replacing all of the current ones.
+     *
+     * @param toolTypes the new tool types, names must be unique
+     */
+    public void reload(Collection<ToolType> toolTypes) {
+        if (toolTypes == null) {
+            throw new IllegalArgumentException("Tool types must be provided.");
+        }
+
+        Map<String, ToolType> table = new LinkedHashMap<>(toolTypes.size() * 4 / 3 + 1);
+        for (ToolType toolType : toolTypes) {
+            if (table.put(toolType.name(), toolType) != null) {
+                throw new IllegalArgumentException("Duplicate tool type: " + toolType.name());
+            }
+        }
+        this.toolTypes = Collections.unmodifiableMap(table);
+        version.incrementAndGet();
+    }
+
+    /**
+     * @return a number which changes every time the tool types are reloaded, e.g. to know when cached prices are stale
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * @param name the name of the tool type
+     * @return the current tool type with that name, or empty if there is none
+     */
+    public Optional<ToolType> find(String name) {
+        return Optional.ofNullable(toolTypes.get(name));
+    }
+
+    /**
+     * Bring a tool type up to date, e.g. one held by a tool loaded before the latest price change.
+     *
+     * @param toolType the tool type to resolve
+     * @return the current rule for that type, or empty when the registry doesn't have it, e.g. because a reload took
+     *         it out, so it has no price to rent at
+     */
+    public Optional<ToolType> resolve(ToolType toolType) {
+        return Optional.ofNullable(toolTypes.get(toolType.name()));
+    }
+
+    /**
+     * @return every current tool type, in the order they were loaded
+     */
+    public Collection<ToolType> getToolTypes() {
+        return toolTypes.values();
+    }
+}
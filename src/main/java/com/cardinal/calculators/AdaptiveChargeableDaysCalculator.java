@@ -0,0 +1,58 @@
+package com.cardinal.calculators;
+
+import java.time.DayOfWeek;
+import java.util.Set;
+
+import com.cardinal.HolidayCalendar;
+import com.cardinal.ToolType;
+
+/**
+ * Pick a calculator by the length of the rental, one for short rentals and another for the rest.  By default the
+ * shortest rentals, up to {@value #DEFAULT_MAX_LOOP_DAYS} days, walk their days with a
+ * {@link LoopChargeableDaysCalculator}, which beats the fixed cost of the arithmetic until about then, and longer
+ * ones go to an {@link ArithmeticChargeableDaysCalculator}.  See ChargeableDaysCalculatorBenchmark for where the two
+ * cross on a given machine.
+ */
+public class AdaptiveChargeableDaysCalculator implements ChargeableDaysCalculator {
+
+    public static final int DEFAULT_MAX_LOOP_DAYS = 4;
+
+    private final ChargeableDaysCalculator shortRentals;
+    private final ChargeableDaysCalculator longRentals;
+    private final int maxShortRentalDays;
+
+    /**
+     * @param holidayCalendar the holidays to take off
+     * @param weekendDays     the days of the week which make up the weekend
+     */
+    public AdaptiveChargeableDaysCalculator(HolidayCalendar holidayCalendar, Set<DayOfWeek> weekendDays) {
+        this(new LoopChargeableDaysCalculator(holidayCalendar, weekendDays),
+                new ArithmeticChargeableDaysCalculator(holidayCalendar, weekendDays), DEFAULT_MAX_LOOP_DAYS);
+    }
+
+    /**
+     * @param shortRentals       prices rentals up to the given length
+     * @param longRentals        prices everything longer
+     * @param maxShortRentalDays the longest rental priced as short
+     */
+    public AdaptiveChargeableDaysCalculator(ChargeableDaysCalculator shortRentals,
+            ChargeableDaysCalculator longRentals, int maxShortRentalDays) {
+        if (shortRentals == null || longRentals == null) {
+            throw new IllegalArgumentException("Both a short and a long rental calculator must be provided.");
+        }
+        this.shortRentals = shortRentals;
+        this.longRentals = longRentals;
+        this.maxShortRentalDays = maxShortRentalDays;
+    }
+
+    @Override
+    public long chargeableDays(ToolType toolType, long checkoutEpochDay, int rentalDays) {
+        return rentalDays <= maxShortRentalDays
+                ? shortRentals.chargeableDays(toolType, checkoutEpochDay, rentalDays)
+                : longRentals.chargeableDays(toolType, checkoutEpochDay, rentalDays);
+    }
+
+    public int getMaxShortRentalDays() {
+        return maxShortRentalDays;
+    }
+}
@@ -0,0 +1,83 @@
+package com.cardinal.calculators;
+
+import java.time.DayOfWeek;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.cardinal.HolidayCalendar;
+import com.cardinal.Holidays;
+import com.cardinal.ToolType;
+
+/**
+ * Calculate the number of chargeable days with straight arithmetic on epoch days, rather than walking every day of
+ * the rental.  Weekends are counted per day of week with a floor division and holidays come from the shared
+ * {@link HolidayCalendar}, so the cost doesn't grow with the length of the rental and nothing is allocated.
+ * <p>
+ * Produces exactly what {@link ReadableChargeableDaysCalculator} does, see ArithmeticChargeableDaysCalculatorTest.
+ */
+public class ArithmeticChargeableDaysCalculator implements ChargeableDaysCalculator {
+
+    private final HolidayCalendar holidayCalendar;
+    private final Set<DayOfWeek> weekendDays;
+    private final int[] weekendResidues;
+
+    public ArithmeticChargeableDaysCalculator() {
+        this(HolidayCalendar.defaultCalendar(), Holidays.WEEKEND_DAYS);
+    }
+
+    /**
+     * @param holidayCalendar the holidays to take off
+     * @param weekendDays     the days of the week which make up the weekend
+     */
+    public ArithmeticChargeableDaysCalculator(HolidayCalendar holidayCalendar, Set<DayOfWeek> weekendDays) {
+        this.holidayCalendar = holidayCalendar;
+        this.weekendDays = weekendDays.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(weekendDays);
+        weekendResidues = new int[this.weekendDays.size()];
+        int i = 0;
+        for (DayOfWeek day : this.weekendDays) {
+            weekendResidues[i++] = epochDayResidue(day);
+        }
+    }
+
+    @Override
+    public long chargeableDays(ToolType toolType, long checkoutEpochDay, int rentalDays) {
+        if (rentalDays <= 0) {
+            return rentalDays;
+        }
+
+        // same as the readable calculator, the checkout day is free and the due date is charged
+        long firstDay = checkoutEpochDay + 1;
+        long lastDay = checkoutEpochDay + rentalDays;
+
+        long chargeableDays = rentalDays;
+        if (toolType.noChargeOnWeekends()) {
+            for (int residue : weekendResidues) {
+                chargeableDays -= countDaysCongruent(firstDay, lastDay, residue);
+            }
+        }
+
+        if (toolType.noChargeOnHolidays()) {
+            // a holiday on the weekend was already taken off above, don't take it off twice
+            if (toolType.noChargeOnWeekends()) {
+                chargeableDays -= holidayCalendar.countHolidaysBetween(firstDay, lastDay, weekendDays);
+            } else {
+                chargeableDays -= holidayCalendar.countHolidaysBetween(firstDay, lastDay);
+            }
+        }
+        return chargeableDays;
+    }
+
+    /**
+     * Every day of the week lines up with a fixed remainder of its epoch day modulo 7.  1970-01-01 was a Thursday.
+     */
+    private static int epochDayResidue(DayOfWeek day) {
+        return Math.floorMod(day.getValue() - DayOfWeek.THURSDAY.getValue(), 7);
+    }
+
+    /**
+     * @return how many epoch days between first and last (inclusive) leave the given remainder modulo 7
+     */
+    private static long countDaysCongruent(long firstDay, long lastDay, int residue) {
+        return Math.floorDiv(lastDay - residue, 7) - Math.floorDiv(firstDay - 1 - residue, 7);
+    }
+}
@@ -0,0 +1,28 @@
+package com.cardinal.calculators;
+
+import java.util.function.Function;
+
+import com.cardinal.RentalAgreement;
+import com.cardinal.ToolType;
+
+/**
+ * A chargeable days calculator which can also be driven with primitives, so the hot path never has to box a result or
+ * build an agreement just to ask the question.
+ */
+public interface ChargeableDaysCalculator extends Function<RentalAgreement, Long> {
+
+    /**
+     * Calculate the chargeable days of a rental.  The checkout day itself is never charged, the due date is.
+     *
+     * @param toolType         the type of tool being rented
+     * @param checkoutEpochDay the checkout date, as {@link java.time.LocalDate#toEpochDay()}
+     * @param rentalDays       the number of days being rented
+     * @return the number of days to charge for
+     */
+    long chargeableDays(ToolType toolType, long checkoutEpochDay, int rentalDays);
+
+    @Override
+    default Long apply(RentalAgreement agreement) {
+        return chargeableDays(agreement.getToolType(), agreement.getCheckoutEpochDay(), agreement.getRentalDays());
+    }
+}
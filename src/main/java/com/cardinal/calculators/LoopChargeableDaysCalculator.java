@@ -0,0 +1,60 @@
+package com.cardinal.calculators;
+
+import java.time.DayOfWeek;
+import java.util.Set;
+
+import com.cardinal.HolidayCalendar;
+import com.cardinal.Holidays;
+import com.cardinal.ToolType;
+
+/**
+ * Walk the days of the rental like {@link ReadableChargeableDaysCalculator}, but on epoch days with primitives: the
+ * weekend is a lookup by day of week and a holiday is a single bit test in the {@link HolidayCalendar}.  The cost
+ * grows with the rental, so it only beats {@link ArithmeticChargeableDaysCalculator} for the shortest ones, see
+ * {@link AdaptiveChargeableDaysCalculator}.
+ */
+public class LoopChargeableDaysCalculator implements ChargeableDaysCalculator {
+
+    private final HolidayCalendar holidayCalendar;
+    // indexed by epoch day modulo 7
+    private final boolean[] weekend = new boolean[7];
+
+    public LoopChargeableDaysCalculator() {
+        this(HolidayCalendar.defaultCalendar(), Holidays.WEEKEND_DAYS);
+    }
+
+    /**
+     * @param holidayCalendar the holidays to take off
+     * @param weekendDays     the days of the week which make up the weekend
+     */
+    public LoopChargeableDaysCalculator(HolidayCalendar holidayCalendar, Set<DayOfWeek> weekendDays) {
+        this.holidayCalendar = holidayCalendar;
+        for (DayOfWeek day : weekendDays) {
+            // 1970-01-01 was a Thursday
+            weekend[Math.floorMod(day.getValue() - DayOfWeek.THURSDAY.getValue(), 7)] = true;
+        }
+    }
+
+    @Override
+    public long chargeableDays(ToolType toolType, long checkoutEpochDay, int rentalDays) {
+        boolean weekendsFree = toolType.noChargeOnWeekends();
+        boolean holidaysFree = toolType.noChargeOnHolidays();
+        if (rentalDays <= 0 || !weekendsFree && !holidaysFree) {
+            return rentalDays;
+        }
+
+        // the checkout day is free and the due date is charged
+        long chargeableDays = rentalDays;
+        long lastDay = checkoutEpochDay + rentalDays;
+        int dayOfWeek = (int) Math.floorMod(checkoutEpochDay + 1, 7L);
+        for (long day = checkoutEpochDay + 1; day <= lastDay; day++) {
+            if (weekendsFree && weekend[dayOfWeek] || holidaysFree && holidayCalendar.isHoliday(day)) {
+                chargeableDays--;
+            }
+            if (++dayOfWeek == 7) {
+                dayOfWeek = 0;
+            }
+        }
+        return chargeableDays;
+    }
+}
@@ -5,14 +5,15 @@ import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.function.Function;
 
-import com.cardinal.Holidays;
+import com.cardinal.HolidayCalendar;
 import com.cardinal.RentalAgreement;
 import com.cardinal.ToolType;
 
 /**
  * Ugly code, I wanted to see the performance difference for a straight math calculation.  Not used in the actual code.
  *
- * @deprecated because its faster, but uglier and much harder to understand
+ * @deprecated its partial week handling miscounts some rentals (e.g. a JACKHAMMER from 2015-05-24 for 39 days), use
+ * {@link ArithmeticChargeableDaysCalculator} which is tested against {@link ReadableChargeableDaysCalculator}
  */
 @Deprecated
 public class PerformanceChargeableDaysCalculator implements Function<RentalAgreement, Long> {
@@ -43,21 +44,9 @@ public class PerformanceChargeableDaysCalculator implements Function<RentalAgree
         }
 
         if (toolType.noChargeOnHolidays()) {
-            for (int year = checkoutDate.getYear(); year <= returnDate.getYear(); year++) {
-                if (isHolidayBetween(Holidays.resolveIndependenceDay(year), checkoutDate, returnDate)) {
-                    daysBetween--;
-                }
-
-                if (isHolidayBetween(Holidays.resolveLaborDay(year), checkoutDate, returnDate)) {
-                    daysBetween--;
-                }
-            }
+            daysBetween -= HolidayCalendar.defaultCalendar().countHolidaysBetween(checkoutDate, returnDate);
         }
 
         return Math.max(0, daysBetween);
     }
-
-    private boolean isHolidayBetween(LocalDate holiday, LocalDate startDate, LocalDate endDate) {
-        return !startDate.isAfter(holiday) && !endDate.isBefore(holiday);
-    }
 }
@@ -1,46 +1,60 @@
 package com.cardinal.calculators;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
+import java.util.Set;
 
+import com.cardinal.HolidayCalendar;
 import com.cardinal.Holidays;
-import com.cardinal.RentalAgreement;
 import com.cardinal.ToolType;
 
 /**
- * Calculate the number of chargeable days for this rental agreement.
+ * Calculate the number of chargeable days for this rental agreement.  The reference the faster calculators are
+ * tested against, and a good shadow for a new one, see {@link ShadowChargeableDaysCalculator}.
  */
-public class ReadableChargeableDaysCalculator implements Function<RentalAgreement, Long> {
+public class ReadableChargeableDaysCalculator implements ChargeableDaysCalculator {
 
-    private Map<Integer, List<LocalDate>> holidayCache = new HashMap<>();
+    private final HolidayCalendar holidayCalendar;
+    private final Set<DayOfWeek> weekendDays;
+
+    public ReadableChargeableDaysCalculator() {
+        this(HolidayCalendar.defaultCalendar());
+    }
+
+    public ReadableChargeableDaysCalculator(HolidayCalendar holidayCalendar) {
+        this(holidayCalendar, Holidays.WEEKEND_DAYS);
+    }
+
+    /**
+     * @param holidayCalendar the holidays to take off
+     * @param weekendDays     the days of the week which make up the weekend
+     */
+    public ReadableChargeableDaysCalculator(HolidayCalendar holidayCalendar, Set<DayOfWeek> weekendDays) {
+        this.holidayCalendar = holidayCalendar;
+        this.weekendDays = weekendDays;
+    }
 
     @Override
-    public Long apply(RentalAgreement agreement) {
+    public long chargeableDays(ToolType toolType, long checkoutEpochDay, int rentalDays) {
         // This isn't going to scale very well.  However a store is unlikely to rent a tool across a huge time span.
         // This code is significantly more readable, and with Java 9 we can iterate over the days more cleanly.
         // See PerformanceChargeableDaysCalculator for what it starts to look like when tuned for performance.
 
         // Test 5 indicates that we need to charge to the last date inclusive, and thus do not charge for the first day.
         // This means if you rent on friday and return on Sunday (2 elapsed days) that it'll not charge you.
-        LocalDate checkoutDate = agreement.getCheckoutDate().plusDays(1);
-        LocalDate finalDate = agreement.getDueDate();
+        LocalDate checkoutDate = LocalDate.ofEpochDay(checkoutEpochDay).plusDays(1);
+        LocalDate finalDate = LocalDate.ofEpochDay(checkoutEpochDay + rentalDays);
 
-        ToolType toolType = agreement.getRentedTool().getToolType();
-        long rentalDays = agreement.getRentalDays();
+        long chargeableDays = rentalDays;
         for (LocalDate current = checkoutDate; !current.isAfter(finalDate); current = current.plusDays(1)) {
-            // lazily calculate the holidays for the year, in case we cross multiple years
-            List<LocalDate> holidays = holidayCache.computeIfAbsent(current.getYear(), Holidays::resolveHolidays);
-            if (toolType.noChargeOnWeekends() && Holidays.WEEKEND_DAYS.contains(current.getDayOfWeek())) {
-                rentalDays = rentalDays - 1;
-            } else if (toolType.noChargeOnHolidays() && holidays.contains(current)) {
+            if (toolType.noChargeOnWeekends() && weekendDays.contains(current.getDayOfWeek())) {
+                chargeableDays = chargeableDays - 1;
+            } else if (toolType.noChargeOnHolidays() && holidayCalendar.isHoliday(current)) {
                 // if a holiday falls on a weekend, we don't want to double-deduct (not that it can now)
-                rentalDays = rentalDays - 1;
+                chargeableDays = chargeableDays - 1;
             }
         }
-        return rentalDays;
+        return chargeableDays;
     }
 
 
@@ -0,0 +1,98 @@
+package com.cardinal.calculators;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.cardinal.ToolType;
+
+/**
+ * Check a calculator against another on live checkouts before trusting it, e.g. a new faster calculator in the
+ * shadow of the one in use, or the other way round.  Checkouts are always priced with the primary.  A sampled
+ * fraction of them are also run through the shadow, and any disagreement, or exception from the shadow, is counted
+ * and logged as a warning with everything needed to reproduce it.  The shadow never changes or fails a checkout.
+ */
+public class ShadowChargeableDaysCalculator implements ChargeableDaysCalculator {
+
+    private static final Logger LOG = Logger.getLogger(ShadowChargeableDaysCalculator.class.getName());
+
+    private final ChargeableDaysCalculator primary;
+    private final ChargeableDaysCalculator shadow;
+    private final double sampleRate;
+    private final LongAdder checked = new LongAdder();
+    private final LongAdder mismatches = new LongAdder();
+
+    /**
+     * @param primary    prices every checkout
+     * @param shadow     checked against the primary
+     * @param sampleRate the fraction of checkouts to check, from 0 for none to 1 for all of them
+     */
+    public ShadowChargeableDaysCalculator(ChargeableDaysCalculator primary, ChargeableDaysCalculator shadow,
+            double sampleRate) {
+        if (primary == null || shadow == null) {
+            throw new IllegalArgumentException("Both a primary and a shadow calculator must be provided.");
+        }
+        if (!(sampleRate >= 0 && sampleRate <= 1)) {
+            throw new IllegalArgumentException("The sample rate must be between 0 and 1.  You provided: "
+                    + sampleRate);
+        }
+        this.primary = primary;
+        this.shadow = shadow;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public long chargeableDays(ToolType toolType, long checkoutEpochDay, int rentalDays) {
+        long chargeableDays = primary.chargeableDays(toolType, checkoutEpochDay, rentalDays);
+        if (sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            verify(toolType, checkoutEpochDay, rentalDays, chargeableDays);
+        }
+        return chargeableDays;
+    }
+
+    private void verify(ToolType toolType, long checkoutEpochDay, int rentalDays, long expected) {
+        checked.increment();
+        try {
+            long actual = shadow.chargeableDays(toolType, checkoutEpochDay, rentalDays);
+            if (actual != expected) {
+                mismatches.increment();
+                LOG.warning(() -> describe(toolType, checkoutEpochDay, rentalDays) + ": "
+                        + primary.getClass().getSimpleName() + " charged " + expected + " days, "
+                        + shadow.getClass().getSimpleName() + " " + actual);
+            }
+        } catch (RuntimeException e) {
+            mismatches.increment();
+            LOG.log(Level.WARNING, e, () -> describe(toolType, checkoutEpochDay, rentalDays) + ": "
+                    + shadow.getClass().getSimpleName() + " failed");
+        }
+    }
+
+    private static String describe(ToolType toolType, long checkoutEpochDay, int rentalDays) {
+        return "Shadow mismatch for " + toolType + " checked out " + LocalDate.ofEpochDay(checkoutEpochDay) + " for "
+                + rentalDays + " days";
+    }
+
+    public ChargeableDaysCalculator getPrimary() {
+        return primary;
+    }
+
+    public ChargeableDaysCalculator getShadow() {
+        return shadow;
+    }
+
+    /**
+     * @return how many checkouts have been run through the shadow
+     */
+    public long getCheckedCount() {
+        return checked.sum();
+    }
+
+    /**
+     * @return how many of those the shadow got a different answer for, or failed on
+     */
+    public long getMismatchCount() {
+        return mismatches.sum();
+    }
+}
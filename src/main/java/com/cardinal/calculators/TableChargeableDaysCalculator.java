@@ -0,0 +1,175 @@
+package com.cardinal.calculators;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.cardinal.HolidayCalendar;
+import com.cardinal.ToolType;
+
+/**
+ * Look chargeable days up in a table instead of working them out.  Chargeable days only depend on the tool type's two
+ * exemption flags, the checkout date and the rental length, so for each combination of flags there's one table with
+ * a row per checkout day in a window of years and a column per rental length, and a checkout is a single array read.
+ * <p>
+ * A table only covers rentals up to a maximum length, {@value #DEFAULT_MAX_RENTAL_DAYS} days by default, checked out
+ * within its years.  Anything else goes to an {@link ArithmeticChargeableDaysCalculator}, which also builds the
+ * tables one day at a time, so the two can't disagree.  A table is a byte per cell and is built the first time a tool
+ * type with its flags is priced, or all at once with {@link #precompute()}.  A tool type charged every day never needs
+ * one.
+ */
+public class TableChargeableDaysCalculator implements ChargeableDaysCalculator {
+
+    public static final int DEFAULT_MAX_RENTAL_DAYS = 60;
+
+    // index of the table for a tool type's flags, the first is never built since every day is charged
+    private static final int WEEKENDS_FREE = 1;
+    private static final int HOLIDAYS_FREE = 2;
+    private static final ToolType[] POLICIES = {
+            null,
+            new ToolType("WEEKENDS_FREE", BigDecimal.ZERO, true, false),
+            new ToolType("HOLIDAYS_FREE", BigDecimal.ZERO, false, true),
+            new ToolType("WEEKENDS_AND_HOLIDAYS_FREE", BigDecimal.ZERO, true, true),
+    };
+
+    private final ArithmeticChargeableDaysCalculator arithmetic;
+    private final long firstEpochDay;
+    private final int days;
+    private final int maxRentalDays;
+    private final AtomicReferenceArray<byte[]> tables = new AtomicReferenceArray<>(POLICIES.length);
+    private final LongAdder buildNanos = new LongAdder();
+
+    /**
+     * @param holidayCalendar the holidays to take off
+     * @param weekendDays     the days of the week which make up the weekend
+     * @param firstYear       the first year of checkouts to look up
+     * @param lastYear        the last year of checkouts to look up, inclusive
+     */
+    public TableChargeableDaysCalculator(HolidayCalendar holidayCalendar, Set<DayOfWeek> weekendDays, int firstYear,
+            int lastYear) {
+        this(holidayCalendar, weekendDays, firstYear, lastYear, DEFAULT_MAX_RENTAL_DAYS);
+    }
+
+    /**
+     * @param holidayCalendar the holidays to take off
+     * @param weekendDays     the days of the week which make up the weekend
+     * @param firstYear       the first year of checkouts to look up
+     * @param lastYear        the last year of checkouts to look up, inclusive
+     * @param maxRentalDays   the longest rental to look up, at most 127
+     */
+    public TableChargeableDaysCalculator(HolidayCalendar holidayCalendar, Set<DayOfWeek> weekendDays, int firstYear,
+            int lastYear, int maxRentalDays) {
+        if (lastYear < firstYear) {
+            throw new IllegalArgumentException("The last year cannot come before the first.  You provided: "
+                    + firstYear + " to " + lastYear);
+        }
+        if (maxRentalDays < 1 || maxRentalDays > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Max rental days must be between 1 and 127.  You provided: "
+                    + maxRentalDays);
+        }
+        this.arithmetic = new ArithmeticChargeableDaysCalculator(holidayCalendar, weekendDays);
+        this.firstEpochDay = LocalDate.of(firstYear, 1, 1).toEpochDay();
+        long days = LocalDate.of(lastYear, 12, 31).toEpochDay() - firstEpochDay + 1;
+        if (days * maxRentalDays > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many years to tabulate.  You provided: "
+                    + firstYear + " to " + lastYear);
+        }
+        this.days = (int) days;
+        this.maxRentalDays = maxRentalDays;
+    }
+
+    @Override
+    public long chargeableDays(ToolType toolType, long checkoutEpochDay, int rentalDays) {
+        long row = checkoutEpochDay - firstEpochDay;
+        if (row < 0 || row >= days || rentalDays <= 0 || rentalDays > maxRentalDays) {
+            return arithmetic.chargeableDays(toolType, checkoutEpochDay, rentalDays);
+        }
+
+        int policy = (toolType.noChargeOnWeekends() ? WEEKENDS_FREE : 0)
+                | (toolType.noChargeOnHolidays() ? HOLIDAYS_FREE : 0);
+        if (policy == 0) {
+            return rentalDays;
+        }
+        return table(policy)[(int) row * maxRentalDays + rentalDays - 1];
+    }
+
+    /**
+     * Build every table now rather than on first use, e.g. at startup.
+     *
+     * @return this calculator
+     */
+    public TableChargeableDaysCalculator precompute() {
+        for (int policy = 1; policy < POLICIES.length; policy++) {
+            table(policy);
+        }
+        return this;
+    }
+
+    private byte[] table(int policy) {
+        byte[] table = tables.get(policy);
+        if (table == null) {
+            synchronized (this) {
+                table = tables.get(policy);
+                if (table == null) {
+                    table = build(POLICIES[policy]);
+                    tables.set(policy, table);
+                }
+            }
+        }
+        return table;
+    }
+
+    private byte[] build(ToolType policy) {
+        long start = System.nanoTime();
+
+        // charged[i] is the days charged from the first checkout up to and including i days after it
+        int[] charged = new int[days + maxRentalDays + 1];
+        for (int i = 1; i < charged.length; i++) {
+            charged[i] = charged[i - 1] + (int) arithmetic.chargeableDays(policy, firstEpochDay + i - 1, 1);
+        }
+
+        byte[] table = new byte[days * maxRentalDays];
+        for (int row = 0, cell = 0; row < days; row++) {
+            for (int rentalDays = 1; rentalDays <= maxRentalDays; rentalDays++) {
+                table[cell++] = (byte) (charged[row + rentalDays] - charged[row]);
+            }
+        }
+
+        buildNanos.add(System.nanoTime() - start);
+        return table;
+    }
+
+    public LocalDate getFirstCheckoutDate() {
+        return LocalDate.ofEpochDay(firstEpochDay);
+    }
+
+    public LocalDate getLastCheckoutDate() {
+        return LocalDate.ofEpochDay(firstEpochDay + days - 1);
+    }
+
+    public int getMaxRentalDays() {
+        return maxRentalDays;
+    }
+
+    /**
+     * @return the bytes held by the tables built so far
+     */
+    public long getTableBytes() {
+        long bytes = 0;
+        for (int policy = 0; policy < tables.length(); policy++) {
+            byte[] table = tables.get(policy);
+            bytes += table == null ? 0 : table.length;
+        }
+        return bytes;
+    }
+
+    /**
+     * @return the total time spent building the tables so far
+     */
+    public long getBuildNanos() {
+        return buildNanos.sum();
+    }
+}
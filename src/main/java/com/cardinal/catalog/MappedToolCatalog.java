@@ -0,0 +1,230 @@
+package com.cardinal.catalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.cardinal.Tool;
+import com.cardinal.ToolCatalog;
+import com.cardinal.ToolType;
+import com.cardinal.ToolTypeRegistry;
+
+/**
+ * A tool catalog served straight from a memory mapped {@link ToolCatalogFile}.
+ * <p>
+ * Opening one only reads the header and the brand and type names, the records stay in the file and are paged in by
+ * the OS as they're used.  Nothing is kept on the heap per tool, a Tool is only built for the caller of a lookup.
+ * The buffer is only ever read with absolute gets, so a catalog can be shared across threads.
+ */
+public final class MappedToolCatalog implements ToolCatalog {
+
+    private final ByteBuffer buffer;
+    private final int recordCount;
+    private final int codeWidth;
+    private final int recordSize;
+    private final int hashCapacity;
+    private final int recordsOffset;
+    private final int hashOffset;
+    private final String[] brands;
+    private final ToolType[] toolTypes;
+    private final List<Tool> tools = new RecordList();
+
+    private MappedToolCatalog(ByteBuffer buffer, ToolTypeRegistry registry) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < ToolCatalogFile.HEADER_SIZE || buffer.getInt(0) != ToolCatalogFile.MAGIC) {
+            throw new IOException("Not a tool catalog file.");
+        }
+        if (buffer.getInt(4) != ToolCatalogFile.VERSION) {
+            throw new IOException("Unsupported tool catalog file version: " + buffer.getInt(4));
+        }
+
+        recordCount = buffer.getInt(8);
+        codeWidth = buffer.getInt(12);
+        recordSize = buffer.getInt(16);
+        hashCapacity = buffer.getInt(20);
+        int brandCount = buffer.getInt(24);
+        int typeCount = buffer.getInt(28);
+        recordsOffset = buffer.getInt(32);
+        hashOffset = buffer.getInt(36);
+        int stringsOffset = buffer.getInt(40);
+
+        ByteBuffer strings = buffer.duplicate();
+        strings.position(stringsOffset);
+        brands = new String[brandCount];
+        for (int i = 0; i < brandCount; i++) {
+            brands[i] = readString(strings);
+        }
+        toolTypes = new ToolType[typeCount];
+        for (int i = 0; i < typeCount; i++) {
+            String name = readString(strings);
+            toolTypes[i] = registry.find(name)
+                    .orElseThrow(() -> new IOException("Unknown tool type in catalog file: " + name));
+        }
+    }
+
+    /**
+     * Map a catalog file with the tool types of the default registry, as {@link #open(Path, ToolTypeRegistry)}.
+     *
+     * @param file the catalog file, see {@link ToolCatalogFile#write(Path, java.util.Collection)}
+     * @return the mapped catalog
+     * @throws IOException when the file can't be read or isn't a catalog file
+     */
+    public static MappedToolCatalog open(Path file) throws IOException {
+        return open(file, ToolTypeRegistry.defaultRegistry());
+    }
+
+    /**
+     * Map a catalog file.  The mapping outlives the channel, it is released when the catalog is garbage collected.
+     *
+     * @param file      the catalog file, see {@link ToolCatalogFile#write(Path, java.util.Collection)}
+     * @param toolTypes the store's tool types, every tool's type must be one of them
+     * @return the mapped catalog
+     * @throws IOException when the file can't be read or isn't a catalog file
+     */
+    public static MappedToolCatalog open(Path file, ToolTypeRegistry toolTypes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new MappedToolCatalog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), toolTypes);
+        }
+    }
+
+    private static String readString(ByteBuffer strings) {
+        short length = strings.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        strings.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Optional<Tool> findByCode(String toolCode) {
+        int record = indexOf(toolCode);
+        if (record < 0) {
+            return Optional.empty();
+        }
+        // reuse the caller's String rather than decoding the one in the file, they're equal
+        return Optional.of(new Tool(toolCode, brandAt(record), toolTypeAt(record)));
+    }
+
+    /**
+     * Find the record holding a tool code without building anything.
+     *
+     * @param toolCode the tool code to look up, may be null
+     * @return the record index, or -1 if it is not in the catalog
+     */
+    public int indexOf(String toolCode) {
+        if (toolCode == null || toolCode.isEmpty() || toolCode.length() > codeWidth) {
+            return -1;
+        }
+
+        int mask = hashCapacity - 1;
+        for (int slot = ToolCatalogFile.hash(toolCode) & mask; ; slot = (slot + 1) & mask) {
+            int entry = buffer.getInt(hashOffset + slot * Integer.BYTES);
+            if (entry == 0) {
+                return -1;
+            }
+            if (codeEquals(entry - 1, toolCode)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private boolean codeEquals(int record, String toolCode) {
+        int offset = recordsOffset + record * recordSize;
+        for (int i = 0; i < codeWidth; i++) {
+            int expected = i < toolCode.length() ? toolCode.charAt(i) : 0;
+            if (buffer.get(offset + i) != expected) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String brandAt(int record) {
+        return brands[buffer.getInt(recordsOffset + record * recordSize + codeWidth)];
+    }
+
+    public ToolType toolTypeAt(int record) {
+        return toolTypes[buffer.getInt(recordsOffset + record * recordSize + codeWidth + Integer.BYTES)];
+    }
+
+    public String toolCodeAt(int record) {
+        int offset = recordsOffset + record * recordSize;
+        char[] code = new char[codeWidth];
+        int length = 0;
+        while (length < codeWidth && buffer.get(offset + length) != 0) {
+            code[length] = (char) buffer.get(offset + length);
+            length++;
+        }
+        return new String(code, 0, length);
+    }
+
+    private Tool toolAt(int record) {
+        return new Tool(toolCodeAt(record), brandAt(record), toolTypeAt(record));
+    }
+
+    /**
+     * Scans every record, this catalog keeps no index by type.
+     */
+    @Override
+    public List<Tool> findByType(ToolType toolType) {
+        List<Tool> found = new ArrayList<>();
+        for (int record = 0; record < recordCount; record++) {
+            if (toolTypeAt(record).equals(toolType)) {
+                found.add(toolAt(record));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Scans every record, this catalog keeps no index by brand.
+     */
+    @Override
+    public List<Tool> findByBrand(String brand) {
+        List<Tool> found = new ArrayList<>();
+        for (int record = 0; record < recordCount; record++) {
+            if (Objects.equals(brandAt(record), brand)) {
+                found.add(toolAt(record));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return a read only view of the catalog, each tool is built from the file as it is read
+     */
+    @Override
+    public List<Tool> getTools() {
+        return tools;
+    }
+
+    @Override
+    public int size() {
+        return recordCount;
+    }
+
+    private final class RecordList extends AbstractList<Tool> {
+        @Override
+        public Tool get(int index) {
+            if (index < 0 || index >= recordCount) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + recordCount);
+            }
+            return toolAt(index);
+        }
+
+        @Override
+        public int size() {
+            return recordCount;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.cardinal.catalog;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.cardinal.IndexedToolCatalog;
+import com.cardinal.Tool;
+import com.cardinal.ToolType;
+import com.cardinal.ToolTypeRegistry;
+
+/**
+ * Reads and writes a tool catalog as CSV, one {@code toolCode,brand,toolType} line per tool after a header line.
+ * A field holding a comma or a double quote is written in double quotes, with its own quotes doubled, e.g.
+ * {@code "Stanley, ""FatMax"" Pro"}.
+ */
+public final class ToolCatalogCsv {
+
+    public static final String HEADER = "toolCode,brand,toolType";
+
+    private ToolCatalogCsv() {
+        // utility class, don't allow it to be built on accident
+    }
+
+    /**
+     * @param file the CSV file to read
+     * @return the catalog, indexed on the heap, with the tool types of the default registry
+     * @throws IOException when the file can't be read or a line is malformed
+     */
+    public static IndexedToolCatalog read(Path file) throws IOException {
+        return read(file, ToolTypeRegistry.defaultRegistry());
+    }
+
+    /**
+     * @param file      the CSV file to read
+     * @param toolTypes the store's tool types, every tool's type must be one of them
+     * @return the catalog, indexed on the heap
+     * @throws IOException when the file can't be read or a line is malformed
+     */
+    public static IndexedToolCatalog read(Path file, ToolTypeRegistry toolTypes) throws IOException {
+        List<Tool> tools = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            int lineNumber = 0;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lineNumber++;
+                if (line.isEmpty() || (lineNumber == 1 && line.equals(HEADER))) {
+                    continue;
+                }
+
+                List<String> fields = split(line);
+                if (fields == null || fields.size() != 3) {
+                    throw new IOException("Line " + lineNumber + " should be " + HEADER + ".  It was: " + line);
+                }
+                ToolType toolType = toolTypes.find(fields.get(2)).orElse(null);
+                if (toolType == null) {
+                    throw new IOException("Line " + lineNumber + " has an unknown tool type: " + fields.get(2));
+                }
+                tools.add(new Tool(fields.get(0), fields.get(1), toolType));
+            }
+        }
+        return new IndexedToolCatalog(tools);
+    }
+
+    /**
+     * @return the line's fields with any quoting taken off, null when a quoted field isn't closed properly
+     */
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        while (true) {
+            field.setLength(0);
+            if (i < line.length() && line.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    int quote = line.indexOf('"', i);
+                    if (quote < 0) {
+                        return null;
+                    }
+                    field.append(line, i, quote);
+                    i = quote + 1;
+                    if (i < line.length() && line.charAt(i) == '"') {
+                        // a doubled quote is a quote in the field
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                if (i < line.length() && line.charAt(i) != ',') {
+                    return null;
+                }
+            } else {
+                int comma = line.indexOf(',', i);
+                int end = comma < 0 ? line.length() : comma;
+                field.append(line, i, end);
+                i = end;
+            }
+            fields.add(field.toString());
+            if (i >= line.length()) {
+                return fields;
+            }
+            // step over the comma
+            i++;
+        }
+    }
+
+    /**
+     * @param file  the CSV file to write, replaced if it exists
+     * @param tools the tools to write
+     * @throws IOException when the file can't be written
+     * @throws IllegalArgumentException when a field runs over more than one line, which the format can't hold
+     */
+    public static void write(Path file, Collection<Tool> tools) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Tool tool : tools) {
+                writer.write(field(tool.getToolCode()) + "," + field(tool.getBrand()) + ","
+                        + field(tool.getToolType().name()));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static String field(String value) {
+        if (value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("A catalog field must fit on one line.  You provided: " + value);
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,178 @@
+package com.cardinal.catalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.cardinal.Tool;
+
+/**
+ * The binary tool catalog file, and the writer for it.  Read it back with {@link MappedToolCatalog}.
+ * <p>
+ * Everything is fixed width apart from the string table, so a reader can map the file and go straight to a record
+ * without parsing anything first.  All numbers are big endian ints.
+ * <pre>
+ * header   magic, version, record count, code width, record size, hash capacity, brand count, type count,
+ *          records offset, hash offset, strings offset
+ * records  record count x [tool code, ASCII, zero padded to code width][brand index][type index]
+ * hash     hash capacity x [record index + 1, or 0 for an empty slot], open addressing with linear probing
+ * strings  brand count + type count x [length as a short, -1 for null][UTF-8 bytes], brands then type names
+ * </pre>
+ */
+public final class ToolCatalogFile {
+
+    static final int MAGIC = 0x54434154; // TCAT
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 11 * Integer.BYTES;
+
+    private ToolCatalogFile() {
+        // utility class, don't allow it to be built on accident
+    }
+
+    /**
+     * Write a catalog file, replacing the file if it already exists.
+     *
+     * @param file  the file to write
+     * @param tools the tools in the catalog, tool codes must be unique and ASCII
+     * @throws IOException when the file can't be written
+     */
+    public static void write(Path file, Collection<Tool> tools) throws IOException {
+        List<Tool> records = new ArrayList<>(tools);
+        Map<String, Integer> brands = new LinkedHashMap<>();
+        Map<String, Integer> toolTypes = new LinkedHashMap<>();
+        Set<String> toolCodes = new HashSet<>(records.size() * 4 / 3 + 1);
+
+        int codeWidth = 1;
+        for (Tool tool : records) {
+            String toolCode = tool.getToolCode();
+            if (toolCode == null || !isAscii(toolCode)) {
+                throw new IllegalArgumentException("Tool codes in a catalog file must be ASCII.  You provided: "
+                        + toolCode);
+            }
+            if (!toolCodes.add(toolCode)) {
+                throw new IllegalArgumentException("Duplicate tool code in catalog: " + toolCode);
+            }
+            codeWidth = Math.max(codeWidth, toolCode.length());
+            brands.putIfAbsent(tool.getBrand(), brands.size());
+            toolTypes.putIfAbsent(tool.getToolType().name(), toolTypes.size());
+        }
+
+        byte[][] strings = encodeStrings(brands.keySet(), toolTypes.keySet());
+        int stringsSize = 0;
+        for (byte[] string : strings) {
+            stringsSize += Short.BYTES + (string == null ? 0 : string.length);
+        }
+
+        int recordSize = codeWidth + 2 * Integer.BYTES;
+        int hashCapacity = hashCapacity(records.size());
+        int recordsOffset = HEADER_SIZE;
+        int hashOffset = Math.addExact(recordsOffset, Math.multiplyExact(records.size(), recordSize));
+        int stringsOffset = Math.addExact(hashOffset, Math.multiplyExact(hashCapacity, Integer.BYTES));
+
+        ByteBuffer buffer = ByteBuffer.allocate(Math.addExact(stringsOffset, stringsSize));
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(records.size()).putInt(codeWidth).putInt(recordSize)
+                .putInt(hashCapacity).putInt(brands.size()).putInt(toolTypes.size())
+                .putInt(recordsOffset).putInt(hashOffset).putInt(stringsOffset);
+
+        Map<String, Integer> recordIndexes = new HashMap<>(records.size() * 4 / 3 + 1);
+        for (Tool tool : records) {
+            int start = buffer.position();
+            for (int i = 0; i < tool.getToolCode().length(); i++) {
+                buffer.put((byte) tool.getToolCode().charAt(i));
+            }
+            buffer.position(start + codeWidth);
+            buffer.putInt(brands.get(tool.getBrand())).putInt(toolTypes.get(tool.getToolType().name()));
+            recordIndexes.put(tool.getToolCode(), recordIndexes.size());
+        }
+
+        int[] slots = new int[hashCapacity];
+        for (Map.Entry<String, Integer> entry : recordIndexes.entrySet()) {
+            int slot = hash(entry.getKey()) & (hashCapacity - 1);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (hashCapacity - 1);
+            }
+            slots[slot] = entry.getValue() + 1;
+        }
+        for (int slot : slots) {
+            buffer.putInt(slot);
+        }
+
+        for (byte[] string : strings) {
+            if (string == null) {
+                buffer.putShort((short) -1);
+            } else {
+                buffer.putShort((short) string.length).put(string);
+            }
+        }
+
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static byte[][] encodeStrings(Collection<String> brands, Collection<String> toolTypes) {
+        List<byte[]> strings = new ArrayList<>(brands.size() + toolTypes.size());
+        for (String brand : brands) {
+            strings.add(encode(brand));
+        }
+        for (String toolType : toolTypes) {
+            strings.add(encode(toolType));
+        }
+        return strings.toArray(new byte[strings.size()][]);
+    }
+
+    private static byte[] encode(String string) {
+        if (string == null) {
+            return null;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Catalog strings cannot exceed " + Short.MAX_VALUE + " bytes.");
+        }
+        return bytes;
+    }
+
+    private static boolean isAscii(String toolCode) {
+        for (int i = 0; i < toolCode.length(); i++) {
+            if (toolCode.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return !toolCode.isEmpty();
+    }
+
+    /**
+     * @return twice the record count rounded up to a power of two, so probes stay short
+     */
+    static int hashCapacity(int recordCount) {
+        return Math.max(2, Integer.highestOneBit(Math.max(1, recordCount) * 2 - 1) << 1);
+    }
+
+    /**
+     * FNV-1a over the characters of a tool code.  Works on the String directly so a lookup doesn't have to encode it.
+     */
+    static int hash(CharSequence toolCode) {
+        int hash = 0x811C9DC5;
+        for (int i = 0; i < toolCode.length(); i++) {
+            hash ^= toolCode.charAt(i);
+            hash *= 0x01000193;
+        }
+        // FNV's low bits are weak on short keys, fold the high ones in since the slot comes from the low bits
+        return hash ^ (hash >>> 16);
+    }
+}
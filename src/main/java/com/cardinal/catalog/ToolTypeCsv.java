@@ -0,0 +1,86 @@
+package com.cardinal.catalog;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.cardinal.ToolType;
+
+/**
+ * Reads and writes tool type pricing rules as CSV, one
+ * {@code toolType,dailyCharge,noChargeOnWeekends,noChargeOnHolidays} line per type after a header line.
+ * Hand the result to {@link com.cardinal.ToolTypeRegistry#reload(Collection)} to put new prices live.
+ */
+public final class ToolTypeCsv {
+
+    public static final String HEADER = "toolType,dailyCharge,noChargeOnWeekends,noChargeOnHolidays";
+
+    private ToolTypeCsv() {
+        // utility class, don't allow it to be built on accident
+    }
+
+    /**
+     * @param file the CSV file to read
+     * @return the tool types, in file order
+     * @throws IOException when the file can't be read or a line is malformed
+     */
+    public static List<ToolType> read(Path file) throws IOException {
+        List<ToolType> toolTypes = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            int lineNumber = 0;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lineNumber++;
+                if (line.isEmpty() || (lineNumber == 1 && line.equals(HEADER))) {
+                    continue;
+                }
+
+                String[] fields = line.split(",", -1);
+                if (fields.length != 4) {
+                    throw new IOException("Line " + lineNumber + " should be " + HEADER + ".  It was: " + line);
+                }
+                try {
+                    toolTypes.add(new ToolType(fields[0].trim(), new BigDecimal(fields[1].trim()),
+                            parseFlag(fields[2]), parseFlag(fields[3])));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Line " + lineNumber + " is not a valid tool type: " + e.getMessage(), e);
+                }
+            }
+        }
+        return toolTypes;
+    }
+
+    private static boolean parseFlag(String field) {
+        String flag = field.trim();
+        if (flag.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (flag.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Expected true or false.  You provided: " + field);
+    }
+
+    /**
+     * @param file      the CSV file to write, replaced if it exists
+     * @param toolTypes the tool types to write
+     * @throws IOException when the file can't be written
+     */
+    public static void write(Path file, Collection<ToolType> toolTypes) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (ToolType toolType : toolTypes) {
+                writer.write(toolType.name() + "," + toolType.getDailyCharge().toPlainString() + ","
+                        + toolType.noChargeOnWeekends() + "," + toolType.noChargeOnHolidays());
+                writer.newLine();
+            }
+        }
+    }
+}
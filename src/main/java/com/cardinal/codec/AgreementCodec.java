@@ -0,0 +1,285 @@
+package com.cardinal.codec;
+
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.cardinal.RentalAgreement;
+import com.cardinal.Tool;
+import com.cardinal.ToolType;
+
+/**
+ * A compact binary layout for streams of agreements, for moving them between the pricing tier, the journal and
+ * reporting.  Numbers are unsigned LEB128 varints, seven bits a byte with the high bit set on all but the last, so a
+ * typical agreement is a dozen bytes.  Negative numbers still round trip, they just take the full 5 or 10 bytes.
+ * <pre>
+ * stream     [version, byte][agreement]...
+ * agreement  [tool reference, varint][tool, only when the reference is 0]
+ *            [rental days, varint][checkout epoch day, varint][discount percent, varint][chargeable days, varint]
+ *            [total before discount cents, varint][discount cents, varint]
+ * tool       [tool code][brand][tool type name][daily charge cents, varint]
+ *            [flags, byte: 1 no weekends, 2 no holidays]
+ * string     [UTF-8 length + 1, varint, 0 for null][UTF-8]
+ * </pre>
+ * Tools are interned per stream.  The first agreement for a tool writes it out in full and gives it the next
+ * reference, counting from 1, and later ones just write the reference.  A stream is whatever one {@link Encoder}
+ * writes between resets, and has to be read in order by one {@link Decoder}.
+ * <p>
+ * The layout is fixed for a version.  Changing it means a new version number, and decoders refuse versions they
+ * don't know rather than guess.
+ */
+public final class AgreementCodec {
+
+    public static final int VERSION = 1;
+
+    private static final int NO_WEEKENDS = 1;
+    private static final int NO_HOLIDAYS = 2;
+
+    private AgreementCodec() {
+        // utility class, don't allow it to be built on accident
+    }
+
+    /**
+     * Writes agreements into a caller's buffer.  Nothing is allocated per agreement once its tool has been seen.  Not
+     * thread safe, use one per stream.
+     */
+    public static final class Encoder {
+        private final Map<String, Interned> tools = new HashMap<>();
+        private int toolCount;
+        private boolean started;
+
+        /**
+         * Write one agreement at the buffer's position, after the version if it's the first of the stream.
+         *
+         * @param agreement the agreement to write
+         * @param buffer    where to write it
+         * @throws BufferOverflowException when it doesn't fit, leaving the buffer and the stream as they were so the
+         *                                 caller can drain the buffer and try again
+         */
+        public void encode(RentalAgreement agreement, ByteBuffer buffer) {
+            int start = buffer.position();
+            try {
+                if (!started) {
+                    buffer.put((byte) VERSION);
+                }
+                Tool tool = agreement.getRentedTool();
+                Interned interned = tools.get(tool.getToolCode());
+                boolean known = interned != null && (interned.tool == tool || sameTool(interned.tool, tool));
+                if (known) {
+                    putVarint(buffer, interned.reference);
+                } else {
+                    buffer.put((byte) 0);
+                    putTool(buffer, tool);
+                }
+                putVarint(buffer, agreement.getRentalDays());
+                putVarint(buffer, agreement.getCheckoutEpochDay());
+                putVarint(buffer, agreement.getDiscountAsPercent());
+                putVarint(buffer, agreement.getChargeableDayCount());
+                putVarlong(buffer, agreement.getTotalDueBeforeDiscountCents());
+                putVarlong(buffer, agreement.getTotalDiscountAmountCents());
+
+                // only once it's all written, so a failed write leaves the stream as it was
+                started = true;
+                if (!known) {
+                    tools.put(tool.getToolCode(), new Interned(tool, ++toolCount));
+                } else if (interned.tool != tool) {
+                    // an equal copy, e.g. priced after a reload, remember it so the next one is a quick check
+                    interned.tool = tool;
+                }
+            } catch (BufferOverflowException e) {
+                buffer.position(start);
+                throw e;
+            }
+        }
+
+        /**
+         * Start a new stream, with the version and every tool written out again.
+         */
+        public void reset() {
+            tools.clear();
+            toolCount = 0;
+            started = false;
+        }
+
+        /**
+         * @return the number of tools interned in this stream
+         */
+        public int getToolCount() {
+            return toolCount;
+        }
+
+        private static boolean sameTool(Tool first, Tool second) {
+            ToolType firstType = first.getToolType();
+            ToolType secondType = second.getToolType();
+            return equal(first.getBrand(), second.getBrand()) && firstType.name().equals(secondType.name())
+                    && firstType.getDailyChargeCents() == secondType.getDailyChargeCents()
+                    && firstType.noChargeOnWeekends() == secondType.noChargeOnWeekends()
+                    && firstType.noChargeOnHolidays() == secondType.noChargeOnHolidays();
+        }
+
+        private static void putTool(ByteBuffer buffer, Tool tool) {
+            ToolType toolType = tool.getToolType();
+            putString(buffer, tool.getToolCode());
+            putString(buffer, tool.getBrand());
+            putString(buffer, toolType.name());
+            putVarlong(buffer, toolType.getDailyChargeCents());
+            buffer.put((byte) ((toolType.noChargeOnWeekends() ? NO_WEEKENDS : 0)
+                    | (toolType.noChargeOnHolidays() ? NO_HOLIDAYS : 0)));
+        }
+
+        private static void putString(ByteBuffer buffer, String value) {
+            if (value == null) {
+                buffer.put((byte) 0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            putVarint(buffer, utf8.length + 1);
+            buffer.put(utf8);
+        }
+
+        private static void putVarint(ByteBuffer buffer, int value) {
+            putVarlong(buffer, value & 0xFFFFFFFFL);
+        }
+
+        private static void putVarlong(ByteBuffer buffer, long value) {
+            while ((value & ~0x7FL) != 0) {
+                buffer.put((byte) (value | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+    }
+
+    private static final class Interned {
+        private Tool tool;
+        private final int reference;
+
+        private Interned(Tool tool, int reference) {
+            this.tool = tool;
+            this.reference = reference;
+        }
+    }
+
+    /**
+     * Reads agreements back out of a buffer.  Once a tool has been defined every agreement for it shares the one
+     * {@link Tool}, so only the agreement itself is allocated.  Not thread safe, use one per stream.
+     */
+    public static final class Decoder {
+        private final List<Tool> tools = new ArrayList<>();
+        private boolean started;
+
+        /**
+         * Read the agreement at the buffer's position, after the version if it's the first of the stream.
+         *
+         * @param buffer holds the stream
+         * @return the agreement
+         * @throws BufferUnderflowException when the buffer ends part way through, leaving the buffer and the stream as
+         *                                  they were so the caller can read more and try again
+         * @throws IllegalArgumentException when the stream is another version, or corrupt
+         */
+        public RentalAgreement decode(ByteBuffer buffer) {
+            int start = buffer.position();
+            try {
+                if (!started) {
+                    int version = buffer.get() & 0xFF;
+                    if (version != VERSION) {
+                        throw new IllegalArgumentException("Unsupported agreement format version.  You provided: "
+                                + version);
+                    }
+                }
+                int reference = getVarint(buffer);
+                Tool tool;
+                if (reference == 0) {
+                    tool = getTool(buffer);
+                } else if (reference > 0 && reference <= tools.size()) {
+                    tool = tools.get(reference - 1);
+                } else {
+                    throw new IllegalArgumentException("Reference to a tool not yet in the stream.  You provided: "
+                            + (reference & 0xFFFFFFFFL));
+                }
+                RentalAgreement agreement = new RentalAgreement(tool, getVarint(buffer), getVarint(buffer),
+                        getVarint(buffer), getVarint(buffer), getVarlong(buffer), getVarlong(buffer));
+
+                started = true;
+                if (reference == 0) {
+                    tools.add(tool);
+                }
+                return agreement;
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                buffer.position(start);
+                throw e;
+            }
+        }
+
+        /**
+         * Start reading a new stream.
+         */
+        public void reset() {
+            tools.clear();
+            started = false;
+        }
+
+        /**
+         * @return the number of tools defined so far in this stream
+         */
+        public int getToolCount() {
+            return tools.size();
+        }
+
+        private static Tool getTool(ByteBuffer buffer) {
+            String toolCode = getString(buffer);
+            String brand = getString(buffer);
+            String toolTypeName = getString(buffer);
+            long dailyChargeCents = getVarlong(buffer);
+            int flags = buffer.get();
+            return new Tool(toolCode, brand, new ToolType(toolTypeName, BigDecimal.valueOf(dailyChargeCents, 2),
+                    (flags & NO_WEEKENDS) != 0, (flags & NO_HOLIDAYS) != 0));
+        }
+
+        private static String getString(ByteBuffer buffer) {
+            int length = getVarint(buffer) - 1;
+            if (length == -1) {
+                return null;
+            }
+            if (length < 0) {
+                throw new IllegalArgumentException("String too long.  You provided: " + (length & 0xFFFFFFFFL));
+            }
+            if (length > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            byte[] utf8 = new byte[length];
+            buffer.get(utf8);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        private static int getVarint(ByteBuffer buffer) {
+            long value = getVarlong(buffer);
+            if ((value & ~0xFFFFFFFFL) != 0) {
+                throw new IllegalArgumentException("Varint too large for an int.  You provided: " + value);
+            }
+            return (int) value;
+        }
+
+        private static long getVarlong(ByteBuffer buffer) {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                byte b = buffer.get();
+                value |= (b & 0x7FL) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint, more than 10 bytes.");
+        }
+    }
+
+    private static boolean equal(String first, String second) {
+        return first == null ? second == null : first.equals(second);
+    }
+}
@@ -0,0 +1,106 @@
+package com.cardinal.codec;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+import com.cardinal.RentalAgreement;
+import com.cardinal.Tool;
+import com.cardinal.ToolType;
+import com.cardinal.ToolTypeRegistry;
+
+/**
+ * Agreements as the JSON the checkout server answers with.  Money goes out as decimal numbers and every agreement
+ * carries its whole tool, so it reads well but is several times the size of {@link AgreementCodec}.
+ */
+public final class AgreementJson {
+
+    private AgreementJson() {
+        // utility class, don't allow it to be built on accident
+    }
+
+    /**
+     * @param json      where to write
+     * @param agreement the agreement to write, as one object
+     * @return the builder
+     */
+    public static StringBuilder append(StringBuilder json, RentalAgreement agreement) {
+        json.append("{\"toolCode\":");
+        Json.appendString(json, agreement.getToolCode()).append(",\"toolType\":");
+        Json.appendString(json, agreement.getToolType().name()).append(",\"brand\":");
+        Json.appendString(json, agreement.getBrand());
+        return json.append(",\"rentalDays\":").append(agreement.getRentalDays())
+                .append(",\"checkoutDate\":\"").append(agreement.getCheckoutDate())
+                .append("\",\"dueDate\":\"").append(agreement.getDueDate())
+                .append("\",\"dailyCharge\":").append(agreement.getDailyCharge().toPlainString())
+                .append(",\"chargeableDays\":").append(agreement.getChargeableDayCount())
+                .append(",\"preDiscountCharge\":").append(agreement.getTotalDueBeforeDiscount().toPlainString())
+                .append(",\"discountPercent\":").append(agreement.getDiscountAsPercent())
+                .append(",\"discountAmount\":").append(agreement.getTotalDiscountAmount().toPlainString())
+                .append(",\"finalCharge\":").append(agreement.getTotalDueAfterDiscount().toPlainString())
+                .append('}');
+    }
+
+    /**
+     * Read an agreement back.  The JSON doesn't say which days the tool type charges for, so the type is looked up by
+     * name, and given the daily charge the agreement was priced at if that's since changed.
+     *
+     * @param json      one agreement object
+     * @param toolTypes where to find the tool type
+     * @return the agreement
+     * @throws IllegalArgumentException when it isn't an agreement, or the tool type is unknown
+     */
+    public static RentalAgreement read(String json, ToolTypeRegistry toolTypes) {
+        Object value = Json.parse(json);
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("An agreement must be an object.");
+        }
+        Map<?, ?> fields = (Map<?, ?>) value;
+
+        String toolTypeName = stringField(fields, "toolType");
+        ToolType toolType = toolTypes.find(toolTypeName).orElseThrow(() ->
+                new IllegalArgumentException("Unknown tool type.  You provided: " + toolTypeName));
+        BigDecimal dailyCharge = numberField(fields, "dailyCharge");
+        if (dailyCharge.compareTo(toolType.getDailyCharge()) != 0) {
+            toolType = new ToolType(toolTypeName, dailyCharge, toolType.noChargeOnWeekends(),
+                    toolType.noChargeOnHolidays());
+        }
+        Tool tool = new Tool(stringField(fields, "toolCode"), stringField(fields, "brand"), toolType);
+
+        LocalDate checkoutDate;
+        try {
+            checkoutDate = LocalDate.parse(stringField(fields, "checkoutDate"));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("checkoutDate must be a yyyy-mm-dd string.");
+        }
+        try {
+            return new RentalAgreement(tool, numberField(fields, "rentalDays").intValueExact(),
+                    Math.toIntExact(checkoutDate.toEpochDay()), numberField(fields, "discountPercent").intValueExact(),
+                    numberField(fields, "chargeableDays").intValueExact(), cents(fields, "preDiscountCharge"),
+                    cents(fields, "discountAmount"));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Agreement field out of range: " + e.getMessage());
+        }
+    }
+
+    private static String stringField(Map<?, ?> fields, String name) {
+        Object value = fields.get(name);
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException(name + " must be a string.");
+        }
+        return (String) value;
+    }
+
+    private static BigDecimal numberField(Map<?, ?> fields, String name) {
+        Object value = fields.get(name);
+        if (!(value instanceof BigDecimal)) {
+            throw new IllegalArgumentException(name + " must be a number.");
+        }
+        return (BigDecimal) value;
+    }
+
+    private static long cents(Map<?, ?> fields, String name) {
+        return numberField(fields, name).movePointRight(2).longValueExact();
+    }
+}
@@ -0,0 +1,86 @@
+package com.cardinal.holidays;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A holiday on the same month and day every year, e.g. July 4th.  When it lands on a weekend it can be observed on
+ * the Friday before or the Monday after instead, chosen separately for Saturday and Sunday.
+ */
+public final class FixedDateHoliday implements HolidayRule {
+
+    /**
+     * Where a holiday falling on a weekend day is observed.
+     */
+    public enum Observance {
+        ON_THE_DAY,
+        FRIDAY_BEFORE,
+        MONDAY_AFTER
+    }
+
+    private final String name;
+    private final MonthDay date;
+    private final Observance saturdayObservance;
+    private final Observance sundayObservance;
+
+    /**
+     * @param name               the name of the holiday
+     * @param date               the month and day of the holiday normally
+     * @param saturdayObservance where it is observed when it falls on a Saturday
+     * @param sundayObservance   where it is observed when it falls on a Sunday
+     */
+    public FixedDateHoliday(String name, MonthDay date, Observance saturdayObservance, Observance sundayObservance) {
+        if (date == null || saturdayObservance == null || sundayObservance == null) {
+            throw new IllegalArgumentException("Holiday not valid.");
+        }
+        this.name = name;
+        this.date = date;
+        this.saturdayObservance = saturdayObservance;
+        this.sundayObservance = sundayObservance;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the observed day, or none for February 29th outside of a leap year
+     */
+    @Override
+    public List<LocalDate> observedDates(int year) {
+        if (!date.isValidYear(year)) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(observedOn(year));
+    }
+
+    /**
+     * @param year the year to resolve
+     * @return the day the holiday is observed
+     */
+    public LocalDate observedOn(int year) {
+        LocalDate holiday = date.atYear(year);
+        switch (holiday.getDayOfWeek()) {
+        case SATURDAY:
+            return shift(holiday, saturdayObservance, -1, 2);
+        case SUNDAY:
+            return shift(holiday, sundayObservance, -2, 1);
+        default:
+            return holiday;
+        }
+    }
+
+    private static LocalDate shift(LocalDate holiday, Observance observance, int daysToFriday, int daysToMonday) {
+        switch (observance) {
+        case FRIDAY_BEFORE:
+            return holiday.plusDays(daysToFriday);
+        case MONDAY_AFTER:
+            return holiday.plusDays(daysToMonday);
+        default:
+            return holiday;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.cardinal.holidays;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A rule for when a holiday is observed.  Rules are only asked when a {@link HolidayRuleSet} is compiled into a
+ * calendar, never at checkout, so they favour being easy to read over being fast.
+ */
+public interface HolidayRule {
+
+    /**
+     * @return the name of the holiday, e.g. Labor Day
+     */
+    String getName();
+
+    /**
+     * Resolve the days the holiday is observed for a year.  Usually one day, possibly none, and an observed day may
+     * fall in the year before or after, e.g. a Saturday January 1st observed on Friday December 31st.
+     *
+     * @param year the year of the holiday
+     * @return the observed days
+     */
+    List<LocalDate> observedDates(int year);
+}
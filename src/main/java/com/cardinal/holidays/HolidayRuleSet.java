@@ -0,0 +1,81 @@
+package com.cardinal.holidays;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.cardinal.HolidayCalendar;
+
+/**
+ * The holidays one region observes.  Compiled into a {@link HolidayCalendar} up front, so however rich the rules are,
+ * a calculator only ever does a bit test or a bit count at checkout.
+ */
+public final class HolidayRuleSet {
+
+    private final String name;
+    private final List<HolidayRule> rules;
+    private volatile HolidayCalendar calendar;
+
+    /**
+     * @param name  the name of the rule set, usually the region observing it
+     * @param rules the holidays observed
+     */
+    public HolidayRuleSet(String name, List<HolidayRule> rules) {
+        this.name = name;
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+    }
+
+    public HolidayRuleSet(String name, HolidayRule... rules) {
+        this(name, Arrays.asList(rules));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<HolidayRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * @param year the year to resolve
+     * @return every day observed as a holiday for the year
+     */
+    public List<LocalDate> resolveHolidays(int year) {
+        List<LocalDate> holidays = new ArrayList<>();
+        for (HolidayRule rule : rules) {
+            holidays.addAll(rule.observedDates(year));
+        }
+        return holidays;
+    }
+
+    /**
+     * Compile the rules into a new calendar, resolving every year in the window now.
+     *
+     * @param firstYear the first year to keep in the calendar
+     * @param lastYear  the last year to keep in the calendar
+     * @return the compiled calendar
+     */
+    public HolidayCalendar compile(int firstYear, int lastYear) {
+        return new HolidayCalendar(this::resolveHolidays, firstYear, lastYear).precompute();
+    }
+
+    /**
+     * @return the rules compiled over the default window, compiled the first time it is asked for and then shared
+     */
+    public HolidayCalendar calendar() {
+        HolidayCalendar compiled = calendar;
+        if (compiled == null) {
+            synchronized (this) {
+                compiled = calendar;
+                if (compiled == null) {
+                    compiled = compile(HolidayCalendar.DEFAULT_FIRST_YEAR, HolidayCalendar.DEFAULT_LAST_YEAR);
+                    calendar = compiled;
+                }
+            }
+        }
+        return compiled;
+    }
+}
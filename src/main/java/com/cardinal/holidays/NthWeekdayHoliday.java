@@ -0,0 +1,55 @@
+package com.cardinal.holidays;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A holiday on the nth, or last, given weekday of a month, e.g. Labor Day on the first Monday of September.
+ */
+public final class NthWeekdayHoliday implements HolidayRule {
+
+    public static final int LAST = -1;
+
+    private final String name;
+    private final Month month;
+    private final DayOfWeek dayOfWeek;
+    private final int ordinal;
+
+    /**
+     * @param name      the name of the holiday
+     * @param month     the month of the holiday
+     * @param dayOfWeek the weekday of the holiday
+     * @param ordinal   1 to 5 for the first to fifth of those weekdays, or {@link #LAST}
+     */
+    public NthWeekdayHoliday(String name, Month month, DayOfWeek dayOfWeek, int ordinal) {
+        if (month == null || dayOfWeek == null || ordinal == 0 || ordinal < LAST || ordinal > 5) {
+            throw new IllegalArgumentException("Holiday not valid.  The ordinal must be 1 to 5 or LAST, you provided: "
+                    + ordinal);
+        }
+        this.name = name;
+        this.month = month;
+        this.dayOfWeek = dayOfWeek;
+        this.ordinal = ordinal;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the observed day, or none when the month doesn't have a fifth of that weekday
+     */
+    @Override
+    public List<LocalDate> observedDates(int year) {
+        LocalDate holiday = LocalDate.of(year, month, 1).with(TemporalAdjusters.dayOfWeekInMonth(ordinal, dayOfWeek));
+        if (holiday.getMonth() != month) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(holiday);
+    }
+}
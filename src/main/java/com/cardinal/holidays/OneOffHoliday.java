@@ -0,0 +1,42 @@
+package com.cardinal.holidays;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A holiday observed on explicit dates only, e.g. a store anniversary or a day declared by the state.
+ */
+public final class OneOffHoliday implements HolidayRule {
+
+    private final String name;
+    private final Map<Integer, List<LocalDate>> datesByYear = new TreeMap<>();
+
+    /**
+     * @param name  the name of the holiday
+     * @param dates the days it is observed
+     */
+    public OneOffHoliday(String name, LocalDate... dates) {
+        this.name = name;
+        for (LocalDate date : Arrays.asList(dates)) {
+            if (date == null) {
+                throw new IllegalArgumentException("Holiday not valid.");
+            }
+            datesByYear.computeIfAbsent(date.getYear(), year -> new ArrayList<>()).add(date);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public List<LocalDate> observedDates(int year) {
+        return Collections.unmodifiableList(datesByYear.getOrDefault(year, Collections.emptyList()));
+    }
+}
@@ -0,0 +1,486 @@
+package com.cardinal.inventory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.cardinal.RentalAgreement;
+import com.cardinal.Tool;
+
+/**
+ * The units of each tool a store has on hand, and the days each unit is reserved.
+ * <p>
+ * There is no global lock.  Each unit keeps its reservations as an immutable array sorted by first day, and a
+ * reservation is checked and added with a single compare-and-set on that unit, so checking a unit takes no lock and
+ * reserving it is one atomic step: two registers can never both get the same unit for overlapping days.  Registers
+ * racing for the same tool start at different units, so they rarely contend on the same one.
+ * <p>
+ * Adding units is rare and takes a lock on that tool code only.
+ * <p>
+ * The same sorted arrays answer availability queries without scanning: whether a unit is free for some days, what
+ * holds a tool over some days and the next free slot are each a binary search on every unit of the tool, then a walk
+ * over only the reservations in the way.
+ */
+public final class Inventory {
+
+    private static final Reservation[] NO_RESERVATIONS = new Reservation[0];
+
+    private final ConcurrentHashMap<String, ToolStock> stock = new ConcurrentHashMap<>();
+
+    /**
+     * Put more units of a tool on hand.
+     *
+     * @param toolCode the tool code
+     * @param units    how many units to add
+     */
+    public void addUnits(String toolCode, int units) {
+        if (toolCode == null || units < 0) {
+            throw new IllegalArgumentException("Units must be added to a tool code and cannot be negative.  "
+                    + "You provided: " + toolCode + " x " + units);
+        }
+        stock.computeIfAbsent(toolCode, code -> new ToolStock()).addUnits(units);
+    }
+
+    /**
+     * @param toolCode the tool code
+     * @return how many units of the tool are on hand, reserved or not
+     */
+    public int getUnitCount(String toolCode) {
+        ToolStock tool = toolCode == null ? null : stock.get(toolCode);
+        return tool == null ? 0 : tool.units.length;
+    }
+
+    /**
+     * @param toolCode      the tool code
+     * @param firstEpochDay the first day wanted
+     * @param lastEpochDay  the last day wanted, inclusive
+     * @return how many units of the tool are free for the whole range
+     */
+    public int countAvailableUnits(String toolCode, long firstEpochDay, long lastEpochDay) {
+        ToolStock tool = toolCode == null ? null : stock.get(toolCode);
+        if (tool == null) {
+            return 0;
+        }
+
+        int available = 0;
+        for (UnitSchedule unit : tool.units) {
+            if (unit.isFree(firstEpochDay, lastEpochDay)) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+    /**
+     * @param toolCode      the tool code
+     * @param firstEpochDay the first day wanted
+     * @param lastEpochDay  the last day wanted, inclusive
+     * @return true if at least one unit of the tool is free for the whole range
+     */
+    public boolean isAvailable(String toolCode, long firstEpochDay, long lastEpochDay) {
+        ToolStock tool = toolCode == null ? null : stock.get(toolCode);
+        if (tool == null) {
+            return false;
+        }
+        for (UnitSchedule unit : tool.units) {
+            if (unit.isFree(firstEpochDay, lastEpochDay)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Which of the given tools have a unit free for the whole range, e.g. every JACKHAMMER in the catalog.
+     *
+     * @param tools         the tools to check, see {@link com.cardinal.ToolCatalog#findByType(com.cardinal.ToolType)}
+     * @param firstEpochDay the first day wanted
+     * @param lastEpochDay  the last day wanted, inclusive
+     * @return the free tools, in the order given
+     */
+    public List<Tool> findAvailable(Collection<Tool> tools, long firstEpochDay, long lastEpochDay) {
+        List<Tool> available = new ArrayList<>();
+        for (Tool tool : tools) {
+            if (isAvailable(tool.getToolCode(), firstEpochDay, lastEpochDay)) {
+                available.add(tool);
+            }
+        }
+        return available;
+    }
+
+    /**
+     * @param toolCode      the tool code
+     * @param firstEpochDay the first day of the range
+     * @param lastEpochDay  the last day of the range, inclusive
+     * @return every reservation holding a unit of the tool on some of those days, by first day and then unit
+     */
+    public List<Reservation> findOverlapping(String toolCode, long firstEpochDay, long lastEpochDay) {
+        List<Reservation> overlapping = new ArrayList<>();
+        ToolStock tool = toolCode == null ? null : stock.get(toolCode);
+        if (tool == null) {
+            return overlapping;
+        }
+        for (UnitSchedule unit : tool.units) {
+            unit.addOverlapping(firstEpochDay, lastEpochDay, overlapping);
+        }
+        overlapping.sort(Comparator.comparingLong(Reservation::getFirstEpochDay)
+                .thenComparingInt(Reservation::getUnit));
+        return overlapping;
+    }
+
+    /**
+     * Find the first day, on or after the one given, that some unit of the tool is free for a number of days in a row.
+     *
+     * @param toolCode     the tool code
+     * @param fromEpochDay the earliest day wanted
+     * @param days         how many days in a row are wanted
+     * @return the first day of the free slot, as {@link java.time.LocalDate#toEpochDay()}, or empty if the tool has
+     * no units at all
+     */
+    public OptionalLong findNextAvailable(String toolCode, long fromEpochDay, int days) {
+        if (days <= 0) {
+            throw new IllegalArgumentException("You must ask for at least one day. You provided: " + days);
+        }
+        ToolStock tool = toolCode == null ? null : stock.get(toolCode);
+        UnitSchedule[] units = tool == null ? new UnitSchedule[0] : tool.units;
+        if (units.length == 0) {
+            return OptionalLong.empty();
+        }
+
+        long earliest = Long.MAX_VALUE;
+        for (UnitSchedule unit : units) {
+            earliest = Math.min(earliest, unit.nextFree(fromEpochDay, days));
+            if (earliest == fromEpochDay) {
+                break;
+            }
+        }
+        return OptionalLong.of(earliest);
+    }
+
+    /**
+     * Hold the rented tool from its checkout date through its due date.
+     *
+     * @param agreement the agreement to reserve a unit for
+     * @return the reservation, or empty if every unit is already reserved for some of those days
+     */
+    public Optional<Reservation> reserve(RentalAgreement agreement) {
+        return reserve(agreement.getRentedTool().getToolCode(), agreement.getCheckoutEpochDay(),
+                agreement.getDueEpochDay(), agreement);
+    }
+
+    /**
+     * Hold a unit of a tool for a range of days.
+     *
+     * @param toolCode      the tool code
+     * @param firstEpochDay the first day to hold
+     * @param lastEpochDay  the last day to hold, inclusive
+     * @return the reservation, or empty if every unit is already reserved for some of those days
+     */
+    public Optional<Reservation> reserve(String toolCode, long firstEpochDay, long lastEpochDay) {
+        return reserve(toolCode, firstEpochDay, lastEpochDay, null);
+    }
+
+    private Optional<Reservation> reserve(String toolCode, long firstEpochDay, long lastEpochDay,
+            RentalAgreement agreement) {
+        if (lastEpochDay < firstEpochDay) {
+            throw new IllegalArgumentException("The last day cannot be before the first day.  You provided: "
+                    + firstEpochDay + " to " + lastEpochDay);
+        }
+        ToolStock tool = toolCode == null ? null : stock.get(toolCode);
+        if (tool == null) {
+            return Optional.empty();
+        }
+
+        UnitSchedule[] units = tool.units;
+        if (units.length == 0) {
+            return Optional.empty();
+        }
+        // start somewhere different on each call so registers after the same tool spread over its units
+        int start = ThreadLocalRandom.current().nextInt(units.length);
+        for (int i = 0; i < units.length; i++) {
+            int unit = (start + i) % units.length;
+            Reservation reservation = new Reservation(toolCode, unit, firstEpochDay, lastEpochDay, agreement);
+            if (units[unit].tryReserve(reservation)) {
+                return Optional.of(reservation);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Hold the unit out on an agreement through the due date of its extension.  It's the same unit, the customer
+     * already has it, so the added days either fit on it or not at all.
+     *
+     * @param agreement the agreement the unit is held for
+     * @param extended  the extended agreement, which takes over the hold
+     * @return the new reservation, or empty if no unit is held for the agreement or it is already reserved for some of
+     * the added days, which leaves the old one as it was
+     */
+    public Optional<Reservation> extend(RentalAgreement agreement, RentalAgreement extended) {
+        ToolStock tool = stock.get(agreement.getRentedTool().getToolCode());
+        if (tool == null) {
+            return Optional.empty();
+        }
+
+        UnitSchedule[] units = tool.units;
+        for (int unit = 0; unit < units.length; unit++) {
+            Reservation reservation = units[unit].find(agreement);
+            if (reservation != null) {
+                Reservation replacement = new Reservation(reservation.getToolCode(), unit,
+                        reservation.getFirstEpochDay(),
+                        Math.max(reservation.getLastEpochDay(), extended.getDueEpochDay()), extended);
+                return units[unit].tryReplace(reservation, replacement) ? Optional.of(replacement) : Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Hold the unit out on an overdue agreement through the due date of its extension, or up to the day it's promised
+     * to a later rental if that comes first.  Unlike {@link #extend(RentalAgreement, RentalAgreement)} the extension
+     * always takes over the hold, the customer has the tool either way, so it's the agreement to
+     * {@link #release(RentalAgreement) release} when the tool comes back.
+     *
+     * @param agreement the agreement the unit is held for
+     * @param extended  the extended agreement, which takes over the hold
+     * @return the new reservation, or empty if no unit is held for the agreement
+     */
+    public Optional<Reservation> holdOverdue(RentalAgreement agreement, RentalAgreement extended) {
+        ToolStock tool = stock.get(agreement.getRentedTool().getToolCode());
+        if (tool == null) {
+            return Optional.empty();
+        }
+
+        for (UnitSchedule unit : tool.units) {
+            Reservation reservation = unit.find(agreement);
+            if (reservation != null) {
+                return Optional.ofNullable(unit.extendUpTo(reservation, extended.getDueEpochDay(), extended));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Free a unit, e.g. when the tool comes back.
+     *
+     * @param reservation the reservation to free
+     * @return false if it was already freed
+     */
+    public boolean release(Reservation reservation) {
+        ToolStock tool = stock.get(reservation.getToolCode());
+        return tool != null && tool.units[reservation.getUnit()].release(reservation);
+    }
+
+    /**
+     * Free the unit held for an agreement.
+     *
+     * @param agreement the agreement made at checkout
+     * @return false if no unit is held for it
+     */
+    public boolean release(RentalAgreement agreement) {
+        ToolStock tool = stock.get(agreement.getRentedTool().getToolCode());
+        if (tool == null) {
+            return false;
+        }
+        for (UnitSchedule unit : tool.units) {
+            Reservation reservation = unit.find(agreement);
+            if (reservation != null) {
+                return unit.release(reservation);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The units of one tool.  The array only ever grows, and is swapped whole, so readers need no lock.
+     */
+    private static final class ToolStock {
+        private volatile UnitSchedule[] units = new UnitSchedule[0];
+
+        private synchronized void addUnits(int count) {
+            UnitSchedule[] grown = Arrays.copyOf(units, units.length + count);
+            for (int i = units.length; i < grown.length; i++) {
+                grown[i] = new UnitSchedule();
+            }
+            units = grown;
+        }
+    }
+
+    /**
+     * The reservations of one unit, sorted by first day and never overlapping, so the last days are sorted too.
+     */
+    private static final class UnitSchedule {
+        private final AtomicReference<Reservation[]> reservations = new AtomicReference<>(NO_RESERVATIONS);
+
+        private boolean isFree(long firstEpochDay, long lastEpochDay) {
+            Reservation[] current = reservations.get();
+            return !overlaps(current, insertionPoint(current, firstEpochDay), firstEpochDay, lastEpochDay);
+        }
+
+        private void addOverlapping(long firstEpochDay, long lastEpochDay, List<Reservation> overlapping) {
+            Reservation[] current = reservations.get();
+            for (int index = firstEndingFrom(current, firstEpochDay);
+                    index < current.length && current[index].getFirstEpochDay() <= lastEpochDay; index++) {
+                overlapping.add(current[index]);
+            }
+        }
+
+        private long nextFree(long fromEpochDay, int days) {
+            Reservation[] current = reservations.get();
+            long candidate = fromEpochDay;
+            // each reservation in the way pushes the slot past its end, and the next one can only start after that
+            for (int index = firstEndingFrom(current, candidate);
+                    index < current.length && current[index].getFirstEpochDay() <= candidate + days - 1; index++) {
+                candidate = current[index].getLastEpochDay() + 1;
+            }
+            return candidate;
+        }
+
+        private boolean tryReserve(Reservation reservation) {
+            long first = reservation.getFirstEpochDay();
+            long last = reservation.getLastEpochDay();
+            while (true) {
+                Reservation[] current = reservations.get();
+                int index = insertionPoint(current, first);
+                if (overlaps(current, index, first, last)) {
+                    return false;
+                }
+
+                Reservation[] next = new Reservation[current.length + 1];
+                System.arraycopy(current, 0, next, 0, index);
+                next[index] = reservation;
+                System.arraycopy(current, index, next, index + 1, current.length - index);
+                if (reservations.compareAndSet(current, next)) {
+                    return true;
+                }
+                // another register changed this unit first, check again against what it did
+            }
+        }
+
+        private boolean release(Reservation reservation) {
+            while (true) {
+                Reservation[] current = reservations.get();
+                int index = indexOf(current, reservation);
+                if (index < 0) {
+                    return false;
+                }
+
+                Reservation[] next = new Reservation[current.length - 1];
+                System.arraycopy(current, 0, next, 0, index);
+                System.arraycopy(current, index + 1, next, index, next.length - index);
+                if (reservations.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        private boolean tryReplace(Reservation reservation, Reservation replacement) {
+            while (true) {
+                Reservation[] current = reservations.get();
+                int index = indexOf(current, reservation);
+                if (index < 0) {
+                    return false;
+                }
+                // it starts on the same day, so only the reservation after it can be in the way
+                if (index + 1 < current.length && current[index + 1].overlaps(replacement.getFirstEpochDay(),
+                        replacement.getLastEpochDay())) {
+                    return false;
+                }
+
+                Reservation[] next = current.clone();
+                next[index] = replacement;
+                if (reservations.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * @return the replacement, held through the given day or the day before the next reservation, or null if the
+         * reservation was already released
+         */
+        private Reservation extendUpTo(Reservation reservation, long lastEpochDay, RentalAgreement agreement) {
+            while (true) {
+                Reservation[] current = reservations.get();
+                int index = indexOf(current, reservation);
+                if (index < 0) {
+                    return null;
+                }
+                long last = Math.max(reservation.getLastEpochDay(), lastEpochDay);
+                if (index + 1 < current.length) {
+                    last = Math.min(last, current[index + 1].getFirstEpochDay() - 1);
+                }
+
+                Reservation replacement = new Reservation(reservation.getToolCode(), reservation.getUnit(),
+                        reservation.getFirstEpochDay(), last, agreement);
+                Reservation[] next = current.clone();
+                next[index] = replacement;
+                if (reservations.compareAndSet(current, next)) {
+                    return replacement;
+                }
+            }
+        }
+
+        private Reservation find(RentalAgreement agreement) {
+            Reservation[] current = reservations.get();
+            int index = insertionPoint(current, agreement.getCheckoutEpochDay()) - 1;
+            if (index >= 0 && current[index].getAgreement() == agreement) {
+                return current[index];
+            }
+            return null;
+        }
+
+        private static int indexOf(Reservation[] reservations, Reservation reservation) {
+            int index = insertionPoint(reservations, reservation.getFirstEpochDay()) - 1;
+            return index >= 0 && reservations[index] == reservation ? index : -1;
+        }
+
+        /**
+         * @return the index of the first reservation starting after the given day
+         */
+        private static int insertionPoint(Reservation[] reservations, long firstEpochDay) {
+            int low = 0;
+            int high = reservations.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (reservations[mid].getFirstEpochDay() <= firstEpochDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * @return the index of the first reservation still running on or after the given day, the last days are sorted
+         * too as reservations never overlap
+         */
+        private static int firstEndingFrom(Reservation[] reservations, long epochDay) {
+            int low = 0;
+            int high = reservations.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (reservations[mid].getLastEpochDay() < epochDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static boolean overlaps(Reservation[] reservations, int index, long firstEpochDay, long lastEpochDay) {
+            // only the neighbours can overlap, everything further out is further away in time
+            return (index > 0 && reservations[index - 1].overlaps(firstEpochDay, lastEpochDay))
+                    || (index < reservations.length && reservations[index].overlaps(firstEpochDay, lastEpochDay));
+        }
+    }
+}
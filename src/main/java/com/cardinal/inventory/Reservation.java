@@ -0,0 +1,58 @@
+package com.cardinal.inventory;
+
+import com.cardinal.RentalAgreement;
+
+/**
+ * One unit of a tool held for a range of days.  Immutable.
+ */
+public final class Reservation {
+    private final String toolCode;
+    private final int unit;
+    private final long firstEpochDay;
+    private final long lastEpochDay;
+    private final RentalAgreement agreement;
+
+    Reservation(String toolCode, int unit, long firstEpochDay, long lastEpochDay, RentalAgreement agreement) {
+        this.toolCode = toolCode;
+        this.unit = unit;
+        this.firstEpochDay = firstEpochDay;
+        this.lastEpochDay = lastEpochDay;
+        this.agreement = agreement;
+    }
+
+    public String getToolCode() {
+        return toolCode;
+    }
+
+    /**
+     * @return which unit of the tool is held, from 0
+     */
+    public int getUnit() {
+        return unit;
+    }
+
+    /**
+     * @return the first day the unit is held, as {@link java.time.LocalDate#toEpochDay()}
+     */
+    public long getFirstEpochDay() {
+        return firstEpochDay;
+    }
+
+    /**
+     * @return the last day the unit is held, inclusive
+     */
+    public long getLastEpochDay() {
+        return lastEpochDay;
+    }
+
+    /**
+     * @return the agreement the unit is held for, null for a hold not made at checkout
+     */
+    public RentalAgreement getAgreement() {
+        return agreement;
+    }
+
+    boolean overlaps(long fromEpochDay, long toEpochDay) {
+        return firstEpochDay <= toEpochDay && fromEpochDay <= lastEpochDay;
+    }
+}
@@ -0,0 +1,497 @@
+package com.cardinal.journal;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.cardinal.RentalAgreement;
+import com.cardinal.codec.AgreementCodec;
+
+/**
+ * A local, append-only journal of every rental agreement, so nothing is lost once checkout hands one back.
+ * <p>
+ * Registers queue their agreements, and one writer thread encodes them and appends them to the current segment
+ * through a {@link FileChannel}, copying a whole batch into one buffer per write.  Each segment is one
+ * {@link com.cardinal.codec.AgreementCodec} stream, so a tool is only written out the first time a segment sees it.
+ * When and how often the segment is forced to disk is up to the {@link Durability}.  Segments roll over to a new file
+ * once they reach the segment size.
+ * <p>
+ * Opening a journal recovers it first: every record is checked against its CRC and replayed in order, and a torn
+ * record at the end of the last segment, left by a crash part way through a write, is truncated away.  Appends then
+ * start a new segment, as the stream in the last one can't be picked up part way.  See {@link JournalRecord} for the
+ * record layout.
+ */
+public final class AgreementJournal implements Closeable {
+
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    static final int SEGMENT_MAGIC = 0x414A4E4C; // AJNL
+    static final int SEGMENT_VERSION = 2;
+    static final int SEGMENT_HEADER_SIZE = 2 * Integer.BYTES;
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("agreements-(\\d{20})\\.journal");
+    private static final int QUEUE_CAPACITY = 64 * 1024;
+    private static final int MAX_BATCH = 4096;
+    private static final int WRITE_BUFFER_SIZE = 1024 * 1024;
+    private static final long ASYNC_FORCE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Path directory;
+    private final Durability durability;
+    private final long segmentSize;
+    private final BlockingQueue<Pending> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    // appends share the read lock, close takes the write lock so nothing is queued after the writer is told to stop
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    // only touched by the writer thread once the journal is open
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private final ByteBuffer payload = ByteBuffer.allocate(JournalRecord.MAX_PAYLOAD_SIZE);
+    private final AgreementCodec.Encoder encoder = new AgreementCodec.Encoder();
+    private FileChannel segment;
+    private long segmentNumber;
+    private long segmentPosition;
+    private boolean unforced;
+    private long lastForceNanos = System.nanoTime();
+
+    private AgreementJournal(Path directory, Durability durability, long segmentSize, long segmentNumber,
+            FileChannel segment, long segmentPosition) {
+        this.directory = directory;
+        this.durability = durability;
+        this.segmentSize = segmentSize;
+        this.segmentNumber = segmentNumber;
+        this.segment = segment;
+        this.segmentPosition = segmentPosition;
+
+        writer = new Thread(this::writeLoop, "agreement-journal-" + directory.getFileName());
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Open a journal without replaying it, recovering a torn tail if there is one.
+     *
+     * @param directory  the directory holding the segments, created if missing
+     * @param durability when appends return
+     * @return the journal, ready to append
+     * @throws IOException when the journal can't be read or an earlier segment is corrupt
+     */
+    public static AgreementJournal open(Path directory, Durability durability) throws IOException {
+        return open(directory, durability, DEFAULT_SEGMENT_SIZE, null);
+    }
+
+    /**
+     * Open a journal, replaying every agreement already in it and recovering a torn tail if there is one.
+     *
+     * @param directory   the directory holding the segments, created if missing
+     * @param durability  when appends return
+     * @param segmentSize roll over to a new segment once one reaches this many bytes
+     * @param replay      given every agreement in the journal in the order they were appended, may be null
+     * @return the journal, ready to append
+     * @throws IOException when the journal can't be read or an earlier segment is corrupt
+     */
+    public static AgreementJournal open(Path directory, Durability durability, long segmentSize,
+            Consumer<RentalAgreement> replay) throws IOException {
+        if (durability == null) {
+            throw new IllegalArgumentException("A durability must be provided.");
+        }
+        if (segmentSize <= SEGMENT_HEADER_SIZE) {
+            throw new IllegalArgumentException("The segment size is too small.  You provided: " + segmentSize);
+        }
+
+        Files.createDirectories(directory);
+        TreeMap<Long, Path> segments = listSegments(directory);
+        AgreementCodec.Decoder decoder = replay == null ? null : new AgreementCodec.Decoder();
+
+        long lastPosition = SEGMENT_HEADER_SIZE;
+        for (Path segment : segments.values()) {
+            lastPosition = recover(segment, segment.equals(segments.lastEntry().getValue()), decoder, replay);
+        }
+
+        long segmentNumber = segments.isEmpty() ? 1 : segments.lastKey();
+        FileChannel channel;
+        if (segments.isEmpty() || lastPosition > SEGMENT_HEADER_SIZE) {
+            // a fresh stream needs a fresh segment
+            segmentNumber = segments.isEmpty() ? 1 : segmentNumber + 1;
+            lastPosition = SEGMENT_HEADER_SIZE;
+            channel = createSegment(segmentPath(directory, segmentNumber));
+        } else {
+            channel = FileChannel.open(segmentPath(directory, segmentNumber), StandardOpenOption.WRITE);
+            channel.position(lastPosition);
+        }
+        return new AgreementJournal(directory, durability, segmentSize, segmentNumber, channel, lastPosition);
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Append an agreement.  Blocks while the queue is full, and for {@link Durability#PER_RECORD} and
+     * {@link Durability#BATCHED} until the record is on disk.
+     *
+     * @param agreement the agreement to record
+     * @throws IOException when the journal has failed to write, nothing more can be appended after that
+     */
+    public void append(RentalAgreement agreement) throws IOException {
+        JournalRecord.checkSize(agreement);
+        CompletableFuture<Void> written = enqueue(agreement);
+        if (durability != Durability.ASYNC) {
+            await(written);
+        }
+    }
+
+    /**
+     * Force everything appended so far to disk, whatever the durability.
+     *
+     * @throws IOException when the journal has failed to write
+     */
+    public void flush() throws IOException {
+        await(enqueue(null));
+    }
+
+    /**
+     * Force everything appended to disk and close the current segment.
+     *
+     * @throws IOException when the journal has failed to write
+     */
+    @Override
+    public void close() throws IOException {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            putUninterruptibly(new Pending(null, true, new CompletableFuture<>()));
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * @param agreement the agreement to write, or null to only force
+     */
+    private CompletableFuture<Void> enqueue(RentalAgreement agreement) throws IOException {
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("The journal is closed.");
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            CompletableFuture<Void> written = new CompletableFuture<>();
+            putUninterruptibly(new Pending(agreement, false, written));
+            return written;
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    private void putUninterruptibly(Pending pending) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(pending);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CompletableFuture<Void> written) throws IOException {
+        try {
+            written.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for the journal.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(MAX_BATCH);
+        boolean stopping = false;
+        while (!stopping) {
+            Pending first;
+            try {
+                first = queue.poll(ASYNC_FORCE_INTERVAL_NANOS, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                // only close stops the writer
+                continue;
+            }
+
+            if (first != null) {
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+            }
+            try {
+                if (failure != null) {
+                    // something queued just as the journal failed, don't write past the failure
+                    throw failure;
+                }
+                for (Pending pending : batch) {
+                    if (pending.stop) {
+                        stopping = true;
+                        force();
+                    } else if (pending.agreement == null) {
+                        force();
+                    } else {
+                        write(pending.agreement);
+                        if (durability == Durability.PER_RECORD) {
+                            force();
+                        }
+                    }
+                }
+                writeBuffered();
+                if (durability == Durability.BATCHED
+                        || (unforced && System.nanoTime() - lastForceNanos >= ASYNC_FORCE_INTERVAL_NANOS)) {
+                    force();
+                }
+                for (Pending pending : batch) {
+                    pending.written.complete(null);
+                }
+            } catch (IOException | RuntimeException e) {
+                failure = e instanceof IOException ? (IOException) e : new IOException(e);
+                for (Pending pending : batch) {
+                    pending.written.completeExceptionally(failure);
+                }
+                // fail anything still waiting too, nothing more will be written
+                stopping = stopping || closed;
+                for (Pending pending = queue.poll(); pending != null; pending = queue.poll()) {
+                    stopping |= pending.stop;
+                    pending.written.completeExceptionally(failure);
+                }
+            }
+            batch.clear();
+        }
+
+        try {
+            segment.close();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+    }
+
+    private void write(RentalAgreement agreement) throws IOException {
+        int length = JournalRecord.encode(encoder, agreement, payload);
+        int recordSize = JournalRecord.FRAME_HEADER_SIZE + length;
+        if (segmentPosition + writeBuffer.position() + recordSize > segmentSize
+                && segmentPosition + writeBuffer.position() > SEGMENT_HEADER_SIZE) {
+            roll();
+            // again for the new segment's stream, with its tool written out
+            length = JournalRecord.encode(encoder, agreement, payload);
+            recordSize = JournalRecord.FRAME_HEADER_SIZE + length;
+        }
+        if (recordSize > writeBuffer.remaining()) {
+            writeBuffered();
+        }
+        writeBuffer.putInt(length).putInt(JournalRecord.checksum(payload.array(), 0, length))
+                .put(payload.array(), 0, length);
+    }
+
+    private void writeBuffered() throws IOException {
+        writeBuffer.flip();
+        writeFully(writeBuffer);
+        writeBuffer.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            segmentPosition += segment.write(buffer);
+            unforced = true;
+        }
+    }
+
+    private void force() throws IOException {
+        writeBuffered();
+        if (unforced) {
+            // skips timestamps only, the data and the new length still reach the disk
+            segment.force(false);
+            unforced = false;
+        }
+        lastForceNanos = System.nanoTime();
+    }
+
+    private void roll() throws IOException {
+        force();
+        segment.close();
+        segmentNumber++;
+        segment = createSegment(segmentPath(directory, segmentNumber));
+        segmentPosition = SEGMENT_HEADER_SIZE;
+        encoder.reset();
+    }
+
+    private static FileChannel createSegment(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        writeHeader(channel);
+        return channel;
+    }
+
+    private static void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE).putInt(SEGMENT_MAGIC).putInt(SEGMENT_VERSION);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+    }
+
+    static Path segmentPath(Path directory, long segmentNumber) {
+        return directory.resolve(String.format("agreements-%020d.journal", segmentNumber));
+    }
+
+    static TreeMap<Long, Path> listSegments(Path directory) throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.put(Long.parseLong(matcher.group(1)), file);
+                }
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Replay one segment, truncating a torn tail when it is the last one.
+     *
+     * @return the end of the last whole record
+     */
+    private static long recover(Path file, boolean last, AgreementCodec.Decoder decoder,
+            Consumer<RentalAgreement> replay) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            DataInputStream in =
+                    new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024));
+
+            if (size < SEGMENT_HEADER_SIZE && last) {
+                // torn before the header was even written, start it over
+                channel.truncate(0);
+                channel.position(0);
+                writeHeader(channel);
+                return SEGMENT_HEADER_SIZE;
+            }
+            if (size < SEGMENT_HEADER_SIZE || in.readInt() != SEGMENT_MAGIC || in.readInt() != SEGMENT_VERSION) {
+                throw new IOException("Not a version " + SEGMENT_VERSION + " journal segment: " + file);
+            }
+
+            if (decoder != null) {
+                decoder.reset();
+            }
+            long position = SEGMENT_HEADER_SIZE;
+            byte[] payload = new byte[256];
+            while (position + JournalRecord.FRAME_HEADER_SIZE <= size) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length <= 0 || length > JournalRecord.MAX_PAYLOAD_SIZE
+                        || position + JournalRecord.FRAME_HEADER_SIZE + length > size) {
+                    break;
+                }
+                if (payload.length < length) {
+                    payload = new byte[Math.max(length, payload.length * 2)];
+                }
+                in.readFully(payload, 0, length);
+                if (JournalRecord.checksum(payload, 0, length) != checksum) {
+                    break;
+                }
+
+                if (replay != null) {
+                    replay.accept(decode(decoder, payload, length, file, position));
+                }
+                position += JournalRecord.FRAME_HEADER_SIZE + length;
+            }
+
+            if (position < size) {
+                if (!last) {
+                    throw new IOException("Journal segment " + file + " is corrupt at byte " + position);
+                }
+                channel.truncate(position);
+                channel.force(true);
+            }
+            return position;
+        }
+    }
+
+    /**
+     * A record that passed its CRC but doesn't decode wasn't torn, the segment is corrupt.
+     */
+    private static RentalAgreement decode(AgreementCodec.Decoder decoder, byte[] payload, int length, Path file,
+            long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(payload, 0, length);
+        try {
+            RentalAgreement agreement = decoder.decode(buffer);
+            if (!buffer.hasRemaining()) {
+                return agreement;
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Journal segment " + file + " has an unreadable record at byte " + position, e);
+        }
+        throw new IOException("Journal segment " + file + " has an unreadable record at byte " + position);
+    }
+
+    private static final class Pending {
+        // null to only force
+        private final RentalAgreement agreement;
+        // true to force and stop the writer
+        private final boolean stop;
+        private final CompletableFuture<Void> written;
+
+        private Pending(RentalAgreement agreement, boolean stop, CompletableFuture<Void> written) {
+            this.agreement = agreement;
+            this.stop = stop;
+            this.written = written;
+        }
+    }
+}
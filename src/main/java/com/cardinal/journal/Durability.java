@@ -0,0 +1,21 @@
+package com.cardinal.journal;
+
+/**
+ * How long {@link AgreementJournal#append(com.cardinal.RentalAgreement)} waits before returning.
+ */
+public enum Durability {
+    /**
+     * Every record is forced to disk on its own before its append returns.  The safest and the slowest.
+     */
+    PER_RECORD,
+    /**
+     * Group commit: records appended while the disk is busy are written and forced together, and each append returns
+     * once the batch holding it is on disk.  As safe as PER_RECORD, at one force per batch instead of per record.
+     */
+    BATCHED,
+    /**
+     * Appends return as soon as the record is queued.  Records are forced in the background every 100ms and on
+     * close, so a crash can lose the last moments of checkouts.
+     */
+    ASYNC
+}
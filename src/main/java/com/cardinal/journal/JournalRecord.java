@@ -0,0 +1,72 @@
+package com.cardinal.journal;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import com.cardinal.RentalAgreement;
+import com.cardinal.Tool;
+import com.cardinal.codec.AgreementCodec;
+
+/**
+ * The binary layout of one agreement in the journal.  Big endian.
+ * <pre>
+ * frame    [payload length, int][CRC32 of the payload, int][payload]
+ * payload  one agreement of the segment's {@link AgreementCodec} stream
+ * </pre>
+ * Each segment is one codec stream, so the first record of a segment carries the codec version and every tool is
+ * written out in full the first time the segment sees it, with the tool type, so an agreement replays at the price it
+ * was written at.  Later records for the same tool just refer back to it.  Frames are still checked one by one, a
+ * segment is only ever cut short at the end, so a record can never lose the tool it refers to.
+ */
+final class JournalRecord {
+
+    static final int FRAME_HEADER_SIZE = 2 * Integer.BYTES;
+    // far more than any real record, anything claiming to be bigger is a torn or corrupt length
+    static final int MAX_PAYLOAD_SIZE = 64 * 1024;
+
+    // the version byte, the tool reference and every number at their longest varints, and three string lengths
+    private static final int MAX_FIXED_SIZE = 1 + 5 + 3 * 5 + 10 + 1 + 4 * 5 + 2 * 10;
+
+    private JournalRecord() {
+        // utility class, don't allow it to be built on accident
+    }
+
+    /**
+     * Refuse an agreement which might not fit in a record, before it's queued rather than failing the writer.
+     *
+     * @param agreement the agreement to write
+     */
+    static void checkSize(RentalAgreement agreement) {
+        Tool tool = agreement.getRentedTool();
+        // UTF-8 takes at most three bytes a char
+        long longest = MAX_FIXED_SIZE + 3L * (length(tool.getToolCode()) + length(tool.getBrand())
+                + length(tool.getToolType().name()));
+        if (longest > MAX_PAYLOAD_SIZE) {
+            throw new IllegalArgumentException("Agreement too large to journal for tool code: " + tool.getToolCode());
+        }
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    /**
+     * Encode one agreement of a segment's stream into a scratch buffer.
+     *
+     * @param encoder   the segment's encoder
+     * @param agreement the agreement to write
+     * @param scratch   holds the payload from position 0 on return
+     * @return the payload length
+     */
+    static int encode(AgreementCodec.Encoder encoder, RentalAgreement agreement, ByteBuffer scratch) {
+        scratch.clear();
+        encoder.encode(agreement, scratch);
+        return scratch.position();
+    }
+
+    static int checksum(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+}
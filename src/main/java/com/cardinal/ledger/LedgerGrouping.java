@@ -0,0 +1,20 @@
+package com.cardinal.ledger;
+
+/**
+ * How {@link LedgerQuery#totalsBy(LedgerGrouping)} splits up the agreements.
+ */
+public enum LedgerGrouping {
+    /**
+     * By tool type name, whatever the daily charge was at the time.
+     */
+    TOOL_TYPE,
+    /**
+     * By brand, an empty string for tools without one.
+     */
+    BRAND,
+    TOOL_CODE,
+    /**
+     * By the year and month of the checkout, as yyyy-mm.
+     */
+    CHECKOUT_MONTH
+}
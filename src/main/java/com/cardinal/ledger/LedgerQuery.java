@@ -0,0 +1,241 @@
+package com.cardinal.ledger;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import com.cardinal.Tool;
+
+/**
+ * A report over a {@link RentalLedger}, narrowed down by dates and then added up as a whole or in groups.  Immutable,
+ * narrowing returns a new query, and each total is worked out from the ledger as it is at that moment.
+ * <pre>
+ * Map&lt;String, LedgerTotals&gt; byType = ledger.query()
+ *         .checkedOutBetween(LocalDate.of(2015, 7, 1), LocalDate.of(2015, 9, 30))
+ *         .totalsBy(LedgerGrouping.TOOL_TYPE);
+ * </pre>
+ */
+public final class LedgerQuery {
+
+    // count, chargeable days, pre discount cents, discount cents, per group
+    private static final int SUMS = 4;
+
+    private final RentalLedger ledger;
+    private final int firstCheckoutDay;
+    private final int lastCheckoutDay;
+    private final int firstDueDay;
+    private final int lastDueDay;
+
+    LedgerQuery(RentalLedger ledger) {
+        this(ledger, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    private LedgerQuery(RentalLedger ledger, int firstCheckoutDay, int lastCheckoutDay, int firstDueDay,
+            int lastDueDay) {
+        this.ledger = ledger;
+        this.firstCheckoutDay = firstCheckoutDay;
+        this.lastCheckoutDay = lastCheckoutDay;
+        this.firstDueDay = firstDueDay;
+        this.lastDueDay = lastDueDay;
+    }
+
+    /**
+     * @param first the first checkout date to include
+     * @param last  the last checkout date to include
+     * @return a query over only the agreements checked out between them, as well as anything already narrowed to
+     */
+    public LedgerQuery checkedOutBetween(LocalDate first, LocalDate last) {
+        checkRange(first, last);
+        return new LedgerQuery(ledger, Math.max(firstCheckoutDay, toDay(first)),
+                Math.min(lastCheckoutDay, toDay(last)), firstDueDay, lastDueDay);
+    }
+
+    /**
+     * @param first the first due date to include
+     * @param last  the last due date to include
+     * @return a query over only the agreements due back between them, as well as anything already narrowed to
+     */
+    public LedgerQuery dueBetween(LocalDate first, LocalDate last) {
+        checkRange(first, last);
+        return new LedgerQuery(ledger, firstCheckoutDay, lastCheckoutDay, Math.max(firstDueDay, toDay(first)),
+                Math.min(lastDueDay, toDay(last)));
+    }
+
+    private static void checkRange(LocalDate first, LocalDate last) {
+        if (first == null || last == null || last.isBefore(first)) {
+            throw new IllegalArgumentException("A date range needs a first date on or before the last.  "
+                    + "You provided: " + first + " to " + last);
+        }
+    }
+
+    private static int toDay(LocalDate date) {
+        long day = date.toEpochDay();
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, day));
+    }
+
+    /**
+     * @return the totals over every agreement in the query
+     */
+    public LedgerTotals total() {
+        long[] sums = sum(ledger.snapshot(), null, false, 0, 1);
+        return totals(sums, 0);
+    }
+
+    /**
+     * @param grouping how to split the agreements up
+     * @return the totals for each group with any agreements in the query, in order of the group names
+     */
+    public Map<String, LedgerTotals> totalsBy(LedgerGrouping grouping) {
+        RentalLedger.Snapshot snapshot = ledger.snapshot();
+        List<String> names = new ArrayList<>();
+        Map<String, Integer> groups = new HashMap<>();
+        int[] keys;
+        int base = 0;
+        boolean byCheckoutDay = grouping == LedgerGrouping.CHECKOUT_MONTH;
+
+        if (byCheckoutDay) {
+            // a group for every day that can be in the query, each row is a single lookup of its checkout day
+            base = Math.max(firstCheckoutDay, snapshot.firstCheckoutDay);
+            int last = Math.min(lastCheckoutDay, snapshot.lastCheckoutDay);
+            if (snapshot.rows == 0 || base > last) {
+                return Collections.emptyMap();
+            }
+            keys = new int[last - base + 1];
+            for (int day = 0; day < keys.length; day++) {
+                keys[day] = group(YearMonth.from(LocalDate.ofEpochDay((long) base + day)).toString(), groups, names);
+            }
+        } else {
+            Tool[] tools = snapshot.tools;
+            keys = new int[tools.length];
+            for (int tool = 0; tool < tools.length; tool++) {
+                keys[tool] = group(name(grouping, tools[tool]), groups, names);
+            }
+        }
+
+        long[] sums = sum(snapshot, keys, byCheckoutDay, base, names.size());
+        Map<String, LedgerTotals> totals = new TreeMap<>();
+        for (int group = 0; group < names.size(); group++) {
+            if (sums[group * SUMS] > 0) {
+                totals.put(names.get(group), totals(sums, group));
+            }
+        }
+        return totals;
+    }
+
+    private static int group(String name, Map<String, Integer> groups, List<String> names) {
+        return groups.computeIfAbsent(name, key -> {
+            names.add(key);
+            return names.size() - 1;
+        });
+    }
+
+    private static String name(LedgerGrouping grouping, Tool tool) {
+        switch (grouping) {
+        case TOOL_TYPE:
+            return tool.getToolType().name();
+        case BRAND:
+            return tool.getBrand() == null ? "" : tool.getBrand();
+        case TOOL_CODE:
+            return tool.getToolCode();
+        default:
+            throw new IllegalArgumentException("Not grouped by tool: " + grouping);
+        }
+    }
+
+    private static LedgerTotals totals(long[] sums, int group) {
+        int at = group * SUMS;
+        return sums[at] == 0 ? LedgerTotals.EMPTY
+                : new LedgerTotals(sums[at], sums[at + 1], sums[at + 2], sums[at + 3]);
+    }
+
+    /**
+     * Add up every chunk, in parallel when there's more than one.
+     *
+     * @param keys          the group of each tool, or each checkout day from base, null for one group
+     * @param byCheckoutDay true when keys are looked up by checkout day rather than tool
+     */
+    private long[] sum(RentalLedger.Snapshot snapshot, int[] keys, boolean byCheckoutDay, int base, int groups) {
+        int chunks = snapshot.chunkCount();
+        IntStream indexes = IntStream.range(0, chunks);
+        if (chunks > 1) {
+            indexes = indexes.parallel();
+        }
+        return indexes.mapToObj(chunk -> sumChunk(snapshot, chunk, keys, byCheckoutDay, base, groups))
+                .reduce(LedgerQuery::add)
+                .orElseGet(() -> new long[groups * SUMS]);
+    }
+
+    private long[] sumChunk(RentalLedger.Snapshot snapshot, int chunkIndex, int[] keys, boolean byCheckoutDay,
+            int base, int groups) {
+        RentalLedger.Chunk chunk = snapshot.chunks[chunkIndex];
+        long[] sums = new long[groups * SUMS];
+        if (chunk.lastCheckoutDay < firstCheckoutDay || chunk.firstCheckoutDay > lastCheckoutDay
+                || chunk.lastDueDay < firstDueDay || chunk.firstDueDay > lastDueDay) {
+            return sums;
+        }
+        boolean everyRow = chunk.firstCheckoutDay >= firstCheckoutDay && chunk.lastCheckoutDay <= lastCheckoutDay
+                && chunk.firstDueDay >= firstDueDay && chunk.lastDueDay <= lastDueDay;
+
+        int rows = snapshot.rowsIn(chunkIndex);
+        int[] checkoutDays = chunk.checkoutDays;
+        int[] dueDays = chunk.dueDays;
+        int[] chargeableDays = chunk.chargeableDays;
+        long[] preDiscountCents = chunk.preDiscountCents;
+        long[] discountCents = chunk.discountCents;
+
+        if (keys == null && everyRow) {
+            long chargeable = 0;
+            long preDiscount = 0;
+            long discount = 0;
+            for (int row = 0; row < rows; row++) {
+                chargeable += chargeableDays[row];
+                preDiscount += preDiscountCents[row];
+                discount += discountCents[row];
+            }
+            sums[0] = rows;
+            sums[1] = chargeable;
+            sums[2] = preDiscount;
+            sums[3] = discount;
+            return sums;
+        }
+
+        int[] keyColumn = byCheckoutDay ? checkoutDays : chunk.tools;
+        if (everyRow) {
+            for (int row = 0; row < rows; row++) {
+                int at = keys[keyColumn[row] - base] * SUMS;
+                sums[at]++;
+                sums[at + 1] += chargeableDays[row];
+                sums[at + 2] += preDiscountCents[row];
+                sums[at + 3] += discountCents[row];
+            }
+            return sums;
+        }
+        for (int row = 0; row < rows; row++) {
+            int checkoutDay = checkoutDays[row];
+            int dueDay = dueDays[row];
+            if (checkoutDay < firstCheckoutDay || checkoutDay > lastCheckoutDay
+                    || dueDay < firstDueDay || dueDay > lastDueDay) {
+                continue;
+            }
+            int at = keys == null ? 0 : keys[keyColumn[row] - base] * SUMS;
+            sums[at]++;
+            sums[at + 1] += chargeableDays[row];
+            sums[at + 2] += preDiscountCents[row];
+            sums[at + 3] += discountCents[row];
+        }
+        return sums;
+    }
+
+    private static long[] add(long[] first, long[] second) {
+        for (int i = 0; i < first.length; i++) {
+            first[i] += second[i];
+        }
+        return first;
+    }
+}
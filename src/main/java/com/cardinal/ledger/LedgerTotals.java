@@ -0,0 +1,82 @@
+package com.cardinal.ledger;
+
+import java.math.BigDecimal;
+
+/**
+ * What a set of agreements in a {@link RentalLedger} add up to.  Immutable.
+ */
+public final class LedgerTotals {
+
+    static final LedgerTotals EMPTY = new LedgerTotals(0, 0, 0, 0);
+
+    private final long agreements;
+    private final long chargeableDays;
+    private final long preDiscountCents;
+    private final long discountCents;
+
+    LedgerTotals(long agreements, long chargeableDays, long preDiscountCents, long discountCents) {
+        this.agreements = agreements;
+        this.chargeableDays = chargeableDays;
+        this.preDiscountCents = preDiscountCents;
+        this.discountCents = discountCents;
+    }
+
+    public long getAgreements() {
+        return agreements;
+    }
+
+    public long getChargeableDays() {
+        return chargeableDays;
+    }
+
+    public long getPreDiscountCents() {
+        return preDiscountCents;
+    }
+
+    public BigDecimal getPreDiscountCharge() {
+        return BigDecimal.valueOf(preDiscountCents, 2);
+    }
+
+    public long getDiscountCents() {
+        return discountCents;
+    }
+
+    public BigDecimal getDiscount() {
+        return BigDecimal.valueOf(discountCents, 2);
+    }
+
+    /**
+     * @return what was actually charged, after discounts, in cents
+     */
+    public long getRevenueCents() {
+        return preDiscountCents - discountCents;
+    }
+
+    public BigDecimal getRevenue() {
+        return BigDecimal.valueOf(getRevenueCents(), 2);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof LedgerTotals)) {
+            return false;
+        }
+        LedgerTotals totals = (LedgerTotals) other;
+        return agreements == totals.agreements && chargeableDays == totals.chargeableDays
+                && preDiscountCents == totals.preDiscountCents && discountCents == totals.discountCents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(agreements) * 31 + Long.hashCode(preDiscountCents) * 17 + Long.hashCode(discountCents);
+    }
+
+    @Override
+    public String toString() {
+        return agreements + " agreements, " + chargeableDays + " chargeable days, " + getPreDiscountCharge()
+                + " before " + getDiscount() + " discount, " + getRevenue() + " revenue";
+    }
+}
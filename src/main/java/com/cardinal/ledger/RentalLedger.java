@@ -0,0 +1,229 @@
+package com.cardinal.ledger;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.cardinal.RentalAgreement;
+import com.cardinal.Tool;
+import com.cardinal.ToolType;
+
+/**
+ * Every agreement, held as columns of primitives for reporting rather than as agreement objects.  A row is its
+ * checkout and due epoch days, an index into the ledger's tools, its chargeable days and its two amounts in cents,
+ * 32 bytes with nothing for the collector to trace, so 100 million rows fit in a little over 3GB of heap.
+ * <p>
+ * Rows are appended into fixed size chunks, so the ledger grows without ever copying what it already holds.  Each
+ * chunk remembers the range of checkout and due days in it, which lets a date filter skip chunks entirely when
+ * agreements arrive roughly in date order, and run without checking each row when a chunk is wholly inside it.
+ * Queries, see {@link #query()}, add up each chunk as a tight loop over the arrays, the chunks in parallel on the
+ * common ForkJoinPool.
+ * <p>
+ * One thread at a time may append, and any number may query alongside, each query seeing the rows appended before it
+ * started.
+ */
+public class RentalLedger {
+
+    public static final int DEFAULT_CHUNK_ROWS = 64 * 1024;
+
+    private final int chunkRows;
+    // only touched by appends, under the lock
+    private final Map<String, Integer> toolIndexes = new HashMap<>();
+
+    // written by appends before size, so a query reading size first sees everything up to it
+    private volatile int size;
+    private Chunk[] chunks = new Chunk[0];
+    private Tool[] tools = new Tool[0];
+    private int firstCheckoutDay = Integer.MAX_VALUE;
+    private int lastCheckoutDay = Integer.MIN_VALUE;
+
+    public RentalLedger() {
+        this(DEFAULT_CHUNK_ROWS);
+    }
+
+    /**
+     * @param chunkRows the rows in each chunk, the unit of parallel work and of skipping by date
+     */
+    public RentalLedger(int chunkRows) {
+        if (chunkRows <= 0) {
+            throw new IllegalArgumentException("Chunks must hold at least one row.  You provided: " + chunkRows);
+        }
+        this.chunkRows = chunkRows;
+    }
+
+    /**
+     * @param agreement the priced agreement to record
+     */
+    public synchronized void append(RentalAgreement agreement) {
+        int row = size;
+        if (row == Integer.MAX_VALUE) {
+            throw new IllegalStateException("The ledger is full at " + row + " rows.");
+        }
+        int chunkIndex = row / chunkRows;
+        Chunk[] current = chunks;
+        if (chunkIndex == current.length) {
+            current = Arrays.copyOf(current, chunkIndex + 1);
+            current[chunkIndex] = new Chunk(chunkRows);
+            chunks = current;
+        }
+
+        int checkoutDay = agreement.getCheckoutEpochDay();
+        int dueDay = Math.toIntExact(agreement.getDueEpochDay());
+        current[chunkIndex].set(row % chunkRows, checkoutDay, dueDay, toolIndex(agreement.getRentedTool()),
+                agreement.getChargeableDayCount(), agreement.getTotalDueBeforeDiscountCents(),
+                agreement.getTotalDiscountAmountCents());
+        if (checkoutDay < firstCheckoutDay) {
+            firstCheckoutDay = checkoutDay;
+        }
+        if (checkoutDay > lastCheckoutDay) {
+            lastCheckoutDay = checkoutDay;
+        }
+        size = row + 1;
+    }
+
+    /**
+     * @param agreements the priced agreements to record, in order
+     */
+    public synchronized void appendAll(Iterable<RentalAgreement> agreements) {
+        for (RentalAgreement agreement : agreements) {
+            append(agreement);
+        }
+    }
+
+    /**
+     * Tools are interned by code, a tool whose brand or type has changed since it was last seen gets a new index so
+     * the rows before the change still report against the old one.
+     */
+    private int toolIndex(Tool tool) {
+        Integer index = toolIndexes.get(tool.getToolCode());
+        Tool[] current = tools;
+        if (index != null && sameTool(current[index], tool)) {
+            return index;
+        }
+        int next = current.length;
+        current = Arrays.copyOf(current, next + 1);
+        current[next] = tool;
+        tools = current;
+        toolIndexes.put(tool.getToolCode(), next);
+        return next;
+    }
+
+    private static boolean sameTool(Tool first, Tool second) {
+        if (first == second) {
+            return true;
+        }
+        ToolType firstType = first.getToolType();
+        ToolType secondType = second.getToolType();
+        return (first.getBrand() == null ? second.getBrand() == null : first.getBrand().equals(second.getBrand()))
+                && firstType.name().equals(secondType.name())
+                && firstType.getDailyChargeCents() == secondType.getDailyChargeCents()
+                && firstType.noChargeOnWeekends() == secondType.noChargeOnWeekends()
+                && firstType.noChargeOnHolidays() == secondType.noChargeOnHolidays();
+    }
+
+    /**
+     * @return the number of agreements recorded
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a query over every agreement, to narrow down and add up
+     */
+    public LedgerQuery query() {
+        return new LedgerQuery(this);
+    }
+
+    /**
+     * @return the bytes held by the columns, including the unused end of the last chunk
+     */
+    public long getColumnBytes() {
+        return (long) snapshot().chunks.length * chunkRows * Chunk.ROW_BYTES;
+    }
+
+    Snapshot snapshot() {
+        int rows = size;
+        return new Snapshot(rows, chunks, tools, chunkRows, firstCheckoutDay, lastCheckoutDay);
+    }
+
+    /**
+     * The rows appended before a query started.  The arrays may hold more, which the query ignores.
+     */
+    static final class Snapshot {
+        final int rows;
+        final Chunk[] chunks;
+        final Tool[] tools;
+        final int chunkRows;
+        final int firstCheckoutDay;
+        final int lastCheckoutDay;
+
+        private Snapshot(int rows, Chunk[] chunks, Tool[] tools, int chunkRows, int firstCheckoutDay,
+                int lastCheckoutDay) {
+            this.rows = rows;
+            this.chunks = chunks;
+            this.tools = tools;
+            this.chunkRows = chunkRows;
+            this.firstCheckoutDay = firstCheckoutDay;
+            this.lastCheckoutDay = lastCheckoutDay;
+        }
+
+        int rowsIn(int chunkIndex) {
+            return Math.min(chunkRows, rows - chunkIndex * chunkRows);
+        }
+
+        int chunkCount() {
+            return (rows + chunkRows - 1) / chunkRows;
+        }
+    }
+
+    /**
+     * One block of rows, a column per field.  The day ranges only ever widen, so a query racing an append sees a range
+     * covering at least the rows it can see.
+     */
+    static final class Chunk {
+        static final int ROW_BYTES = 4 * Integer.BYTES + 2 * Long.BYTES;
+
+        final int[] checkoutDays;
+        final int[] dueDays;
+        final int[] tools;
+        final int[] chargeableDays;
+        final long[] preDiscountCents;
+        final long[] discountCents;
+        int firstCheckoutDay = Integer.MAX_VALUE;
+        int lastCheckoutDay = Integer.MIN_VALUE;
+        int firstDueDay = Integer.MAX_VALUE;
+        int lastDueDay = Integer.MIN_VALUE;
+
+        private Chunk(int rows) {
+            checkoutDays = new int[rows];
+            dueDays = new int[rows];
+            tools = new int[rows];
+            chargeableDays = new int[rows];
+            preDiscountCents = new long[rows];
+            discountCents = new long[rows];
+        }
+
+        private void set(int row, int checkoutDay, int dueDay, int tool, int chargeable, long preDiscount,
+                long discount) {
+            checkoutDays[row] = checkoutDay;
+            dueDays[row] = dueDay;
+            tools[row] = tool;
+            chargeableDays[row] = chargeable;
+            preDiscountCents[row] = preDiscount;
+            discountCents[row] = discount;
+            if (checkoutDay < firstCheckoutDay) {
+                firstCheckoutDay = checkoutDay;
+            }
+            if (checkoutDay > lastCheckoutDay) {
+                lastCheckoutDay = checkoutDay;
+            }
+            if (dueDay < firstDueDay) {
+                firstDueDay = dueDay;
+            }
+            if (dueDay > lastDueDay) {
+                lastDueDay = dueDay;
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.cardinal.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.cardinal.CheckoutError;
+
+/**
+ * Every count and latency of a {@link CheckoutMetrics} at one moment.  Immutable, and only lists tool types, errors
+ * and stages which have actually been seen.
+ */
+public final class CheckoutMetricsSnapshot {
+
+    private final Map<String, Long> checkouts;
+    private final Map<String, HistogramSnapshot> checkoutLatencies;
+    private final Map<CheckoutError, Long> rejections;
+    private final Map<CheckoutError, HistogramSnapshot> rejectionLatencies;
+    private final Map<CheckoutStage, Map<String, HistogramSnapshot>> stageLatencies;
+
+    CheckoutMetricsSnapshot(Map<String, Long> checkouts, Map<String, HistogramSnapshot> checkoutLatencies,
+            Map<CheckoutError, Long> rejections, Map<CheckoutError, HistogramSnapshot> rejectionLatencies,
+            Map<CheckoutStage, Map<String, HistogramSnapshot>> stageLatencies) {
+        this.checkouts = Collections.unmodifiableMap(checkouts);
+        this.checkoutLatencies = Collections.unmodifiableMap(checkoutLatencies);
+        this.rejections = Collections.unmodifiableMap(rejections);
+        this.rejectionLatencies = Collections.unmodifiableMap(rejectionLatencies);
+        Map<CheckoutStage, Map<String, HistogramSnapshot>> stages = new EnumMap<>(CheckoutStage.class);
+        stageLatencies.forEach((stage, latencies) -> stages.put(stage, Collections.unmodifiableMap(latencies)));
+        this.stageLatencies = Collections.unmodifiableMap(stages);
+    }
+
+    /**
+     * @return successful checkouts by tool type name
+     */
+    public Map<String, Long> getCheckouts() {
+        return checkouts;
+    }
+
+    /**
+     * @return whole checkout latencies by tool type name, for successful checkouts
+     */
+    public Map<String, HistogramSnapshot> getCheckoutLatencies() {
+        return checkoutLatencies;
+    }
+
+    /**
+     * @return rejected checkouts by error
+     */
+    public Map<CheckoutError, Long> getRejections() {
+        return rejections;
+    }
+
+    /**
+     * @return whole checkout latencies by error, for rejected checkouts
+     */
+    public Map<CheckoutError, HistogramSnapshot> getRejectionLatencies() {
+        return rejectionLatencies;
+    }
+
+    /**
+     * @return each stage's latencies by tool type name, {@link CheckoutMetrics#NO_TOOL_TYPE} for checkouts rejected
+     * before the tool was found
+     */
+    public Map<CheckoutStage, Map<String, HistogramSnapshot>> getStageLatencies() {
+        return stageLatencies;
+    }
+
+    /**
+     * @param stage    the stage
+     * @param toolType the tool type name
+     * @return the stage's latencies for the tool type, empty if it hasn't been seen
+     */
+    public HistogramSnapshot getStageLatency(CheckoutStage stage, String toolType) {
+        return stageLatencies.get(stage).getOrDefault(toolType, HistogramSnapshot.EMPTY);
+    }
+}
@@ -0,0 +1,18 @@
+package com.cardinal.metrics;
+
+/**
+ * The stages of a checkout, in the order they run.  A rejected checkout stops after the stage that rejected it.
+ */
+public enum CheckoutStage {
+    VALIDATION,
+    CATALOG_LOOKUP,
+    CHARGEABLE_DAYS,
+    /**
+     * The totals, the discount and building the agreement.
+     */
+    MONEY_MATH,
+    /**
+     * Only when the store tracks its inventory and the checkout isn't just a quote.
+     */
+    RESERVATION
+}
@@ -0,0 +1,81 @@
+package com.cardinal.metrics;
+
+import com.cardinal.CheckoutError;
+import com.cardinal.ToolType;
+
+/**
+ * Times the stages of one checkout as it runs, then hands them to its {@link CheckoutMetrics} once the outcome, and
+ * so the tool type or error to file them under, is known.  Used by one thread at a time, a checkout finished on
+ * another thread has to be handed over safely, e.g. through a future.
+ * <p>
+ * {@link #OFF} does nothing at all and never reads the clock, it's what a cashier without metrics uses.
+ */
+public final class CheckoutTimer {
+
+    public static final CheckoutTimer OFF = new CheckoutTimer(null, false);
+
+    private final CheckoutMetrics metrics;
+    // null when this checkout is only counted, not timed
+    private final long[] stageNanos;
+    private long start;
+    private long last;
+    private int stagesReached;
+
+    CheckoutTimer(CheckoutMetrics metrics, boolean timed) {
+        this.metrics = metrics;
+        this.stageNanos = timed ? new long[CheckoutStage.values().length] : null;
+        this.start = timed ? System.nanoTime() : 0;
+        this.last = start;
+    }
+
+    /**
+     * @param stage the stage which just finished, charged with the time since the previous one finished
+     */
+    public void lap(CheckoutStage stage) {
+        if (stageNanos == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        stageNanos[stage.ordinal()] += now - last;
+        stagesReached |= 1 << stage.ordinal();
+        last = now;
+    }
+
+    /**
+     * Leave the time since the last lap out of the checkout, e.g. while it waited to be handed to another thread.
+     */
+    public void resume() {
+        if (stageNanos == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        start += now - last;
+        last = now;
+    }
+
+    /**
+     * @param toolType the type of tool checked out, null when the checkout was rejected before one was known
+     * @param error    why the checkout was rejected, null if it succeeded
+     */
+    public void finish(ToolType toolType, CheckoutError error) {
+        if (metrics != null) {
+            metrics.record(this, toolType, error);
+        }
+    }
+
+    boolean isTimed() {
+        return stageNanos != null;
+    }
+
+    boolean reached(CheckoutStage stage) {
+        return (stagesReached & 1 << stage.ordinal()) != 0;
+    }
+
+    long getStageNanos(CheckoutStage stage) {
+        return stageNanos[stage.ordinal()];
+    }
+
+    long getTotalNanos() {
+        return last - start;
+    }
+}
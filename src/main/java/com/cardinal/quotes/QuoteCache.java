@@ -0,0 +1,367 @@
+package com.cardinal.quotes;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.cardinal.Cashier;
+import com.cardinal.CheckoutResult;
+import com.cardinal.PricingContext;
+import com.cardinal.ToolCatalog;
+
+/**
+ * Remembers recent quotes, so the same tool, days, discount and date asked for over and over (a web page refreshing,
+ * a partner polling for prices) is priced once instead of every time.
+ * <p>
+ * Every quote is packed into one {@code long} key, the tool code as a small number handed out the first time it's
+ * quoted, so a lookup never allocates.  The table is split into sets of {@value #WAYS} slots, a key can only live in
+ * its own set, and a full set throws out its oldest quote.  That keeps the size fixed without any list to maintain,
+ * and lookups never lock.  The keys sit in their own array, so finding one is a scan of a single cache line.  Two
+ * threads quoting the same thing at once may both price it, which is harmless.
+ * <p>
+ * Quotes also go stale after a while, and all of them are dropped the moment the store's context, its catalog, or its
+ * tool type rules change.  A store which changes its holidays gets a new {@link PricingContext}, so handing the cache a
+ * supplier (e.g. {@code () -> stores.forStore("0042")}) picks that up too.  {@link #invalidateAll()} is there for
+ * anything else.
+ * <p>
+ * Reading the clock costs close to half of pricing a quote, so a hit only reads it about once in
+ * {@value #CLOCK_EVERY} quotes and otherwise goes by the last time any quote read.  A stale quote can be handed out a
+ * few more times before it's priced again.  Misses always read the clock.
+ * <p>
+ * Quotes never reserve anything, cached {@link CheckoutResult}s are immutable and can be shared freely.
+ */
+public final class QuoteCache {
+
+    static final int WAYS = 8;
+    static final int CLOCK_EVERY = 16;
+
+    // key layout, high bits to low: sign 1 | tool 19 | rental days 16 | discount 7 | checkout day 21
+    private static final int TOOL_BITS = 19;
+    private static final int DAYS_BITS = 16;
+    private static final int DISCOUNT_BITS = 7;
+    private static final int DATE_BITS = 21;
+    // 1900-01-01, leaving room for checkouts until about year 7600
+    private static final long FIRST_EPOCH_DAY = LocalDate.of(1900, 1, 1).toEpochDay();
+
+    private final Cashier cashier;
+    private final Supplier<PricingContext> context;
+    // a slot's key is written before its entry, and the entry carries the key too, so a racing reader that sees a
+    // key with someone else's entry just misses
+    private final long[] keys;
+    private final AtomicReferenceArray<Entry> slots;
+    private final int setMask;
+    private final long expireAfterNanos;
+    private final LongSupplier ticker;
+    private final int clockMask;
+
+    private volatile Validity validity;
+    // the last time read from the ticker, may run behind by up to about CLOCK_EVERY quotes
+    private volatile long now;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param cashier          the cashier to price misses with
+     * @param context          the store to quote for
+     * @param maximumSize      roughly how many quotes to keep, rounded up to a power of two
+     * @param expireAfterWrite how long a quote is good for
+     * @param unit             the unit of expireAfterWrite
+     */
+    public QuoteCache(Cashier cashier, PricingContext context, int maximumSize, long expireAfterWrite,
+            TimeUnit unit) {
+        this(cashier, constant(context), maximumSize, expireAfterWrite, unit);
+    }
+
+    /**
+     * @param cashier          the cashier to price misses with
+     * @param context          the store to quote for, asked on every quote so a replaced context drops the cache
+     * @param maximumSize      roughly how many quotes to keep, rounded up to a power of two
+     * @param expireAfterWrite how long a quote is good for
+     * @param unit             the unit of expireAfterWrite
+     */
+    public QuoteCache(Cashier cashier, Supplier<PricingContext> context, int maximumSize, long expireAfterWrite,
+            TimeUnit unit) {
+        this(cashier, context, maximumSize, unit.toNanos(expireAfterWrite), System::nanoTime, CLOCK_EVERY);
+    }
+
+    QuoteCache(Cashier cashier, Supplier<PricingContext> context, int maximumSize, long expireAfterNanos,
+            LongSupplier ticker, int clockEvery) {
+        if (cashier == null || context == null) {
+            throw new IllegalArgumentException("A cashier and a pricing context are required.");
+        }
+        if (maximumSize < 1 || maximumSize > 1 << 30) {
+            throw new IllegalArgumentException("Maximum size must be between 1 and 2^30.  You provided: "
+                    + maximumSize);
+        }
+        if (expireAfterNanos <= 0) {
+            throw new IllegalArgumentException("Quotes must be kept for some time.  You provided: "
+                    + expireAfterNanos + "ns");
+        }
+        int sets = Math.max(1, Integer.highestOneBit(maximumSize - 1) * 2 / WAYS);
+        this.cashier = cashier;
+        this.context = context;
+        this.keys = new long[sets * WAYS];
+        this.slots = new AtomicReferenceArray<>(sets * WAYS);
+        this.setMask = sets - 1;
+        this.expireAfterNanos = expireAfterNanos;
+        this.ticker = ticker;
+        this.clockMask = Integer.highestOneBit(Math.max(1, clockEvery)) - 1;
+        this.validity = new Validity(context.get(), 0);
+        this.now = ticker.getAsLong();
+    }
+
+    private static Supplier<PricingContext> constant(PricingContext context) {
+        if (context == null) {
+            throw new IllegalArgumentException("A cashier and a pricing context are required.");
+        }
+        return () -> context;
+    }
+
+    /**
+     * Quote a checkout, from the cache when it's been quoted recently.  Requests which can't be valid (no date, a
+     * negative discount) skip the cache, they're cheap to reject anyway.
+     *
+     * @param toolCode          the tool code to quote
+     * @param rentalDays        the days to rent the tool
+     * @param discountAsPercent the discount as a percentage
+     * @param checkoutDate      the checkout date
+     * @return the priced agreement, or the reason it would be rejected
+     */
+    public CheckoutResult quote(String toolCode, int rentalDays, int discountAsPercent, LocalDate checkoutDate) {
+        Validity current = currentValidity();
+        long key = pack(current, toolCode, rentalDays, discountAsPercent, checkoutDate);
+        if (key < 0) {
+            return cashier.quote(current.context, toolCode, rentalDays, discountAsPercent, checkoutDate);
+        }
+
+        int base = set(key) * WAYS;
+        for (int i = base; i < base + WAYS; i++) {
+            if (keys[i] != key) {
+                continue;
+            }
+            Entry entry = slots.get(i);
+            if (entry != null && entry.key == key && entry.generation == current.generation) {
+                if (coarseTime() - entry.writtenAt < expireAfterNanos) {
+                    hits.increment();
+                    return entry.result;
+                }
+                break;
+            }
+        }
+
+        misses.increment();
+        CheckoutResult result = cashier.quote(current.context, toolCode, rentalDays, discountAsPercent,
+                checkoutDate);
+        long now = readClock();
+        store(base, new Entry(key, current.generation, now, result), now);
+        return result;
+    }
+
+    private long coarseTime() {
+        if ((ThreadLocalRandom.current().nextInt() & clockMask) == 0) {
+            return readClock();
+        }
+        return now;
+    }
+
+    private long readClock() {
+        long time = ticker.getAsLong();
+        now = time;
+        return time;
+    }
+
+    private void store(int base, Entry entry, long now) {
+        int victim = -1;
+        long oldest = Long.MAX_VALUE;
+        for (int i = base; i < base + WAYS; i++) {
+            Entry existing = slots.get(i);
+            if (existing == null || existing.generation != entry.generation) {
+                // empty, or left over from before an invalidation
+                put(i, entry);
+                return;
+            }
+            boolean stale = now - existing.writtenAt >= expireAfterNanos;
+            if (existing.key == entry.key || stale) {
+                if (stale) {
+                    expirations.increment();
+                }
+                put(i, entry);
+                return;
+            }
+            if (victim < 0 || existing.writtenAt - oldest < 0) {
+                oldest = existing.writtenAt;
+                victim = i;
+            }
+        }
+        evictions.increment();
+        put(victim, entry);
+    }
+
+    private void put(int slot, Entry entry) {
+        keys[slot] = entry.key;
+        slots.set(slot, entry);
+    }
+
+    /**
+     * Drop every cached quote.  Old entries aren't cleared, just ignored, and reused as new quotes come in.
+     */
+    public void invalidateAll() {
+        while (true) {
+            Validity current = validity;
+            Validity next = new Validity(current.context, current.generation + 1);
+            if (swap(current, next)) {
+                return;
+            }
+        }
+    }
+
+    private Validity currentValidity() {
+        while (true) {
+            Validity current = validity;
+            PricingContext context = this.context.get();
+            if (current.isFor(context)) {
+                return current;
+            }
+            Validity next = new Validity(context, current.generation + 1);
+            if (swap(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private boolean swap(Validity current, Validity next) {
+        synchronized (this) {
+            if (validity != current) {
+                return false;
+            }
+            validity = next;
+        }
+        invalidations.increment();
+        return true;
+    }
+
+    /**
+     * @return a non-negative key, or -1 when the request doesn't fit in one (or isn't worth caching)
+     */
+    private static long pack(Validity validity, String toolCode, int rentalDays, int discountAsPercent,
+            LocalDate checkoutDate) {
+        if (toolCode == null || checkoutDate == null || rentalDays < 1 || rentalDays >= 1 << DAYS_BITS
+                || discountAsPercent < 0 || discountAsPercent >= 1 << DISCOUNT_BITS) {
+            return -1;
+        }
+        long day = checkoutDate.toEpochDay() - FIRST_EPOCH_DAY;
+        if (day < 0 || day >= 1L << DATE_BITS) {
+            return -1;
+        }
+        int tool = validity.toolNumber(toolCode);
+        if (tool < 0) {
+            return -1;
+        }
+        return (long) tool << (DAYS_BITS + DISCOUNT_BITS + DATE_BITS)
+                | (long) rentalDays << (DISCOUNT_BITS + DATE_BITS)
+                | (long) discountAsPercent << DATE_BITS
+                | day;
+    }
+
+    private int set(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & setMask;
+    }
+
+    /**
+     * @return the number of slots, the most quotes the cache will hold
+     */
+    public int capacity() {
+        return slots.length();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return quotes thrown out to make room before they went stale
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return stale quotes replaced by fresh ones
+     */
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    /**
+     * @return how many times every quote was dropped, by {@link #invalidateAll()} or a change to the store
+     */
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    /**
+     * What the cached quotes were priced against.  Anything quoted under an older generation is ignored.
+     */
+    private static final class Validity {
+        private final PricingContext context;
+        private final ToolCatalog catalog;
+        private final long toolTypesVersion;
+        private final long generation;
+        // tool codes to key numbers, only for tools actually in the catalog, so made up codes can't fill it
+        private final ConcurrentHashMap<String, Integer> toolNumbers = new ConcurrentHashMap<>();
+        private final AtomicInteger nextToolNumber = new AtomicInteger();
+
+        private Validity(PricingContext context, long generation) {
+            this.context = context;
+            this.catalog = context.getCatalog();
+            this.toolTypesVersion = context.getToolTypes().getVersion();
+            this.generation = generation;
+        }
+
+        private boolean isFor(PricingContext context) {
+            return this.context == context && catalog == context.getCatalog()
+                    && toolTypesVersion == context.getToolTypes().getVersion();
+        }
+
+        private int toolNumber(String toolCode) {
+            Integer number = toolNumbers.get(toolCode);
+            if (number != null) {
+                return number;
+            }
+            if (!catalog.findByCode(toolCode).isPresent() || nextToolNumber.get() >= 1 << TOOL_BITS) {
+                return -1;
+            }
+            number = toolNumbers.computeIfAbsent(toolCode, code -> nextToolNumber.getAndIncrement());
+            return number < 1 << TOOL_BITS ? number : -1;
+        }
+    }
+
+    private static final class Entry {
+        private final long key;
+        private final long generation;
+        private final long writtenAt;
+        private final CheckoutResult result;
+
+        private Entry(long key, long generation, long writtenAt, CheckoutResult result) {
+            this.key = key;
+            this.generation = generation;
+            this.writtenAt = writtenAt;
+            this.result = result;
+        }
+    }
+}
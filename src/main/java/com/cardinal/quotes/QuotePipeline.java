@@ -0,0 +1,304 @@
+package com.cardinal.quotes;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import com.cardinal.CheckoutRequest;
+import com.cardinal.CheckoutResult;
+import com.cardinal.ParallelCheckout;
+import com.cardinal.RentalAgreement;
+
+/**
+ * Prices a file of quote requests, one {@code toolCode,rentalDays,discountPercent,checkoutDate} line per quote, into a
+ * file of agreements and a file of rejected lines.
+ * <p>
+ * Nothing is held whole.  The calling thread parses lines only as fast as {@link ParallelCheckout} takes them, which
+ * in turn only keeps a bounded number of chunks in flight, and the priced lines go through a bounded queue to a writer
+ * thread.  A slow disk backs up the queue, which stalls pricing, which stalls parsing.  Tools are looked up in the
+ * catalog snapshot line by line rather than remembered by code, so made up codes don't pile up either, and memory
+ * stays flat however many millions of lines the file has.
+ * <p>
+ * Quotes only price, they never reserve a unit, even in a store which tracks its inventory.
+ * <p>
+ * Agreements come out in input order.  Rejects carry their line number, lines that couldn't be parsed may land ahead
+ * of earlier lines that parsed and were then rejected at checkout.
+ */
+public final class QuotePipeline {
+
+    public static final String INPUT_HEADER = "toolCode,rentalDays,discountPercent,checkoutDate";
+    public static final String OUTPUT_HEADER = "line,toolCode,toolType,brand,rentalDays,checkoutDate,dueDate,"
+            + "dailyCharge,chargeableDays,preDiscountCharge,discountPercent,discountAmount,finalCharge";
+    public static final String REJECT_HEADER = "line,error,input";
+    public static final String MALFORMED = "MALFORMED";
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 8 * 1024;
+    private static final Object END = new Object();
+
+    private final ParallelCheckout checkout;
+    private final int queueCapacity;
+
+    /**
+     * @param checkout prices the quotes, its chunk size and in flight limit bound the pricing stage
+     */
+    public QuotePipeline(ParallelCheckout checkout) {
+        this(checkout, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param checkout      prices the quotes, its chunk size and in flight limit bound the pricing stage
+     * @param queueCapacity the most priced lines waiting to be written
+     */
+    public QuotePipeline(ParallelCheckout checkout, int queueCapacity) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("The queue must hold at least one line.  You provided: "
+                    + queueCapacity);
+        }
+        this.checkout = checkout;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * @param input   the quote requests, with or without the header line
+     * @param output  the agreements, replaced if it exists
+     * @param rejects the rejected lines, replaced if it exists
+     * @return how many lines were priced and rejected
+     * @throws IOException when a file can't be read or written
+     */
+    public Summary run(Path input, Path output, Path rejects) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             BufferedWriter outputWriter = Files.newBufferedWriter(output, StandardCharsets.UTF_8);
+             BufferedWriter rejectWriter = Files.newBufferedWriter(rejects, StandardCharsets.UTF_8)) {
+            return run(reader, outputWriter, rejectWriter);
+        }
+    }
+
+    /**
+     * @param input   the quote requests, with or without the header line
+     * @param output  where the agreements are written, left open
+     * @param rejects where the rejected lines are written, left open
+     * @return how many lines were priced and rejected
+     * @throws IOException when the input can't be read or the output can't be written
+     */
+    public Summary run(BufferedReader input, Writer output, Writer rejects) throws IOException {
+        BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueCapacity);
+        LineWriter lineWriter = new LineWriter(queue, output, rejects);
+        Thread writer = new Thread(lineWriter, "quote-writer");
+        writer.start();
+
+        QuoteReader reader = new QuoteReader(input,
+                (lineNumber, line, reason) -> put(queue, new Reject(lineNumber, MALFORMED, line)));
+
+        IOException readFailure = null;
+        try {
+            checkout.quoteAll(reader, result -> put(queue, new Priced(reader.takeLineNumber(), result)));
+        } catch (UncheckedIOException e) {
+            readFailure = e.getCause();
+        } finally {
+            put(queue, END);
+            joinUninterruptibly(writer);
+        }
+
+        if (readFailure != null) {
+            throw readFailure;
+        }
+        if (lineWriter.failure != null) {
+            throw lineWriter.failure;
+        }
+        output.flush();
+        rejects.flush();
+        return new Summary(reader.getLinesRead(), lineWriter.priced, lineWriter.rejected);
+    }
+
+    private static void put(BlockingQueue<Object> queue, Object item) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(item);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void joinUninterruptibly(Thread thread) {
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * How a run went.
+     */
+    public static final class Summary {
+        private final long linesRead;
+        private final long priced;
+        private final long rejected;
+
+        private Summary(long linesRead, long priced, long rejected) {
+            this.linesRead = linesRead;
+            this.priced = priced;
+            this.rejected = rejected;
+        }
+
+        /**
+         * @return every line read, including the header and blank lines
+         */
+        public long getLinesRead() {
+            return linesRead;
+        }
+
+        public long getPriced() {
+            return priced;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+    }
+
+    private static final class Priced {
+        private final long lineNumber;
+        private final CheckoutResult result;
+
+        private Priced(long lineNumber, CheckoutResult result) {
+            this.lineNumber = lineNumber;
+            this.result = result;
+        }
+    }
+
+    private static final class Reject {
+        private final long lineNumber;
+        private final String error;
+        private final String input;
+
+        private Reject(long lineNumber, String error, String input) {
+            this.lineNumber = lineNumber;
+            this.error = error;
+            this.input = input;
+        }
+    }
+
+    /**
+     * The write stage.  After a write fails it keeps taking lines, without writing them, so the other stages never
+     * block on a full queue.
+     */
+    private static final class LineWriter implements Runnable {
+        private final BlockingQueue<Object> queue;
+        private final Writer output;
+        private final Writer rejects;
+        private final StringBuilder line = new StringBuilder(128);
+        // only read once the writer thread has been joined
+        private IOException failure;
+        private long priced;
+        private long rejected;
+
+        private LineWriter(BlockingQueue<Object> queue, Writer output, Writer rejects) {
+            this.queue = queue;
+            this.output = output;
+            this.rejects = rejects;
+        }
+
+        @Override
+        public void run() {
+            try {
+                output.write(OUTPUT_HEADER);
+                output.write(System.lineSeparator());
+                rejects.write(REJECT_HEADER);
+                rejects.write(System.lineSeparator());
+            } catch (IOException e) {
+                failure = e;
+            }
+
+            while (true) {
+                Object item;
+                try {
+                    item = queue.take();
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                if (item == END) {
+                    return;
+                }
+                if (failure != null) {
+                    continue;
+                }
+
+                try {
+                    if (item instanceof Reject) {
+                        Reject reject = (Reject) item;
+                        writeReject(reject.lineNumber, reject.error, reject.input);
+                    } else {
+                        Priced line = (Priced) item;
+                        if (line.result.isSuccess()) {
+                            writeAgreement(line.lineNumber, line.result.getAgreement());
+                        } else {
+                            writeReject(line.lineNumber, line.result.getError().name(), input(line.result));
+                        }
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        }
+
+        private void writeAgreement(long lineNumber, RentalAgreement agreement) throws IOException {
+            line.setLength(0);
+            line.append(lineNumber).append(',')
+                    .append(agreement.getToolCode()).append(',')
+                    .append(agreement.getToolType().name()).append(',')
+                    .append(agreement.getBrand()).append(',')
+                    .append(agreement.getRentalDays()).append(',')
+                    .append(agreement.getCheckoutDate()).append(',')
+                    .append(agreement.getDueDate()).append(',');
+            appendCents(agreement.getRentedTool().getToolType().getDailyChargeCents()).append(',')
+                    .append(agreement.getChargeableDayCount()).append(',');
+            appendCents(agreement.getTotalDueBeforeDiscountCents()).append(',')
+                    .append(agreement.getDiscountAsPercent()).append(',');
+            appendCents(agreement.getTotalDiscountAmountCents()).append(',');
+            appendCents(agreement.getTotalDueAfterDiscountCents());
+            line.append(System.lineSeparator());
+            output.append(line);
+            priced++;
+        }
+
+        private StringBuilder appendCents(long cents) {
+            return line.append(BigDecimal.valueOf(cents, 2).toPlainString());
+        }
+
+        private void writeReject(long lineNumber, String error, String input) throws IOException {
+            line.setLength(0);
+            line.append(lineNumber).append(',').append(error).append(',').append(input)
+                    .append(System.lineSeparator());
+            rejects.append(line);
+            rejected++;
+        }
+
+        private static String input(CheckoutResult result) {
+            CheckoutRequest request = result.getRequest();
+            return (request.getToolCode() == null ? "" : request.getToolCode()) + "," + request.getRentalDays()
+                    + "," + request.getDiscountAsPercent() + ","
+                    + (request.getCheckoutDate() == null ? "" : request.getCheckoutDate());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.cardinal.quotes;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.cardinal.CheckoutRequest;
+
+/**
+ * Reads quote lines one at a time, as they are asked for.  Lines that can't be parsed are handed to the reject
+ * listener and skipped, so the requests coming out are only ever the well formed ones.
+ */
+final class QuoteReader implements Iterator<CheckoutRequest> {
+
+    /**
+     * Told about each line that can't be parsed.
+     */
+    interface RejectListener {
+        void malformed(long lineNumber, String line, String reason);
+    }
+
+    private final BufferedReader reader;
+    private final RejectListener rejects;
+    private long lineNumber;
+    // line numbers of the requests handed out and not yet taken back, in order
+    private final Deque<Long> requestLineNumbers = new ArrayDeque<>();
+    private CheckoutRequest next;
+    // quote files tend to be sorted by date, so the same date string comes up line after line
+    private String lastDateField;
+    private LocalDate lastDate;
+
+    QuoteReader(BufferedReader reader, RejectListener rejects) {
+        this.reader = reader;
+        this.rejects = rejects;
+    }
+
+    /**
+     * Results come back in the order the requests were handed out, so each result takes the oldest line number.
+     *
+     * @return the line number of the oldest request not yet taken back
+     */
+    long takeLineNumber() {
+        return requestLineNumbers.removeFirst();
+    }
+
+    /**
+     * @return the number of lines read so far, including the header and any blank lines
+     */
+    long getLinesRead() {
+        return lineNumber;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (next == null) {
+                String line = reader.readLine();
+                if (line == null) {
+                    return false;
+                }
+                lineNumber++;
+                if (line.isEmpty() || (lineNumber == 1 && line.equals(QuotePipeline.INPUT_HEADER))) {
+                    continue;
+                }
+                next = parse(line);
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public CheckoutRequest next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        CheckoutRequest request = next;
+        next = null;
+        requestLineNumbers.addLast(lineNumber);
+        return request;
+    }
+
+    private CheckoutRequest parse(String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 4) {
+            rejects.malformed(lineNumber, line, "Expected " + QuotePipeline.INPUT_HEADER);
+            return null;
+        }
+
+        String discount = fields[2].trim();
+        if (discount.endsWith("%")) {
+            discount = discount.substring(0, discount.length() - 1);
+        }
+        try {
+            String toolCode = fields[0].trim();
+            int rentalDays = Integer.parseInt(fields[1].trim());
+            int discountAsPercent = Integer.parseInt(discount);
+            return new CheckoutRequest(toolCode.isEmpty() ? null : toolCode, rentalDays, discountAsPercent,
+                    parseDate(fields[3].trim()));
+        } catch (NumberFormatException e) {
+            rejects.malformed(lineNumber, line, "Rental days and discount must be whole numbers");
+        } catch (DateTimeParseException e) {
+            rejects.malformed(lineNumber, line, "The checkout date must be yyyy-mm-dd");
+        }
+        return null;
+    }
+
+    private LocalDate parseDate(String field) {
+        if (field.isEmpty()) {
+            // let checkout reject it, the same as a missing date anywhere else
+            return null;
+        }
+        if (!field.equals(lastDateField)) {
+            lastDate = LocalDate.parse(field);
+            lastDateField = field;
+        }
+        return lastDate;
+    }
+}
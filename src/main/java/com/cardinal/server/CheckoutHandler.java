@@ -0,0 +1,127 @@
+package com.cardinal.server;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.cardinal.Cashier;
+import com.cardinal.CheckoutRequest;
+import com.cardinal.CheckoutResult;
+import com.cardinal.codec.AgreementJson;
+import com.cardinal.codec.Json;
+
+/**
+ * The checkout endpoints.
+ * <ul>
+ * <li>{@code POST /checkout} takes one {@code {"toolCode", "rentalDays", "discountPercent", "checkoutDate"}} object
+ * and answers 200 with the agreement, or 422 with the error and its message.</li>
+ * <li>{@code POST /checkout/batch} takes an array of them and answers 200 with an array of agreements and errors, in
+ * the same order.</li>
+ * </ul>
+ * Bodies that aren't JSON, or are missing a field, get a 400.
+ */
+final class CheckoutHandler {
+
+    static final String CHECKOUT = "/checkout";
+    static final String BATCH = "/checkout/batch";
+
+    private final Cashier cashier;
+
+    CheckoutHandler(Cashier cashier) {
+        this.cashier = cashier;
+    }
+
+    HttpResponse handle(HttpRequest request) {
+        boolean keepAlive = request.isKeepAlive();
+        String path = request.getPath();
+        if (!path.equals(CHECKOUT) && !path.equals(BATCH)) {
+            return HttpResponse.error(404, "No such endpoint: " + path, keepAlive);
+        }
+        if (!request.getMethod().equals("POST")) {
+            return HttpResponse.error(405, path + " only accepts POST.", keepAlive);
+        }
+
+        try {
+            Object body = Json.parse(request.getBodyText());
+            if (path.equals(CHECKOUT)) {
+                CheckoutRequest checkout = toCheckoutRequest(body);
+                CheckoutResult result = cashier.tryCheckout(checkout.getToolCode(), checkout.getRentalDays(),
+                        checkout.getDiscountAsPercent(), checkout.getCheckoutDate());
+                return HttpResponse.json(result.isSuccess() ? 200 : 422,
+                        appendResult(new StringBuilder(256), result).toString(), keepAlive);
+            }
+            return HttpResponse.json(200, checkoutAll(body), keepAlive);
+        } catch (IllegalArgumentException e) {
+            return HttpResponse.error(400, e.getMessage(), keepAlive);
+        }
+    }
+
+    private String checkoutAll(Object body) {
+        if (!(body instanceof List)) {
+            throw new IllegalArgumentException("A batch must be an array of checkouts.");
+        }
+        List<?> lines = (List<?>) body;
+        List<CheckoutRequest> requests = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            try {
+                requests.add(toCheckoutRequest(lines.get(i)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Checkout " + i + ": " + e.getMessage());
+            }
+        }
+
+        StringBuilder json = new StringBuilder(256 * requests.size() + 2).append('[');
+        for (CheckoutResult result : cashier.checkoutAll(requests)) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            appendResult(json, result);
+        }
+        return json.append(']').toString();
+    }
+
+    private static CheckoutRequest toCheckoutRequest(Object value) {
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("A checkout must be an object.");
+        }
+        Map<?, ?> fields = (Map<?, ?>) value;
+        Object toolCode = fields.get("toolCode");
+        if (toolCode != null && !(toolCode instanceof String)) {
+            throw new IllegalArgumentException("toolCode must be a string.");
+        }
+        Object checkoutDate = fields.get("checkoutDate");
+        if (checkoutDate != null && !(checkoutDate instanceof String)) {
+            throw new IllegalArgumentException("checkoutDate must be a yyyy-mm-dd string.");
+        }
+        try {
+            return new CheckoutRequest((String) toolCode, intField(fields, "rentalDays"),
+                    intField(fields, "discountPercent"),
+                    checkoutDate == null ? null : LocalDate.parse((String) checkoutDate));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("checkoutDate must be a yyyy-mm-dd string.");
+        }
+    }
+
+    private static int intField(Map<?, ?> fields, String name) {
+        Object value = fields.get(name);
+        if (!(value instanceof BigDecimal)) {
+            throw new IllegalArgumentException(name + " must be a whole number.");
+        }
+        try {
+            return ((BigDecimal) value).intValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(name + " must be a whole number.");
+        }
+    }
+
+    static StringBuilder appendResult(StringBuilder json, CheckoutResult result) {
+        if (!result.isSuccess()) {
+            json.append("{\"error\":\"").append(result.getError().name()).append("\",\"message\":");
+            return Json.appendString(json, result.getErrorMessage()).append('}');
+        }
+        return AgreementJson.append(json, result.getAgreement());
+    }
+}
@@ -0,0 +1,407 @@
+package com.cardinal.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.cardinal.Cashier;
+import com.cardinal.ParallelCheckout;
+
+/**
+ * A small HTTP server in front of a {@link Cashier}, so registers and kiosks can share one copy of the catalog and
+ * holiday tables instead of each embedding their own.  See {@link CheckoutHandler} for the endpoints.
+ * <p>
+ * One thread owns every connection through a selector, reading requests and writing responses without blocking.
+ * Checkouts run on a fixed pool of workers with a bounded queue by default, and a request arriving when the queue is
+ * full gets a 503 rather than waiting.  Callers may hand in their own executor instead, such as
+ * {@link ParallelCheckout#virtualThreads()} on a JVM which has them, and whatever it rejects gets the same 503.
+ * Connections are kept alive unless the client says otherwise.  Clients may pipeline,
+ * sending requests without waiting for responses, and get the responses back in the order they asked even though
+ * the workers may finish them out of order.  A connection stops being read once it has {@value #MAX_PIPELINED}
+ * requests waiting, which pushes back on a client sending faster than it's served.
+ */
+public final class CheckoutServer implements Closeable {
+
+    public static final int DEFAULT_MAX_BODY_BYTES = 1024 * 1024;
+
+    static final int MAX_PIPELINED = 64;
+    private static final int INITIAL_READ_BUFFER = 16 * 1024;
+    private static final Logger LOG = Logger.getLogger(CheckoutServer.class.getName());
+
+    private final CheckoutHandler handler;
+    private final int maxBodyBytes;
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final Executor workers;
+    // the pool built for the server, shut down with it, or null when the caller owns the executor
+    private final ExecutorService ownedWorkers;
+    private final Thread selectorThread;
+
+    // connections with responses ready to write, handed from the workers to the selector thread
+    private final Queue<Connection> ready = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private volatile boolean closed;
+
+    private CheckoutServer(Cashier cashier, InetSocketAddress address, Executor workers, ExecutorService ownedWorkers,
+            int maxBodyBytes) throws IOException {
+        this.handler = new CheckoutHandler(cashier);
+        this.workers = workers;
+        this.ownedWorkers = ownedWorkers;
+        this.maxBodyBytes = maxBodyBytes;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.bind(address);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            serverChannel.close();
+            selector.close();
+            if (ownedWorkers != null) {
+                ownedWorkers.shutdown();
+            }
+            throw e;
+        }
+
+        this.selectorThread = new Thread(this::selectLoop, "checkout-server-" + getAddress().getPort());
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+    }
+
+    /**
+     * Serve on the loopback address, with a worker per processor.
+     *
+     * @param cashier prices the checkouts
+     * @param port    the port to listen on, 0 for any free one
+     * @return the running server
+     * @throws IOException when the port can't be bound
+     */
+    public static CheckoutServer start(Cashier cashier, int port) throws IOException {
+        int workers = Runtime.getRuntime().availableProcessors();
+        return start(cashier, new InetSocketAddress(InetAddress.getLoopbackAddress(), port), workers, 1024 * workers);
+    }
+
+    /**
+     * @param cashier       prices the checkouts
+     * @param address       the address to listen on
+     * @param workerThreads how many checkouts to run at once
+     * @param queueCapacity how many checkouts may wait for a worker before requests are turned away
+     * @return the running server
+     * @throws IOException when the address can't be bound
+     */
+    public static CheckoutServer start(Cashier cashier, InetSocketAddress address, int workerThreads,
+            int queueCapacity) throws IOException {
+        if (cashier == null) {
+            throw new IllegalArgumentException("A cashier must be provided.");
+        }
+        if (workerThreads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("At least one worker and one queued request are required.  "
+                    + "You provided: " + workerThreads + " workers, " + queueCapacity + " queued");
+        }
+        AtomicInteger workerNumber = new AtomicInteger();
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread worker = new Thread(runnable, "checkout-server-worker-" + workerNumber.incrementAndGet());
+                    worker.setDaemon(true);
+                    return worker;
+                });
+        return new CheckoutServer(cashier, address, workers, workers, DEFAULT_MAX_BODY_BYTES);
+    }
+
+    /**
+     * Run checkouts on the caller's executor, which stays the caller's to shut down after the server is closed.
+     *
+     * @param cashier prices the checkouts
+     * @param address the address to listen on
+     * @param workers runs the checkouts, a request it rejects is answered with a 503
+     * @return the running server
+     * @throws IOException when the address can't be bound
+     */
+    public static CheckoutServer start(Cashier cashier, InetSocketAddress address, Executor workers)
+            throws IOException {
+        if (cashier == null) {
+            throw new IllegalArgumentException("A cashier must be provided.");
+        }
+        if (workers == null) {
+            throw new IllegalArgumentException("An executor must be provided.");
+        }
+        return new CheckoutServer(cashier, address, workers, null, DEFAULT_MAX_BODY_BYTES);
+    }
+
+    /**
+     * @return the address being listened on, with the real port when started on port 0
+     */
+    public InetSocketAddress getAddress() {
+        return (InetSocketAddress) serverChannel.socket().getLocalSocketAddress();
+    }
+
+    /**
+     * Stop listening and drop every connection.  Checkouts already running finish, but their responses aren't sent.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (ownedWorkers != null) {
+            ownedWorkers.shutdown();
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void selectLoop() {
+        while (!closed) {
+            try {
+                selector.select();
+            } catch (IOException e) {
+                // nothing sensible to do but try again, the selector is still usable
+                continue;
+            }
+            wakeupPending.set(false);
+
+            Connection connection;
+            while ((connection = ready.poll()) != null) {
+                serviceQuietly(connection);
+            }
+
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isAcceptable()) {
+                    accept();
+                } else {
+                    connection = (Connection) key.attachment();
+                    if (key.isReadable()) {
+                        readQuietly(connection);
+                    }
+                    serviceQuietly(connection);
+                }
+            }
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                Connection connection = new Connection(channel);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            }
+        } catch (IOException e) {
+            // the client gave up before it was accepted, or we're out of file handles, keep serving the rest
+        }
+    }
+
+    private void readQuietly(Connection connection) {
+        try {
+            if (connection.channel.read(connection.in) < 0) {
+                // a half close, whatever was sent before it is still answered
+                connection.inputClosed = true;
+            }
+        } catch (IOException e) {
+            connection.close();
+        }
+    }
+
+    private void serviceQuietly(Connection connection) {
+        if (!connection.channel.isOpen()) {
+            return;
+        }
+        try {
+            connection.service();
+        } catch (IOException e) {
+            connection.close();
+        }
+    }
+
+    private void dispatch(Connection connection, HttpRequest request) {
+        Exchange exchange = new Exchange();
+        connection.exchanges.add(exchange);
+        try {
+            workers.execute(() -> {
+                HttpResponse response;
+                try {
+                    response = handler.handle(request);
+                } catch (RuntimeException e) {
+                    // the details are for the log, not for whoever sent the request
+                    LOG.log(Level.SEVERE, "Checkout failed", e);
+                    response = HttpResponse.error(500, "Checkout failed.", request.isKeepAlive());
+                }
+                exchange.response = response;
+                ready.add(connection);
+                if (wakeupPending.compareAndSet(false, true)) {
+                    selector.wakeup();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            exchange.response = HttpResponse.error(503, "The server is busy, try again.", request.isKeepAlive());
+        }
+    }
+
+    /**
+     * One request's place in its connection's line, filled in by a worker.
+     */
+    private static final class Exchange {
+        private volatile HttpResponse response;
+    }
+
+    /**
+     * Everything here is only touched by the selector thread.
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private SelectionKey key;
+        // left ready to be read into between calls
+        private ByteBuffer in = ByteBuffer.allocate(INITIAL_READ_BUFFER);
+        private final ArrayDeque<Exchange> exchanges = new ArrayDeque<>();
+        private ByteBuffer writing;
+        // cleared once the client has asked to close or sent garbage, no more requests are taken
+        private boolean takingRequests = true;
+        private boolean inputClosed;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Take whatever requests have arrived and write whatever responses are ready, until neither gets anywhere.
+         */
+        private void service() throws IOException {
+            boolean progress = true;
+            while (progress && channel.isOpen()) {
+                boolean parsed = parse();
+                boolean written = write();
+                progress = parsed || written;
+            }
+            if (!channel.isOpen()) {
+                return;
+            }
+            if ((inputClosed || !takingRequests) && exchanges.isEmpty()) {
+                close();
+                return;
+            }
+
+            int ops = 0;
+            if (takingRequests && !inputClosed && exchanges.size() < MAX_PIPELINED) {
+                ops |= SelectionKey.OP_READ;
+            }
+            if (writing != null) {
+                ops |= SelectionKey.OP_WRITE;
+            }
+            key.interestOps(ops);
+        }
+
+        /**
+         * @return true if any request was taken
+         */
+        private boolean parse() {
+            if (!takingRequests) {
+                return false;
+            }
+            boolean parsed = false;
+            in.flip();
+            try {
+                while (takingRequests && exchanges.size() < MAX_PIPELINED && in.hasRemaining()) {
+                    HttpRequest request = HttpRequest.parse(in, maxBodyBytes);
+                    if (request == null) {
+                        break;
+                    }
+                    parsed = true;
+                    dispatch(this, request);
+                    if (!request.isKeepAlive()) {
+                        takingRequests = false;
+                    }
+                }
+            } catch (HttpException e) {
+                // the rest of the stream can't be trusted, answer and hang up
+                Exchange exchange = new Exchange();
+                exchange.response = HttpResponse.error(e.getStatus(), e.getMessage(), false);
+                exchanges.add(exchange);
+                takingRequests = false;
+                parsed = true;
+            }
+            in.compact();
+            if (!in.hasRemaining() && in.capacity() < maxBodyBytes + HttpRequest.MAX_HEADER_BYTES) {
+                ByteBuffer larger = ByteBuffer.allocate(in.capacity() * 2);
+                in.flip();
+                in = larger.put(in);
+            }
+            return parsed;
+        }
+
+        /**
+         * Write the ready responses at the head of the line.
+         *
+         * @return true if any response was finished
+         */
+        private boolean write() throws IOException {
+            boolean finished = false;
+            while (!exchanges.isEmpty()) {
+                HttpResponse response = exchanges.peek().response;
+                if (response == null) {
+                    break;
+                }
+                if (writing == null) {
+                    writing = response.getBytes().duplicate();
+                }
+                channel.write(writing);
+                if (writing.hasRemaining()) {
+                    break;
+                }
+                writing = null;
+                exchanges.poll();
+                finished = true;
+                if (response.isClose()) {
+                    close();
+                    break;
+                }
+            }
+            return finished;
+        }
+
+        private void close() {
+            exchanges.clear();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // closing anyway
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.cardinal.server;
+
+/**
+ * A request which can't be served, carrying the status to answer it with.
+ */
+final class HttpException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    HttpException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    int getStatus() {
+        return status;
+    }
+}
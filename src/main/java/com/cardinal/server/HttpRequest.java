@@ -0,0 +1,132 @@
+package com.cardinal.server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * One HTTP/1.x request, parsed straight out of a connection's read buffer.  Only what the checkout endpoints need is
+ * kept, and only bodies with a Content-Length are understood.
+ */
+final class HttpRequest {
+
+    static final int MAX_HEADER_BYTES = 8 * 1024;
+
+    private final String method;
+    private final String path;
+    private final boolean keepAlive;
+    private final byte[] body;
+
+    private HttpRequest(String method, String path, boolean keepAlive, byte[] body) {
+        this.method = method;
+        this.path = path;
+        this.keepAlive = keepAlive;
+        this.body = body;
+    }
+
+    /**
+     * Take the next request off the front of the buffer, if all of it has arrived.
+     *
+     * @param buffer       the bytes read so far, ready to be read from, left just past the request when one is taken
+     * @param maxBodyBytes the largest body accepted
+     * @return the request, null when more bytes are needed
+     * @throws HttpException when the request is malformed or too large, the connection can't be trusted after that
+     */
+    static HttpRequest parse(ByteBuffer buffer, int maxBodyBytes) {
+        int start = buffer.position();
+        int headerEnd = findHeaderEnd(buffer, start, Math.min(buffer.limit(), start + MAX_HEADER_BYTES));
+        if (headerEnd < 0) {
+            if (buffer.remaining() >= MAX_HEADER_BYTES) {
+                throw new HttpException(431, "Request headers are larger than " + MAX_HEADER_BYTES + " bytes.");
+            }
+            return null;
+        }
+
+        byte[] headerBytes = new byte[headerEnd - start];
+        buffer.get(headerBytes);
+        buffer.position(start);
+        String[] lines = new String(headerBytes, StandardCharsets.ISO_8859_1).split("\r\n");
+
+        String[] requestLine = lines[0].split(" ");
+        if (requestLine.length != 3 || !requestLine[2].startsWith("HTTP/1.")) {
+            throw new HttpException(400, "Malformed request line.");
+        }
+        boolean http10 = requestLine[2].equals("HTTP/1.0");
+
+        int contentLength = 0;
+        String connection = "";
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon <= 0) {
+                throw new HttpException(400, "Malformed header.");
+            }
+            String name = lines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = lines[i].substring(colon + 1).trim();
+            if (name.equals("content-length")) {
+                contentLength = parseContentLength(value, maxBodyBytes);
+            } else if (name.equals("connection")) {
+                connection = value.toLowerCase(Locale.ROOT);
+            } else if (name.equals("transfer-encoding")) {
+                throw new HttpException(501, "Only bodies with a Content-Length are supported.");
+            }
+        }
+
+        int bodyStart = headerEnd + 4;
+        if (buffer.limit() - bodyStart < contentLength) {
+            return null;
+        }
+        byte[] body = new byte[contentLength];
+        buffer.position(bodyStart);
+        buffer.get(body);
+
+        boolean keepAlive = http10 ? connection.contains("keep-alive") : !connection.contains("close");
+        String target = requestLine[1];
+        int query = target.indexOf('?');
+        return new HttpRequest(requestLine[0], query < 0 ? target : target.substring(0, query), keepAlive, body);
+    }
+
+    /**
+     * @return the index of the blank line's first CR, -1 if it hasn't arrived
+     */
+    private static int findHeaderEnd(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to && i + 3 < buffer.limit(); i++) {
+            if (buffer.get(i) == '\r' && buffer.get(i + 1) == '\n' && buffer.get(i + 2) == '\r'
+                    && buffer.get(i + 3) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int parseContentLength(String value, int maxBodyBytes) {
+        long length;
+        try {
+            length = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new HttpException(400, "Malformed Content-Length.");
+        }
+        if (length < 0) {
+            throw new HttpException(400, "Malformed Content-Length.");
+        }
+        if (length > maxBodyBytes) {
+            throw new HttpException(413, "Request bodies are limited to " + maxBodyBytes + " bytes.");
+        }
+        return (int) length;
+    }
+
+    String getMethod() {
+        return method;
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    String getBodyText() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,82 @@
+package com.cardinal.server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.cardinal.codec.Json;
+
+/**
+ * A JSON response, encoded whole and ready to write.
+ */
+final class HttpResponse {
+
+    private final ByteBuffer bytes;
+    private final boolean close;
+
+    private HttpResponse(ByteBuffer bytes, boolean close) {
+        this.bytes = bytes;
+        this.close = close;
+    }
+
+    /**
+     * @param status    the status code
+     * @param json      the body
+     * @param keepAlive false to close the connection once this is written
+     */
+    static HttpResponse json(int status, String json, boolean keepAlive) {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        String head = "HTTP/1.1 " + status + " " + reason(status) + "\r\n"
+                + "Content-Type: application/json; charset=utf-8\r\n"
+                + "Content-Length: " + body.length + "\r\n"
+                + (keepAlive ? "" : "Connection: close\r\n")
+                + "\r\n";
+        ByteBuffer bytes = ByteBuffer.allocate(head.length() + body.length);
+        bytes.put(head.getBytes(StandardCharsets.ISO_8859_1)).put(body).flip();
+        return new HttpResponse(bytes, !keepAlive);
+    }
+
+    /**
+     * @param status    the status code
+     * @param message   why the request failed
+     * @param keepAlive false to close the connection once this is written
+     */
+    static HttpResponse error(int status, String message, boolean keepAlive) {
+        return json(status, Json.appendString(new StringBuilder("{\"message\":"), message).append('}').toString(),
+                keepAlive);
+    }
+
+    private static String reason(int status) {
+        switch (status) {
+        case 200:
+            return "OK";
+        case 400:
+            return "Bad Request";
+        case 404:
+            return "Not Found";
+        case 405:
+            return "Method Not Allowed";
+        case 413:
+            return "Payload Too Large";
+        case 422:
+            return "Unprocessable Entity";
+        case 431:
+            return "Request Header Fields Too Large";
+        case 500:
+            return "Internal Server Error";
+        case 501:
+            return "Not Implemented";
+        case 503:
+            return "Service Unavailable";
+        default:
+            return "Unknown";
+        }
+    }
+
+    ByteBuffer getBytes() {
+        return bytes;
+    }
+
+    boolean isClose() {
+        return close;
+    }
+}
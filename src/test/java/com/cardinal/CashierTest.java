@@ -3,14 +3,22 @@ package com.cardinal;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class CashierTest {
     private Cashier cashier = new Cashier();
@@ -247,6 +255,209 @@ public class CashierTest {
         assertMoneyEquals(1.99, rentalAgreement::getTotalDueAfterDiscount);
     }
 
+    @Test
+    public void checkoutAllKeepsOrderAndReportsErrorsPerLine() {
+        LocalDate checkoutDate = LocalDate.of(2015, 7, 2);
+        List<CheckoutRequest> requests = Arrays.asList(
+                new CheckoutRequest("CHNS", 5, 25, checkoutDate),
+                new CheckoutRequest("JAKR", 0, 10, checkoutDate),
+                new CheckoutRequest("JAKR", 5, 101, checkoutDate),
+                new CheckoutRequest("JAKR", 1, 10, null),
+                new CheckoutRequest("LHKD", 1, 10, checkoutDate),
+                new CheckoutRequest(null, 1, 10, checkoutDate),
+                new CheckoutRequest("JAKR", 9, 0, checkoutDate));
+
+        List<CheckoutResult> results = cashier.checkoutAll(requests);
+
+        assertEquals(requests.size(), results.size());
+        for (int i = 0; i < requests.size(); i++) {
+            assertEquals(requests.get(i), results.get(i).getRequest());
+        }
+
+        assertTrue(results.get(0).isSuccess());
+        assertNull(results.get(0).getErrorMessage());
+        assertEquals(new Long(3), results.get(0).getAgreement().getChargeableDays());
+        assertMoneyEquals(3.35, results.get(0).getAgreement()::getTotalDueAfterDiscount);
+
+        assertEquals(CheckoutError.INVALID_RENTAL_DAYS, results.get(1).getError());
+        assertEquals(CheckoutError.INVALID_DISCOUNT, results.get(2).getError());
+        assertEquals("Discount cannot exceed 100% or fall below 0%.  You provided: 101%",
+                results.get(2).getErrorMessage());
+        assertEquals(CheckoutError.MISSING_CHECKOUT_DATE, results.get(3).getError());
+        assertEquals(CheckoutError.UNKNOWN_TOOL, results.get(4).getError());
+        assertEquals("That tool code was not found in our catalog.\nYou provided: 'LHKD'.\n" +
+                "Available: LADW, CHNS, JAKR, JAKD", results.get(4).getErrorMessage());
+        assertFalse(results.get(5).isSuccess());
+        assertNull(results.get(5).getAgreement());
+
+        assertTrue(results.get(6).isSuccess());
+        assertEquals(new Long(5), results.get(6).getAgreement().getChargeableDays());
+    }
+
+    @Test
+    public void checkoutAllMatchesCheckout() {
+        LocalDate checkoutDate = LocalDate.of(2015, 6, 20);
+        List<CheckoutRequest> requests = Arrays.asList(
+                new CheckoutRequest("LADW", 100, 15, checkoutDate),
+                new CheckoutRequest("CHNS", 100, 15, checkoutDate),
+                new CheckoutRequest("JAKD", 100, 15, checkoutDate));
+
+        List<CheckoutResult> results = cashier.checkoutAll(requests.stream()).collect(Collectors.toList());
+
+        for (int i = 0; i < requests.size(); i++) {
+            CheckoutRequest request = requests.get(i);
+            RentalAgreement expected = cashier.checkout(request.getToolCode(), request.getRentalDays(),
+                    request.getDiscountAsPercent(), request.getCheckoutDate());
+            RentalAgreement actual = results.get(i).getAgreement();
+
+            assertInputEquals(request.getToolCode(), 100, 15, checkoutDate, actual);
+            assertEquals(expected.getChargeableDays(), actual.getChargeableDays());
+            assertEquals(expected.getTotalDueAfterDiscount(), actual.getTotalDueAfterDiscount());
+        }
+    }
+
+    @Test
+    public void tryCheckoutReportsErrorsWithoutThrowing() {
+        LocalDate checkoutDate = LocalDate.of(2015, 9, 3);
+
+        CheckoutResult badDiscount = cashier.tryCheckout("JAKR", 5, 101, checkoutDate);
+        assertFalse(badDiscount.isSuccess());
+        assertNull(badDiscount.getAgreement());
+        assertEquals(CheckoutError.INVALID_DISCOUNT, badDiscount.getError());
+        assertEquals("Discount cannot exceed 100% or fall below 0%.  You provided: 101%",
+                badDiscount.getErrorMessage());
+
+        CheckoutResult unknownTool = cashier.tryCheckout("LHKD", 5, 10, checkoutDate);
+        assertEquals(CheckoutError.UNKNOWN_TOOL, unknownTool.getError());
+        try {
+            cashier.checkout("LHKD", 5, 10, checkoutDate);
+            fail("unknown tool should throw");
+        } catch (IllegalArgumentException e) {
+            assertEquals(e.getMessage(), unknownTool.getErrorMessage());
+        }
+
+        assertEquals(CheckoutError.INVALID_RENTAL_DAYS, cashier.tryCheckout("JAKR", 0, 10, checkoutDate).getError());
+        assertEquals(CheckoutError.MISSING_CHECKOUT_DATE, cashier.tryCheckout("JAKR", 5, 10, null).getError());
+    }
+
+    @Test
+    public void tryCheckoutRejectsDatesAnAgreementCantHold() {
+        for (LocalDate checkoutDate : Arrays.asList(LocalDate.MAX.minusDays(10), LocalDate.MIN,
+                LocalDate.ofEpochDay(Integer.MAX_VALUE + 1L), LocalDate.ofEpochDay(Integer.MIN_VALUE - 1L))) {
+            CheckoutResult result = cashier.tryCheckout("JAKR", 5, 10, checkoutDate);
+            assertEquals(CheckoutError.INVALID_CHECKOUT_DATE, result.getError());
+            assertEquals("The checkout date must be between -5877641-06-23 and +5881580-07-11.",
+                    result.getErrorMessage());
+        }
+
+        // the far ends of the range still price
+        RentalAgreement last = cashier.checkout("JAKR", 5, 10, LocalDate.ofEpochDay(Integer.MAX_VALUE));
+        assertEquals(LocalDate.ofEpochDay(Integer.MAX_VALUE + 5L), last.getDueDate());
+        assertTrue(cashier.tryCheckout("JAKR", 5, 10, LocalDate.ofEpochDay(Integer.MIN_VALUE)).isSuccess());
+    }
+
+    @Test
+    public void tryCheckoutMatchesCheckout() {
+        LocalDate checkoutDate = LocalDate.of(2015, 7, 2);
+
+        CheckoutResult result = cashier.tryCheckout("JAKR", 9, 0, checkoutDate);
+        RentalAgreement expected = cashier.checkout("JAKR", 9, 0, checkoutDate);
+
+        assertTrue(result.isSuccess());
+        assertNull(result.getError());
+        assertNull(result.getErrorMessage());
+        assertInputEquals("JAKR", 9, 0, checkoutDate, result.getAgreement());
+        assertEquals(expected.getChargeableDays(), result.getAgreement().getChargeableDays());
+        assertEquals(expected.getTotalDueAfterDiscount(), result.getAgreement().getTotalDueAfterDiscount());
+    }
+
+    @Test
+    public void extendMatchesFullReprice() {
+        // every start through the summer holidays, with extensions crossing July 4th, Labor Day and weekends
+        PricingContext tables = PricingContext.defaultContext().withPrecomputedChargeableDays(2015, 2015);
+        for (PricingMode mode : PricingMode.values()) {
+            for (PricingContext context : Arrays.asList(PricingContext.defaultContext(), tables)) {
+                Cashier repricer = new Cashier(context, mode);
+                for (String toolCode : new String[]{"LADW", "CHNS", "JAKD", "JAKR"}) {
+                    for (LocalDate checkoutDate = LocalDate.of(2015, 6, 25);
+                         checkoutDate.isBefore(LocalDate.of(2015, 9, 10)); checkoutDate = checkoutDate.plusDays(1)) {
+                        for (int rentalDays : new int[]{1, 2, 5, 9}) {
+                            RentalAgreement original = repricer.checkout(toolCode, rentalDays, 33, checkoutDate);
+                            for (int extraDays : new int[]{1, 3, 8, 70}) {
+                                RentalAgreement expected = repricer.checkout(toolCode, rentalDays + extraDays, 33,
+                                        checkoutDate);
+                                RentalAgreement actual = repricer.extend(original, extraDays);
+
+                                String line = mode + " " + toolCode + " " + checkoutDate + " " + rentalDays + "+"
+                                        + extraDays;
+                                assertEquals(line, expected.getRentalDays(), actual.getRentalDays());
+                                assertEquals(line, expected.getChargeableDays(), actual.getChargeableDays());
+                                assertEquals(line, expected.getTotalDueBeforeDiscountCents(),
+                                        actual.getTotalDueBeforeDiscountCents());
+                                assertEquals(line, expected.getTotalDiscountAmountCents(),
+                                        actual.getTotalDiscountAmountCents());
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void extendKeepsTheOriginal() {
+        RentalAgreement original = cashier.checkout("JAKR", 3, 10, LocalDate.of(2015, 9, 3));
+        RentalAgreement extended = cashier.extend(original, 2);
+
+        assertEquals(3, original.getRentalDays());
+        assertSame(original.getRentedTool(), extended.getRentedTool());
+        assertInputEquals("JAKR", 5, 10, LocalDate.of(2015, 9, 3), extended);
+        assertEquals(LocalDate.of(2015, 9, 8), extended.getDueDate());
+    }
+
+    @Test
+    public void extendByNothing() {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("An extension must add at least one day.  You provided: 0");
+
+        cashier.extend(cashier.checkout("JAKR", 3, 10, LocalDate.of(2015, 9, 3)), 0);
+    }
+
+    @Test
+    public void checkIn() {
+        // due Saturday 2015-09-05, back after Labor Day on Tuesday the 8th, one more chargeable day
+        RentalAgreement agreement = cashier.checkout("JAKR", 2, 0, LocalDate.of(2015, 9, 3));
+        assertEquals(new Long(1), agreement.getChargeableDays());
+
+        assertSame(agreement, cashier.checkIn(agreement, LocalDate.of(2015, 9, 4)));
+        assertSame(agreement, cashier.checkIn(agreement, LocalDate.of(2015, 9, 5)));
+
+        RentalAgreement late = cashier.checkIn(agreement, LocalDate.of(2015, 9, 8));
+        assertInputEquals("JAKR", 5, 0, LocalDate.of(2015, 9, 3), late);
+        assertEquals(new Long(2), late.getChargeableDays());
+        assertMoneyEquals(5.98, late::getTotalDueAfterDiscount);
+    }
+
+    @Test
+    public void repriceOverdue() {
+        LocalDate endOfDay = LocalDate.of(2015, 7, 10);
+        List<RentalAgreement> outstanding = Arrays.asList(
+                cashier.checkout("LADW", 3, 0, LocalDate.of(2015, 7, 2)),
+                cashier.checkout("CHNS", 20, 0, LocalDate.of(2015, 7, 2)),
+                cashier.checkout("JAKD", 8, 50, LocalDate.of(2015, 7, 2)),
+                cashier.checkout("JAKR", 1, 0, LocalDate.of(2015, 7, 9)));
+
+        List<RentalAgreement> repriced = cashier.repriceOverdue(outstanding, endOfDay);
+
+        assertEquals(4, repriced.size());
+        assertEquals(endOfDay, repriced.get(0).getDueDate());
+        assertSame(outstanding.get(1), repriced.get(1));
+        assertSame(outstanding.get(2), repriced.get(2));
+        assertSame(outstanding.get(3), repriced.get(3));
+        assertEquals(cashier.checkout("LADW", 8, 0, LocalDate.of(2015, 7, 2)).getTotalDueAfterDiscount(),
+                repriced.get(0).getTotalDueAfterDiscount());
+    }
+
     private void assertMoneyEquals(double value, Supplier<BigDecimal> actualValueSupplier) {
         assertEquals(new BigDecimal(value).setScale(2, RoundingMode.HALF_UP), actualValueSupplier.get());
     }
@@ -0,0 +1,96 @@
+package com.cardinal;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HolidayCalendarTest {
+
+    private final HolidayCalendar calendar = new HolidayCalendar(Holidays::resolveHolidays, 2000, 2030);
+
+    @Test
+    public void isHoliday() {
+        assertTrue(calendar.isHoliday(LocalDate.of(2015, 7, 3)));
+        assertFalse(calendar.isHoliday(LocalDate.of(2015, 7, 4)));
+        assertTrue(calendar.isHoliday(LocalDate.of(2015, 9, 7)));
+        assertTrue(calendar.isHoliday(LocalDate.of(2010, 7, 5)));
+        assertFalse(calendar.isHoliday(LocalDate.of(2010, 7, 4)));
+    }
+
+    @Test
+    public void isHoliday_matchesResolvedHolidaysEveryDay() {
+        // run past both ends of the window, those years aren't cached but must give the same answer
+        for (LocalDate day = LocalDate.of(1998, 1, 1); day.getYear() <= 2032; day = day.plusDays(1)) {
+            assertEquals(day.toString(), Holidays.resolveHolidays(day.getYear()).contains(day),
+                    calendar.isHoliday(day));
+        }
+    }
+
+    @Test
+    public void countHolidaysBetween_matchesCountingEveryDay() {
+        LocalDate first = LocalDate.of(1998, 6, 1);
+        LocalDate last = LocalDate.of(2032, 12, 31);
+
+        int[] holidaysBefore = new int[(int) (last.toEpochDay() - first.toEpochDay()) + 2];
+        for (int i = 0; i + 1 < holidaysBefore.length; i++) {
+            holidaysBefore[i + 1] = holidaysBefore[i] + (calendar.isHoliday(first.plusDays(i)) ? 1 : 0);
+        }
+
+        // every start date, with lengths that stay in a year and lengths that span many
+        int[] lengths = {0, 1, 2, 63, 64, 65, 200, 365, 366, 800, 4000};
+        for (int start = 0; start + 1 < holidaysBefore.length; start++) {
+            for (int length : lengths) {
+                int end = start + length;
+                if (end + 1 >= holidaysBefore.length) {
+                    continue;
+                }
+                long from = first.toEpochDay() + start;
+                assertEquals(LocalDate.ofEpochDay(from) + " + " + length,
+                        holidaysBefore[end + 1] - holidaysBefore[start],
+                        calendar.countHolidaysBetween(from, from + length));
+            }
+        }
+    }
+
+    @Test
+    public void countHolidaysBetween_emptyRange() {
+        assertEquals(0, calendar.countHolidaysBetween(LocalDate.of(2015, 9, 8), LocalDate.of(2015, 9, 7)));
+    }
+
+    @Test
+    public void countHolidaysBetween_excludedDays() {
+        LocalDate laborDay = LocalDate.of(2015, 9, 7);
+        assertEquals(1, calendar.countHolidaysBetween(laborDay.toEpochDay(), laborDay.toEpochDay(),
+                EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY)));
+        assertEquals(0, calendar.countHolidaysBetween(laborDay.toEpochDay(), laborDay.toEpochDay(),
+                EnumSet.of(DayOfWeek.MONDAY)));
+        // both years observe July 4th on a Friday, Labor Day is always a Monday
+        assertEquals(2, calendar.countHolidaysBetween(LocalDate.of(2014, 1, 1).toEpochDay(),
+                LocalDate.of(2015, 12, 31).toEpochDay(), EnumSet.of(DayOfWeek.MONDAY)));
+    }
+
+    @Test
+    public void observedHolidayInTheYearBefore() {
+        // 2022-01-01 is a Saturday, observed Friday 2021-12-31
+        HolidayCalendar newYears = new HolidayCalendar(
+                year -> Collections.singletonList(LocalDate.of(year, 1, 1).getDayOfWeek() == DayOfWeek.SATURDAY
+                        ? LocalDate.of(year - 1, 12, 31) : LocalDate.of(year, 1, 1)), 2000, 2030);
+
+        assertTrue(newYears.isHoliday(LocalDate.of(2021, 12, 31)));
+        assertFalse(newYears.isHoliday(LocalDate.of(2022, 1, 1)));
+        assertEquals(2, newYears.countHolidaysBetween(LocalDate.of(2021, 1, 1), LocalDate.of(2021, 12, 31)));
+    }
+
+    @Test
+    public void duplicateHolidaysCountOnce() {
+        HolidayCalendar duplicates = new HolidayCalendar(
+                year -> Arrays.asList(LocalDate.of(year, 3, 1), LocalDate.of(year, 3, 1)), 2000, 2030);
+        assertEquals(1, duplicates.countHolidaysBetween(LocalDate.of(2015, 1, 1), LocalDate.of(2015, 12, 31)));
+    }
+}
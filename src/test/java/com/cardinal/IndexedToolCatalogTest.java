@@ -0,0 +1,60 @@
+package com.cardinal;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IndexedToolCatalogTest {
+
+    private final Tool ladder = new Tool("LADW", "Werner", ToolType.LADDER);
+    private final Tool ridgid = new Tool("JAKR", "Ridgid", ToolType.JACKHAMMER);
+    private final Tool dewalt = new Tool("JAKD", "DeWalt", ToolType.JACKHAMMER);
+
+    private final ToolCatalog catalog = new IndexedToolCatalog(Arrays.asList(ladder, ridgid, dewalt));
+
+    @Test
+    public void findByCode() {
+        assertSame(ridgid, catalog.findByCode("JAKR").orElse(null));
+        assertFalse(catalog.findByCode("LHKD").isPresent());
+        assertFalse(catalog.findByCode(null).isPresent());
+    }
+
+    @Test
+    public void findByCode_doesNotRewrapOnEveryHit() {
+        Optional<Tool> first = catalog.findByCode("LADW");
+        assertSame(first, catalog.findByCode("LADW"));
+    }
+
+    @Test
+    public void findByTypeAndBrand() {
+        assertEquals(Arrays.asList(ridgid, dewalt), catalog.findByType(ToolType.JACKHAMMER));
+        assertEquals(Collections.emptyList(), catalog.findByType(ToolType.CHAINSAW));
+        assertEquals(Collections.singletonList(ladder), catalog.findByBrand("Werner"));
+        assertEquals(Collections.emptyList(), catalog.findByBrand("Stihl"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateToolCode() {
+        new IndexedToolCatalog(Arrays.asList(ridgid, new Tool("JAKR", "DeWalt", ToolType.JACKHAMMER)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void toolsCannotBeModified() {
+        catalog.getTools().add(ladder);
+    }
+
+    @Test
+    public void reloadSwapsTheWholeCatalog() {
+        ToolCatalogDto dto = new ToolCatalogDto();
+        assertTrue(dto.fetchToolByCode("CHNS").isPresent());
+
+        dto.reload(catalog);
+        assertFalse(dto.fetchToolByCode("CHNS").isPresent());
+        assertSame(ladder, dto.fetchToolByCode("LADW").orElse(null));
+        assertEquals(3, dto.fetchToolsFromCatalog().size());
+    }
+}
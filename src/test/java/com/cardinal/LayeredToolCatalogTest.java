@@ -0,0 +1,96 @@
+package com.cardinal;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LayeredToolCatalogTest {
+
+    private final Tool ladder = new Tool("LADW", "Werner", ToolType.LADDER);
+    private final Tool ridgid = new Tool("JAKR", "Ridgid", ToolType.JACKHAMMER);
+    private final Tool dewalt = new Tool("JAKD", "DeWalt", ToolType.JACKHAMMER);
+    private final ToolCatalog base = new IndexedToolCatalog(Arrays.asList(ladder, ridgid, dewalt));
+
+    // the store rents its Ridgid as a chainsaw and carries a Stihl the base catalog doesn't
+    private final Tool ridgidChainsaw = new Tool("JAKR", "Ridgid", ToolType.CHAINSAW);
+    private final Tool stihl = new Tool("CHNS", "Stihl", ToolType.CHAINSAW);
+    private final ToolCatalog catalog = new LayeredToolCatalog(base, Arrays.asList(ridgidChainsaw, stihl));
+
+    @Test
+    public void findByCode() {
+        assertSame(ladder, catalog.findByCode("LADW").orElse(null));
+        assertSame(ridgidChainsaw, catalog.findByCode("JAKR").orElse(null));
+        assertSame(stihl, catalog.findByCode("CHNS").orElse(null));
+        assertFalse(catalog.findByCode("LHKD").isPresent());
+        assertFalse(catalog.findByCode(null).isPresent());
+    }
+
+    @Test
+    public void findByTypeAndBrand() {
+        assertEquals(Collections.singletonList(dewalt), catalog.findByType(ToolType.JACKHAMMER));
+        assertEquals(Arrays.asList(ridgidChainsaw, stihl), catalog.findByType(ToolType.CHAINSAW));
+        assertSame(base.findByType(ToolType.LADDER), catalog.findByType(ToolType.LADDER));
+        assertEquals(Collections.singletonList(ridgidChainsaw), catalog.findByBrand("Ridgid"));
+        assertEquals(Collections.singletonList(stihl), catalog.findByBrand("Stihl"));
+        assertSame(base.findByBrand("Werner"), catalog.findByBrand("Werner"));
+    }
+
+    @Test
+    public void getTools_overridesInPlaceThenAdditions() {
+        assertEquals(Arrays.asList(ladder, ridgidChainsaw, dewalt, stihl), catalog.getTools());
+        assertEquals(4, catalog.size());
+    }
+
+    @Test
+    public void baseIsOnlyListedWhenAsked() {
+        AtomicInteger listed = new AtomicInteger();
+        ToolCatalog countingBase = new ToolCatalog() {
+            @Override
+            public Optional<Tool> findByCode(String toolCode) {
+                return base.findByCode(toolCode);
+            }
+
+            @Override
+            public List<Tool> findByType(ToolType toolType) {
+                listed.incrementAndGet();
+                return base.findByType(toolType);
+            }
+
+            @Override
+            public List<Tool> findByBrand(String brand) {
+                listed.incrementAndGet();
+                return base.findByBrand(brand);
+            }
+
+            @Override
+            public List<Tool> getTools() {
+                listed.incrementAndGet();
+                return base.getTools();
+            }
+
+            @Override
+            public int size() {
+                return base.size();
+            }
+        };
+        Tool werner = new Tool("LADX", "Werner", ToolType.LADDER);
+        ToolCatalog layered = new LayeredToolCatalog(countingBase, Arrays.asList(ridgidChainsaw, werner));
+        assertEquals(0, listed.get());
+
+        assertEquals(Arrays.asList(ladder, werner), layered.findByType(ToolType.LADDER));
+        assertEquals(Arrays.asList(ladder, werner), layered.findByBrand("Werner"));
+        assertEquals(Collections.singletonList(dewalt), layered.findByType(ToolType.JACKHAMMER));
+        assertEquals(3, listed.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateOverride() {
+        new LayeredToolCatalog(base, Arrays.asList(stihl, stihl));
+    }
+}
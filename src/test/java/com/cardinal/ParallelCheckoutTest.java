@@ -0,0 +1,124 @@
+package com.cardinal;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Test;
+
+import com.cardinal.inventory.Inventory;
+
+import static org.junit.Assert.*;
+
+public class ParallelCheckoutTest {
+
+    private static final String[] TOOL_CODES = {"LADW", "CHNS", "JAKR", "JAKD", "LHKD"};
+
+    private final Cashier cashier = new Cashier();
+
+    @Test
+    public void resultsComeBackInInputOrder() {
+        List<CheckoutRequest> requests = randomRequests(5000);
+        List<CheckoutResult> expected = cashier.checkoutAll(requests);
+
+        ExecutorService pool = ParallelCheckout.dedicatedPool(4);
+        try {
+            // small chunks and a tight bound, so chunks finish out of order and the reader has to wait
+            List<CheckoutResult> actual = new ParallelCheckout(cashier, pool, 7, 3).checkoutAll(requests);
+            assertSameResults(expected, actual);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void commonPoolWithoutBound() {
+        List<CheckoutRequest> requests = randomRequests(2000);
+        List<CheckoutResult> actual = new ParallelCheckout(cashier, ParallelCheckout.commonPool(), 64, 0)
+                .checkoutAll(requests);
+        assertSameResults(cashier.checkoutAll(requests), actual);
+    }
+
+    @Test
+    public void virtualThreadsWhenSupported() {
+        List<CheckoutRequest> requests = randomRequests(1000);
+        if (!ParallelCheckout.virtualThreadsSupported()) {
+            try {
+                ParallelCheckout.virtualThreads();
+                fail("Expected virtual threads to be unsupported.");
+            } catch (UnsupportedOperationException expected) {
+                return;
+            }
+        }
+
+        ExecutorService virtualThreads = ParallelCheckout.virtualThreads();
+        try {
+            assertSameResults(cashier.checkoutAll(requests),
+                    new ParallelCheckout(cashier, virtualThreads, 50, 8).checkoutAll(requests));
+        } finally {
+            virtualThreads.shutdown();
+        }
+    }
+
+    @Test
+    public void reservesInInputOrder() {
+        List<CheckoutRequest> requests = randomRequests(3000);
+        List<CheckoutResult> expected = new Cashier(stockedContext()).checkoutAll(requests);
+        assertTrue(expected.stream().anyMatch(result -> result.getError() == CheckoutError.UNAVAILABLE));
+        assertTrue(expected.stream().anyMatch(result -> result.getError() == CheckoutError.NOT_STOCKED));
+
+        ExecutorService pool = ParallelCheckout.dedicatedPool(4);
+        try {
+            for (int run = 0; run < 5; run++) {
+                // a unit each, so every later line after the same days depends on the earlier ones
+                Cashier stocked = new Cashier(stockedContext());
+                assertSameResults(expected, new ParallelCheckout(stocked, pool, 7, 16).checkoutAll(requests));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static PricingContext stockedContext() {
+        Inventory inventory = new Inventory();
+        for (String toolCode : TOOL_CODES) {
+            if (!toolCode.equals("LADW")) {
+                inventory.addUnits(toolCode, 1);
+            }
+        }
+        return PricingContext.defaultContext().withInventory(inventory);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidChunkSize() {
+        new ParallelCheckout(cashier, ParallelCheckout.commonPool(), 0, 1);
+    }
+
+    private static void assertSameResults(List<CheckoutResult> expected, List<CheckoutResult> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            CheckoutResult want = expected.get(i);
+            CheckoutResult got = actual.get(i);
+            assertSame(want.getRequest(), got.getRequest());
+            assertEquals(want.getError(), got.getError());
+            if (want.isSuccess()) {
+                assertEquals(want.getAgreement().getChargeableDays(), got.getAgreement().getChargeableDays());
+                assertEquals(want.getAgreement().getTotalDueAfterDiscount(),
+                        got.getAgreement().getTotalDueAfterDiscount());
+            }
+        }
+    }
+
+    private static List<CheckoutRequest> randomRequests(int count) {
+        Random random = new Random(7);
+        LocalDate firstCheckout = LocalDate.of(2015, 1, 1);
+        List<CheckoutRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(new CheckoutRequest(TOOL_CODES[random.nextInt(TOOL_CODES.length)], random.nextInt(60),
+                    random.nextInt(105), firstCheckout.plusDays(random.nextInt(730))));
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,97 @@
+package com.cardinal;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+
+import org.junit.Test;
+
+import com.cardinal.holidays.HolidayRuleSet;
+
+import static org.junit.Assert.*;
+
+public class PricingContextTest {
+
+    // Friday 2015-09-04 to Tuesday 2015-09-08, Labor Day is Monday the 7th
+    private static final LocalDate CHECKOUT_DATE = LocalDate.of(2015, 9, 3);
+
+    private final Cashier cashier = new Cashier();
+
+    @Test
+    public void defaultContext_pricesAsBefore() {
+        RentalAgreement agreement =
+                cashier.checkout(PricingContext.defaultContext(), "JAKR", 5, 0, CHECKOUT_DATE);
+        assertEquals(Long.valueOf(2), agreement.getChargeableDays());
+    }
+
+    @Test
+    public void storeWeekendAndHolidays() {
+        PricingContext store = PricingContext.defaultContext()
+                .withStoreId("0042")
+                .withWeekendDays(EnumSet.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY))
+                .withHolidays(new HolidayRuleSet("No Holidays"));
+
+        // Sunday, Monday and Tuesday are charged
+        RentalAgreement agreement = new Cashier(store).checkout("JAKR", 5, 0, CHECKOUT_DATE);
+        assertEquals(Long.valueOf(3), agreement.getChargeableDays());
+        assertEquals("0042", store.getStoreId());
+    }
+
+    @Test
+    public void catalogOverrides() {
+        Tool ridgidLadder = new Tool("JAKR", "Ridgid", ToolType.LADDER);
+        PricingContext store =
+                PricingContext.defaultContext().withCatalogOverrides(Collections.singletonList(ridgidLadder));
+
+        // a ladder is charged every day
+        RentalAgreement agreement = cashier.checkout(store, "JAKR", 5, 0, CHECKOUT_DATE);
+        assertEquals(ToolType.LADDER, agreement.getRentedTool().getToolType());
+        assertEquals(Long.valueOf(5), agreement.getChargeableDays());
+        assertSame(store.getCatalog(), store.getCatalog());
+    }
+
+    @Test
+    public void catalogOverrides_followBaseReload() {
+        ToolCatalogDto base = new ToolCatalogDto();
+        Tool stihl = new Tool("CHNS", "Stihl", ToolType.CHAINSAW);
+        PricingContext store = PricingContext.defaultContext().withCatalog(base)
+                .withCatalogOverrides(Collections.singletonList(stihl));
+        assertTrue(store.getCatalog().findByCode("LADW").isPresent());
+
+        Tool louisville = new Tool("LADX", "Louisville", ToolType.LADDER);
+        base.reload(new IndexedToolCatalog(Collections.singletonList(louisville)));
+        assertFalse(store.getCatalog().findByCode("LADW").isPresent());
+        assertTrue(store.getCatalog().findByCode("LADX").isPresent());
+        assertSame(stihl, store.getCatalog().findByCode("CHNS").orElse(null));
+    }
+
+    @Test
+    public void storesShareImmutables() {
+        HolidayRuleSet holidays = new HolidayRuleSet("No Holidays");
+        PricingContext first = PricingContext.defaultContext().withHolidays(holidays).withStoreId("1");
+        PricingContext second = PricingContext.defaultContext().withHolidays(holidays).withStoreId("2");
+
+        assertSame(first.getHolidayCalendar(), second.getHolidayCalendar());
+        assertSame(first.getBaseCatalog(), second.getBaseCatalog());
+        assertSame(first.getToolTypes(), second.getToolTypes());
+        assertSame(first.getChargeableDaysCalculator(), second.getChargeableDaysCalculator());
+    }
+
+    @Test
+    public void storeDirectory() {
+        StoreDirectory stores = new StoreDirectory();
+        PricingContext store = PricingContext.defaultContext().withStoreId("0042");
+        stores.register(store);
+
+        assertSame(store, stores.forStore("0042"));
+        assertFalse(stores.find("0043").isPresent());
+        assertEquals(Arrays.asList(store), Arrays.asList(stores.getContexts().toArray()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void storeDirectory_unknownStore() {
+        new StoreDirectory().forStore("0043");
+    }
+}
@@ -0,0 +1,70 @@
+package com.cardinal;
+
+import java.time.LocalDate;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PricingModeTest {
+
+    private static final int MAX_CHARGEABLE_DAYS = 100_000;
+
+    @Test
+    public void longCentsMatchesBigDecimalForEveryChargeAndDiscount() {
+        for (ToolType toolType : ToolType.values()) {
+            for (long chargeableDays = 0; chargeableDays <= MAX_CHARGEABLE_DAYS; chargeableDays++) {
+                long expectedCharge = PricingMode.BIG_DECIMAL.totalChargeCents(toolType, chargeableDays);
+                long actualCharge = PricingMode.LONG_CENTS.totalChargeCents(toolType, chargeableDays);
+                if (expectedCharge != actualCharge) {
+                    assertEquals(toolType + " for " + chargeableDays + " days", expectedCharge, actualCharge);
+                }
+
+                for (int discount = 0; discount <= 100; discount++) {
+                    long expected = PricingMode.BIG_DECIMAL.discountCents(expectedCharge, discount);
+                    long actual = PricingMode.LONG_CENTS.discountCents(expectedCharge, discount);
+                    if (expected != actual) {
+                        assertEquals(toolType + " for " + chargeableDays + " days at " + discount + "%",
+                                expected, actual);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void discountRoundsHalfUp() {
+        // 4.47 * 25% = 1.1175, 2.99 * 50% = 1.495
+        assertEquals(112, PricingMode.LONG_CENTS.discountCents(447, 25));
+        assertEquals(150, PricingMode.LONG_CENTS.discountCents(299, 50));
+        assertEquals(-150, PricingMode.LONG_CENTS.discountCents(-299, 50));
+        assertEquals(PricingMode.BIG_DECIMAL.discountCents(-299, 50), PricingMode.LONG_CENTS.discountCents(-299, 50));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void totalChargeOverflow() {
+        PricingMode.LONG_CENTS.totalChargeCents(ToolType.JACKHAMMER, Long.MAX_VALUE / 100);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void discountOverflow() {
+        PricingMode.LONG_CENTS.discountCents(Long.MAX_VALUE / 50, 100);
+    }
+
+    @Test
+    public void cashierGivesTheSameAgreementInEitherMode() {
+        Cashier bigDecimal = new Cashier(new ToolCatalogDto(), PricingMode.BIG_DECIMAL);
+        Cashier longCents = new Cashier(new ToolCatalogDto(), PricingMode.LONG_CENTS);
+
+        LocalDate checkoutDate = LocalDate.of(2015, 7, 2);
+        for (String toolCode : new String[]{"LADW", "CHNS", "JAKR"}) {
+            for (int discount = 0; discount <= 100; discount += 7) {
+                RentalAgreement expected = bigDecimal.checkout(toolCode, 45, discount, checkoutDate);
+                RentalAgreement actual = longCents.checkout(toolCode, 45, discount, checkoutDate);
+                assertEquals(expected.getTotalDueBeforeDiscount(), actual.getTotalDueBeforeDiscount());
+                assertEquals(expected.getTotalDiscountAmount(), actual.getTotalDiscountAmount());
+                assertEquals(expected.getTotalDueAfterDiscount(), actual.getTotalDueAfterDiscount());
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.cardinal;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.cardinal.catalog.ToolTypeCsv;
+
+import static org.junit.Assert.*;
+
+public class ToolTypeRegistryTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final ToolTypeRegistry registry = new ToolTypeRegistry(Arrays.asList(ToolType.values()));
+
+    @Test
+    public void builtInTypes() {
+        assertSame(ToolType.JACKHAMMER, ToolType.valueOf("JACKHAMMER"));
+        assertEquals(299, ToolType.JACKHAMMER.getDailyChargeCents());
+        assertTrue(ToolType.CHAINSAW.noChargeOnWeekends());
+        assertFalse(ToolType.CHAINSAW.noChargeOnHolidays());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownType() {
+        ToolType.valueOf("BACKHOE");
+    }
+
+    @Test
+    public void reloadChangesPricesButNotTheType() {
+        ToolType pricier = new ToolType("JACKHAMMER", BigDecimal.valueOf(3.49), true, true);
+        registry.reload(Arrays.asList(ToolType.LADDER, ToolType.CHAINSAW, pricier));
+
+        assertSame(pricier, registry.resolve(ToolType.JACKHAMMER).get());
+        assertEquals(ToolType.JACKHAMMER, pricier);
+        assertEquals(349, registry.resolve(ToolType.JACKHAMMER).get().getDailyChargeCents());
+    }
+
+    @Test
+    public void resolveUnknownType() {
+        ToolType backhoe = new ToolType("BACKHOE", BigDecimal.TEN, false, false);
+        assertFalse(registry.resolve(backhoe).isPresent());
+        assertFalse(registry.find("BACKHOE").isPresent());
+    }
+
+    @Test
+    public void removedTypeIsNoLongerPriced() {
+        Cashier cashier = new Cashier(new ToolCatalogDto(), registry, PricingMode.LONG_CENTS);
+        assertTrue(cashier.tryCheckout("CHNS", 5, 0, LocalDate.of(2015, 7, 2)).isSuccess());
+
+        registry.reload(Arrays.asList(ToolType.LADDER, ToolType.JACKHAMMER));
+        assertFalse(registry.resolve(ToolType.CHAINSAW).isPresent());
+        CheckoutResult result = cashier.tryCheckout("CHNS", 5, 0, LocalDate.of(2015, 7, 2));
+        assertEquals(CheckoutError.UNKNOWN_TOOL_TYPE, result.getError());
+        assertEquals("The CHNS can't be rented, there is no longer a price for its tool type.",
+                result.getErrorMessage());
+    }
+
+    @Test
+    public void valuesFollowTheDefaultRegistry() {
+        ToolTypeRegistry defaults = ToolTypeRegistry.defaultRegistry();
+        ToolType backhoe = new ToolType("BACKHOE", BigDecimal.TEN, false, false);
+        ToolType pricier = new ToolType("LADDER", BigDecimal.valueOf(2.49), false, false);
+        try {
+            defaults.reload(Arrays.asList(pricier, backhoe));
+            assertArrayEquals(new ToolType[] {pricier, backhoe}, ToolType.values());
+            for (ToolType toolType : ToolType.values()) {
+                assertSame(toolType, ToolType.valueOf(toolType.name()));
+            }
+        } finally {
+            defaults.reload(Arrays.asList(ToolType.LADDER, ToolType.CHAINSAW, ToolType.JACKHAMMER));
+        }
+        assertArrayEquals(new ToolType[] {ToolType.LADDER, ToolType.CHAINSAW, ToolType.JACKHAMMER},
+                ToolType.values());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateTypes() {
+        registry.reload(Arrays.asList(ToolType.LADDER, ToolType.LADDER));
+    }
+
+    @Test
+    public void cashierPricesWithTheReloadedRuleAndKeepsItOnTheAgreement() throws IOException {
+        Path rules = folder.newFile().toPath();
+        Files.write(rules, Arrays.asList(ToolTypeCsv.HEADER,
+                "LADDER,1.99,false,false",
+                "CHAINSAW,1.49,true,false",
+                "JACKHAMMER,3.49,true,true",
+                "BACKHOE,25.00,true,true"));
+
+        List<ToolType> loaded = ToolTypeCsv.read(rules);
+        assertEquals(4, loaded.size());
+        registry.reload(loaded);
+
+        ToolCatalogDto catalog = new ToolCatalogDto(new IndexedToolCatalog(Arrays.asList(
+                new Tool("JAKR", "Ridgid", ToolType.JACKHAMMER),
+                new Tool("BKHC", "Cat", registry.find("BACKHOE").orElseThrow(AssertionError::new)))));
+        Cashier cashier = new Cashier(catalog, registry, PricingMode.LONG_CENTS);
+
+        RentalAgreement jackhammer = cashier.checkout("JAKR", 9, 0, LocalDate.of(2015, 7, 2));
+        assertEquals(new BigDecimal("3.49"), jackhammer.getDailyCharge());
+        assertEquals(new BigDecimal("17.45"), jackhammer.getTotalDueBeforeDiscount());
+
+        RentalAgreement backhoe = cashier.checkout("BKHC", 9, 0, LocalDate.of(2015, 7, 2));
+        assertEquals(new BigDecimal("125.00"), backhoe.getTotalDueBeforeDiscount());
+
+        // a later price change doesn't touch agreements already written
+        registry.reload(Arrays.asList(ToolType.values()));
+        assertEquals(new BigDecimal("3.49"), jackhammer.getDailyCharge());
+        assertEquals(new BigDecimal("2.99"), cashier.checkout("JAKR", 9, 0, LocalDate.of(2015, 7, 2))
+                .getDailyCharge());
+    }
+
+    @Test
+    public void csvRoundTrip() throws IOException {
+        Path rules = folder.newFile().toPath();
+        ToolTypeCsv.write(rules, Arrays.asList(ToolType.values()));
+
+        List<ToolType> read = ToolTypeCsv.read(rules);
+        assertEquals(Arrays.asList(ToolType.values()), read);
+        for (ToolType toolType : read) {
+            ToolType builtIn = ToolType.valueOf(toolType.name());
+            assertEquals(builtIn.getDailyCharge(), toolType.getDailyCharge());
+            assertEquals(builtIn.noChargeOnWeekends(), toolType.noChargeOnWeekends());
+            assertEquals(builtIn.noChargeOnHolidays(), toolType.noChargeOnHolidays());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void malformedCsv() throws IOException {
+        Path rules = folder.newFile().toPath();
+        Files.write(rules, Arrays.asList(ToolTypeCsv.HEADER, "LADDER,1.99,no,false"));
+        ToolTypeCsv.read(rules);
+    }
+}
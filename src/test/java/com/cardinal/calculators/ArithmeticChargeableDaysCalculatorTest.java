@@ -0,0 +1,95 @@
+package com.cardinal.calculators;
+
+import java.time.LocalDate;
+
+import org.junit.Test;
+
+import com.cardinal.RentalAgreement;
+import com.cardinal.Tool;
+import com.cardinal.ToolType;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Differential test, the arithmetic calculator must agree with the readable one for every checkout date and rental
+ * length in range.
+ */
+public class ArithmeticChargeableDaysCalculatorTest {
+
+    private static final LocalDate FIRST_CHECKOUT = LocalDate.of(2000, 1, 1);
+    private static final LocalDate LAST_CHECKOUT = LocalDate.of(2030, 12, 31);
+    // three years, so every rental crosses at least two year boundaries
+    private static final int MAX_RENTAL_DAYS = 3 * 366;
+
+    private final ArithmeticChargeableDaysCalculator arithmetic = new ArithmeticChargeableDaysCalculator();
+
+    @Test
+    public void matchesReadableForEveryCheckoutAndLength() {
+        long firstCheckout = FIRST_CHECKOUT.toEpochDay();
+        long lastCheckout = LAST_CHECKOUT.toEpochDay();
+
+        for (ToolType toolType : ToolType.values()) {
+            // Walking the readable calculator for all ~34 million combinations takes far too long, so charge each
+            // individual day once with it and sum them up.  Chargeable days are additive over consecutive days,
+            // which sampledLengthsMatchReadableDirectly checks against the real thing.
+            long[] chargedBefore = readablePrefixSums(toolType, firstCheckout, lastCheckout + MAX_RENTAL_DAYS);
+
+            for (long checkout = firstCheckout; checkout <= lastCheckout; checkout++) {
+                int offset = (int) (checkout - firstCheckout);
+                for (int rentalDays = 1; rentalDays <= MAX_RENTAL_DAYS; rentalDays++) {
+                    long expected = chargedBefore[offset + rentalDays] - chargedBefore[offset];
+                    long actual = arithmetic.chargeableDays(toolType, checkout, rentalDays);
+                    if (expected != actual) {
+                        assertEquals(toolType + " from " + LocalDate.ofEpochDay(checkout) + " for " + rentalDays
+                                + " days", expected, actual);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void sampledLengthsMatchReadableDirectly() {
+        int[] lengths = {1, 2, 3, 4, 5, 6, 7, 8, 9, 13, 14, 15, 30, 31, 60, 364, 365, 366, 730, 1000, MAX_RENTAL_DAYS};
+        for (ToolType toolType : ToolType.values()) {
+            Tool tool = new Tool("TEST", "Test", toolType);
+            for (LocalDate checkout = FIRST_CHECKOUT; !checkout.isAfter(LAST_CHECKOUT);
+                    checkout = checkout.plusDays(37)) {
+                for (int rentalDays : lengths) {
+                    RentalAgreement agreement = agreement(tool, checkout, rentalDays);
+                    Long expected = new ReadableChargeableDaysCalculator().apply(agreement);
+                    assertEquals(toolType + " from " + checkout + " for " + rentalDays + " days",
+                            expected, arithmetic.apply(agreement));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void julyFourthOnSunday() {
+        // 2010-07-04 is a sunday, observed monday the 5th
+        long checkout = LocalDate.of(2010, 7, 3).toEpochDay();
+        assertEquals(3, arithmetic.chargeableDays(ToolType.JACKHAMMER, checkout, 5));
+        assertEquals(4, arithmetic.chargeableDays(ToolType.CHAINSAW, checkout, 5));
+        assertEquals(5, arithmetic.chargeableDays(ToolType.LADDER, checkout, 5));
+    }
+
+    /**
+     * @return index i holds the readable chargeable days for the i days following the first checkout
+     */
+    private static long[] readablePrefixSums(ToolType toolType, long firstCheckout, long lastDay) {
+        Tool tool = new Tool("TEST", "Test", toolType);
+        ReadableChargeableDaysCalculator readable = new ReadableChargeableDaysCalculator();
+
+        long[] chargedBefore = new long[(int) (lastDay - firstCheckout) + 1];
+        for (int i = 1; i < chargedBefore.length; i++) {
+            LocalDate dayBefore = LocalDate.ofEpochDay(firstCheckout + i - 1);
+            chargedBefore[i] = chargedBefore[i - 1] + readable.apply(agreement(tool, dayBefore, 1));
+        }
+        return chargedBefore;
+    }
+
+    private static RentalAgreement agreement(Tool tool, LocalDate checkout, int rentalDays) {
+        return new RentalAgreement(tool, rentalDays, checkout, 0);
+    }
+}
@@ -0,0 +1,76 @@
+package com.cardinal.calculators;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.cardinal.HolidayCalendar;
+import com.cardinal.Holidays;
+import com.cardinal.ToolType;
+
+import static org.junit.Assert.*;
+
+/**
+ * Differential test, the loop and adaptive calculators must agree with the arithmetic one.
+ */
+public class LoopChargeableDaysCalculatorTest {
+
+    private static final ToolType[] TOOL_TYPES = {
+            ToolType.LADDER, ToolType.CHAINSAW, ToolType.JACKHAMMER,
+            new ToolType("HOLIDAYS_ONLY", BigDecimal.ONE, false, true),
+    };
+    private static final int MAX_RENTAL_DAYS = 40;
+
+    private final HolidayCalendar calendar = HolidayCalendar.defaultCalendar();
+
+    @Test
+    public void matchesArithmetic() {
+        assertMatchesArithmetic(Holidays.WEEKEND_DAYS);
+    }
+
+    @Test
+    public void matchesArithmeticWithOtherWeekends() {
+        assertMatchesArithmetic(EnumSet.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY));
+        assertMatchesArithmetic(EnumSet.noneOf(DayOfWeek.class));
+    }
+
+    private void assertMatchesArithmetic(Set<DayOfWeek> weekendDays) {
+        ArithmeticChargeableDaysCalculator arithmetic = new ArithmeticChargeableDaysCalculator(calendar, weekendDays);
+        LoopChargeableDaysCalculator loop = new LoopChargeableDaysCalculator(calendar, weekendDays);
+        AdaptiveChargeableDaysCalculator adaptive = new AdaptiveChargeableDaysCalculator(calendar, weekendDays);
+
+        // includes checkouts before 1970 for the day of week lookup
+        long first = LocalDate.of(1965, 1, 1).toEpochDay();
+        long last = LocalDate.of(2035, 12, 31).toEpochDay();
+        for (ToolType toolType : TOOL_TYPES) {
+            for (long checkout = first; checkout <= last; checkout++) {
+                for (int rentalDays = 0; rentalDays <= MAX_RENTAL_DAYS; rentalDays++) {
+                    long expected = arithmetic.chargeableDays(toolType, checkout, rentalDays);
+                    long actualLoop = loop.chargeableDays(toolType, checkout, rentalDays);
+                    long actualAdaptive = adaptive.chargeableDays(toolType, checkout, rentalDays);
+                    if (expected != actualLoop || expected != actualAdaptive) {
+                        String message = toolType + " from " + LocalDate.ofEpochDay(checkout) + " for " + rentalDays
+                                + " days";
+                        assertEquals(message, expected, actualLoop);
+                        assertEquals(message, expected, actualAdaptive);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void adaptiveSplitsByRentalLength() {
+        ChargeableDaysCalculator shortRentals = (toolType, checkoutEpochDay, rentalDays) -> -1;
+        ChargeableDaysCalculator longRentals = (toolType, checkoutEpochDay, rentalDays) -> -2;
+        AdaptiveChargeableDaysCalculator adaptive = new AdaptiveChargeableDaysCalculator(shortRentals, longRentals, 3);
+
+        assertEquals(3, adaptive.getMaxShortRentalDays());
+        assertEquals(-1, adaptive.chargeableDays(ToolType.JACKHAMMER, 0, 3));
+        assertEquals(-2, adaptive.chargeableDays(ToolType.JACKHAMMER, 0, 4));
+    }
+}
@@ -0,0 +1,83 @@
+package com.cardinal.calculators;
+
+import java.time.LocalDate;
+
+import org.junit.Test;
+
+import com.cardinal.Cashier;
+import com.cardinal.PricingContext;
+import com.cardinal.ToolType;
+
+import static org.junit.Assert.*;
+
+public class ShadowChargeableDaysCalculatorTest {
+
+    // Friday 2015-09-04 to Tuesday 2015-09-08, Labor Day is Monday the 7th
+    private static final LocalDate CHECKOUT_DATE = LocalDate.of(2015, 9, 3);
+
+    private final ArithmeticChargeableDaysCalculator arithmetic = new ArithmeticChargeableDaysCalculator();
+
+    @Test
+    public void agreeingShadow() {
+        ShadowChargeableDaysCalculator shadow =
+                new ShadowChargeableDaysCalculator(arithmetic, new LoopChargeableDaysCalculator(), 1);
+
+        assertEquals(2, shadow.chargeableDays(ToolType.JACKHAMMER, CHECKOUT_DATE.toEpochDay(), 5));
+        assertEquals(1, shadow.getCheckedCount());
+        assertEquals(0, shadow.getMismatchCount());
+    }
+
+    @Test
+    public void disagreeingShadow_primaryWins() {
+        ChargeableDaysCalculator wrong = (toolType, checkoutEpochDay, rentalDays) -> rentalDays;
+        ShadowChargeableDaysCalculator shadow = new ShadowChargeableDaysCalculator(arithmetic, wrong, 1);
+
+        assertEquals(2, shadow.chargeableDays(ToolType.JACKHAMMER, CHECKOUT_DATE.toEpochDay(), 5));
+        // a ladder is charged every day, so they agree there
+        assertEquals(5, shadow.chargeableDays(ToolType.LADDER, CHECKOUT_DATE.toEpochDay(), 5));
+        assertEquals(2, shadow.getCheckedCount());
+        assertEquals(1, shadow.getMismatchCount());
+    }
+
+    @Test
+    public void failingShadow_primaryWins() {
+        ChargeableDaysCalculator failing = (toolType, checkoutEpochDay, rentalDays) -> {
+            throw new IllegalStateException("broken");
+        };
+        ShadowChargeableDaysCalculator shadow = new ShadowChargeableDaysCalculator(arithmetic, failing, 1);
+
+        assertEquals(2, shadow.chargeableDays(ToolType.JACKHAMMER, CHECKOUT_DATE.toEpochDay(), 5));
+        assertEquals(1, shadow.getMismatchCount());
+    }
+
+    @Test
+    public void noSampling() {
+        ChargeableDaysCalculator failing = (toolType, checkoutEpochDay, rentalDays) -> {
+            throw new IllegalStateException("broken");
+        };
+        ShadowChargeableDaysCalculator shadow = new ShadowChargeableDaysCalculator(arithmetic, failing, 0);
+
+        for (int i = 0; i < 100; i++) {
+            shadow.chargeableDays(ToolType.JACKHAMMER, CHECKOUT_DATE.toEpochDay(), 5);
+        }
+        assertEquals(0, shadow.getCheckedCount());
+    }
+
+    @Test
+    public void pricingContext_usesShadow() {
+        ShadowChargeableDaysCalculator shadow =
+                new ShadowChargeableDaysCalculator(arithmetic, new LoopChargeableDaysCalculator(), 1);
+        PricingContext context = PricingContext.defaultContext().withChargeableDaysCalculator(shadow);
+        assertSame(shadow, context.withStoreId("0042").getChargeableDaysCalculator());
+
+        assertEquals(Long.valueOf(2), new Cashier().checkout(context, "JAKR", 5, 0, CHECKOUT_DATE)
+                .getChargeableDays());
+        assertEquals(1, shadow.getCheckedCount());
+        assertEquals(0, shadow.getMismatchCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sampleRateOutOfRange() {
+        new ShadowChargeableDaysCalculator(arithmetic, arithmetic, 1.5);
+    }
+}
@@ -0,0 +1,104 @@
+package com.cardinal.calculators;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.cardinal.Cashier;
+import com.cardinal.HolidayCalendar;
+import com.cardinal.Holidays;
+import com.cardinal.PricingContext;
+import com.cardinal.ToolType;
+
+import static org.junit.Assert.*;
+
+/**
+ * Differential test, the table must agree with the arithmetic calculator inside its window and fall back to it
+ * outside.
+ */
+public class TableChargeableDaysCalculatorTest {
+
+    private static final ToolType[] TOOL_TYPES = {
+            ToolType.LADDER, ToolType.CHAINSAW, ToolType.JACKHAMMER,
+            new ToolType("HOLIDAYS_ONLY", BigDecimal.ONE, false, true),
+    };
+
+    private final HolidayCalendar calendar = HolidayCalendar.defaultCalendar();
+
+    @Test
+    public void matchesArithmeticForEveryCheckoutAndLength() {
+        assertMatchesArithmetic(Holidays.WEEKEND_DAYS);
+    }
+
+    @Test
+    public void matchesArithmeticWithOtherWeekends() {
+        assertMatchesArithmetic(EnumSet.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY));
+        assertMatchesArithmetic(EnumSet.noneOf(DayOfWeek.class));
+    }
+
+    private void assertMatchesArithmetic(Set<DayOfWeek> weekendDays) {
+        TableChargeableDaysCalculator table = new TableChargeableDaysCalculator(calendar, weekendDays, 2010, 2030);
+        ArithmeticChargeableDaysCalculator arithmetic = new ArithmeticChargeableDaysCalculator(calendar, weekendDays);
+
+        // a week either side of the window to cover the fall back
+        long first = LocalDate.of(2010, 1, 1).toEpochDay() - 7;
+        long last = LocalDate.of(2030, 12, 31).toEpochDay() + 7;
+        for (ToolType toolType : TOOL_TYPES) {
+            for (long checkout = first; checkout <= last; checkout++) {
+                for (int rentalDays = 0; rentalDays <= table.getMaxRentalDays() + 2; rentalDays++) {
+                    long expected = arithmetic.chargeableDays(toolType, checkout, rentalDays);
+                    long actual = table.chargeableDays(toolType, checkout, rentalDays);
+                    if (expected != actual) {
+                        assertEquals(toolType + " from " + LocalDate.ofEpochDay(checkout) + " for " + rentalDays
+                                + " days", expected, actual);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void tablesBuiltOnFirstUse() {
+        TableChargeableDaysCalculator table = new TableChargeableDaysCalculator(calendar, Holidays.WEEKEND_DAYS,
+                2020, 2020, 10);
+        assertEquals(0, table.getTableBytes());
+
+        // ladders are charged every day and never need a table
+        assertEquals(5, table.chargeableDays(ToolType.LADDER, LocalDate.of(2020, 7, 2).toEpochDay(), 5));
+        assertEquals(0, table.getTableBytes());
+
+        // Friday 2020-07-03 is the observed Independence Day
+        assertEquals(2, table.chargeableDays(ToolType.JACKHAMMER, LocalDate.of(2020, 7, 2).toEpochDay(), 5));
+        assertEquals(366 * 10, table.getTableBytes());
+
+        table.precompute();
+        assertEquals(3 * 366 * 10, table.getTableBytes());
+        assertTrue(table.getBuildNanos() > 0);
+        assertEquals(LocalDate.of(2020, 1, 1), table.getFirstCheckoutDate());
+        assertEquals(LocalDate.of(2020, 12, 31), table.getLastCheckoutDate());
+    }
+
+    @Test
+    public void pricingContext_usesTables() {
+        PricingContext context = PricingContext.defaultContext().withPrecomputedChargeableDays(2015, 2016);
+        assertTrue(context.getChargeableDaysCalculator() instanceof TableChargeableDaysCalculator);
+        assertSame(context.getChargeableDaysCalculator(),
+                context.withStoreId("0042").getChargeableDaysCalculator());
+
+        // Friday 2015-09-04 to Tuesday 2015-09-08, Labor Day is Monday the 7th
+        LocalDate checkout = LocalDate.of(2015, 9, 3);
+        assertEquals(Long.valueOf(2), new Cashier().checkout(context, "JAKR", 5, 0, checkout).getChargeableDays());
+
+        PricingContext noWeekend = context.withWeekendDays(EnumSet.noneOf(DayOfWeek.class));
+        assertTrue(noWeekend.getChargeableDaysCalculator() instanceof ArithmeticChargeableDaysCalculator);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rentalsTooLongForAByte() {
+        new TableChargeableDaysCalculator(calendar, Holidays.WEEKEND_DAYS, 2020, 2020, 128);
+    }
+}
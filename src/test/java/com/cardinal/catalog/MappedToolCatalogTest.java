@@ -0,0 +1,200 @@
+package com.cardinal.catalog;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.cardinal.Cashier;
+import com.cardinal.PricingContext;
+import com.cardinal.RentalAgreement;
+import com.cardinal.Tool;
+import com.cardinal.ToolCatalogDto;
+import com.cardinal.ToolType;
+import com.cardinal.ToolTypeRegistry;
+
+import static org.junit.Assert.*;
+
+public class MappedToolCatalogTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<Tool> tools = Arrays.asList(
+            new Tool("LADW", "Werner", ToolType.LADDER),
+            new Tool("CHNS", "Stihl", ToolType.CHAINSAW),
+            new Tool("JAKR", "Ridgid", ToolType.JACKHAMMER),
+            new Tool("JAKD", "DeWalt", ToolType.JACKHAMMER),
+            new Tool("J", "Ridgid", ToolType.JACKHAMMER));
+
+    @Test
+    public void findByCode() throws IOException {
+        MappedToolCatalog catalog = writeAndOpen(tools);
+
+        assertEquals(5, catalog.size());
+        for (Tool expected : tools) {
+            Tool actual = catalog.findByCode(expected.getToolCode()).orElseThrow(AssertionError::new);
+            assertToolEquals(expected, actual);
+        }
+        assertFalse(catalog.findByCode("LHKD").isPresent());
+        assertFalse(catalog.findByCode("JAK").isPresent());
+        assertFalse(catalog.findByCode("JAKRS").isPresent());
+        assertFalse(catalog.findByCode("JAKR\u00e9").isPresent());
+        assertFalse(catalog.findByCode("").isPresent());
+        assertFalse(catalog.findByCode(null).isPresent());
+    }
+
+    @Test
+    public void scansAndViews() throws IOException {
+        MappedToolCatalog catalog = writeAndOpen(tools);
+
+        List<Tool> all = catalog.getTools();
+        assertEquals(tools.size(), all.size());
+        for (int i = 0; i < tools.size(); i++) {
+            assertToolEquals(tools.get(i), all.get(i));
+        }
+        assertEquals(3, catalog.findByType(ToolType.JACKHAMMER).size());
+        assertEquals(2, catalog.findByBrand("Ridgid").size());
+        assertTrue(catalog.findByBrand("Makita").isEmpty());
+    }
+
+    @Test
+    public void manyTools() throws IOException {
+        List<Tool> many = generate(20_000);
+        MappedToolCatalog catalog = writeAndOpen(many);
+        for (Tool expected : many) {
+            assertToolEquals(expected, catalog.findByCode(expected.getToolCode()).orElseThrow(AssertionError::new));
+        }
+        assertFalse(catalog.findByCode("T20000").isPresent());
+    }
+
+    @Test
+    public void emptyCatalog() throws IOException {
+        MappedToolCatalog catalog = writeAndOpen(new ArrayList<>());
+        assertEquals(0, catalog.size());
+        assertFalse(catalog.findByCode("LADW").isPresent());
+    }
+
+    @Test
+    public void cashierCanCheckoutFromTheFile() throws IOException {
+        Cashier cashier = new Cashier(new ToolCatalogDto(writeAndOpen(tools)));
+        RentalAgreement agreement = cashier.checkout("JAKR", 9, 0, LocalDate.of(2015, 7, 2));
+        assertEquals(Long.valueOf(5), agreement.getChargeableDays());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateToolCode() throws IOException {
+        ToolCatalogFile.write(folder.newFile().toPath(), Arrays.asList(tools.get(0), tools.get(0)));
+    }
+
+    @Test(expected = IOException.class)
+    public void notACatalogFile() throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, "toolCode,brand,toolType".getBytes("UTF-8"));
+        MappedToolCatalog.open(file);
+    }
+
+    @Test
+    public void csvRoundTrip() throws IOException {
+        Path file = folder.newFile().toPath();
+        ToolCatalogCsv.write(file, tools);
+        List<Tool> read = ToolCatalogCsv.read(file).getTools();
+        assertEquals(tools.size(), read.size());
+        for (int i = 0; i < tools.size(); i++) {
+            assertToolEquals(tools.get(i), read.get(i));
+        }
+    }
+
+    @Test
+    public void csvQuotesSeparators() throws IOException {
+        List<Tool> awkward = Arrays.asList(new Tool("LADS", "Stanley, \"FatMax\" Pro", ToolType.LADDER),
+                new Tool("CHS", "\"", ToolType.CHAINSAW), new Tool("JAK", "", ToolType.JACKHAMMER));
+        Path file = folder.newFile().toPath();
+        ToolCatalogCsv.write(file, awkward);
+        assertEquals("LADS,\"Stanley, \"\"FatMax\"\" Pro\",LADDER", Files.readAllLines(file).get(1));
+
+        List<Tool> read = ToolCatalogCsv.read(file).getTools();
+        assertEquals(awkward.size(), read.size());
+        for (int i = 0; i < awkward.size(); i++) {
+            assertToolEquals(awkward.get(i), read.get(i));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void csvUnclosedQuote() throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, "LADS,\"Stanley, Pro,LADDER".getBytes("UTF-8"));
+        ToolCatalogCsv.read(file);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void csvFieldOverTwoLines() throws IOException {
+        ToolCatalogCsv.write(folder.newFile().toPath(), Arrays.asList(new Tool("LADS", "Stan\nley", ToolType.LADDER)));
+    }
+
+    @Test
+    public void storeToolTypes() throws IOException {
+        ToolType trencher = new ToolType("TRENCHER", BigDecimal.valueOf(9.99), true, true);
+        ToolTypeRegistry registry = new ToolTypeRegistry(Arrays.asList(ToolType.LADDER, trencher));
+        List<Tool> storeTools = Arrays.asList(new Tool("TRDW", "Ditch Witch", trencher),
+                new Tool("LADW", "Werner", ToolType.LADDER));
+
+        Path csv = folder.newFile().toPath();
+        ToolCatalogCsv.write(csv, storeTools);
+        Path mapped = folder.newFile().toPath();
+        ToolCatalogFile.write(mapped, storeTools);
+        assertSame(trencher, ToolCatalogCsv.read(csv, registry).findByCode("TRDW").get().getToolType());
+        assertSame(trencher, MappedToolCatalog.open(mapped, registry).findByCode("TRDW").get().getToolType());
+        try {
+            ToolCatalogCsv.read(csv);
+            fail("the default registry has no trenchers");
+        } catch (IOException e) {
+            assertEquals("Line 2 has an unknown tool type: TRENCHER", e.getMessage());
+        }
+
+        // priced with the store's rule, as the very tool in the catalog
+        PricingContext store = PricingContext.defaultContext().withToolTypes(registry)
+                .withCatalog(new ToolCatalogDto(ToolCatalogCsv.read(csv, registry)));
+        Tool ditchWitch = store.getCatalog().findByCode("TRDW").get();
+        RentalAgreement agreement = new Cashier(store).checkout("TRDW", 9, 0, LocalDate.of(2015, 7, 2));
+        assertSame(ditchWitch, agreement.getRentedTool());
+        assertEquals(Long.valueOf(5), agreement.getChargeableDays());
+        assertEquals(new BigDecimal("49.95"), agreement.getTotalDueAfterDiscount());
+
+        // a store registry with its own copy of a rule doesn't copy every tool priced with it
+        ToolTypeRegistry sameLadder = new ToolTypeRegistry(Arrays.asList(
+                new ToolType("LADDER", BigDecimal.valueOf(1.99), false, false)));
+        Tool werner = PricingContext.defaultContext().getCatalog().findByCode("LADW").get();
+        assertSame(werner, new Cashier(PricingContext.defaultContext().withToolTypes(sameLadder))
+                .checkout("LADW", 3, 0, LocalDate.of(2015, 7, 2)).getRentedTool());
+    }
+
+    private MappedToolCatalog writeAndOpen(List<Tool> catalogTools) throws IOException {
+        Path file = folder.newFile().toPath();
+        ToolCatalogFile.write(file, catalogTools);
+        return MappedToolCatalog.open(file);
+    }
+
+    private static List<Tool> generate(int count) {
+        String[] brands = {"Werner", "Stihl", "Ridgid", "DeWalt", "Makita"};
+        List<Tool> generated = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            generated.add(new Tool("T" + i, brands[i % brands.length], ToolType.values()[i % 3]));
+        }
+        return generated;
+    }
+
+    private static void assertToolEquals(Tool expected, Tool actual) {
+        assertEquals(expected.getToolCode(), actual.getToolCode());
+        assertEquals(expected.getBrand(), actual.getBrand());
+        assertEquals(expected.getToolType(), actual.getToolType());
+    }
+}
@@ -0,0 +1,176 @@
+package com.cardinal.codec;
+
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.cardinal.Cashier;
+import com.cardinal.RentalAgreement;
+import com.cardinal.Tool;
+import com.cardinal.ToolType;
+
+import static org.junit.Assert.*;
+
+public class AgreementCodecTest {
+
+    private static final String[] TOOL_CODES = {"CHNS", "LADW", "JAKD", "JAKR"};
+
+    private final Cashier cashier = new Cashier();
+
+    @Test
+    public void roundTrip() {
+        List<RentalAgreement> agreements = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            agreements.add(cashier.checkout(TOOL_CODES[i % TOOL_CODES.length], 1 + i % 45, i % 101,
+                    LocalDate.of(2015, 1, 1).plusDays(i * 3)));
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        AgreementCodec.Encoder encoder = new AgreementCodec.Encoder();
+        for (RentalAgreement agreement : agreements) {
+            encoder.encode(agreement, buffer);
+        }
+        assertEquals(TOOL_CODES.length, encoder.getToolCount());
+        // the tools are only spelled out once, after that an agreement is a handful of varints
+        assertTrue("Encoded in " + buffer.position() + " bytes", buffer.position() < 12 * agreements.size());
+
+        buffer.flip();
+        AgreementCodec.Decoder decoder = new AgreementCodec.Decoder();
+        for (RentalAgreement agreement : agreements) {
+            assertSameAgreement(agreement, decoder.decode(buffer));
+        }
+        assertFalse(buffer.hasRemaining());
+        assertEquals(TOOL_CODES.length, decoder.getToolCount());
+    }
+
+    @Test
+    public void decodedAgreementsShareTheirTool() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        AgreementCodec.Encoder encoder = new AgreementCodec.Encoder();
+        encoder.encode(cashier.checkout("LADW", 3, 10, LocalDate.of(2020, 7, 2)), buffer);
+        encoder.encode(cashier.checkout("LADW", 4, 0, LocalDate.of(2020, 7, 9)), buffer);
+        buffer.flip();
+
+        AgreementCodec.Decoder decoder = new AgreementCodec.Decoder();
+        assertSame(decoder.decode(buffer).getRentedTool(), decoder.decode(buffer).getRentedTool());
+    }
+
+    @Test
+    public void oddValuesRoundTrip() {
+        Tool tool = new Tool("SNOW", null, new ToolType("BLOWER \u2603", new BigDecimal("12345678.91"), false, true));
+        RentalAgreement agreement = new RentalAgreement(tool, Integer.MAX_VALUE, -719_528, 0, -1, Long.MAX_VALUE,
+                Long.MIN_VALUE);
+
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        new AgreementCodec.Encoder().encode(agreement, buffer);
+        buffer.flip();
+        assertSameAgreement(agreement, new AgreementCodec.Decoder().decode(buffer));
+    }
+
+    @Test
+    public void changedToolIsDefinedAgain() {
+        Tool before = new Tool("LADW", "Werner", ToolType.LADDER);
+        Tool after = new Tool("LADW", "Werner", new ToolType("LADDER", new BigDecimal("2.49"), false, false));
+        Tool copy = new Tool("LADW", "Werner", new ToolType("LADDER", new BigDecimal("2.49"), false, false));
+
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        AgreementCodec.Encoder encoder = new AgreementCodec.Encoder();
+        encoder.encode(new RentalAgreement(before, 1, 0, 0, 1, 199, 0), buffer);
+        encoder.encode(new RentalAgreement(after, 1, 0, 0, 1, 249, 0), buffer);
+        encoder.encode(new RentalAgreement(copy, 1, 0, 0, 1, 249, 0), buffer);
+        assertEquals(2, encoder.getToolCount());
+
+        buffer.flip();
+        AgreementCodec.Decoder decoder = new AgreementCodec.Decoder();
+        assertEquals(new BigDecimal("1.99"), decoder.decode(buffer).getDailyCharge());
+        assertEquals(new BigDecimal("2.49"), decoder.decode(buffer).getDailyCharge());
+        assertEquals(new BigDecimal("2.49"), decoder.decode(buffer).getDailyCharge());
+    }
+
+    @Test
+    public void fullBuffer_leavesTheStreamAsItWas() {
+        RentalAgreement agreement = cashier.checkout("JAKR", 5, 0, LocalDate.of(2015, 9, 3));
+        AgreementCodec.Encoder encoder = new AgreementCodec.Encoder();
+        ByteBuffer small = ByteBuffer.allocate(8);
+        try {
+            encoder.encode(agreement, small);
+            fail("Should not fit");
+        } catch (BufferOverflowException expected) {
+            assertEquals(0, small.position());
+        }
+        assertEquals(0, encoder.getToolCount());
+
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        encoder.encode(agreement, buffer);
+        buffer.flip();
+        assertSameAgreement(agreement, new AgreementCodec.Decoder().decode(buffer));
+    }
+
+    @Test
+    public void partialAgreement_canBeRetried() {
+        ByteBuffer whole = ByteBuffer.allocate(256);
+        AgreementCodec.Encoder encoder = new AgreementCodec.Encoder();
+        RentalAgreement agreement = cashier.checkout("CHNS", 5, 25, LocalDate.of(2015, 7, 2));
+        encoder.encode(agreement, whole);
+        whole.flip();
+
+        AgreementCodec.Decoder decoder = new AgreementCodec.Decoder();
+        ByteBuffer arriving = ByteBuffer.allocate(256);
+        RentalAgreement decoded = null;
+        while (decoded == null) {
+            arriving.put(whole.get()).flip();
+            try {
+                decoded = decoder.decode(arriving);
+            } catch (BufferUnderflowException e) {
+                assertEquals(0, arriving.position());
+                assertEquals(0, decoder.getToolCount());
+            }
+            arriving.compact();
+        }
+        assertSameAgreement(agreement, decoded);
+    }
+
+    @Test
+    public void reset_startsANewStream() {
+        RentalAgreement agreement = cashier.checkout("JAKD", 6, 0, LocalDate.of(2015, 9, 3));
+        AgreementCodec.Encoder encoder = new AgreementCodec.Encoder();
+        ByteBuffer first = ByteBuffer.allocate(256);
+        encoder.encode(agreement, first);
+        encoder.reset();
+        ByteBuffer second = ByteBuffer.allocate(256);
+        encoder.encode(agreement, second);
+
+        assertEquals(first.flip(), second.flip());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownVersion() {
+        new AgreementCodec.Decoder().decode(ByteBuffer.wrap(new byte[]{2, 1, 1, 1, 1, 1, 1, 1}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void referenceToUndefinedTool() {
+        new AgreementCodec.Decoder().decode(ByteBuffer.wrap(new byte[]{AgreementCodec.VERSION, 3, 1, 1, 1, 1, 1, 1}));
+    }
+
+    static void assertSameAgreement(RentalAgreement expected, RentalAgreement actual) {
+        assertEquals(expected.getToolCode(), actual.getToolCode());
+        assertEquals(expected.getBrand(), actual.getBrand());
+        assertEquals(expected.getToolType(), actual.getToolType());
+        assertEquals(expected.getDailyCharge(), actual.getDailyCharge());
+        assertEquals(expected.getToolType().noChargeOnWeekends(), actual.getToolType().noChargeOnWeekends());
+        assertEquals(expected.getToolType().noChargeOnHolidays(), actual.getToolType().noChargeOnHolidays());
+        assertEquals(expected.getRentalDays(), actual.getRentalDays());
+        assertEquals(expected.getCheckoutEpochDay(), actual.getCheckoutEpochDay());
+        assertEquals(expected.getDiscountAsPercent(), actual.getDiscountAsPercent());
+        assertEquals(expected.getChargeableDayCount(), actual.getChargeableDayCount());
+        assertEquals(expected.getTotalDueBeforeDiscountCents(), actual.getTotalDueBeforeDiscountCents());
+        assertEquals(expected.getTotalDiscountAmountCents(), actual.getTotalDiscountAmountCents());
+    }
+}
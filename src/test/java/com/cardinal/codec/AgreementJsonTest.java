@@ -0,0 +1,46 @@
+package com.cardinal.codec;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.cardinal.Cashier;
+import com.cardinal.RentalAgreement;
+import com.cardinal.ToolType;
+import com.cardinal.ToolTypeRegistry;
+
+import static org.junit.Assert.*;
+
+public class AgreementJsonTest {
+
+    @Test
+    public void roundTrip() {
+        RentalAgreement agreement = new Cashier().checkout("CHNS", 5, 25, LocalDate.of(2015, 7, 2));
+        String json = AgreementJson.append(new StringBuilder(), agreement).toString();
+
+        Map<?, ?> fields = (Map<?, ?>) Json.parse(json);
+        assertEquals("2015-07-07", fields.get("dueDate"));
+        assertEquals(new BigDecimal("3.35"), fields.get("finalCharge"));
+        AgreementCodecTest.assertSameAgreement(agreement, AgreementJson.read(json, ToolTypeRegistry.defaultRegistry()));
+    }
+
+    @Test
+    public void pricedBeforeAChange_keepsItsDailyCharge() {
+        RentalAgreement agreement = new Cashier().checkout("LADW", 3, 10, LocalDate.of(2020, 7, 2));
+        String json = AgreementJson.append(new StringBuilder(), agreement).toString();
+        ToolTypeRegistry repriced = new ToolTypeRegistry(Arrays.asList(
+                new ToolType("LADDER", new BigDecimal("2.49"), false, false)));
+
+        assertEquals(new BigDecimal("1.99"), AgreementJson.read(json, repriced).getDailyCharge());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownToolType() {
+        RentalAgreement agreement = new Cashier().checkout("LADW", 3, 10, LocalDate.of(2020, 7, 2));
+        String json = AgreementJson.append(new StringBuilder(), agreement).toString();
+        AgreementJson.read(json, new ToolTypeRegistry(Arrays.asList(ToolType.CHAINSAW)));
+    }
+}
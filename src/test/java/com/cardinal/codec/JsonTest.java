@@ -0,0 +1,50 @@
+package com.cardinal.codec;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class JsonTest {
+
+    @Test
+    public void parsesNestedValues() {
+        Map<?, ?> object = (Map<?, ?>) Json.parse(" {\"a\": [1, -2.5e1, true, false, null], \"b\": {}, \"c\": []} ");
+
+        assertEquals(Arrays.asList(new BigDecimal("1"), new BigDecimal("-2.5e1"), true, false, null), object.get("a"));
+        assertEquals(Collections.emptyMap(), object.get("b"));
+        assertEquals(Collections.emptyList(), object.get("c"));
+    }
+
+    @Test
+    public void stringsRoundTrip() {
+        String text = "quote \" slash \\ newline \n tab \t bell \u0007 snowman \u2603";
+        String json = Json.appendString(new StringBuilder(), text).toString();
+
+        assertEquals(text, Json.parse(json));
+        assertEquals("A/", Json.parse("\"\\u0041\\/\""));
+    }
+
+    @Test
+    public void rejectsMalformedJson() {
+        for (String json : Arrays.asList("", "{", "[1,]", "{\"a\" 1}", "\"open", "tru", "1 2", "{a:1}", "\"\\x\"")) {
+            try {
+                Json.parse(json);
+                fail("Parsed: " + json);
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage().contains("at character"));
+            }
+        }
+    }
+
+    @Test
+    public void keepsFieldOrder() {
+        List<?> keys = Arrays.asList(((Map<?, ?>) Json.parse("{\"z\":1,\"a\":2,\"m\":3}")).keySet().toArray());
+        assertEquals(Arrays.asList("z", "a", "m"), keys);
+    }
+}
@@ -0,0 +1,119 @@
+package com.cardinal.holidays;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.MonthDay;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.cardinal.HolidayCalendar;
+import com.cardinal.Holidays;
+import com.cardinal.holidays.FixedDateHoliday.Observance;
+
+import static org.junit.Assert.*;
+
+public class HolidayRuleSetTest {
+
+    @Test
+    public void defaultRules_matchOriginalResolution() {
+        for (int year = HolidayCalendar.DEFAULT_FIRST_YEAR; year <= HolidayCalendar.DEFAULT_LAST_YEAR; year++) {
+            LocalDate laborDay = LocalDate.of(year, Month.SEPTEMBER, 1)
+                    .with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+            LocalDate independenceDay = LocalDate.of(year, Month.JULY, 4);
+            if (independenceDay.getDayOfWeek() == DayOfWeek.SATURDAY) {
+                independenceDay = independenceDay.minusDays(1);
+            } else if (independenceDay.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                independenceDay = independenceDay.plusDays(1);
+            }
+
+            assertEquals(Arrays.asList(laborDay, independenceDay), Holidays.resolveHolidays(year));
+        }
+    }
+
+    @Test
+    public void fixedDate_weekendObservance() {
+        MonthDay newYearsDay = MonthDay.of(Month.JANUARY, 1);
+        // January 1st 2011 was a Saturday, 2012 a Sunday
+        FixedDateHoliday shifted = new FixedDateHoliday("New Year's Day", newYearsDay,
+                Observance.FRIDAY_BEFORE, Observance.MONDAY_AFTER);
+        assertEquals(LocalDate.of(2010, 12, 31), shifted.observedOn(2011));
+        assertEquals(LocalDate.of(2012, 1, 2), shifted.observedOn(2012));
+        assertEquals(LocalDate.of(2013, 1, 1), shifted.observedOn(2013));
+
+        FixedDateHoliday mondays = new FixedDateHoliday("New Year's Day", newYearsDay,
+                Observance.MONDAY_AFTER, Observance.MONDAY_AFTER);
+        assertEquals(LocalDate.of(2011, 1, 3), mondays.observedOn(2011));
+
+        FixedDateHoliday unshifted = new FixedDateHoliday("New Year's Day", newYearsDay,
+                Observance.ON_THE_DAY, Observance.FRIDAY_BEFORE);
+        assertEquals(LocalDate.of(2011, 1, 1), unshifted.observedOn(2011));
+        assertEquals(LocalDate.of(2011, 12, 30), unshifted.observedOn(2012));
+    }
+
+    @Test
+    public void fixedDate_leapDayOnlyInLeapYears() {
+        FixedDateHoliday leapDay = new FixedDateHoliday("Leap Day", MonthDay.of(Month.FEBRUARY, 29),
+                Observance.ON_THE_DAY, Observance.ON_THE_DAY);
+        assertEquals(Collections.singletonList(LocalDate.of(2016, 2, 29)), leapDay.observedDates(2016));
+        assertTrue(leapDay.observedDates(2015).isEmpty());
+    }
+
+    @Test
+    public void nthWeekday() {
+        NthWeekdayHoliday thanksgiving = new NthWeekdayHoliday("Thanksgiving", Month.NOVEMBER, DayOfWeek.THURSDAY, 4);
+        assertEquals(Collections.singletonList(LocalDate.of(2015, 11, 26)), thanksgiving.observedDates(2015));
+
+        NthWeekdayHoliday memorialDay =
+                new NthWeekdayHoliday("Memorial Day", Month.MAY, DayOfWeek.MONDAY, NthWeekdayHoliday.LAST);
+        assertEquals(Collections.singletonList(LocalDate.of(2015, 5, 25)), memorialDay.observedDates(2015));
+        assertEquals(Collections.singletonList(LocalDate.of(2016, 5, 30)), memorialDay.observedDates(2016));
+
+        // May 2015 only has four Mondays
+        NthWeekdayHoliday fifthMonday = new NthWeekdayHoliday("Fifth Monday", Month.MAY, DayOfWeek.MONDAY, 5);
+        assertTrue(fifthMonday.observedDates(2015).isEmpty());
+        assertEquals(Collections.singletonList(LocalDate.of(2016, 5, 30)), fifthMonday.observedDates(2016));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nthWeekday_invalidOrdinal() {
+        new NthWeekdayHoliday("Nope", Month.MAY, DayOfWeek.MONDAY, 0);
+    }
+
+    @Test
+    public void oneOff() {
+        OneOffHoliday grandOpening =
+                new OneOffHoliday("Grand Opening", LocalDate.of(2016, 3, 14), LocalDate.of(2016, 3, 15));
+        assertEquals(Arrays.asList(LocalDate.of(2016, 3, 14), LocalDate.of(2016, 3, 15)),
+                grandOpening.observedDates(2016));
+        assertTrue(grandOpening.observedDates(2017).isEmpty());
+    }
+
+    @Test
+    public void compile_observesEveryRule() {
+        HolidayRuleSet rules = new HolidayRuleSet("Test Region",
+                new FixedDateHoliday("New Year's Day", MonthDay.of(Month.JANUARY, 1),
+                        Observance.FRIDAY_BEFORE, Observance.MONDAY_AFTER),
+                new NthWeekdayHoliday("Memorial Day", Month.MAY, DayOfWeek.MONDAY, NthWeekdayHoliday.LAST),
+                new OneOffHoliday("Grand Opening", LocalDate.of(2016, 3, 14)));
+        HolidayCalendar calendar = rules.compile(2010, 2020);
+
+        for (LocalDate day = LocalDate.of(2009, 1, 1); day.getYear() <= 2021; day = day.plusDays(1)) {
+            boolean expected = rules.resolveHolidays(day.getYear()).contains(day)
+                    || rules.resolveHolidays(day.getYear() + 1).contains(day);
+            assertEquals(day.toString(), expected, calendar.isHoliday(day));
+        }
+        // New Year's Day 2011 observed the year before
+        assertTrue(calendar.isHoliday(LocalDate.of(2010, 12, 31)));
+        assertEquals(3, calendar.countHolidaysBetween(LocalDate.of(2016, 1, 1), LocalDate.of(2016, 12, 31)));
+    }
+
+    @Test
+    public void calendar_compiledOnce() {
+        assertSame(Holidays.DEFAULT_RULES.calendar(), Holidays.DEFAULT_RULES.calendar());
+        assertSame(Holidays.DEFAULT_RULES.calendar(), HolidayCalendar.defaultCalendar());
+    }
+}
@@ -0,0 +1,306 @@
+package com.cardinal.inventory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.cardinal.Cashier;
+import com.cardinal.PricingContext;
+import com.cardinal.RentalAgreement;
+import com.cardinal.Tool;
+import com.cardinal.ToolType;
+
+import static org.junit.Assert.*;
+
+public class InventoryTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private final Inventory inventory = new Inventory();
+
+    @Test
+    public void reserve_oneUnit() {
+        inventory.addUnits("JAKR", 1);
+
+        Reservation first = inventory.reserve("JAKR", 10, 14).orElse(null);
+        assertNotNull(first);
+        assertFalse(inventory.reserve("JAKR", 14, 20).isPresent());
+        assertFalse(inventory.reserve("JAKR", 5, 10).isPresent());
+        assertFalse(inventory.reserve("JAKR", 11, 12).isPresent());
+        assertTrue(inventory.reserve("JAKR", 15, 20).isPresent());
+        assertTrue(inventory.reserve("JAKR", 5, 9).isPresent());
+
+        assertEquals(0, inventory.countAvailableUnits("JAKR", 12, 12));
+        assertTrue(inventory.release(first));
+        assertFalse(inventory.release(first));
+        assertEquals(1, inventory.countAvailableUnits("JAKR", 12, 12));
+    }
+
+    @Test
+    public void reserve_everyUnit() {
+        inventory.addUnits("JAKR", 2);
+
+        Reservation first = inventory.reserve("JAKR", 10, 14).orElse(null);
+        Reservation second = inventory.reserve("JAKR", 12, 16).orElse(null);
+        assertNotEquals(first.getUnit(), second.getUnit());
+        assertEquals(0, inventory.countAvailableUnits("JAKR", 12, 14));
+        assertEquals(1, inventory.countAvailableUnits("JAKR", 15, 15));
+        assertFalse(inventory.reserve("JAKR", 13, 13).isPresent());
+
+        inventory.addUnits("JAKR", 1);
+        assertEquals(3, inventory.getUnitCount("JAKR"));
+        assertTrue(inventory.reserve("JAKR", 13, 13).isPresent());
+    }
+
+    @Test
+    public void reserve_unknownTool() {
+        assertFalse(inventory.reserve("LHKD", 10, 14).isPresent());
+        assertEquals(0, inventory.getUnitCount("LHKD"));
+        assertEquals(0, inventory.countAvailableUnits(null, 10, 14));
+    }
+
+    @Test
+    public void availability() {
+        Tool ridgid = new Tool("JAKR", "Ridgid", ToolType.JACKHAMMER);
+        Tool dewalt = new Tool("JAKD", "DeWalt", ToolType.JACKHAMMER);
+        inventory.addUnits("JAKR", 1);
+        inventory.addUnits("JAKD", 1);
+        Reservation held = inventory.reserve("JAKR", 10, 15).orElse(null);
+
+        assertFalse(inventory.isAvailable("JAKR", 15, 17));
+        assertFalse(inventory.isAvailable("JAKR", 8, 10));
+        assertTrue(inventory.isAvailable("JAKR", 16, 17));
+        assertTrue(inventory.isAvailable("JAKD", 11, 12));
+        assertFalse(inventory.isAvailable("LHKD", 11, 12));
+
+        assertEquals(Collections.singletonList(dewalt), inventory.findAvailable(Arrays.asList(ridgid, dewalt), 12, 12));
+        assertEquals(Collections.singletonList(held), inventory.findOverlapping("JAKR", 12, 20));
+        assertEquals(OptionalLong.of(16), inventory.findNextAvailable("JAKR", 12, 3));
+        assertEquals(OptionalLong.of(7), inventory.findNextAvailable("JAKR", 7, 3));
+        assertEquals(OptionalLong.of(16), inventory.findNextAvailable("JAKR", 8, 3));
+        assertFalse(inventory.findNextAvailable("LHKD", 12, 3).isPresent());
+
+        assertTrue(inventory.release(held));
+        assertTrue(inventory.isAvailable("JAKR", 12, 12));
+        assertTrue(inventory.findOverlapping("JAKR", 12, 20).isEmpty());
+    }
+
+    @Test
+    public void availability_matchesScanningEveryReservation() {
+        int units = 2;
+        inventory.addUnits("JAKR", units);
+        Random random = new Random(42);
+        List<Reservation> held = new ArrayList<>();
+
+        for (int round = 0; round < 3000; round++) {
+            // mostly reserve, sometimes give one back, so the schedules change both ways
+            if (held.isEmpty() || random.nextInt(3) != 0) {
+                long first = random.nextInt(400);
+                inventory.reserve("JAKR", first, first + random.nextInt(20)).ifPresent(held::add);
+            } else {
+                assertTrue(inventory.release(held.remove(random.nextInt(held.size()))));
+            }
+
+            long from = random.nextInt(420);
+            long to = from + random.nextInt(30);
+            List<Reservation> expected = new ArrayList<>();
+            int[] heldUnits = new int[units];
+            for (Reservation reservation : held) {
+                if (reservation.getFirstEpochDay() <= to && reservation.getLastEpochDay() >= from) {
+                    expected.add(reservation);
+                    heldUnits[reservation.getUnit()] = 1;
+                }
+            }
+
+            List<Reservation> actual = inventory.findOverlapping("JAKR", from, to);
+            assertEquals(expected.size(), actual.size());
+            assertTrue(actual.containsAll(expected));
+            for (int i = 1; i < actual.size(); i++) {
+                assertTrue(actual.get(i - 1).getFirstEpochDay() <= actual.get(i).getFirstEpochDay());
+            }
+            assertEquals(heldUnits[0] + heldUnits[1] < units, inventory.isAvailable("JAKR", from, to));
+
+            int days = 1 + random.nextInt(10);
+            long slot = inventory.findNextAvailable("JAKR", from, days).getAsLong();
+            assertTrue(slot >= from);
+            assertTrue(inventory.isAvailable("JAKR", slot, slot + days - 1));
+            for (long earlier = from; earlier < slot; earlier++) {
+                assertFalse(inventory.isAvailable("JAKR", earlier, earlier + days - 1));
+            }
+        }
+    }
+
+    @Test
+    public void checkout_reservesAndReleases() {
+        inventory.addUnits("JAKR", 1);
+        Cashier cashier = new Cashier(PricingContext.defaultContext().withInventory(inventory));
+        LocalDate checkoutDate = LocalDate.of(2015, 9, 3);
+
+        RentalAgreement agreement = cashier.checkout("JAKR", 5, 0, checkoutDate);
+        assertEquals(0, inventory.countAvailableUnits("JAKR", checkoutDate.toEpochDay(), agreement.getDueEpochDay()));
+
+        try {
+            cashier.checkout("JAKR", 1, 0, checkoutDate.plusDays(5));
+            fail("the only unit is out until the due date");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Every JAKR is already reserved for some of those 1 days.", e.getMessage());
+        }
+
+        assertTrue(inventory.release(agreement));
+        assertNotNull(cashier.checkout("JAKR", 1, 0, checkoutDate.plusDays(5)));
+    }
+
+    @Test
+    public void checkout_untrackedToolIsNotStocked() {
+        Cashier cashier = new Cashier(PricingContext.defaultContext().withInventory(inventory));
+
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("There are no LADW units on hand to rent.");
+        cashier.checkout("LADW", 3, 0, LocalDate.of(2015, 9, 3));
+    }
+
+    @Test
+    public void extend_holdsTheAddedDays() {
+        inventory.addUnits("JAKR", 1);
+        Cashier cashier = new Cashier(PricingContext.defaultContext().withInventory(inventory));
+        RentalAgreement agreement = cashier.checkout("JAKR", 5, 0, LocalDate.of(2015, 9, 3));
+
+        RentalAgreement extended = cashier.extend(agreement, 2);
+        assertEquals(0, inventory.countAvailableUnits("JAKR", agreement.getDueEpochDay() + 1,
+                extended.getDueEpochDay()));
+        assertFalse(inventory.reserve("JAKR", extended.getDueEpochDay(), extended.getDueEpochDay()).isPresent());
+
+        // the extension took over the hold
+        assertFalse(inventory.release(agreement));
+        assertTrue(inventory.release(extended));
+    }
+
+    @Test
+    public void extend_unitAlreadyBooked() {
+        inventory.addUnits("JAKR", 1);
+        Cashier cashier = new Cashier(PricingContext.defaultContext().withInventory(inventory));
+        RentalAgreement agreement = cashier.checkout("JAKR", 5, 0, LocalDate.of(2015, 9, 3));
+        RentalAgreement next = cashier.checkout("JAKR", 3, 0, agreement.getDueDate().plusDays(2));
+
+        try {
+            cashier.extend(agreement, 2);
+            fail("the only unit is booked from the second added day");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Every JAKR is already reserved for some of those 2 days.", e.getMessage());
+        }
+
+        // a day still fits, and neither hold moved for the refused extension
+        assertNotNull(cashier.extend(agreement, 1));
+        assertTrue(inventory.release(next));
+    }
+
+    @Test
+    public void lateReturns_holdTheLateDays() {
+        inventory.addUnits("JAKR", 1);
+        Cashier cashier = new Cashier(PricingContext.defaultContext().withInventory(inventory));
+        RentalAgreement agreement = cashier.checkout("JAKR", 5, 0, LocalDate.of(2015, 9, 3));
+        LocalDate endOfDay = agreement.getDueDate().plusDays(3);
+
+        RentalAgreement overdue = cashier.repriceOverdue(Collections.singletonList(agreement), endOfDay).get(0);
+        assertEquals(0, inventory.countAvailableUnits("JAKR", endOfDay.toEpochDay(), endOfDay.toEpochDay()));
+
+        // another rental books the unit from two days after, the late days are only held up to it
+        RentalAgreement next = cashier.checkout("JAKR", 3, 0, endOfDay.plusDays(2));
+        LocalDate nextEndOfDay = endOfDay.plusDays(2);
+        RentalAgreement stillOut = cashier.repriceOverdue(Collections.singletonList(overdue), nextEndOfDay).get(0);
+        assertEquals(agreement.getRentalDays() + 5, stillOut.getRentalDays());
+        List<Reservation> holds = inventory.findOverlapping("JAKR", agreement.getCheckoutEpochDay(),
+                nextEndOfDay.toEpochDay());
+        assertEquals(2, holds.size());
+        assertSame(stillOut, holds.get(0).getAgreement());
+        assertEquals(endOfDay.toEpochDay() + 1, holds.get(0).getLastEpochDay());
+
+        // the return is still late and charged as such, and frees the unit
+        RentalAgreement returned = cashier.checkIn(stillOut, nextEndOfDay);
+        assertEquals(agreement.getRentalDays() + 5, returned.getRentalDays());
+        assertFalse(inventory.release(stillOut));
+        holds = inventory.findOverlapping("JAKR", 0, Long.MAX_VALUE);
+        assertEquals(1, holds.size());
+        assertSame(next, holds.get(0).getAgreement());
+        assertTrue(inventory.release(next));
+    }
+
+    @Test
+    public void earlyReturn_freesTheRestOfTheRental() {
+        inventory.addUnits("JAKR", 1);
+        Cashier cashier = new Cashier(PricingContext.defaultContext().withInventory(inventory));
+        RentalAgreement agreement = cashier.checkout("JAKR", 5, 0, LocalDate.of(2015, 9, 3));
+        LocalDate returnDate = LocalDate.of(2015, 9, 5);
+        assertFalse(inventory.isAvailable("JAKR", returnDate.toEpochDay() + 1, agreement.getDueEpochDay()));
+
+        // charged as agreed, and the unit can go out again for the days it would have been away
+        assertSame(agreement, cashier.checkIn(agreement, returnDate));
+        assertTrue(inventory.isAvailable("JAKR", returnDate.toEpochDay() + 1, agreement.getDueEpochDay()));
+        assertTrue(inventory.findOverlapping("JAKR", 0, Long.MAX_VALUE).isEmpty());
+        assertFalse(inventory.release(agreement));
+    }
+
+    @Test
+    public void concurrentReservations_neverDoubleBook() throws Exception {
+        int units = 4;
+        inventory.addUnits("JAKR", units);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Reservation>>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(pool.submit((Callable<List<Reservation>>) () -> {
+                    List<Reservation> made = new ArrayList<>();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 5000; i++) {
+                        long first = random.nextInt(200);
+                        long last = first + random.nextInt(5);
+                        Optional<Reservation> reservation = inventory.reserve("JAKR", first, last);
+                        if (reservation.isPresent()) {
+                            made.add(reservation.get());
+                            // give some back so the schedule keeps changing under the other threads
+                            if (random.nextInt(4) == 0) {
+                                assertTrue(inventory.release(made.remove(random.nextInt(made.size()))));
+                            }
+                        }
+                    }
+                    return made;
+                }));
+            }
+
+            int[][] heldPerDay = new int[units][210];
+            for (Future<List<Reservation>> future : futures) {
+                for (Reservation reservation : future.get()) {
+                    for (long day = reservation.getFirstEpochDay(); day <= reservation.getLastEpochDay(); day++) {
+                        assertEquals("unit " + reservation.getUnit() + " double booked on day " + day,
+                                1, ++heldPerDay[reservation.getUnit()][(int) day]);
+                    }
+                }
+            }
+            for (int day = 0; day < 210; day++) {
+                int held = 0;
+                for (int unit = 0; unit < units; unit++) {
+                    held += heldPerDay[unit][day];
+                }
+                assertEquals(units - held, inventory.countAvailableUnits("JAKR", day, day));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.cardinal.journal;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.cardinal.Cashier;
+import com.cardinal.RentalAgreement;
+import com.cardinal.Tool;
+import com.cardinal.ToolType;
+
+import static org.junit.Assert.*;
+
+public class AgreementJournalTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final Cashier cashier = new Cashier();
+
+    @Test
+    public void replaysWhatWasAppended_everyDurability() throws IOException {
+        for (Durability durability : Durability.values()) {
+            Path directory = folder.newFolder(durability.name()).toPath();
+            List<RentalAgreement> appended = checkouts(500);
+
+            try (AgreementJournal journal = AgreementJournal.open(directory, durability)) {
+                for (RentalAgreement agreement : appended) {
+                    journal.append(agreement);
+                }
+            }
+
+            assertAgreementsEqual(appended, replay(directory, AgreementJournal.DEFAULT_SEGMENT_SIZE));
+        }
+    }
+
+    @Test
+    public void keepsThePriceItWasWrittenAt() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        ToolType sale = new ToolType("JACKHAMMER", new BigDecimal("0.99"), false, true);
+        RentalAgreement agreement = new RentalAgreement(new Tool("JAKR", null, sale), 3, 16684, 10, 3, 297, 30);
+
+        try (AgreementJournal journal = AgreementJournal.open(directory, Durability.PER_RECORD)) {
+            journal.append(agreement);
+        }
+
+        RentalAgreement replayed = replay(directory, AgreementJournal.DEFAULT_SEGMENT_SIZE).get(0);
+        assertNull(replayed.getBrand());
+        assertEquals(99, replayed.getRentedTool().getToolType().getDailyChargeCents());
+        assertFalse(replayed.getRentedTool().getToolType().noChargeOnWeekends());
+        assertTrue(replayed.getRentedTool().getToolType().noChargeOnHolidays());
+        assertAgreementsEqual(Collections.singletonList(agreement), Collections.singletonList(replayed));
+    }
+
+    @Test
+    public void rollsSegments() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        List<RentalAgreement> appended = checkouts(5000);
+
+        try (AgreementJournal journal = AgreementJournal.open(directory, Durability.BATCHED, 4096, null)) {
+            for (RentalAgreement agreement : appended) {
+                journal.append(agreement);
+            }
+        }
+
+        assertTrue(AgreementJournal.listSegments(directory).size() > 10);
+        for (Path segment : AgreementJournal.listSegments(directory).values()) {
+            assertTrue(Files.size(segment) <= 4096);
+        }
+        assertAgreementsEqual(appended, replay(directory, 4096));
+    }
+
+    @Test
+    public void toolsWrittenOncePerSegment() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        List<RentalAgreement> appended = checkouts(400);
+
+        for (List<RentalAgreement> half : Arrays.asList(appended.subList(0, 200), appended.subList(200, 400))) {
+            try (AgreementJournal journal = AgreementJournal.open(directory, Durability.BATCHED)) {
+                for (RentalAgreement agreement : half) {
+                    journal.append(agreement);
+                }
+            }
+        }
+
+        // reopening starts a new stream in a new segment, each with its four tools written out once
+        assertEquals(2, AgreementJournal.listSegments(directory).size());
+        for (Path segment : AgreementJournal.listSegments(directory).values()) {
+            assertTrue(Files.size(segment) < 200 * 24 + 4 * 40);
+        }
+        assertAgreementsEqual(appended, replay(directory, AgreementJournal.DEFAULT_SEGMENT_SIZE));
+    }
+
+    @Test
+    public void recoveryTruncatesATornTail() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        List<RentalAgreement> appended = checkouts(10);
+        try (AgreementJournal journal = AgreementJournal.open(directory, Durability.BATCHED)) {
+            for (RentalAgreement agreement : appended) {
+                journal.append(agreement);
+            }
+        }
+
+        // cut the last record short, as a crash part way through the write would
+        Path segment = AgreementJournal.listSegments(directory).lastEntry().getValue();
+        long size = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 5);
+        }
+
+        assertAgreementsEqual(appended.subList(0, 9), replay(directory, AgreementJournal.DEFAULT_SEGMENT_SIZE));
+        assertTrue(Files.size(segment) < size - 5);
+
+        // and it carries on appending after the last whole record
+        try (AgreementJournal journal = AgreementJournal.open(directory, Durability.PER_RECORD)) {
+            journal.append(appended.get(9));
+        }
+        assertAgreementsEqual(appended, replay(directory, AgreementJournal.DEFAULT_SEGMENT_SIZE));
+    }
+
+    @Test
+    public void recoveryTruncatesAGarbledTail() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        List<RentalAgreement> appended = checkouts(10);
+        try (AgreementJournal journal = AgreementJournal.open(directory, Durability.ASYNC)) {
+            for (RentalAgreement agreement : appended) {
+                journal.append(agreement);
+            }
+        }
+
+        // a whole looking frame whose payload never made it to disk
+        Path segment = AgreementJournal.listSegments(directory).lastEntry().getValue();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer garbage = ByteBuffer.allocate(40).putInt(32).putInt(12345);
+            garbage.rewind();
+            channel.write(garbage);
+        }
+
+        assertAgreementsEqual(appended, replay(directory, AgreementJournal.DEFAULT_SEGMENT_SIZE));
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptEarlierSegmentIsNotTruncated() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        try (AgreementJournal journal = AgreementJournal.open(directory, Durability.BATCHED, 4096, null)) {
+            for (RentalAgreement agreement : checkouts(1000)) {
+                journal.append(agreement);
+            }
+        }
+
+        Path first = AgreementJournal.listSegments(directory).firstEntry().getValue();
+        try (FileChannel channel = FileChannel.open(first, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3, 4}), 100);
+        }
+        replay(directory, 4096);
+    }
+
+    @Test
+    public void concurrentAppends() throws Exception {
+        Path directory = folder.newFolder().toPath();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try (AgreementJournal journal = AgreementJournal.open(directory, Durability.BATCHED)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(pool.submit(() -> {
+                    for (RentalAgreement agreement : checkouts(250)) {
+                        journal.append(agreement);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(2000, replay(directory, AgreementJournal.DEFAULT_SEGMENT_SIZE).size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void appendAfterClose() throws IOException {
+        AgreementJournal journal = AgreementJournal.open(folder.newFolder().toPath(), Durability.BATCHED);
+        journal.close();
+        journal.append(checkouts(1).get(0));
+    }
+
+    private List<RentalAgreement> checkouts(int count) {
+        String[] toolCodes = {"LADW", "CHNS", "JAKR", "JAKD"};
+        List<RentalAgreement> agreements = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            agreements.add(cashier.checkout(toolCodes[i % toolCodes.length], 1 + i % 30, i % 101,
+                    LocalDate.of(2015, 1, 1).plusDays(i)));
+        }
+        return agreements;
+    }
+
+    private static List<RentalAgreement> replay(Path directory, long segmentSize) throws IOException {
+        List<RentalAgreement> replayed = new ArrayList<>();
+        AgreementJournal.open(directory, Durability.BATCHED, segmentSize, replayed::add).close();
+        return replayed;
+    }
+
+    private static void assertAgreementsEqual(List<RentalAgreement> expected, List<RentalAgreement> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            RentalAgreement first = expected.get(i);
+            RentalAgreement second = actual.get(i);
+            assertEquals(first.getToolCode(), second.getToolCode());
+            assertEquals(first.getBrand(), second.getBrand());
+            assertEquals(first.getToolType(), second.getToolType());
+            assertEquals(first.getDailyCharge(), second.getDailyCharge());
+            assertEquals(first.getRentalDays(), second.getRentalDays());
+            assertEquals(first.getCheckoutEpochDay(), second.getCheckoutEpochDay());
+            assertEquals(first.getDiscountAsPercent(), second.getDiscountAsPercent());
+            assertEquals(first.getChargeableDayCount(), second.getChargeableDayCount());
+            assertEquals(first.getTotalDueBeforeDiscountCents(), second.getTotalDueBeforeDiscountCents());
+            assertEquals(first.getTotalDiscountAmountCents(), second.getTotalDiscountAmountCents());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.cardinal.ledger;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.junit.Test;
+
+import com.cardinal.Cashier;
+import com.cardinal.RentalAgreement;
+import com.cardinal.Tool;
+import com.cardinal.ToolType;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the ledger's totals against adding up the agreements themselves.  Small chunks so the parallel path, the
+ * skipped chunks and the partly filtered chunks all get exercised.
+ */
+public class RentalLedgerTest {
+
+    private static final String[] TOOL_CODES = {"CHNS", "LADW", "JAKD", "JAKR"};
+
+    private final List<RentalAgreement> agreements = new ArrayList<>();
+    private final RentalLedger ledger = new RentalLedger(100);
+
+    public RentalLedgerTest() {
+        Cashier cashier = new Cashier();
+        for (int i = 0; i < 2000; i++) {
+            // mostly in date order with a little jitter, like checkouts arriving from several registers
+            agreements.add(cashier.checkout(TOOL_CODES[i % TOOL_CODES.length], 1 + i % 20, i % 7 == 0 ? 15 : 0,
+                    LocalDate.of(2015, 1, 1).plusDays(i / 4 + i % 5)));
+        }
+        ledger.appendAll(agreements);
+    }
+
+    @Test
+    public void total() {
+        assertEquals(2000, ledger.size());
+        assertEquals(expected(agreement -> true), ledger.query().total());
+        assertEquals(20 * 100 * RentalLedger.Chunk.ROW_BYTES, ledger.getColumnBytes());
+    }
+
+    @Test
+    public void dateFilters() {
+        LocalDate first = LocalDate.of(2015, 3, 10);
+        LocalDate last = LocalDate.of(2015, 4, 20);
+        assertEquals(expected(agreement -> within(agreement.getCheckoutDate(), first, last)),
+                ledger.query().checkedOutBetween(first, last).total());
+        assertEquals(expected(agreement -> within(agreement.getDueDate(), first, last)),
+                ledger.query().dueBetween(first, last).total());
+
+        // narrowing twice keeps the overlap
+        assertEquals(expected(agreement -> within(agreement.getCheckoutDate(), first, last)
+                        && within(agreement.getDueDate(), last, LocalDate.MAX)),
+                ledger.query().checkedOutBetween(LocalDate.MIN, last).checkedOutBetween(first, LocalDate.MAX)
+                        .dueBetween(last, LocalDate.MAX).total());
+
+        assertEquals(LedgerTotals.EMPTY, ledger.query().checkedOutBetween(LocalDate.of(2030, 1, 1),
+                LocalDate.of(2030, 1, 1)).total());
+    }
+
+    @Test
+    public void groupBy() {
+        assertEquals(expectedBy(agreement -> agreement.getToolType().name(), agreement -> true),
+                ledger.query().totalsBy(LedgerGrouping.TOOL_TYPE));
+        assertEquals(expectedBy(RentalAgreement::getBrand, agreement -> true),
+                ledger.query().totalsBy(LedgerGrouping.BRAND));
+        assertEquals(expectedBy(RentalAgreement::getToolCode, agreement -> true),
+                ledger.query().totalsBy(LedgerGrouping.TOOL_CODE));
+        assertEquals(expectedBy(agreement -> YearMonth.from(agreement.getCheckoutDate()).toString(),
+                agreement -> true), ledger.query().totalsBy(LedgerGrouping.CHECKOUT_MONTH));
+    }
+
+    @Test
+    public void groupByWithinDates() {
+        LocalDate first = LocalDate.of(2015, 2, 14);
+        LocalDate last = LocalDate.of(2015, 6, 3);
+        Predicate<RentalAgreement> filter = agreement -> within(agreement.getCheckoutDate(), first, last);
+        Map<String, LedgerTotals> byMonth = ledger.query().checkedOutBetween(first, last)
+                .totalsBy(LedgerGrouping.CHECKOUT_MONTH);
+
+        assertEquals(expectedBy(agreement -> YearMonth.from(agreement.getCheckoutDate()).toString(), filter), byMonth);
+        assertEquals("[2015-02, 2015-03, 2015-04, 2015-05, 2015-06]", byMonth.keySet().toString());
+        assertEquals(expectedBy(agreement -> agreement.getToolType().name(), filter),
+                ledger.query().checkedOutBetween(first, last).totalsBy(LedgerGrouping.TOOL_TYPE));
+    }
+
+    @Test
+    public void repricedToolType_groupsTogether() {
+        RentalLedger repriced = new RentalLedger();
+        ToolType dearer = new ToolType("LADDER", new BigDecimal("2.49"), false, false);
+        repriced.append(new RentalAgreement(new Tool("LADW", "Werner", ToolType.LADDER), 1, 0, 0, 1, 199, 0));
+        repriced.append(new RentalAgreement(new Tool("LADW", "Werner", dearer), 1, 0, 0, 1, 249, 0));
+
+        Map<String, LedgerTotals> byType = repriced.query().totalsBy(LedgerGrouping.TOOL_TYPE);
+        assertEquals(1, byType.size());
+        assertEquals(new BigDecimal("4.48"), byType.get("LADDER").getRevenue());
+    }
+
+    @Test
+    public void emptyLedger() {
+        RentalLedger empty = new RentalLedger();
+        assertEquals(LedgerTotals.EMPTY, empty.query().total());
+        assertTrue(empty.query().totalsBy(LedgerGrouping.CHECKOUT_MONTH).isEmpty());
+        assertTrue(empty.query().totalsBy(LedgerGrouping.BRAND).isEmpty());
+    }
+
+    @Test
+    public void queriesWhileAppending() throws InterruptedException {
+        RentalLedger growing = new RentalLedger(64);
+        RentalAgreement agreement = agreements.get(0);
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                while (done.getCount() > 0) {
+                    // whatever a query sees has to be a whole number of appends
+                    LedgerTotals totals = growing.query().total();
+                    assertEquals(totals.getAgreements() * agreement.getTotalDueBeforeDiscountCents(),
+                            totals.getPreDiscountCents());
+                    growing.query().totalsBy(LedgerGrouping.CHECKOUT_MONTH);
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 20_000; i++) {
+            growing.append(agreement);
+        }
+        done.countDown();
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(20_000, growing.query().total().getAgreements());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void backwardsDates() {
+        ledger.query().checkedOutBetween(LocalDate.of(2015, 2, 1), LocalDate.of(2015, 1, 1));
+    }
+
+    private static boolean within(LocalDate date, LocalDate first, LocalDate last) {
+        return !date.isBefore(first) && !date.isAfter(last);
+    }
+
+    private LedgerTotals expected(Predicate<RentalAgreement> filter) {
+        return expectedBy(agreement -> "", filter).getOrDefault("", LedgerTotals.EMPTY);
+    }
+
+    private Map<String, LedgerTotals> expectedBy(Function<RentalAgreement, String> key,
+            Predicate<RentalAgreement> filter) {
+        Map<String, LedgerTotals> totals = new TreeMap<>();
+        for (RentalAgreement agreement : agreements) {
+            if (filter.test(agreement)) {
+                LedgerTotals sum = totals.getOrDefault(key.apply(agreement), LedgerTotals.EMPTY);
+                totals.put(key.apply(agreement), new LedgerTotals(sum.getAgreements() + 1,
+                        sum.getChargeableDays() + agreement.getChargeableDayCount(),
+                        sum.getPreDiscountCents() + agreement.getTotalDueBeforeDiscountCents(),
+                        sum.getDiscountCents() + agreement.getTotalDiscountAmountCents()));
+            }
+        }
+        return totals;
+    }
+}
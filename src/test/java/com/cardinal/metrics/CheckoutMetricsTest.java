@@ -0,0 +1,102 @@
+package com.cardinal.metrics;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.cardinal.Cashier;
+import com.cardinal.CheckoutError;
+import com.cardinal.CheckoutRequest;
+import com.cardinal.PricingContext;
+import com.cardinal.PricingMode;
+import com.cardinal.inventory.Inventory;
+
+import static org.junit.Assert.*;
+
+public class CheckoutMetricsTest {
+
+    private static final LocalDate CHECKOUT_DATE = LocalDate.of(2015, 9, 3);
+
+    @Test
+    public void checkoutsTaggedByToolTypeAndError() {
+        CheckoutMetrics metrics = new CheckoutMetrics();
+        Cashier cashier = new Cashier(PricingContext.defaultContext(), PricingMode.LONG_CENTS, metrics);
+
+        cashier.tryCheckout("JAKR", 5, 0, CHECKOUT_DATE);
+        cashier.tryCheckout("JAKD", 5, 0, CHECKOUT_DATE);
+        cashier.tryCheckout("LADW", 5, 0, CHECKOUT_DATE);
+        cashier.tryCheckout("NOPE", 5, 0, CHECKOUT_DATE);
+        cashier.tryCheckout("JAKR", 5, 101, CHECKOUT_DATE);
+
+        CheckoutMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(Long.valueOf(2), snapshot.getCheckouts().get("JACKHAMMER"));
+        assertEquals(Long.valueOf(1), snapshot.getCheckouts().get("LADDER"));
+        assertEquals(Long.valueOf(1), snapshot.getRejections().get(CheckoutError.UNKNOWN_TOOL));
+        assertEquals(Long.valueOf(1), snapshot.getRejections().get(CheckoutError.INVALID_DISCOUNT));
+        assertNull(snapshot.getRejections().get(CheckoutError.INVALID_RENTAL_DAYS));
+
+        assertEquals(2, snapshot.getCheckoutLatencies().get("JACKHAMMER").getCount());
+        assertEquals(1, snapshot.getRejectionLatencies().get(CheckoutError.UNKNOWN_TOOL).getCount());
+
+        // the unknown tool got as far as the lookup, the bad discount only through validation
+        assertEquals(2, snapshot.getStageLatency(CheckoutStage.VALIDATION, CheckoutMetrics.NO_TOOL_TYPE).getCount());
+        assertEquals(1,
+                snapshot.getStageLatency(CheckoutStage.CATALOG_LOOKUP, CheckoutMetrics.NO_TOOL_TYPE).getCount());
+        assertEquals(2, snapshot.getStageLatency(CheckoutStage.MONEY_MATH, "JACKHAMMER").getCount());
+        assertEquals(1, snapshot.getStageLatency(CheckoutStage.CHARGEABLE_DAYS, "LADDER").getCount());
+        // no inventory, nothing to reserve
+        assertTrue(snapshot.getStageLatencies().get(CheckoutStage.RESERVATION).isEmpty());
+    }
+
+    @Test
+    public void stagesAddUpToTheCheckout() {
+        CheckoutMetrics metrics = new CheckoutMetrics();
+        Cashier cashier = new Cashier(PricingContext.defaultContext(), PricingMode.LONG_CENTS, metrics);
+        cashier.tryCheckout("CHNS", 5, 0, CHECKOUT_DATE);
+
+        CheckoutMetricsSnapshot snapshot = metrics.snapshot();
+        long stages = 0;
+        for (Map<String, HistogramSnapshot> latencies : snapshot.getStageLatencies().values()) {
+            HistogramSnapshot latency = latencies.get("CHAINSAW");
+            stages += latency == null ? 0 : latency.getMax();
+        }
+        assertEquals(stages, snapshot.getCheckoutLatencies().get("CHAINSAW").getMax());
+    }
+
+    @Test
+    public void reservationAndBatch() {
+        Inventory inventory = new Inventory();
+        inventory.addUnits("JAKR", 1);
+        CheckoutMetrics metrics = new CheckoutMetrics();
+        Cashier cashier = new Cashier(PricingContext.defaultContext().withInventory(inventory),
+                PricingMode.LONG_CENTS, metrics);
+
+        cashier.checkoutAll(Arrays.asList(new CheckoutRequest("JAKR", 5, 0, CHECKOUT_DATE),
+                new CheckoutRequest("JAKR", 5, 0, CHECKOUT_DATE)));
+
+        CheckoutMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(Long.valueOf(1), snapshot.getCheckouts().get("JACKHAMMER"));
+        assertEquals(Long.valueOf(1), snapshot.getRejections().get(CheckoutError.UNAVAILABLE));
+        assertEquals(2, snapshot.getStageLatency(CheckoutStage.RESERVATION, "JACKHAMMER").getCount());
+    }
+
+    @Test
+    public void sampledMetricsStillCountEverything() {
+        CheckoutMetrics metrics = new CheckoutMetrics(1_000_000);
+        Cashier cashier = new Cashier(PricingContext.defaultContext(), PricingMode.LONG_CENTS, metrics);
+        for (int i = 0; i < 100; i++) {
+            cashier.tryCheckout("JAKR", 5, 0, CHECKOUT_DATE);
+        }
+
+        CheckoutMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(Long.valueOf(100), snapshot.getCheckouts().get("JACKHAMMER"));
+        assertTrue(snapshot.getCheckoutLatencies().get("JACKHAMMER").getCount() < 100);
+    }
+
+    @Test
+    public void disabledByDefault() {
+        assertNull(new Cashier().getMetrics());
+    }
+}
@@ -0,0 +1,68 @@
+package com.cardinal.metrics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketsCoverEveryValueOnce() {
+        for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+            long lowest = LatencyHistogram.lowestValue(i);
+            assertEquals(i, LatencyHistogram.index(lowest));
+            assertEquals(i, LatencyHistogram.index(LatencyHistogram.highestValue(i)));
+            if (i > 0) {
+                assertEquals(lowest, LatencyHistogram.highestValue(i - 1) + 1);
+            }
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.index(LatencyHistogram.HIGHEST_TRACKABLE));
+    }
+
+    @Test
+    public void percentilesWithinThreePercent() {
+        Random random = new Random(42);
+        long[] values = new long[100_000];
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < values.length; i++) {
+            // log-uniform from 10ns to about 10ms
+            values[i] = (long) Math.pow(10, 1 + random.nextDouble() * 6);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(values.length, snapshot.getCount());
+        assertEquals(values[values.length - 1], snapshot.getMax());
+        for (double percentile : new double[] {0, 1, 25, 50, 90, 99, 99.9, 99.99, 100}) {
+            long exact = values[Math.max(0, (int) Math.ceil(percentile / 100 * values.length) - 1)];
+            long estimate = snapshot.getValueAtPercentile(percentile);
+            assertTrue(percentile + ": " + exact + " vs " + estimate,
+                    estimate >= exact && estimate <= exact * 1.032);
+        }
+        assertEquals(Arrays.stream(values).average().getAsDouble(), snapshot.getMean(), 1e-6);
+    }
+
+    @Test
+    public void outOfRangeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.getCount());
+        assertEquals(0, snapshot.getValueAtPercentile(50));
+        assertEquals(LatencyHistogram.HIGHEST_TRACKABLE, snapshot.getMax());
+    }
+
+    @Test
+    public void emptySnapshot() {
+        HistogramSnapshot snapshot = new LatencyHistogram().snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getValueAtPercentile(99));
+        assertEquals(0, snapshot.getMean(), 0);
+    }
+}
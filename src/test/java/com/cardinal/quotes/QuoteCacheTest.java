@@ -0,0 +1,209 @@
+package com.cardinal.quotes;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.cardinal.Cashier;
+import com.cardinal.CheckoutError;
+import com.cardinal.CheckoutResult;
+import com.cardinal.IndexedToolCatalog;
+import com.cardinal.PricingContext;
+import com.cardinal.Tool;
+import com.cardinal.ToolCatalogDto;
+import com.cardinal.ToolType;
+import com.cardinal.ToolTypeRegistry;
+import com.cardinal.holidays.HolidayRuleSet;
+import com.cardinal.inventory.Inventory;
+
+import static org.junit.Assert.*;
+
+public class QuoteCacheTest {
+
+    // Friday 2015-09-04 to Tuesday 2015-09-08, Labor Day is Monday the 7th
+    private static final LocalDate CHECKOUT_DATE = LocalDate.of(2015, 9, 3);
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final Cashier cashier = new Cashier();
+    private final AtomicLong clock = new AtomicLong();
+
+    private QuoteCache cache(PricingContext context, int maximumSize) {
+        return new QuoteCache(cashier, () -> context, maximumSize, MINUTE, clock::get, 1);
+    }
+
+    @Test
+    public void repeatedQuote_isServedFromCache() {
+        QuoteCache cache = cache(PricingContext.defaultContext(), 100);
+
+        CheckoutResult first = cache.quote("JAKR", 5, 10, CHECKOUT_DATE);
+        CheckoutResult second = cache.quote("JAKR", 5, 10, CHECKOUT_DATE);
+
+        assertSame(first, second);
+        assertEquals(Long.valueOf(2), second.getAgreement().getChargeableDays());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void everyPartOfTheKeyMatters() {
+        QuoteCache cache = cache(PricingContext.defaultContext(), 100);
+        CheckoutResult base = cache.quote("JAKR", 5, 10, CHECKOUT_DATE);
+
+        assertNotSame(base, cache.quote("JAKD", 5, 10, CHECKOUT_DATE));
+        assertNotSame(base, cache.quote("JAKR", 6, 10, CHECKOUT_DATE));
+        assertNotSame(base, cache.quote("JAKR", 5, 11, CHECKOUT_DATE));
+        assertNotSame(base, cache.quote("JAKR", 5, 10, CHECKOUT_DATE.plusDays(1)));
+        assertEquals(0, cache.getHitCount());
+        assertEquals(5, cache.getMissCount());
+    }
+
+    @Test
+    public void cachedQuotes_matchTheCashier() {
+        PricingContext context = PricingContext.defaultContext();
+        QuoteCache cache = cache(context, 16);
+
+        for (int pass = 0; pass < 2; pass++) {
+            for (String code : Arrays.asList("CHNS", "LADW", "JAKD", "JAKR")) {
+                for (int days = 1; days <= 12; days++) {
+                    LocalDate date = CHECKOUT_DATE.plusDays(days * 3);
+                    CheckoutResult cached = cache.quote(code, days, days * 5, date);
+                    CheckoutResult priced = cashier.quote(context, code, days, days * 5, date);
+                    assertEquals(priced.getAgreement().getTotalDueAfterDiscount(),
+                            cached.getAgreement().getTotalDueAfterDiscount());
+                    assertEquals(priced.getAgreement().getChargeableDays(),
+                            cached.getAgreement().getChargeableDays());
+                }
+            }
+        }
+        assertTrue(cache.getEvictionCount() > 0);
+    }
+
+    @Test
+    public void fullSet_evictsOldestQuote() {
+        QuoteCache cache = cache(PricingContext.defaultContext(), 1);
+        assertEquals(QuoteCache.WAYS, cache.capacity());
+
+        CheckoutResult oldest = cache.quote("JAKR", 1, 0, CHECKOUT_DATE);
+        for (int days = 2; days <= QuoteCache.WAYS; days++) {
+            clock.incrementAndGet();
+            cache.quote("JAKR", days, 0, CHECKOUT_DATE);
+        }
+        assertEquals(0, cache.getEvictionCount());
+        assertSame(oldest, cache.quote("JAKR", 1, 0, CHECKOUT_DATE));
+
+        clock.incrementAndGet();
+        cache.quote("JAKR", QuoteCache.WAYS + 1, 0, CHECKOUT_DATE);
+        assertEquals(1, cache.getEvictionCount());
+        assertNotSame(oldest, cache.quote("JAKR", 1, 0, CHECKOUT_DATE));
+    }
+
+    @Test
+    public void staleQuote_isPricedAgain() {
+        QuoteCache cache = cache(PricingContext.defaultContext(), 100);
+        CheckoutResult first = cache.quote("JAKR", 5, 0, CHECKOUT_DATE);
+
+        clock.addAndGet(MINUTE - 1);
+        assertSame(first, cache.quote("JAKR", 5, 0, CHECKOUT_DATE));
+
+        clock.incrementAndGet();
+        assertNotSame(first, cache.quote("JAKR", 5, 0, CHECKOUT_DATE));
+        assertEquals(1, cache.getExpirationCount());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void staleQuote_isPricedAgainOnceAHitReadsTheClock() {
+        QuoteCache cache = new QuoteCache(cashier, PricingContext::defaultContext, 100, MINUTE, clock::get,
+                QuoteCache.CLOCK_EVERY);
+        CheckoutResult first = cache.quote("JAKR", 5, 0, CHECKOUT_DATE);
+
+        clock.addAndGet(MINUTE);
+        int hits = 0;
+        while (cache.quote("JAKR", 5, 0, CHECKOUT_DATE) == first) {
+            hits++;
+            assertTrue("served stale " + hits + " times", hits < 1000);
+        }
+        assertEquals(1, cache.getExpirationCount());
+    }
+
+    @Test
+    public void catalogReload_dropsQuotes() {
+        ToolCatalogDto catalog = new ToolCatalogDto();
+        QuoteCache cache = cache(PricingContext.defaultContext().withCatalog(catalog), 100);
+        assertEquals(ToolType.JACKHAMMER, cache.quote("JAKR", 5, 0, CHECKOUT_DATE).getAgreement().getToolType());
+
+        Tool ladder = new Tool("JAKR", "Ridgid", ToolType.LADDER);
+        catalog.reload(new IndexedToolCatalog(Collections.singletonList(ladder)));
+
+        assertEquals(ToolType.LADDER, cache.quote("JAKR", 5, 0, CHECKOUT_DATE).getAgreement().getToolType());
+        assertEquals(1, cache.getInvalidationCount());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void toolTypeReload_dropsQuotes() {
+        ToolTypeRegistry toolTypes = new ToolTypeRegistry(Arrays.asList(ToolType.values()));
+        QuoteCache cache = cache(PricingContext.defaultContext().withToolTypes(toolTypes), 100);
+        assertEquals(new BigDecimal("2.99"), cache.quote("JAKR", 5, 0, CHECKOUT_DATE).getAgreement().getDailyCharge());
+
+        toolTypes.reload(Arrays.asList(ToolType.LADDER, ToolType.CHAINSAW,
+                new ToolType("JACKHAMMER", new BigDecimal("3.49"), true, true)));
+
+        assertEquals(new BigDecimal("3.49"), cache.quote("JAKR", 5, 0, CHECKOUT_DATE).getAgreement().getDailyCharge());
+        assertEquals(1, cache.getInvalidationCount());
+    }
+
+    @Test
+    public void holidayChange_dropsQuotes() {
+        AtomicReference<PricingContext> store = new AtomicReference<>(PricingContext.defaultContext());
+        QuoteCache cache = new QuoteCache(cashier, store::get, 100, MINUTE, clock::get, 1);
+        assertEquals(Long.valueOf(2), cache.quote("JAKR", 5, 0, CHECKOUT_DATE).getAgreement().getChargeableDays());
+
+        // the store stops closing for Labor Day
+        store.set(store.get().withHolidays(new HolidayRuleSet("No Holidays")));
+
+        assertEquals(Long.valueOf(3), cache.quote("JAKR", 5, 0, CHECKOUT_DATE).getAgreement().getChargeableDays());
+        assertEquals(1, cache.getInvalidationCount());
+    }
+
+    @Test
+    public void invalidateAll() {
+        QuoteCache cache = cache(PricingContext.defaultContext(), 100);
+        CheckoutResult first = cache.quote("JAKR", 5, 0, CHECKOUT_DATE);
+
+        cache.invalidateAll();
+
+        assertNotSame(first, cache.quote("JAKR", 5, 0, CHECKOUT_DATE));
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void invalidRequests_skipTheCache() {
+        QuoteCache cache = cache(PricingContext.defaultContext(), 100);
+
+        assertEquals(CheckoutError.UNKNOWN_TOOL, cache.quote("NOPE", 5, 0, CHECKOUT_DATE).getError());
+        assertEquals(CheckoutError.INVALID_DISCOUNT, cache.quote("JAKR", 5, -1, CHECKOUT_DATE).getError());
+        assertEquals(CheckoutError.INVALID_RENTAL_DAYS, cache.quote("JAKR", 0, 0, CHECKOUT_DATE).getError());
+        assertEquals(CheckoutError.MISSING_CHECKOUT_DATE, cache.quote("JAKR", 5, 0, null).getError());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    public void quotes_neverReserve() {
+        Inventory inventory = new Inventory();
+        inventory.addUnits("JAKR", 1);
+        QuoteCache cache = cache(PricingContext.defaultContext().withInventory(inventory), 100);
+
+        cache.quote("JAKR", 5, 0, CHECKOUT_DATE);
+        cache.quote("JAKR", 5, 0, CHECKOUT_DATE.plusDays(1));
+
+        long firstDay = CHECKOUT_DATE.toEpochDay() + 1;
+        assertEquals(1, inventory.countAvailableUnits("JAKR", firstDay, firstDay + 5));
+    }
+}
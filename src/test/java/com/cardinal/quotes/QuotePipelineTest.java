@@ -0,0 +1,209 @@
+package com.cardinal.quotes;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.cardinal.Cashier;
+import com.cardinal.ParallelCheckout;
+import com.cardinal.PricingContext;
+import com.cardinal.RentalAgreement;
+import com.cardinal.Tool;
+import com.cardinal.ToolCatalog;
+import com.cardinal.ToolCatalogDto;
+import com.cardinal.ToolType;
+import com.cardinal.inventory.Inventory;
+
+import static org.junit.Assert.*;
+
+public class QuotePipelineTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final Cashier cashier = new Cashier();
+    private final ExecutorService pool = ParallelCheckout.dedicatedPool(4);
+    // small chunks and a small queue so the stages really do wait on each other
+    private final QuotePipeline pipeline = new QuotePipeline(new ParallelCheckout(cashier, pool, 16, 4), 32);
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void pricesAndRejects() throws IOException {
+        Path input = folder.newFile("quotes.csv").toPath();
+        Files.write(input, Arrays.asList(
+                QuotePipeline.INPUT_HEADER,
+                "JAKR,5,101,2015-09-03",
+                "LADW,3,10,2020-07-02",
+                "",
+                "LHKD,3,10,2020-07-02",
+                "JAKD,six,0,2015-09-03",
+                "CHNS,5,25%,2015-07-02",
+                "JAKR,4,0",
+                "JAKR,9,0,2015-07-02",
+                "JAKR,0,0,2015-07-02",
+                "JAKR,3,0,07/02/15"), StandardCharsets.UTF_8);
+        Path output = folder.getRoot().toPath().resolve("agreements.csv");
+        Path rejects = folder.getRoot().toPath().resolve("rejects.csv");
+
+        QuotePipeline.Summary summary = pipeline.run(input, output, rejects);
+        assertEquals(11, summary.getLinesRead());
+        assertEquals(3, summary.getPriced());
+        assertEquals(6, summary.getRejected());
+
+        List<String> agreements = Files.readAllLines(output, StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList(
+                QuotePipeline.OUTPUT_HEADER,
+                expected(3, cashier.checkout("LADW", 3, 10, LocalDate.of(2020, 7, 2))),
+                expected(7, cashier.checkout("CHNS", 5, 25, LocalDate.of(2015, 7, 2))),
+                expected(9, cashier.checkout("JAKR", 9, 0, LocalDate.of(2015, 7, 2)))), agreements);
+        assertEquals("7,CHNS,CHAINSAW,Stihl,5,2015-07-02,2015-07-07,1.49,3,4.47,25,1.12,3.35", agreements.get(2));
+
+        List<String> rejected = Files.readAllLines(rejects, StandardCharsets.UTF_8);
+        assertEquals(QuotePipeline.REJECT_HEADER, rejected.get(0));
+        assertEquals(Arrays.asList(
+                "2,INVALID_DISCOUNT,JAKR,5,101,2015-09-03",
+                "5,UNKNOWN_TOOL,LHKD,3,10,2020-07-02",
+                "6,MALFORMED,JAKD,six,0,2015-09-03",
+                "8,MALFORMED,JAKR,4,0",
+                "10,INVALID_RENTAL_DAYS,JAKR,0,0,2015-07-02",
+                "11,MALFORMED,JAKR,3,0,07/02/15"), rejected.subList(1, rejected.size()).stream()
+                .sorted((first, second) -> Integer.compare(lineNumber(first), lineNumber(second)))
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void manyLinesInOrder() throws IOException {
+        String[] toolCodes = {"LADW", "CHNS", "JAKR", "JAKD", "NOPE"};
+        Path input = folder.newFile("many.csv").toPath();
+        try (BufferedWriter writer = Files.newBufferedWriter(input, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < 50000; i++) {
+                writer.write(toolCodes[i % toolCodes.length] + "," + (1 + i % 30) + "," + (i % 101) + ","
+                        + LocalDate.of(2015, 1, 1).plusDays(i % 1000));
+                writer.newLine();
+            }
+        }
+        Path output = folder.getRoot().toPath().resolve("many-agreements.csv");
+        Path rejects = folder.getRoot().toPath().resolve("many-rejects.csv");
+
+        QuotePipeline.Summary summary = pipeline.run(input, output, rejects);
+        assertEquals(40000, summary.getPriced());
+        assertEquals(10000, summary.getRejected());
+
+        List<String> agreements = Files.readAllLines(output, StandardCharsets.UTF_8);
+        for (int i = 1; i < agreements.size(); i++) {
+            int lineNumber = lineNumber(agreements.get(i));
+            // every fifth line is the unknown tool
+            assertEquals(i + (i - 1) / 4, lineNumber);
+        }
+    }
+
+    @Test
+    public void quotesDontReserve() throws IOException {
+        Inventory inventory = new Inventory();
+        inventory.addUnits("JAKR", 1);
+        QuotePipeline stockedPipeline = new QuotePipeline(new ParallelCheckout(
+                new Cashier(PricingContext.defaultContext().withInventory(inventory)), pool, 16, 4), 32);
+
+        // the same rental twice, and a tool the store has none of
+        Path input = folder.newFile("stocked.csv").toPath();
+        Files.write(input, Arrays.asList("JAKR,5,0,2015-09-03", "JAKR,5,0,2015-09-03", "LADW,3,0,2015-09-03"),
+                StandardCharsets.UTF_8);
+        Path output = folder.getRoot().toPath().resolve("stocked-agreements.csv");
+        Path rejects = folder.getRoot().toPath().resolve("stocked-rejects.csv");
+
+        QuotePipeline.Summary summary = stockedPipeline.run(input, output, rejects);
+        assertEquals(3, summary.getPriced());
+        assertEquals(0, summary.getRejected());
+        long checkout = LocalDate.of(2015, 9, 3).toEpochDay();
+        assertEquals(1, inventory.countAvailableUnits("JAKR", checkout, checkout + 5));
+        assertTrue(inventory.findOverlapping("JAKR", checkout, checkout + 5).isEmpty());
+    }
+
+    @Test
+    public void unknownToolCodesAreNotRetained() throws IOException {
+        // counts the lookups that reach the catalog, every line has to get there if nothing is remembered per code
+        ToolCatalog catalog = new ToolCatalogDto().getCatalog();
+        AtomicInteger lookups = new AtomicInteger();
+        ToolCatalog countingCatalog = new ToolCatalog() {
+            @Override
+            public Optional<Tool> findByCode(String toolCode) {
+                lookups.incrementAndGet();
+                return catalog.findByCode(toolCode);
+            }
+
+            @Override
+            public List<Tool> findByType(ToolType toolType) {
+                return catalog.findByType(toolType);
+            }
+
+            @Override
+            public List<Tool> findByBrand(String brand) {
+                return catalog.findByBrand(brand);
+            }
+
+            @Override
+            public List<Tool> getTools() {
+                return catalog.getTools();
+            }
+
+            @Override
+            public int size() {
+                return catalog.size();
+            }
+        };
+        QuotePipeline countingPipeline = new QuotePipeline(
+                new ParallelCheckout(new Cashier(new ToolCatalogDto(countingCatalog)), pool, 16, 4), 32);
+
+        // every made up code twice, a remembered code would skip the catalog the second time
+        int codes = 20000;
+        Path input = folder.newFile("unknown.csv").toPath();
+        try (BufferedWriter writer = Files.newBufferedWriter(input, StandardCharsets.UTF_8)) {
+            for (int pass = 0; pass < 2; pass++) {
+                for (int i = 0; i < codes; i++) {
+                    writer.write("X" + i + ",3,0,2015-07-02");
+                    writer.newLine();
+                }
+            }
+        }
+        Path output = folder.getRoot().toPath().resolve("unknown-agreements.csv");
+        Path rejects = folder.getRoot().toPath().resolve("unknown-rejects.csv");
+
+        QuotePipeline.Summary summary = countingPipeline.run(input, output, rejects);
+        assertEquals(0, summary.getPriced());
+        assertEquals(2 * codes, summary.getRejected());
+        assertEquals(2 * codes, lookups.get());
+        assertTrue(Files.readAllLines(rejects, StandardCharsets.UTF_8).stream().skip(1)
+                .allMatch(line -> line.contains(",UNKNOWN_TOOL,")));
+    }
+
+    private static int lineNumber(String line) {
+        return Integer.parseInt(line.substring(0, line.indexOf(',')));
+    }
+
+    private static String expected(int lineNumber, RentalAgreement agreement) {
+        return lineNumber + "," + agreement.getToolCode() + "," + agreement.getToolType().name() + ","
+                + agreement.getBrand() + "," + agreement.getRentalDays() + "," + agreement.getCheckoutDate() + ","
+                + agreement.getDueDate() + "," + agreement.getDailyCharge().toPlainString() + ","
+                + agreement.getChargeableDays() + "," + agreement.getTotalDueBeforeDiscount().toPlainString() + ","
+                + agreement.getDiscountAsPercent() + "," + agreement.getTotalDiscountAmount().toPlainString() + ","
+                + agreement.getTotalDueAfterDiscount().toPlainString();
+    }
+}
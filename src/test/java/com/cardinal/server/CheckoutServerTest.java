@@ -0,0 +1,235 @@
+package com.cardinal.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.cardinal.Cashier;
+import com.cardinal.codec.Json;
+
+import static org.junit.Assert.*;
+
+public class CheckoutServerTest {
+
+    // Friday 2015-09-04 to Tuesday 2015-09-08, Labor Day is Monday the 7th
+    private static final String JAKR = "{\"toolCode\":\"JAKR\",\"rentalDays\":5,\"discountPercent\":0,"
+            + "\"checkoutDate\":\"2015-09-03\"}";
+
+    private CheckoutServer server;
+    private Socket socket;
+
+    @Before
+    public void setUp() throws IOException {
+        server = CheckoutServer.start(new Cashier(), 0);
+        connect();
+    }
+
+    private void connect() throws IOException {
+        InetSocketAddress address = server.getAddress();
+        socket = new Socket(address.getAddress(), address.getPort());
+        socket.setSoTimeout(10_000);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        socket.close();
+        server.close();
+    }
+
+    @Test
+    public void checkout() throws IOException {
+        send(post("/checkout", JAKR));
+        Response response = read();
+
+        assertEquals(200, response.status);
+        Map<?, ?> agreement = (Map<?, ?>) Json.parse(response.body);
+        assertEquals("JACKHAMMER", agreement.get("toolType"));
+        assertEquals("2015-09-08", agreement.get("dueDate"));
+        assertEquals("2", agreement.get("chargeableDays").toString());
+        assertEquals("5.98", agreement.get("finalCharge").toString());
+    }
+
+    @Test
+    public void rejectedCheckout() throws IOException {
+        send(post("/checkout", JAKR.replace("JAKR", "NOPE")));
+        Response response = read();
+
+        assertEquals(422, response.status);
+        Map<?, ?> error = (Map<?, ?>) Json.parse(response.body);
+        assertEquals("UNKNOWN_TOOL", error.get("error"));
+        assertTrue(error.get("message").toString().contains("NOPE"));
+    }
+
+    @Test
+    public void batch() throws IOException {
+        send(post("/checkout/batch", "[" + JAKR + "," + JAKR.replace("\"discountPercent\":0", "\"discountPercent\":101")
+                + "," + JAKR.replace("JAKR", "LADW") + "]"));
+        Response response = read();
+
+        assertEquals(200, response.status);
+        List<?> results = (List<?>) Json.parse(response.body);
+        assertEquals(3, results.size());
+        assertEquals("JACKHAMMER", ((Map<?, ?>) results.get(0)).get("toolType"));
+        assertEquals("INVALID_DISCOUNT", ((Map<?, ?>) results.get(1)).get("error"));
+        assertEquals("LADDER", ((Map<?, ?>) results.get(2)).get("toolType"));
+    }
+
+    @Test
+    public void badRequests_keepTheConnection() throws IOException {
+        send(post("/checkout", "{\"toolCode\":"));
+        assertEquals(400, read().status);
+        send(post("/checkout", "{\"toolCode\":\"JAKR\",\"rentalDays\":\"five\"}"));
+        assertEquals(400, read().status);
+        send(post("/checkout/batch", JAKR));
+        assertEquals(400, read().status);
+        send(post("/nothing", JAKR));
+        assertEquals(404, read().status);
+        send("GET /checkout HTTP/1.1\r\nHost: localhost\r\n\r\n");
+        assertEquals(405, read().status);
+
+        send(post("/checkout", JAKR));
+        assertEquals(200, read().status);
+    }
+
+    @Test
+    public void pipelinedResponsesComeBackInOrder() throws IOException {
+        StringBuilder requests = new StringBuilder();
+        for (int days = 1; days <= 3 * CheckoutServer.MAX_PIPELINED; days++) {
+            requests.append(post("/checkout", JAKR.replace("\"rentalDays\":5", "\"rentalDays\":" + days)));
+        }
+        send(requests.toString());
+
+        for (int days = 1; days <= 3 * CheckoutServer.MAX_PIPELINED; days++) {
+            Response response = read();
+            assertEquals(200, response.status);
+            assertEquals(String.valueOf(days), ((Map<?, ?>) Json.parse(response.body)).get("rentalDays").toString());
+        }
+    }
+
+    @Test
+    public void connectionClose() throws IOException {
+        send(post("/checkout", JAKR).replace("Host: localhost\r\n", "Host: localhost\r\nConnection: close\r\n")
+                + post("/checkout", JAKR));
+        Response response = read();
+
+        assertEquals(200, response.status);
+        assertEquals("close", response.connection);
+        // the second request is never answered
+        assertEquals(-1, socket.getInputStream().read());
+    }
+
+    @Test
+    public void halfClose_stillAnswered() throws IOException {
+        send(post("/checkout", JAKR));
+        socket.shutdownOutput();
+
+        assertEquals(200, read().status);
+        assertEquals(-1, socket.getInputStream().read());
+    }
+
+    @Test
+    public void requestSplitAcrossWrites() throws IOException, InterruptedException {
+        String request = post("/checkout", JAKR);
+        for (int i = 0; i < request.length(); i += 7) {
+            send(request.substring(i, Math.min(request.length(), i + 7)));
+            Thread.sleep(1);
+        }
+        assertEquals(200, read().status);
+    }
+
+    @Test
+    public void callersExecutor() throws IOException {
+        socket.close();
+        server.close();
+        AtomicInteger submitted = new AtomicInteger();
+        server = CheckoutServer.start(new Cashier(), new InetSocketAddress(server.getAddress().getAddress(), 0),
+                task -> {
+                    if (submitted.incrementAndGet() > 1) {
+                        throw new RejectedExecutionException("full");
+                    }
+                    new Thread(task).start();
+                });
+        connect();
+
+        send(post("/checkout", JAKR));
+        assertEquals(200, read().status);
+        send(post("/checkout", JAKR));
+        Response busy = read();
+        assertEquals(503, busy.status);
+        assertFalse(busy.body.contains("full"));
+        assertEquals(2, submitted.get());
+    }
+
+    @Test
+    public void malformedRequestLine_closes() throws IOException {
+        send("NONSENSE\r\n\r\n");
+        Response response = read();
+
+        assertEquals(400, response.status);
+        assertEquals(-1, socket.getInputStream().read());
+    }
+
+    private static String post(String path, String json) {
+        return "POST " + path + " HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+                + "Content-Length: " + json.getBytes(StandardCharsets.UTF_8).length + "\r\n\r\n" + json;
+    }
+
+    private void send(String text) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private Response read() throws IOException {
+        InputStream in = socket.getInputStream();
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        while (!head.toString("ISO-8859-1").endsWith("\r\n\r\n")) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Connection closed mid response");
+            }
+            head.write(b);
+        }
+
+        Response response = new Response();
+        String[] lines = head.toString("ISO-8859-1").split("\r\n");
+        response.status = Integer.parseInt(lines[0].split(" ")[1]);
+        int length = 0;
+        for (String line : lines) {
+            String lower = line.toLowerCase();
+            if (lower.startsWith("content-length:")) {
+                length = Integer.parseInt(line.substring(15).trim());
+            } else if (lower.startsWith("connection:")) {
+                response.connection = line.substring(11).trim();
+            }
+        }
+        byte[] body = new byte[length];
+        for (int read = 0; read < length; ) {
+            int n = in.read(body, read, length - read);
+            if (n < 0) {
+                throw new IOException("Connection closed mid body");
+            }
+            read += n;
+        }
+        response.body = new String(body, StandardCharsets.UTF_8);
+        return response;
+    }
+
+    private static final class Response {
+        private int status;
+        private String connection;
+        private String body;
+    }
+}